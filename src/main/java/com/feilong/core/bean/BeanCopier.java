@@ -0,0 +1,675 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.collections4.Factory;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+
+/**
+ * 预先编译好的 bean 复制计划,按照 (fromClass, toClass, 是否类型转换, includePropertyNames, excludePropertyNames) 缓存.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>第一次使用的时候,计算出 <code>fromClass</code> 可读并且 <code>toClass</code> 可写的属性,以及每个属性的复制方式,以后每次复制只执行编译好的步骤,不再需要内省以及解析属性名称</li>
+ * <li>不进行类型转换的时候,规则和 {@link org.apache.commons.beanutils.PropertyUtils#copyProperties(Object, Object)} 一致;
+ * 进行类型转换的时候,规则和 {@link BeanUtils#copyProperties(Object, Object)} 一致(每次复制时查找当前注册的 {@link Converter},因此后注册的 {@link Converter}
+ * 依然生效)</li>
+ * <li>指定了 <code>includePropertyNames</code> 的时候,只复制这些属性(can be nested/indexed/mapped/combo),
+ * 否则复制 <code>fromClass</code> 所有可读的属性(<code>class</code> 属性除外)</li>
+ * <li><code>excludePropertyNames</code> 中的属性不会被复制</li>
+ * <li>只支持普通 bean,不支持 {@link java.util.Map} 以及 {@link DynaBean}</li>
+ * <li>线程安全,可以保存成常量重复使用</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * private static final BeanCopier USER_COPIER = BeanCopier.getInstance(UserForm.class, User.class, false, null, toArray("password"));
+ *
+ * List{@code <User>} userList = USER_COPIER.copyAll(userFormList, new Factory{@code <User>}(){
+ *
+ *     public User create(){
+ *         return new User();
+ *     }
+ * });
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PropertyUtil#copyProperties(Object, Object, String...)
+ * @see BeanUtil#copyPropertiesExclude(Object, Object, String...)
+ * @since 1.9.2
+ */
+public final class BeanCopier{
+
+    /** 每个类上最多缓存的复制计划数量,超过之后不再缓存,避免动态拼接的属性名称撑爆内存. */
+    private static final int                                                MAX_CACHE_SIZE     = 256;
+
+    /**
+     * 复制计划缓存,挂在 fromClass 和 toClass 中生命周期较短的那个类上(参见 {@link #resolveCacheOwner(Class, Class)}),随它一起回收.
+     */
+    private static final ClassValue<ConcurrentMap<CopierKey, BeanCopier>> BEAN_COPIER_CACHE = new ClassValue<ConcurrentMap<CopierKey, BeanCopier>>(){
+
+        @Override
+        protected ConcurrentMap<CopierKey, BeanCopier> computeValue(Class<?> type){
+            return new ConcurrentHashMap<CopierKey, BeanCopier>();
+        }
+    };
+
+    /** 原始类型. */
+    private final Class<?>                                                  fromClass;
+
+    /** 目标类型. */
+    private final Class<?>                                                  toClass;
+
+    /** 编译好的复制步骤. */
+    private final CopyStep[]                                                copySteps;
+
+    /**
+     * Instantiates a new bean copier.
+     *
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @param copySteps
+     *            the copy steps
+     */
+    private BeanCopier(Class<?> fromClass, Class<?> toClass, CopyStep[] copySteps){
+        this.fromClass = fromClass;
+        this.toClass = toClass;
+        this.copySteps = copySteps;
+    }
+
+    /**
+     * 获得 <code>fromClass</code> 到 <code>toClass</code> 的复制计划.
+     *
+     * <p>
+     * 相同的参数会返回同一个(缓存的)实例.
+     * </p>
+     *
+     * @param fromClass
+     *            原始类型
+     * @param toClass
+     *            目标类型
+     * @param useConvert
+     *            是否进行类型转换,true 的规则参见 {@link BeanUtils#copyProperties(Object, Object)},false 的规则参见
+     *            {@link org.apache.commons.beanutils.PropertyUtils#copyProperties(Object, Object)}
+     * @param includePropertyNames
+     *            包含的属性名字数组,(can be nested/indexed/mapped/combo),如果是null或者empty,那么复制 <code>fromClass</code> 所有可读的属性
+     * @param excludePropertyNames
+     *            排除的属性名字数组,可以是null或者empty
+     * @return 如果 <code>fromClass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>toClass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>fromClass</code> 或者 <code>toClass</code> 是 {@link java.util.Map} 或者 {@link DynaBean},抛出 {@link IllegalArgumentException}
+     */
+    public static BeanCopier getInstance(
+                    Class<?> fromClass,
+                    Class<?> toClass,
+                    boolean useConvert,
+                    String[] includePropertyNames,
+                    String[] excludePropertyNames){
+        Validate.notNull(fromClass, "fromClass can't be null!");
+        Validate.notNull(toClass, "toClass can't be null!");
+
+        Class<?> cacheOwner = resolveCacheOwner(fromClass, toClass);
+        ConcurrentMap<CopierKey, BeanCopier> beanCopierMap = null == cacheOwner ? null : BEAN_COPIER_CACHE.get(cacheOwner);
+
+        CopierKey copierKey = new CopierKey(fromClass, toClass, useConvert, includePropertyNames, excludePropertyNames);
+        BeanCopier beanCopier = null == beanCopierMap ? null : beanCopierMap.get(copierKey);
+        if (null != beanCopier){
+            return beanCopier;
+        }
+
+        Validate.isTrue(isSupportClass(fromClass), "fromClass:[%s] is Map or DynaBean,not support!", fromClass);
+        Validate.isTrue(isSupportClass(toClass), "toClass:[%s] is Map or DynaBean,not support!", toClass);
+
+        beanCopier = new BeanCopier(fromClass, toClass, buildCopySteps(fromClass, toClass, useConvert, copierKey));
+        if (null != beanCopierMap && beanCopierMap.size() < MAX_CACHE_SIZE){
+            //key 中的属性名称需要拷贝一份,不能引用调用方的数组
+            BeanCopier existBeanCopier = beanCopierMap.putIfAbsent(copierKey.copy(), beanCopier);
+            return null == existBeanCopier ? beanCopier : existBeanCopier;
+        }
+        return beanCopier;
+    }
+
+    /**
+     * 决定复制计划缓存挂在哪个类上.
+     * 
+     * <p>
+     * 复制计划同时强引用 <code>fromClass</code> 和 <code>toClass</code>.子 ClassLoader 本来就强引用父 ClassLoader,所以缓存挂在 ClassLoader 层级更深的那个类上,
+     * 不会延长另外一个类的生命周期;反过来挂在父 ClassLoader 的类上,会导致子 ClassLoader(比如 web 应用)永远无法回收.
+     * </p>
+     *
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @return 如果两个类的 ClassLoader 没有父子关系(比如两个 web 应用各自的类),返回null,表示不缓存
+     */
+    private static Class<?> resolveCacheOwner(Class<?> fromClass,Class<?> toClass){
+        ClassLoader fromClassLoader = fromClass.getClassLoader();
+        ClassLoader toClassLoader = toClass.getClassLoader();
+        if (isAncestor(fromClassLoader, toClassLoader)){
+            return toClass;
+        }
+        return isAncestor(toClassLoader, fromClassLoader) ? fromClass : null;
+    }
+
+    /**
+     * 判断 <code>ancestor</code> 是不是 <code>classLoader</code> 自己或者它的祖先.
+     *
+     * @param ancestor
+     *            the ancestor,null 表示 bootstrap ClassLoader
+     * @param classLoader
+     *            the class loader,null 表示 bootstrap ClassLoader
+     * @return 如果 <code>ancestor</code> 是 <code>classLoader</code> 自己或者它的祖先,返回true
+     */
+    private static boolean isAncestor(ClassLoader ancestor,ClassLoader classLoader){
+        if (null == ancestor){
+            return true;
+        }
+        for (ClassLoader loader = classLoader; null != loader; loader = loader.getParent()){
+            if (loader == ancestor){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 将 <code>fromObj</code> 的属性值按照复制计划复制到 <code>toObj</code> 中.
+     *
+     * @param toObj
+     *            目标对象,必须是 <code>toClass</code> 的实例
+     * @param fromObj
+     *            原始对象,必须是 <code>fromClass</code> 的实例
+     * @throws NullPointerException
+     *             如果 <code>toObj</code> 是null,或者 <code>fromObj</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>toObj</code> 不是 <code>toClass</code> 的实例,或者 <code>fromObj</code> 不是 <code>fromClass</code> 的实例
+     * @throws BeanOperationException
+     *             如果在copy的过程中,有任何异常
+     */
+    public void copy(Object toObj,Object fromObj){
+        Validate.notNull(toObj, "toObj [destination bean] not specified!");
+        Validate.notNull(fromObj, "fromObj [origin bean] not specified!");
+        Validate.isInstanceOf(toClass, toObj);
+        Validate.isInstanceOf(fromClass, fromObj);
+
+        for (CopyStep copyStep : copySteps){
+            copyStep.copy(toObj, fromObj);
+        }
+    }
+
+    /**
+     * 循环 <code>fromList</code>,每个元素使用 <code>toFactory</code> 创建一个目标对象,并按照复制计划复制属性.
+     *
+     * @param <S>
+     *            原始对象类型
+     * @param <T>
+     *            目标对象类型
+     * @param fromList
+     *            原始对象集合,元素不能是null
+     * @param toFactory
+     *            目标对象的创建工厂
+     * @return 如果 <code>fromList</code> 是null或者empty,返回 {@link java.util.Collections#emptyList()}<br>
+     *         如果 <code>toFactory</code> 是null,抛出 {@link NullPointerException}<br>
+     *         否则返回和 <code>fromList</code> 顺序一致的新list
+     */
+    public <S, T> List<T> copyAll(List<S> fromList,Factory<T> toFactory){
+        if (isNullOrEmpty(fromList)){
+            return emptyList();
+        }
+        Validate.notNull(toFactory, "toFactory can't be null!");
+
+        List<T> list = new ArrayList<T>(fromList.size());
+        for (S fromObj : fromList){
+            T toObj = toFactory.create();
+            copy(toObj, fromObj);
+            list.add(toObj);
+        }
+        return list;
+    }
+
+    /**
+     * 获得 原始类型.
+     *
+     * @return the fromClass
+     */
+    public Class<?> getFromClass(){
+        return fromClass;
+    }
+
+    /**
+     * 获得 目标类型.
+     *
+     * @return the toClass
+     */
+    public Class<?> getToClass(){
+        return toClass;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 判断是否是支持的类型(不是 {@link java.util.Map} 也不是 {@link DynaBean}).
+     *
+     * @param klass
+     *            the klass
+     * @return true, if is support class
+     */
+    private static boolean isSupportClass(Class<?> klass){
+        return !Map.class.isAssignableFrom(klass) && !DynaBean.class.isAssignableFrom(klass);
+    }
+
+    /**
+     * 构建复制步骤.
+     *
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @param useConvert
+     *            the use convert
+     * @param copierKey
+     *            the copier key
+     * @return the copy step[]
+     */
+    private static CopyStep[] buildCopySteps(Class<?> fromClass,Class<?> toClass,boolean useConvert,CopierKey copierKey){
+        List<CopyStep> copyStepList = new ArrayList<CopyStep>();
+
+        if (isNullOrEmpty(copierKey.includePropertyNames)){
+            for (PropertyAccessor fromAccessor : PropertyAccessorRegistry.getPropertyAccessors(fromClass)){
+                String propertyName = fromAccessor.getPropertyName();
+                if ("class".equals(propertyName) || copierKey.excludePropertyNames.contains(propertyName) || !fromAccessor.isReadable()){
+                    continue;
+                }
+                PropertyAccessor toAccessor = PropertyAccessorRegistry.getPropertyAccessor(toClass, propertyName);
+                if (null != toAccessor && toAccessor.isWritable()){
+                    copyStepList.add(buildAccessorCopyStep(fromAccessor, toAccessor, useConvert));
+                }
+            }
+        }else{
+            for (String propertyName : copierKey.includePropertyNames){
+                if (copierKey.excludePropertyNames.contains(propertyName)){
+                    continue;
+                }
+                copyStepList.add(buildIncludeCopyStep(fromClass, toClass, propertyName, useConvert));
+            }
+        }
+        return copyStepList.toArray(new CopyStep[copyStepList.size()]);
+    }
+
+    /**
+     * 构建指定属性的复制步骤.
+     *
+     * <p>
+     * 简单属性并且两边都可以直接读写的,使用 {@link PropertyAccessor};其他情况(nested/indexed/mapped,或者某一边没有这个属性)使用 {@link PropertyPath},
+     * 保证异常和原来的逐个属性 get/set 一致.
+     * </p>
+     *
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @param propertyName
+     *            the property name
+     * @param useConvert
+     *            the use convert
+     * @return the copy step
+     */
+    private static CopyStep buildIncludeCopyStep(Class<?> fromClass,Class<?> toClass,String propertyName,boolean useConvert){
+        if (PropertyAccessorRegistry.isSimplePropertyName(propertyName)){
+            PropertyAccessor fromAccessor = PropertyAccessorRegistry.getPropertyAccessor(fromClass, propertyName);
+            PropertyAccessor toAccessor = PropertyAccessorRegistry.getPropertyAccessor(toClass, propertyName);
+            if (null != fromAccessor && fromAccessor.isReadable() && null != toAccessor && toAccessor.isWritable()){
+                return buildAccessorCopyStep(fromAccessor, toAccessor, useConvert);
+            }
+        }
+        PropertyPath propertyPath = PropertyPath.compile(propertyName);
+        return useConvert ? new ConvertPropertyPathCopyStep(propertyPath) : new PropertyPathCopyStep(propertyPath);
+    }
+
+    /**
+     * 构建两边都是简单属性的复制步骤.
+     *
+     * @param fromAccessor
+     *            the from accessor
+     * @param toAccessor
+     *            the to accessor
+     * @param useConvert
+     *            the use convert
+     * @return the copy step
+     */
+    private static CopyStep buildAccessorCopyStep(PropertyAccessor fromAccessor,PropertyAccessor toAccessor,boolean useConvert){
+        return useConvert ? new ConvertAccessorCopyStep(fromAccessor, toAccessor) : new AccessorCopyStep(fromAccessor, toAccessor);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 复制计划中的一个步骤.
+     */
+    private interface CopyStep{
+
+        /**
+         * 复制.
+         *
+         * @param toObj
+         *            the to obj
+         * @param fromObj
+         *            the from obj
+         */
+        void copy(Object toObj,Object fromObj);
+    }
+
+    /**
+     * 两边都是简单属性,不进行类型转换.
+     */
+    private static class AccessorCopyStep implements CopyStep{
+
+        /** The from accessor. */
+        protected final PropertyAccessor fromAccessor;
+
+        /** The to accessor. */
+        protected final PropertyAccessor toAccessor;
+
+        /**
+         * Instantiates a new accessor copy step.
+         *
+         * @param fromAccessor
+         *            the from accessor
+         * @param toAccessor
+         *            the to accessor
+         */
+        AccessorCopyStep(PropertyAccessor fromAccessor, PropertyAccessor toAccessor){
+            this.fromAccessor = fromAccessor;
+            this.toAccessor = toAccessor;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.BeanCopier.CopyStep#copy(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public void copy(Object toObj,Object fromObj){
+            toAccessor.setValue(toObj, fromAccessor.getValue(fromObj));
+        }
+    }
+
+    /**
+     * 两边都是简单属性,规则和 {@link org.apache.commons.beanutils.BeanUtilsBean#copyProperty(Object, String, Object)} 一致,值不是null的时候使用目标属性类型的
+     * {@link Converter} 转换.
+     */
+    private static final class ConvertAccessorCopyStep extends AccessorCopyStep{
+
+        /** 目标属性类型. */
+        private final Class<?> targetType;
+
+        /**
+         * Instantiates a new convert accessor copy step.
+         *
+         * @param fromAccessor
+         *            the from accessor
+         * @param toAccessor
+         *            the to accessor
+         */
+        ConvertAccessorCopyStep(PropertyAccessor fromAccessor, PropertyAccessor toAccessor){
+            super(fromAccessor, toAccessor);
+            this.targetType = toAccessor.getPropertyType();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.BeanCopier.AccessorCopyStep#copy(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public void copy(Object toObj,Object fromObj){
+            Object value = fromAccessor.getValue(fromObj);
+            toAccessor.setValue(toObj, null == value ? null : convert(value, targetType, toAccessor.getPropertyName()));
+        }
+    }
+
+    /**
+     * 使用 {@link PropertyPath} 读写,不进行类型转换.
+     */
+    private static final class PropertyPathCopyStep implements CopyStep{
+
+        /** The property path. */
+        private final PropertyPath propertyPath;
+
+        /**
+         * Instantiates a new property path copy step.
+         *
+         * @param propertyPath
+         *            the property path
+         */
+        PropertyPathCopyStep(PropertyPath propertyPath){
+            this.propertyPath = propertyPath;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.BeanCopier.CopyStep#copy(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public void copy(Object toObj,Object fromObj){
+            propertyPath.setValue(toObj, propertyPath.getValue(fromObj));
+        }
+    }
+
+    /**
+     * 使用 {@link PropertyPath} 读取,再调用 {@link BeanUtils#copyProperty(Object, String, Object)} 转换并设置.
+     */
+    private static final class ConvertPropertyPathCopyStep implements CopyStep{
+
+        /** The property path. */
+        private final PropertyPath propertyPath;
+
+        /**
+         * Instantiates a new convert property path copy step.
+         *
+         * @param propertyPath
+         *            the property path
+         */
+        ConvertPropertyPathCopyStep(PropertyPath propertyPath){
+            this.propertyPath = propertyPath;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.BeanCopier.CopyStep#copy(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public void copy(Object toObj,Object fromObj){
+            Object value = propertyPath.getValue(fromObj);
+            try{
+                BeanUtils.copyProperty(toObj, propertyPath.getExpression(), value);
+            }catch (Exception e){
+                throw new BeanOperationException(e);
+            }
+        }
+    }
+
+    /**
+     * 使用当前注册的 {@link Converter} 将 <code>value</code> 转换成 <code>targetType</code> 类型.
+     *
+     * @param value
+     *            the value
+     * @param targetType
+     *            the target type
+     * @param propertyName
+     *            the property name
+     * @return 如果 <code>targetType</code> 没有注册 {@link Converter},直接返回 <code>value</code>
+     */
+    private static Object convert(Object value,Class<?> targetType,String propertyName){
+        Converter converter = ConvertUtils.lookup(targetType);
+        if (null == converter){
+            return value;
+        }
+        try{
+            return converter.convert(targetType, value);
+        }catch (RuntimeException e){
+            throw new BeanOperationException(
+                            Slf4jUtil.format("convert property:[{}] value:[{}] to [{}] error", propertyName, value, targetType.getName()),
+                            e);
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 复制计划缓存的 key.
+     */
+    private static final class CopierKey{
+
+        /** The from class. */
+        private final Class<?>     fromClass;
+
+        /** The to class. */
+        private final Class<?>     toClass;
+
+        /** The use convert. */
+        private final boolean      useConvert;
+
+        /** The include property names. */
+        private final List<String> includePropertyNames;
+
+        /** The exclude property names. */
+        private final Set<String>  excludePropertyNames;
+
+        /**
+         * Instantiates a new copier key.
+         *
+         * @param fromClass
+         *            the from class
+         * @param toClass
+         *            the to class
+         * @param useConvert
+         *            the use convert
+         * @param includePropertyNames
+         *            the include property names
+         * @param excludePropertyNames
+         *            the exclude property names
+         */
+        CopierKey(Class<?> fromClass, Class<?> toClass, boolean useConvert, String[] includePropertyNames, String[] excludePropertyNames){
+            this(
+                            fromClass,
+                            toClass,
+                            useConvert,
+                            isNullOrEmpty(includePropertyNames) ? Collections.<String> emptyList() : Arrays.asList(includePropertyNames),
+                            isNullOrEmpty(excludePropertyNames) ? Collections.<String> emptySet()
+                                            : new HashSet<String>(Arrays.asList(excludePropertyNames)));
+        }
+
+        /**
+         * Instantiates a new copier key.
+         *
+         * @param fromClass
+         *            the from class
+         * @param toClass
+         *            the to class
+         * @param useConvert
+         *            the use convert
+         * @param includePropertyNames
+         *            the include property names
+         * @param excludePropertyNames
+         *            the exclude property names
+         */
+        private CopierKey(Class<?> fromClass, Class<?> toClass, boolean useConvert, List<String> includePropertyNames,
+                        Set<String> excludePropertyNames){
+            this.fromClass = fromClass;
+            this.toClass = toClass;
+            this.useConvert = useConvert;
+            this.includePropertyNames = includePropertyNames;
+            this.excludePropertyNames = excludePropertyNames;
+        }
+
+        /**
+         * 拷贝一份,不再引用调用方的数组.
+         *
+         * @return the copier key
+         */
+        CopierKey copy(){
+            return new CopierKey(fromClass, toClass, useConvert, new ArrayList<String>(includePropertyNames), excludePropertyNames);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode(){
+            int result = fromClass.hashCode();
+            result = 31 * result + toClass.hashCode();
+            result = 31 * result + (useConvert ? 1 : 0);
+            result = 31 * result + includePropertyNames.hashCode();
+            return 31 * result + excludePropertyNames.hashCode();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj){
+            if (this == obj){
+                return true;
+            }
+            if (!(obj instanceof CopierKey)){
+                return false;
+            }
+            CopierKey other = (CopierKey) obj;
+            return fromClass == other.fromClass && toClass == other.toClass && useConvert == other.useConvert
+                            && includePropertyNames.equals(other.includePropertyNames)
+                            && excludePropertyNames.equals(other.excludePropertyNames);
+        }
+    }
+}
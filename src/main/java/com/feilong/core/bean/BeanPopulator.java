@@ -0,0 +1,566 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static java.util.Collections.emptyList;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.reflect.ConstructorUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+import com.feilong.core.lang.ForkJoinUtil;
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+
+/**
+ * 预先编译好的 map 到 bean 的填充计划,按照 (beanClass, map 的 key 集合) 缓存,或者按照 beanClass 缓存 {@link Alias} 计划.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>第一次使用的时候,解析每个 key 对应的属性以及属性类型(alias 计划还会解析 {@link Alias} 注解),以后每一行只执行编译好的步骤</li>
+ * <li>普通计划的规则和 {@link BeanUtils#populate(Object, Map)} 一致:key 是null的忽略,bean 中不存在或者不可写的属性忽略,值按照
+ * {@link org.apache.commons.beanutils.BeanUtilsBean#setProperty(Object, String, Object)} 的规则转换</li>
+ * <li>alias 计划的规则和 {@link BeanUtil#populateAliasBean(Object, Map)} 一致:值是null或者empty的时候不设置</li>
+ * <li>简单属性(非数组类型)直接使用 {@link PropertyAccessor} 设置;nested/indexed/mapped 属性,数组类型属性,以及 {@link Map}/{@link DynaBean} 类型的 bean 依然交给
+ * {@link BeanUtils#setProperty(Object, String, Object)}</li>
+ * <li>{@link Converter} 在每次 {@link #populate(Object, Map)} 或者每一批 {@link #populateAll(List, Class, boolean)} 开始的时候查找一次,因此后注册的
+ * {@link Converter} 依然生效</li>
+ * <li>线程安全</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see BeanUtil#populateAll(List, Class)
+ * @see BeanUtil#populateAliasBean(Object, Map)
+ * @since 1.9.2
+ */
+public final class BeanPopulator{
+
+    /** 每个 beanClass 最多缓存的填充计划数量,超过之后不再缓存. */
+    private static final int                                                   MAX_CACHE_SIZE     = 256;
+
+    /** 并行填充的时候,每个子任务最少处理的行数. */
+    private static final int                                                   PARALLEL_THRESHOLD = 1024;
+
+    /** 按照 beanClass 缓存的普通填充计划,key 是 map 的 key 列表. */
+    private static final ClassValue<ConcurrentMap<List<String>, BeanPopulator>> POPULATOR_CACHE = new ClassValue<ConcurrentMap<List<String>, BeanPopulator>>(){
+
+        @Override
+        protected ConcurrentMap<List<String>, BeanPopulator> computeValue(Class<?> type){
+            return new ConcurrentHashMap<List<String>, BeanPopulator>();
+        }
+    };
+
+    /** 按照 beanClass 缓存的 alias 填充计划. */
+    private static final ClassValue<BeanPopulator>                              ALIAS_POPULATOR_CACHE = new ClassValue<BeanPopulator>(){
+
+        @Override
+        protected BeanPopulator computeValue(Class<?> type){
+            return buildAliasPopulator(type);
+        }
+    };
+
+    /** The bean class. */
+    private final Class<?>                                                     beanClass;
+
+    /** 编译计划时使用的 key,用来判断某一行是否可以使用这个计划;alias 计划是null. */
+    private final List<String>                                                 keys;
+
+    /** 编译好的列. */
+    private final Column[]                                                     columns;
+
+    /** 是否跳过null或者empty的值(alias 计划). */
+    private final boolean                                                      skipEmptyValue;
+
+    /**
+     * Instantiates a new bean populator.
+     *
+     * @param beanClass
+     *            the bean class
+     * @param keys
+     *            the keys
+     * @param columns
+     *            the columns
+     * @param skipEmptyValue
+     *            the skip empty value
+     */
+    private BeanPopulator(Class<?> beanClass, List<String> keys, Column[] columns, boolean skipEmptyValue){
+        this.beanClass = beanClass;
+        this.keys = keys;
+        this.columns = columns;
+        this.skipEmptyValue = skipEmptyValue;
+    }
+
+    /**
+     * 获得 <code>beanClass</code> 按照 <code>keys</code> 填充的计划.
+     *
+     * @param beanClass
+     *            bean 类型
+     * @param keys
+     *            map 的 key 集合(顺序即为填充的顺序)
+     * @return 如果 <code>beanClass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>keys</code> 是null,抛出 {@link NullPointerException}
+     */
+    public static BeanPopulator getInstance(Class<?> beanClass,Collection<String> keys){
+        Validate.notNull(beanClass, "beanClass can't be null!");
+        Validate.notNull(keys, "keys can't be null!");
+
+        ConcurrentMap<List<String>, BeanPopulator> populatorMap = POPULATOR_CACHE.get(beanClass);
+
+        List<String> keyList = new ArrayList<String>(keys);
+        BeanPopulator beanPopulator = populatorMap.get(keyList);
+        if (null != beanPopulator){
+            return beanPopulator;
+        }
+
+        beanPopulator = new BeanPopulator(beanClass, keyList, buildColumns(beanClass, keyList), false);
+        if (populatorMap.size() < MAX_CACHE_SIZE){
+            BeanPopulator existBeanPopulator = populatorMap.putIfAbsent(keyList, beanPopulator);
+            return null == existBeanPopulator ? beanPopulator : existBeanPopulator;
+        }
+        return beanPopulator;
+    }
+
+    /**
+     * 获得 <code>beanClass</code> 按照 {@link Alias} 注解填充的计划.
+     *
+     * @param beanClass
+     *            bean 类型
+     * @return 如果 <code>beanClass</code> 是null,抛出 {@link NullPointerException}
+     */
+    public static BeanPopulator getAliasInstance(Class<?> beanClass){
+        Validate.notNull(beanClass, "beanClass can't be null!");
+        return ALIAS_POPULATOR_CACHE.get(beanClass);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 将 <code>map</code> 的值按照填充计划设置到 <code>bean</code> 中.
+     *
+     * <p>
+     * 普通计划只处理编译计划时的 key,<code>map</code> 中其他的 key 会被忽略.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param bean
+     *            bean,必须是 <code>beanClass</code> 的实例
+     * @param map
+     *            the map
+     * @return <code>bean</code>
+     * @throws NullPointerException
+     *             如果 <code>bean</code> 是null,或者 <code>map</code> 是null
+     * @throws BeanOperationException
+     *             如果在填充的过程中,有任何异常
+     */
+    public <T> T populate(T bean,Map<String, ?> map){
+        Validate.notNull(bean, "bean can't be null!");
+        Validate.notNull(map, "map can't be null!");
+        Validate.isInstanceOf(beanClass, bean);
+
+        populate(bean, map, resolveConverters());
+        return bean;
+    }
+
+    /**
+     * 循环 <code>mapList</code>,每一行使用 <code>klass</code> 的无参构造函数创建 bean 并填充.
+     *
+     * <p>
+     * 每一行按照它的 key 集合使用对应的填充计划,连续相同 key 集合的行会复用同一个计划;<code>parallel</code> 是true 并且行数比较多的时候,拆分到
+     * {@link ForkJoinUtil#getForkJoinPool()} 中并行填充(要求注册的 {@link Converter} 线程安全).
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param mapList
+     *            the map list,元素不能是null
+     * @param klass
+     *            bean 类型,必须有 public 的无参构造函数
+     * @param parallel
+     *            是否并行
+     * @return 如果 <code>mapList</code> 是null或者empty,返回 {@link java.util.Collections#emptyList()}<br>
+     *         如果 <code>klass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>klass</code> 没有 public 的无参构造函数,抛出 {@link IllegalArgumentException}<br>
+     *         否则返回和 <code>mapList</code> 顺序一致的新list
+     */
+    static <T> List<T> populateAll(List<? extends Map<String, ?>> mapList,Class<T> klass,boolean parallel){
+        if (isNullOrEmpty(mapList)){
+            return emptyList();
+        }
+        Validate.notNull(klass, "klass can't be null!");
+
+        Constructor<T> constructor = ConstructorUtils.getAccessibleConstructor(klass);
+        Validate.isTrue(null != constructor, "klass:[%s] must has public no-arg constructor!", klass.getName());
+
+        Object[] beans = new Object[mapList.size()];
+        boolean isParallel = parallel && beans.length > PARALLEL_THRESHOLD;
+        PopulateAction<T> populateAction = new PopulateAction<T>(mapList, constructor, beans, 0, beans.length, isParallel);
+        if (isParallel){
+            ForkJoinUtil.invoke(populateAction);
+        }else{
+            populateAction.compute();
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> list = (List<T>) Arrays.asList(beans);
+        return new ArrayList<T>(list);
+    }
+
+    /**
+     * 获得 bean 类型.
+     *
+     * @return the beanClass
+     */
+    public Class<?> getBeanClass(){
+        return beanClass;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 判断 <code>map</code> 是否可以使用这个计划(key 集合完全一致).
+     *
+     * @param map
+     *            the map
+     * @return true, if is applicable
+     */
+    private boolean isApplicable(Map<String, ?> map){
+        if (null == keys){
+            return true;
+        }
+        if (map.size() != keys.size()){
+            return false;
+        }
+        for (String key : keys){
+            if (!map.containsKey(key)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 查找每一列当前注册的 {@link Converter}.
+     *
+     * @return 和 {@link #columns} 一一对应,最后一个元素是 {@link String} 的 {@link Converter}
+     */
+    private Converter[] resolveConverters(){
+        Converter[] converters = new Converter[columns.length + 1];
+        for (int i = 0; i < columns.length; ++i){
+            converters[i] = columns[i].lookupConverter();
+        }
+        converters[columns.length] = ConvertUtils.lookup(String.class);
+        return converters;
+    }
+
+    /**
+     * 填充.
+     *
+     * @param bean
+     *            the bean
+     * @param map
+     *            the map
+     * @param converters
+     *            the converters
+     */
+    private void populate(Object bean,Map<String, ?> map,Converter[] converters){
+        Converter stringConverter = converters[columns.length];
+        for (int i = 0; i < columns.length; ++i){
+            Column column = columns[i];
+            Object value = map.get(column.key);
+            if (skipEmptyValue && isNullOrEmpty(value)){
+                continue;
+            }
+            column.setValue(bean, value, converters[i], stringConverter);
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 构建普通计划的列.
+     *
+     * @param beanClass
+     *            the bean class
+     * @param keyList
+     *            the key list
+     * @return the column[]
+     */
+    private static Column[] buildColumns(Class<?> beanClass,List<String> keyList){
+        List<Column> columnList = new ArrayList<Column>(keyList.size());
+        for (String key : keyList){
+            if (null == key){
+                continue;
+            }
+            Column column = buildColumn(beanClass, key, key);
+            if (null != column){
+                columnList.add(column);
+            }
+        }
+        return columnList.toArray(new Column[columnList.size()]);
+    }
+
+    /**
+     * 构建 alias 计划.
+     *
+     * @param beanClass
+     *            the bean class
+     * @return the bean populator
+     */
+    private static BeanPopulator buildAliasPopulator(Class<?> beanClass){
+        List<Field> aliasFieldsList = FieldUtils.getFieldsListWithAnnotation(beanClass, Alias.class);
+
+        List<Column> columnList = new ArrayList<Column>(aliasFieldsList.size());
+        for (Field field : aliasFieldsList){
+            Column column = buildColumn(beanClass, field.getAnnotation(Alias.class).name(), field.getName());
+            if (null != column){
+                columnList.add(column);
+            }
+        }
+        return new BeanPopulator(beanClass, null, columnList.toArray(new Column[columnList.size()]), true);
+    }
+
+    /**
+     * 构建一列.
+     *
+     * @param beanClass
+     *            the bean class
+     * @param key
+     *            map 的 key
+     * @param propertyName
+     *            属性名称
+     * @return 如果属性存在但是不可写(和 {@link BeanUtils#setProperty(Object, String, Object)} 一样会忽略),返回null
+     */
+    private static Column buildColumn(Class<?> beanClass,String key,String propertyName){
+        boolean isSupportClass = !Map.class.isAssignableFrom(beanClass) && !DynaBean.class.isAssignableFrom(beanClass);
+        if (!isSupportClass || !PropertyAccessorRegistry.isSimplePropertyName(propertyName)){
+            return new Column(key, propertyName, null);
+        }
+
+        PropertyAccessor propertyAccessor = PropertyAccessorRegistry.getPropertyAccessor(beanClass, propertyName);
+        if (null == propertyAccessor){
+            //可能是 mapped 属性,交给 BeanUtils
+            return new Column(key, propertyName, null);
+        }
+        if (!propertyAccessor.isWritable()){
+            return null;
+        }
+        if (propertyAccessor.getPropertyType().isArray() || propertyAccessor.isIndexedProperty()){
+            return new Column(key, propertyName, null);
+        }
+        return new Column(key, propertyName, propertyAccessor);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 填充计划中的一列.
+     */
+    private static final class Column{
+
+        /** map 的 key. */
+        private final String           key;
+
+        /** 属性名称. */
+        private final String           propertyName;
+
+        /** 可以直接设置的简单属性;如果是null,使用 {@link BeanUtils#setProperty(Object, String, Object)}. */
+        private final PropertyAccessor propertyAccessor;
+
+        /**
+         * Instantiates a new column.
+         *
+         * @param key
+         *            the key
+         * @param propertyName
+         *            the property name
+         * @param propertyAccessor
+         *            the property accessor
+         */
+        Column(String key, String propertyName, PropertyAccessor propertyAccessor){
+            this.key = key;
+            this.propertyName = propertyName;
+            this.propertyAccessor = propertyAccessor;
+        }
+
+        /**
+         * 查找属性类型的 {@link Converter}.
+         *
+         * @return 如果使用 {@link BeanUtils#setProperty(Object, String, Object)},返回null
+         */
+        Converter lookupConverter(){
+            return null == propertyAccessor ? null : ConvertUtils.lookup(propertyAccessor.getPropertyType());
+        }
+
+        /**
+         * 转换并设置值,转换规则和 {@link org.apache.commons.beanutils.BeanUtilsBean#setProperty(Object, String, Object)} 设置标量属性一致.
+         *
+         * @param bean
+         *            the bean
+         * @param value
+         *            the value
+         * @param converter
+         *            属性类型的 {@link Converter},可能是null
+         * @param stringConverter
+         *            {@link String} 的 {@link Converter}
+         */
+        void setValue(Object bean,Object value,Converter converter,Converter stringConverter){
+            if (null == propertyAccessor){
+                try{
+                    BeanUtils.setProperty(bean, propertyName, value);
+                }catch (Exception e){
+                    throw new BeanOperationException(e);
+                }
+                return;
+            }
+
+            Class<?> type = propertyAccessor.getPropertyType();
+            Object newValue;
+            try{
+                if (value instanceof String){
+                    newValue = (null == converter ? stringConverter : converter).convert(type, value);
+                }else if (value instanceof String[]){
+                    newValue = (null == converter ? stringConverter : converter).convert(type, ((String[]) value)[0]);
+                }else{
+                    newValue = null == converter ? value : converter.convert(type, value);
+                }
+            }catch (RuntimeException e){
+                throw new BeanOperationException(
+                                Slf4jUtil.format("convert property:[{}] value:[{}] to [{}] error", propertyName, value, type.getName()),
+                                e);
+            }
+            propertyAccessor.setValue(bean, newValue);
+        }
+    }
+
+    /**
+     * 按照下标区间拆分的填充任务.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private static final class PopulateAction<T> extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long                 serialVersionUID = 1L;
+
+        /** The map list. */
+        private final List<? extends Map<String, ?>> mapList;
+
+        /** The constructor. */
+        private final Constructor<T>              constructor;
+
+        /** 结果. */
+        private final Object[]                    beans;
+
+        /** 开始下标(包含). */
+        private final int                         from;
+
+        /** 结束下标(不包含). */
+        private final int                         to;
+
+        /** 是否继续拆分. */
+        private final boolean                     parallel;
+
+        /**
+         * Instantiates a new populate action.
+         *
+         * @param mapList
+         *            the map list
+         * @param constructor
+         *            the constructor
+         * @param beans
+         *            the beans
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         * @param parallel
+         *            the parallel
+         */
+        PopulateAction(List<? extends Map<String, ?>> mapList, Constructor<T> constructor, Object[] beans, int from, int to,
+                        boolean parallel){
+            this.mapList = mapList;
+            this.constructor = constructor;
+            this.beans = beans;
+            this.from = from;
+            this.to = to;
+            this.parallel = parallel;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute(){
+            if (parallel && to - from > PARALLEL_THRESHOLD){
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                                new PopulateAction<T>(mapList, constructor, beans, from, middle, true),
+                                new PopulateAction<T>(mapList, constructor, beans, middle, to, true));
+                return;
+            }
+
+            BeanPopulator beanPopulator = null;
+            Converter[] converters = null;
+            for (int i = from; i < to; ++i){
+                Map<String, ?> map = mapList.get(i);
+                Validate.notNull(map, "mapList element can't be null!,index:[%s]", i);
+
+                if (null == beanPopulator || !beanPopulator.isApplicable(map)){
+                    beanPopulator = getInstance(constructor.getDeclaringClass(), map.keySet());
+                    converters = beanPopulator.resolveConverters();
+                }
+                T bean = newInstance();
+                beanPopulator.populate(bean, map, converters);
+                beans[i] = bean;
+            }
+        }
+
+        /**
+         * New instance.
+         *
+         * @return the t
+         */
+        private T newInstance(){
+            try{
+                return constructor.newInstance();
+            }catch (Exception e){
+                throw new BeanOperationException(Slf4jUtil.format("new instance of [{}] error", constructor.getDeclaringClass().getName()), e);
+            }
+        }
+    }
+}
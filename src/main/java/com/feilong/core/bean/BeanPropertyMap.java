@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * bean 可读属性的只读实时视图,key 是属性名称,value 是属性值.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>创建视图不会读取任何属性,只有在 {@link #get(Object)} 或者 {@link Map.Entry#getValue()} 的时候才会调用对应的 getter,每次读取都是 bean 当前的值</li>
+ * <li>key 的集合以及顺序来自缓存的类元数据(和 {@link org.apache.commons.beanutils.PropertyUtils#describe(Object)} 一致,包含 <code>class</code>
+ * 属性),遍历的时候不需要内省</li>
+ * <li>只读,所有修改操作抛出 {@link UnsupportedOperationException}</li>
+ * <li>只支持普通 bean,不支持 {@link Map} 以及 {@link org.apache.commons.beanutils.DynaBean DynaBean}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PropertyUtil#describeView(Object)
+ * @since 1.9.2
+ */
+public final class BeanPropertyMap extends AbstractMap<String, Object>{
+
+    /** 按照类缓存的可读属性的 {@link PropertyAccessor}. */
+    private static final ClassValue<PropertyAccessor[]> READABLE_ACCESSORS_CACHE = new ClassValue<PropertyAccessor[]>(){
+
+        @Override
+        protected PropertyAccessor[] computeValue(Class<?> type){
+            List<PropertyAccessor> list = new ArrayList<PropertyAccessor>();
+            for (PropertyAccessor propertyAccessor : PropertyAccessorRegistry.getPropertyAccessors(type)){
+                if (propertyAccessor.isReadable()){
+                    list.add(propertyAccessor);
+                }
+            }
+            return list.toArray(new PropertyAccessor[list.size()]);
+        }
+    };
+
+    /** The bean. */
+    private final Object                                bean;
+
+    /** bean 类型所有可读属性的 {@link PropertyAccessor}. */
+    private final PropertyAccessor[]                    readablePropertyAccessors;
+
+    /** The entry set,延迟创建. */
+    private Set<Map.Entry<String, Object>>              entrySet;
+
+    /**
+     * Instantiates a new bean property map.
+     *
+     * @param bean
+     *            the bean
+     * @throws NullPointerException
+     *             如果 <code>bean</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>bean</code> 是 {@link Map} 或者 {@link org.apache.commons.beanutils.DynaBean DynaBean}
+     */
+    public BeanPropertyMap(Object bean){
+        Validate.notNull(bean, "bean can't be null!");
+        Validate.isTrue(PropertyAccessorRegistry.isSupportBean(bean), "bean:[%s] is Map or DynaBean,not support!", bean.getClass());
+
+        this.bean = bean;
+        this.readablePropertyAccessors = READABLE_ACCESSORS_CACHE.get(bean.getClass());
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#get(java.lang.Object)
+     */
+    @Override
+    public Object get(Object key){
+        PropertyAccessor propertyAccessor = getReadablePropertyAccessor(key);
+        return null == propertyAccessor ? null : propertyAccessor.getValue(bean);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#containsKey(java.lang.Object)
+     */
+    @Override
+    public boolean containsKey(Object key){
+        return null != getReadablePropertyAccessor(key);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#size()
+     */
+    @Override
+    public int size(){
+        return readablePropertyAccessors.length;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet(){
+        if (null == entrySet){
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * 获得 <code>key</code> 对应的可读属性的 {@link PropertyAccessor}.
+     *
+     * @param key
+     *            the key
+     * @return 如果 <code>key</code> 不是 String,或者没有这个可读属性,返回null
+     */
+    private PropertyAccessor getReadablePropertyAccessor(Object key){
+        if (!(key instanceof String)){
+            return null;
+        }
+        PropertyAccessor propertyAccessor = PropertyAccessorRegistry.getPropertyAccessor(bean.getClass(), (String) key);
+        return null != propertyAccessor && propertyAccessor.isReadable() ? propertyAccessor : null;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * The Class EntrySet.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>>{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.AbstractCollection#iterator()
+         */
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator(){
+            return new EntryIterator();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.AbstractCollection#size()
+         */
+        @Override
+        public int size(){
+            return readablePropertyAccessors.length;
+        }
+    }
+
+    /**
+     * The Class EntryIterator.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>>{
+
+        /** The index. */
+        private int index;
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#hasNext()
+         */
+        @Override
+        public boolean hasNext(){
+            return index < readablePropertyAccessors.length;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#next()
+         */
+        @Override
+        public Map.Entry<String, Object> next(){
+            if (!hasNext()){
+                throw new NoSuchElementException();
+            }
+            return new PropertyEntry(readablePropertyAccessors[index++]);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Iterator#remove()
+         */
+        @Override
+        public void remove(){
+            throw new UnsupportedOperationException("BeanPropertyMap is read only");
+        }
+    }
+
+    /**
+     * 延迟读取属性值的 entry.
+     */
+    private final class PropertyEntry implements Map.Entry<String, Object>{
+
+        /** The property accessor. */
+        private final PropertyAccessor propertyAccessor;
+
+        /**
+         * Instantiates a new property entry.
+         *
+         * @param propertyAccessor
+         *            the property accessor
+         */
+        PropertyEntry(PropertyAccessor propertyAccessor){
+            this.propertyAccessor = propertyAccessor;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Map.Entry#getKey()
+         */
+        @Override
+        public String getKey(){
+            return propertyAccessor.getPropertyName();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Map.Entry#getValue()
+         */
+        @Override
+        public Object getValue(){
+            return propertyAccessor.getValue(bean);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.Map.Entry#setValue(java.lang.Object)
+         */
+        @Override
+        public Object setValue(Object value){
+            throw new UnsupportedOperationException("BeanPropertyMap is read only");
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj){
+            if (!(obj instanceof Map.Entry)){
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) obj;
+            Object value = getValue();
+            return getKey().equals(entry.getKey()) && (null == value ? null == entry.getValue() : value.equals(entry.getValue()));
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode(){
+            Object value = getValue();
+            return getKey().hashCode() ^ (null == value ? 0 : value.hashCode());
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString(){
+            return getKey() + "=" + getValue();
+        }
+    }
+}
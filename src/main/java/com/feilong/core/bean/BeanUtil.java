@@ -15,9 +15,6 @@
  */
 package com.feilong.core.bean;
 
-import static java.util.Collections.emptyMap;
-
-import java.lang.reflect.Field;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -31,11 +28,8 @@ import org.apache.commons.beanutils.LazyDynaBean;
 import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.beanutils.converters.ArrayConverter;
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.reflect.FieldUtils;
 
-import static com.feilong.core.Validator.isNotNullOrEmpty;
 import static com.feilong.core.Validator.isNullOrEmpty;
-import static com.feilong.core.util.MapUtil.newHashMap;
 
 /**
  * 对 {@link org.apache.commons.beanutils.BeanUtils}的再次封装.
@@ -261,7 +255,8 @@ public final class BeanUtil{
      * @param includePropertyNames
      *            包含的属性名字数组,(can be nested/indexed/mapped/combo)<br>
      *            <ol>
-     *            <li>如果是null或者empty,那么直接调用 {@link BeanUtils#copyProperties(Object, Object)},否则循环调用{@link #getProperty(Object, String)} 再
+     *            <li>如果是null或者empty,那么复制全部属性,规则和 {@link BeanUtils#copyProperties(Object, Object)} 一致(普通bean 使用缓存的 {@link BeanCopier}
+     *            复制计划),否则循环调用{@link #getProperty(Object, String)} 再
      *            {@link #setProperty(Object, String, Object)}到 <code>toObj</code>对象中</li>
      *            <li>如果传入的<code>includePropertyNames</code>,含有 <code>fromObj</code>没有的属性名字,将会抛出异常</li>
      *            <li>如果传入的<code>includePropertyNames</code>,含有 <code>fromObj</code>有,但是 <code>toObj</code>没有的属性名字,可以正常运行(跳过该属性设置),see
@@ -275,12 +270,16 @@ public final class BeanUtil{
      * @see <a href="http://www.cnblogs.com/kaka/archive/2013/03/06/2945514.html">Bean复制的几种框架性能比较(Apache BeanUtils、PropertyUtils,Spring
      *      BeanUtils,Cglib BeanCopier)</a>
      */
-    //XXX add excludePropertyNames support
     public static void copyProperties(Object toObj,Object fromObj,String...includePropertyNames){
         Validate.notNull(toObj, "toObj [destination bean] not specified!");
         Validate.notNull(fromObj, "fromObj [origin bean] not specified!");
 
         if (isNullOrEmpty(includePropertyNames)){
+            //普通bean 使用缓存的复制计划,不需要每次内省
+            if (PropertyAccessorRegistry.isSupportBean(toObj) && PropertyAccessorRegistry.isSupportBean(fromObj)){
+                BeanCopier.getInstance(fromObj.getClass(), toObj.getClass(), true, null, null).copy(toObj, fromObj);
+                return;
+            }
             try{
                 BeanUtils.copyProperties(toObj, fromObj);
                 return;
@@ -294,6 +293,52 @@ public final class BeanUtil{
         }
     }
 
+    /**
+     * 将 <code>fromObj</code> 中除了 <code>excludePropertyNames</code> 之外的全部属性的值,复制到 <code>toObj</code> 对象中(会进行类型转换).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>这种copy都是 <span style="color:red">浅拷贝</span></li>
+     * <li>规则和 {@link BeanUtils#copyProperties(Object, Object)} 一致,只复制 <code>fromObj</code> 可读并且 <code>toObj</code> 可写的属性,值使用目标属性类型注册的
+     * {@link Converter} 转换</li>
+     * <li>使用按照 (fromClass, toClass, excludePropertyNames) 缓存的 {@link BeanCopier} 复制计划</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * BeanUtil.copyPropertiesExclude(user, userForm, "id", "password");
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toObj
+     *            目标对象,不能是 {@link Map} 或者 {@link DynaBean}
+     * @param fromObj
+     *            原始对象,不能是 {@link Map} 或者 {@link DynaBean}
+     * @param excludePropertyNames
+     *            排除的属性名字数组,如果是null或者empty,复制全部属性
+     * @throws NullPointerException
+     *             如果 <code>toObj</code> 是null,或者 <code>fromObj</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>toObj</code> 或者 <code>fromObj</code> 是 {@link Map} 或者 {@link DynaBean}
+     * @throws BeanOperationException
+     *             如果在copy的过程中,有任何异常
+     * @see BeanCopier
+     * @see #copyProperties(Object, Object, String...)
+     * @since 1.9.2
+     */
+    public static void copyPropertiesExclude(Object toObj,Object fromObj,String...excludePropertyNames){
+        Validate.notNull(toObj, "toObj [destination bean] not specified!");
+        Validate.notNull(fromObj, "fromObj [origin bean] not specified!");
+
+        BeanCopier.getInstance(fromObj.getClass(), toObj.getClass(), true, null, excludePropertyNames).copy(toObj, fromObj);
+    }
+
     // [end]
 
     // [start] setProperty
@@ -380,8 +425,7 @@ public final class BeanUtil{
      * 但还是可以帮助我们减少工作量的,假如类的属性不是基础类型的话(即自定义类),可以先clone出那个自定义类,在把他付给新的类,覆盖原来类的引用
      * </li>
      * <li>
-     * 如果需要深度clone,可以使用 {@link org.apache.commons.lang3.SerializationUtils#clone(java.io.Serializable) SerializationUtils.clone}
-     * ,但是它的性能要慢很多倍</li>
+     * 如果需要深度clone,可以使用 {@link #deepCloneBean(Object, Class...)}</li>
      * <li>由于内部实现是通过 {@link java.lang.Class#newInstance() Class.newInstance()}来构造新的对象,所以需要被clone的对象<b>必须存在默认无参构造函数</b>,否则会出现异常
      * {@link java.lang.InstantiationException InstantiationException}</li>
      * <li>目前无法clone list,总是返回empty list,参见
@@ -416,6 +460,55 @@ public final class BeanUtil{
         }
     }
 
+    /**
+     * 深度克隆 <code>bean</code>.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>基于字段复制(包括父类的字段),不需要 getter/setter,也不会进行类型转换</li>
+     * <li>每个类需要复制的字段只在第一次克隆的时候计算一次,以后直接使用缓存的克隆计划</li>
+     * <li>同一个对象被多处引用时,克隆后依然是同一个对象;循环引用也可以正确克隆</li>
+     * <li>String,基本类型的包装类型,{@link java.math.BigDecimal BigDecimal},{@link java.math.BigInteger BigInteger},枚举等不可变类型直接共享引用;
+     * 基本类型数组使用 {@link System#arraycopy(Object, int, Object, int, int)} 复制</li>
+     * <li>JDK 的 {@link java.util.Collection Collection}/{@link Map} 会创建同类型的新实例并放入克隆后的元素,{@link java.util.Date Date}/{@link java.util.Calendar
+     * Calendar} 使用自身的 clone 方法</li>
+     * <li>需要复制的自定义类型<b>必须存在无参构造函数</b>(可以不是public),否则抛出 {@link BeanOperationException}</li>
+     * <li>比 {@link org.apache.commons.lang3.SerializationUtils#clone(java.io.Serializable) SerializationUtils.clone} 快很多,也不要求对象实现
+     * {@link java.io.Serializable}</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * //缓存中的对象,在交给请求线程之前先克隆,Product 以及下面的引用都是只读的,直接共享不需要复制
+     * ShoppingCart shoppingCart = BeanUtil.deepCloneBean(cachedShoppingCart, Product.class);
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param bean
+     *            Bean to be cloned
+     * @param immutableTypes
+     *            调用方确认不可变(或者可以共享)的类型,这些类型(以及子类)的对象以及它们引用的对象不会被复制,克隆后的对象直接引用原来的对象
+     * @return 深度克隆后的对象
+     * @throws NullPointerException
+     *             如果 <code>bean</code> 是null
+     * @throws BeanOperationException
+     *             如果需要复制的某个对象没有无参构造函数,或者在克隆过程中有任何异常
+     * @see #cloneBean(Object)
+     * @since 1.9.2
+     */
+    public static <T> T deepCloneBean(T bean,Class<?>...immutableTypes){
+        Validate.notNull(bean, "bean can't be null!");
+        return new DeepCloner(immutableTypes).deepClone(bean);
+    }
+
     // [end]
 
     // [start] populate(填充) 把properties/map里面的值放入bean中
@@ -684,40 +777,82 @@ public final class BeanUtil{
         if (isNullOrEmpty(aliasAndValueMap)){
             return aliasBean;
         }
-        Map<String, String> propertyNameAndAliasMap = buildPropertyNameAndAliasMap(aliasBean.getClass());
-        for (Map.Entry<String, String> entry : propertyNameAndAliasMap.entrySet()){
-            String alias = entry.getValue();
-            Object value = aliasAndValueMap.get(alias);
-            if (isNotNullOrEmpty(value)){
-                setProperty(aliasBean, entry.getKey(), value);
-            }
-        }
-        return aliasBean;
+        //Alias 注解以及属性信息按照类缓存
+        return BeanPopulator.getAliasInstance(aliasBean.getClass()).populate(aliasBean, aliasAndValueMap);
     }
 
     /**
-     * 提取 klass {@link Alias} 注释,将 属性名字和 {@link Alias#name()} 组成map 返回.
+     * 循环 <code>mapList</code>,每一行使用 <code>klass</code> 创建一个新的 bean,并把 map 里面的值 <code>populate</code> <b>(填充)</b>到 bean 中.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>每一行的填充规则和 {@link #populate(Object, Map)} 一致</li>
+     * <li>属性查找,属性类型以及 {@link Converter} 按照 (klass, 行的 key 集合) 编译一次,之后相同 key 集合的行直接复用,适合 jdbc/csv/报表 等大量行数据转 bean</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * List{@code <Map<String, Object>>} rowList = jdbcTemplate.queryForList(sql);
+     * List{@code <User>} userList = BeanUtil.populateAll(rowList, User.class);
+     * </pre>
+     * 
+     * </blockquote>
      *
+     * @param <T>
+     *            the generic type
+     * @param mapList
+     *            the map list,元素不能是null
      * @param klass
-     *            the klass
-     * @return 如果<code>klass</code> 没有 {@link Alias} 注释,返回 {@link Collections#emptyMap()}
-     * @throws NullPointerException
-     *             如果 <code>klass</code> 是null
-     * @since 1.8.1
+     *            bean 类型,必须有 public 的无参构造函数
+     * @return 如果 <code>mapList</code> 是null或者empty,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>klass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>klass</code> 没有 public 的无参构造函数,抛出 {@link IllegalArgumentException}<br>
+     *         否则返回和 <code>mapList</code> 顺序一致的新list
+     * @throws BeanOperationException
+     *             在填充过程中有任何异常,转成{@link BeanOperationException}返回
+     * @see BeanPopulator
+     * @since 1.9.2
      */
-    private static Map<String, String> buildPropertyNameAndAliasMap(Class<?> klass){
-        Validate.notNull(klass, "klass can't be null!");
-        List<Field> aliasFieldsList = FieldUtils.getFieldsListWithAnnotation(klass, Alias.class);
-        if (isNullOrEmpty(aliasFieldsList)){
-            return emptyMap();
-        }
-        //属性名字和key的对应关系
-        Map<String, String> propertyNameAndAliasMap = newHashMap(aliasFieldsList.size());
-        for (Field field : aliasFieldsList){
-            Alias alias = field.getAnnotation(Alias.class);
-            propertyNameAndAliasMap.put(field.getName(), alias.name());
-        }
-        return propertyNameAndAliasMap;
+    public static <T> List<T> populateAll(List<? extends Map<String, ?>> mapList,Class<T> klass){
+        return populateAll(mapList, klass, false);
+    }
+
+    /**
+     * 循环 <code>mapList</code>,每一行使用 <code>klass</code> 创建一个新的 bean,并把 map 里面的值 <code>populate</code> <b>(填充)</b>到 bean 中.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>同 {@link #populateAll(List, Class)}</li>
+     * <li>如果 <code>parallel</code> 是true,并且行数很多(超过1024行),会拆分到 {@link com.feilong.core.lang.ForkJoinUtil#getForkJoinPool()} 中并行填充,
+     * 此时要求注册的 {@link Converter} 是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param mapList
+     *            the map list,元素不能是null
+     * @param klass
+     *            bean 类型,必须有 public 的无参构造函数
+     * @param parallel
+     *            是否并行填充
+     * @return 如果 <code>mapList</code> 是null或者empty,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>klass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>klass</code> 没有 public 的无参构造函数,抛出 {@link IllegalArgumentException}<br>
+     *         否则返回和 <code>mapList</code> 顺序一致的新list
+     * @throws BeanOperationException
+     *             在填充过程中有任何异常,转成{@link BeanOperationException}返回
+     * @see BeanPopulator
+     * @since 1.9.2
+     */
+    public static <T> List<T> populateAll(List<? extends Map<String, ?>> mapList,Class<T> klass,boolean parallel){
+        return BeanPopulator.populateAll(mapList, klass, parallel);
     }
 
     // [end]
@@ -53,6 +53,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.tuple.Pair;
 
+import com.feilong.core.bean.ValidatingParser.Validity;
 import com.feilong.core.lang.ArrayUtil;
 import com.feilong.core.lang.ObjectUtil;
 import com.feilong.core.lang.StringUtil;
@@ -224,6 +225,15 @@ import static com.feilong.core.util.SortUtil.sortMapByKeyAsc;
  */
 public final class ConvertUtil{
 
+    /** {@link #toInteger(Object, Integer)} 默认值是null的时候使用,{@link IntegerConverter} 没有可变的状态,可以共享. */
+    private static final IntegerConverter    INTEGER_CONVERTER     = new IntegerConverter(null);
+
+    /** {@link #toLong(Object)} 使用. */
+    private static final LongConverter       LONG_CONVERTER        = new LongConverter(null);
+
+    /** {@link #toBigDecimal(Object)} 使用. */
+    private static final BigDecimalConverter BIG_DECIMAL_CONVERTER = new BigDecimalConverter(null);
+
     /** Don't let anyone instantiate this class. */
     private ConvertUtil(){
         //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
@@ -477,7 +487,23 @@ public final class ConvertUtil{
      * @since 1.6.1
      */
     public static Integer toInteger(Object toBeConvertedValue,Integer defaultValue){
-        return new IntegerConverter(defaultValue).convert(Integer.class, toBeConvertedValue);
+        //常见的值不需要创建 IntegerConverter
+        if (toBeConvertedValue instanceof Integer){
+            return (Integer) toBeConvertedValue;
+        }
+        //字符串先扫描校验,不合法的直接返回默认值,不需要 beanutils 抛出并捕获异常
+        if (toBeConvertedValue instanceof String){
+            String trim = ((String) toBeConvertedValue).trim();
+            Validity validity = ValidatingParser.checkInteger(trim);
+            if (validity == Validity.VALID){
+                return Integer.valueOf(trim);
+            }
+            if (validity == Validity.INVALID){
+                return defaultValue;
+            }
+        }
+        IntegerConverter integerConverter = null == defaultValue ? INTEGER_CONVERTER : new IntegerConverter(defaultValue);
+        return integerConverter.convert(Integer.class, toBeConvertedValue);
     }
 
     /**
@@ -524,7 +550,17 @@ public final class ConvertUtil{
      * @see org.apache.commons.lang3.math.NumberUtils#toLong(String)
      */
     public static Long toLong(Object toBeConvertedValue){
-        return new LongConverter(null).convert(Long.class, toBeConvertedValue);
+        if (toBeConvertedValue instanceof String){
+            String trim = ((String) toBeConvertedValue).trim();
+            Validity validity = ValidatingParser.checkLong(trim);
+            if (validity == Validity.VALID){
+                return Long.valueOf(trim);
+            }
+            if (validity == Validity.INVALID){
+                return null;
+            }
+        }
+        return LONG_CONVERTER.convert(Long.class, toBeConvertedValue);
     }
 
     /**
@@ -590,7 +626,17 @@ public final class ConvertUtil{
      * @see org.apache.commons.beanutils.converters.BigDecimalConverter
      */
     public static BigDecimal toBigDecimal(Object toBeConvertedValue){
-        return new BigDecimalConverter(null).convert(BigDecimal.class, toBeConvertedValue);
+        if (toBeConvertedValue instanceof String){
+            String trim = ((String) toBeConvertedValue).trim();
+            Validity validity = ValidatingParser.checkBigDecimal(trim);
+            if (validity == Validity.VALID){
+                return new BigDecimal(trim);
+            }
+            if (validity == Validity.INVALID){
+                return null;
+            }
+        }
+        return BIG_DECIMAL_CONVERTER.convert(BigDecimal.class, toBeConvertedValue);
     }
 
     //*********************数组***************************************************************************************
@@ -867,6 +913,206 @@ public final class ConvertUtil{
     public static Long[] toLongs(Object toBeConvertedValue){
         return convert(toBeConvertedValue, Long[].class);
     }
+
+    /**
+     * 将 <code>toBeConvertedValue</code> 直接转成 <code>int[]</code>,不产生装箱对象.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>使用默认的 {@link ToPrimitiveArrayConfig},分隔规则和 {@link #toIntegers(Object)} 一样,遇到不能转换的元素抛出 {@link NumberFormatException}</li>
+     * <li>更多说明参见 {@link #toIntArray(Object, ToPrimitiveArrayConfig)}</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toIntArray(null)                   = null
+     * ConvertUtil.toIntArray("1,2,3")                = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray("{ 1 ,2,3}")            = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray("1, 2,,3")              = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray("1 2;3")                = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray(toList("1", "2", " 3")) = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray(toArray(1.0d, 2.5d))    = new int[] { 1, 2 }
+     * ConvertUtil.toIntArray("1,a,3")                = NumberFormatException
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @throws NumberFormatException
+     *             如果有元素不能转换成 int
+     * @see #toIntArray(Object, ToPrimitiveArrayConfig)
+     * @since 1.9.2
+     */
+    public static int[] toIntArray(Object toBeConvertedValue){
+        return PrimitiveArrayParser.toIntArray(toBeConvertedValue, null);
+    }
+
+    /**
+     * 按照 <code>toPrimitiveArrayConfig</code> 将 <code>toBeConvertedValue</code> 直接转成 <code>int[]</code>,不产生装箱对象.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>和 {@link #toIntegers(Object)} 不同,不经过 {@link ArrayConverter},字符串只扫描一遍,直接在字符上解析数字,不会 split 出中间字符串,适合解析很长的 id 列表</li>
+     * <li>如果 <code>toBeConvertedValue</code> 是 {@link CharSequence},整个字符串可以被 '{' 和 '}' 包裹;如果字符串是空白,返回 empty 数组</li>
+     * <li>如果没有指定 {@link ToPrimitiveArrayConfig#getDelimiters()},和 {@link ArrayConverter} 一样,除了字母,数字,'.','-' 以外的字符都是分隔符,
+     * 连续的分隔符不会产生空元素(不支持 {@link ArrayConverter} 的引号以及 '/' 注释);如果指定了分隔符,每一个字符都是分隔符,每个元素会去除前后空白,空元素当作不能转换的元素</li>
+     * <li>如果 <code>toBeConvertedValue</code> 是数组或者 {@link Collection},每个元素单独转换(元素是字符串不会再分隔);和 {@link NumberConverter} 一样,
+     * {@link Number} 使用 {@link Number#longValue()},小数部分直接截掉,{@link Boolean} true 转成1,false 转成0,其他类型按照 <code>toString()</code> 解析</li>
+     * <li>null,空白,格式不对,超出 int 范围的元素,按照 {@link ToPrimitiveArrayConfig#getInvalidElementPolicy()} 处理(抛出
+     * {@link NumberFormatException},忽略,或者使用默认值)</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toIntArray("1;2 3", new ToPrimitiveArrayConfig("; "))                          = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray("1,a,,3", new ToPrimitiveArrayConfig(",", SKIP))                   = new int[] { 1, 3 }
+     * ConvertUtil.toIntArray("1,a,,3", new ToPrimitiveArrayConfig(",", USE_DEFAULT, -1))        = new int[] { 1, -1, -1, 3 }
+     * ConvertUtil.toIntArray(new String[] { "1", null, "3" }, new ToPrimitiveArrayConfig(",", SKIP)) = new int[] { 1, 3 }
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @param toPrimitiveArrayConfig
+     *            配置,如果是null,使用默认的 {@link ToPrimitiveArrayConfig}
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @throws NumberFormatException
+     *             如果有元素不能转换,并且策略是 {@link ToPrimitiveArrayConfig.InvalidElementPolicy#THROW}
+     * @throws NullPointerException
+     *             如果策略是null,或者策略是 {@link ToPrimitiveArrayConfig.InvalidElementPolicy#USE_DEFAULT} 并且默认值是null
+     * @throws IllegalArgumentException
+     *             如果分隔符是empty
+     * @since 1.9.2
+     */
+    public static int[] toIntArray(Object toBeConvertedValue,ToPrimitiveArrayConfig toPrimitiveArrayConfig){
+        return PrimitiveArrayParser.toIntArray(toBeConvertedValue, toPrimitiveArrayConfig);
+    }
+
+    /**
+     * 将 <code>toBeConvertedValue</code> 直接转成 <code>long[]</code>,不产生装箱对象.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toLongArray(null)          = null
+     * ConvertUtil.toLongArray("1,2,3")       = new long[] { 1L, 2L, 3L }
+     * ConvertUtil.toLongArray("{ 1 ,2,3}")   = new long[] { 1L, 2L, 3L }
+     * ConvertUtil.toLongArray("1,a,3")       = NumberFormatException
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @throws NumberFormatException
+     *             如果有元素不能转换成 long
+     * @see #toLongArray(Object, ToPrimitiveArrayConfig)
+     * @since 1.9.2
+     */
+    public static long[] toLongArray(Object toBeConvertedValue){
+        return PrimitiveArrayParser.toLongArray(toBeConvertedValue, null);
+    }
+
+    /**
+     * 按照 <code>toPrimitiveArrayConfig</code> 将 <code>toBeConvertedValue</code> 直接转成 <code>long[]</code>,不产生装箱对象.
+     * 
+     * <p>
+     * 转换规则同 {@link #toIntArray(Object, ToPrimitiveArrayConfig)},只是范围是 long.
+     * </p>
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @param toPrimitiveArrayConfig
+     *            配置,如果是null,使用默认的 {@link ToPrimitiveArrayConfig}
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @throws NumberFormatException
+     *             如果有元素不能转换,并且策略是 {@link ToPrimitiveArrayConfig.InvalidElementPolicy#THROW}
+     * @throws NullPointerException
+     *             如果策略是null,或者策略是 {@link ToPrimitiveArrayConfig.InvalidElementPolicy#USE_DEFAULT} 并且默认值是null
+     * @throws IllegalArgumentException
+     *             如果分隔符是empty
+     * @see #toIntArray(Object, ToPrimitiveArrayConfig)
+     * @since 1.9.2
+     */
+    public static long[] toLongArray(Object toBeConvertedValue,ToPrimitiveArrayConfig toPrimitiveArrayConfig){
+        return PrimitiveArrayParser.toLongArray(toBeConvertedValue, toPrimitiveArrayConfig);
+    }
+
+    /**
+     * 将 <code>toBeConvertedValue</code> 直接转成 <code>double[]</code>,不产生装箱对象.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toDoubleArray(null)              = null
+     * ConvertUtil.toDoubleArray("1,2.5,-3e2")      = new double[] { 1d, 2.5d, -300d }
+     * ConvertUtil.toDoubleArray("1,NaN")           = new double[] { 1d, Double.NaN }
+     * ConvertUtil.toDoubleArray("1,0x10")          = NumberFormatException
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @throws NumberFormatException
+     *             如果有元素不能转换成 double
+     * @see #toDoubleArray(Object, ToPrimitiveArrayConfig)
+     * @since 1.9.2
+     */
+    public static double[] toDoubleArray(Object toBeConvertedValue){
+        return PrimitiveArrayParser.toDoubleArray(toBeConvertedValue, null);
+    }
+
+    /**
+     * 按照 <code>toPrimitiveArrayConfig</code> 将 <code>toBeConvertedValue</code> 直接转成 <code>double[]</code>,不产生装箱对象.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>分隔,去空白,不能转换的元素的处理,同 {@link #toIntArray(Object, ToPrimitiveArrayConfig)}</li>
+     * <li>支持十进制表示,比如 <code>1</code>,<code>-1.5</code>,<code>.5</code>,<code>1e10</code>,以及 <code>NaN</code>,<code>Infinity</code>;十六进制,以及
+     * <code>1d</code>/<code>1f</code> 这样带后缀的写法都认为是不能转换的元素</li>
+     * <li>解析结果和 {@link Double#parseDouble(String)} 一致</li>
+     * <li>{@link Number} 元素直接使用 {@link Number#doubleValue()}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @param toPrimitiveArrayConfig
+     *            配置,如果是null,使用默认的 {@link ToPrimitiveArrayConfig}
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @throws NumberFormatException
+     *             如果有元素不能转换,并且策略是 {@link ToPrimitiveArrayConfig.InvalidElementPolicy#THROW}
+     * @throws NullPointerException
+     *             如果策略是null,或者策略是 {@link ToPrimitiveArrayConfig.InvalidElementPolicy#USE_DEFAULT} 并且默认值是null
+     * @throws IllegalArgumentException
+     *             如果分隔符是empty
+     * @see #toIntArray(Object, ToPrimitiveArrayConfig)
+     * @since 1.9.2
+     */
+    public static double[] toDoubleArray(Object toBeConvertedValue,ToPrimitiveArrayConfig toPrimitiveArrayConfig){
+        return PrimitiveArrayParser.toDoubleArray(toBeConvertedValue, toPrimitiveArrayConfig);
+    }
     //*************************************************************************************************
 
     /**
@@ -2285,7 +2531,8 @@ public final class ConvertUtil{
      *            要转成什么类型
      * @return 如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>toBeConvertedValue</code> 是null,那么直接返回null<br>
-     *         否则返回 {@link org.apache.commons.beanutils.ConvertUtils#convert(Object, Class)}
+     *         否则返回 {@link org.apache.commons.beanutils.ConvertUtils#convert(Object, Class)}(转换器的查找经过 {@link ConverterRegistry},不需要加锁)
+     * @see ConverterRegistry
      * @see org.apache.commons.beanutils.ConvertUtils#convert(Object, Class)
      * @see org.apache.commons.beanutils.converters.AbstractConverter#convert(Class, Object)
      * @see org.apache.commons.beanutils.converters.ArrayConverter#convertToType(Class, Object)
@@ -2293,7 +2540,7 @@ public final class ConvertUtil{
     @SuppressWarnings("unchecked")
     public static <T> T convert(Object toBeConvertedValue,Class<T> targetType){
         Validate.notNull(targetType, "targetType can't be null!");
-        return null == toBeConvertedValue ? null : (T) ConvertUtils.convert(toBeConvertedValue, targetType);
+        return null == toBeConvertedValue ? null : (T) ConverterRegistry.convert(toBeConvertedValue, targetType);
     }
 
     /**
@@ -0,0 +1,830 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static java.util.Collections.emptyMap;
+
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.ConvertUtilsBean;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.BigDecimalConverter;
+import org.apache.commons.beanutils.converters.BooleanConverter;
+import org.apache.commons.beanutils.converters.ConverterFacade;
+import org.apache.commons.beanutils.converters.DateConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
+import org.apache.commons.beanutils.converters.NumberConverter;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+import com.feilong.core.bean.ValidatingParser.Validity;
+
+/**
+ * feilong 自己的转换器注册表,按照 (sourceType, targetType) 查找转换器,{@link ConvertUtil#convert(Object, Class)} 使用.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>注册表是不可变的,注册的时候复制一份新表再替换(copy-on-write);context classloader 对应的 {@link ConvertUtilsBean} 也缓存在不可变的小数组里面,
+ * 因此读取永远不需要加锁;而 {@link ConvertUtils#convert(Object, Class)} 每次调用都要经过 beanutils 按照 context classloader 加锁的
+ * {@link BeanUtilsBean#getInstance()}</li>
+ * <li>通过 {@link #register(Class, Class, Converter)} 注册的转换器优先级最高,只对指定的 (sourceType, targetType) 生效</li>
+ * <li>内置了 String/Number/Boolean/Date 转 {@link Integer},{@link Long},{@link BigDecimal},{@link Boolean},{@link Date} 的快速转换器,
+ * 只处理常见的值(比如简单的十进制整数字符串),其他的值交给 beanutils 当前注册的转换器处理,所以转换结果和 {@link ConvertUtils#convert(Object, Class)} 一致</li>
+ * <li>快速转换器只有在 beanutils 注册的是标准转换器的时候才会启用,并且每次转换都会(无锁地)确认 beanutils 注册的转换器没有变化,
+ * 因此在任何时候调用 {@link ConvertUtils#register(Converter, Class)} 依然生效</li>
+ * <li>快速转换器通过扫描字符判断字符串是否合法(参见 {@link ValidatingParser});对于能够确定不合法的字符串,如果 beanutils 注册的转换器转换失败时返回的是默认值,
+ * 直接返回这个默认值,不再让 beanutils 在内部构造并捕获异常</li>
+ * <li>其他的 (sourceType, targetType) 依然使用 {@link ConvertUtils#convert(Object, Class)},不会缓存任何东西</li>
+ * <li>缓存只按照 (目标类型, 是否是字符串) 保存在每个 {@link ConvertUtilsBean} 自己的表里面,大小固定,不会因为转换过的类型越来越多而增长,也不会强引用业务类</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ConvertUtil#convert(Object, Class)
+ * @since 1.9.2
+ */
+public final class ConverterRegistry{
+
+    /** 对于所有快速转换器都不合法的字符串,用来探测 beanutils 注册的转换器转换失败时的返回值. */
+    private static final String                                  INVALID_PROBE           = "feilong-invalid";
+
+    /** 最多缓存多少个 context classloader 对应的 {@link ConvertUtilsBean}. */
+    private static final int                                     MAX_HOLDER_COUNT        = 8;
+
+    /** 写操作的锁. */
+    private static final Object                                  LOCK                    = new Object();
+
+    /** 内置的快速转换器,key 是 targetType. */
+    private static final Map<Class<?>, FastConverter>            FAST_CONVERTER_MAP      = buildFastConverterMap();
+
+    /** 通过 {@link #register(Class, Class, Converter)} 注册的转换器,不可变,copy-on-write. */
+    private static volatile Map<ConvertKey, Converter>           registeredConverterMap  = emptyMap();
+
+    /** 最近使用的 context classloader 以及对应的 {@link ConvertUtilsBean},最近使用的在前面,不可变,copy-on-write. */
+    private static volatile ConvertUtilsBeanHolder[]             convertUtilsBeanHolders = new ConvertUtilsBeanHolder[0];
+
+    /** Don't let anyone instantiate this class. */
+    private ConverterRegistry(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 注册 <code>sourceType</code> 转成 <code>targetType</code> 的转换器.
+     *
+     * <p>
+     * 只对值的类型<b>正好是</b> <code>sourceType</code> 的转换生效,优先级高于 beanutils 注册的转换器.
+     * </p>
+     *
+     * @param sourceType
+     *            值的类型
+     * @param targetType
+     *            要转成的类型
+     * @param converter
+     *            the converter
+     * @throws NullPointerException
+     *             如果 <code>sourceType</code>,<code>targetType</code> 或者 <code>converter</code> 是null
+     */
+    public static void register(Class<?> sourceType,Class<?> targetType,Converter converter){
+        Validate.notNull(sourceType, "sourceType can't be null!");
+        Validate.notNull(targetType, "targetType can't be null!");
+        Validate.notNull(converter, "converter can't be null!");
+
+        synchronized (LOCK){
+            Map<ConvertKey, Converter> map = new HashMap<ConvertKey, Converter>(registeredConverterMap);
+            map.put(new ConvertKey(sourceType, targetType), converter);
+            registeredConverterMap = Collections.unmodifiableMap(map);
+        }
+    }
+
+    /**
+     * 删除通过 {@link #register(Class, Class, Converter)} 注册的 <code>sourceType</code> 转成 <code>targetType</code> 的转换器.
+     *
+     * @param sourceType
+     *            值的类型
+     * @param targetType
+     *            要转成的类型
+     * @throws NullPointerException
+     *             如果 <code>sourceType</code> 或者 <code>targetType</code> 是null
+     */
+    public static void deregister(Class<?> sourceType,Class<?> targetType){
+        Validate.notNull(sourceType, "sourceType can't be null!");
+        Validate.notNull(targetType, "targetType can't be null!");
+
+        synchronized (LOCK){
+            Map<ConvertKey, Converter> map = new HashMap<ConvertKey, Converter>(registeredConverterMap);
+            map.remove(new ConvertKey(sourceType, targetType));
+            registeredConverterMap = Collections.unmodifiableMap(map);
+        }
+    }
+
+    /**
+     * 查找通过 {@link #register(Class, Class, Converter)} 注册的 <code>sourceType</code> 转成 <code>targetType</code> 的转换器.
+     *
+     * @param sourceType
+     *            值的类型
+     * @param targetType
+     *            要转成的类型
+     * @return 如果没有注册,返回null
+     * @throws NullPointerException
+     *             如果 <code>sourceType</code> 或者 <code>targetType</code> 是null
+     */
+    public static Converter lookup(Class<?> sourceType,Class<?> targetType){
+        Validate.notNull(sourceType, "sourceType can't be null!");
+        Validate.notNull(targetType, "targetType can't be null!");
+        return registeredConverterMap.get(new ConvertKey(sourceType, targetType));
+    }
+
+    /**
+     * 清空缓存的 {@link ConvertUtilsBean} 以及解析好的快速转换器(注册的转换器依然保留).
+     *
+     * <p>
+     * 一般不需要调用;如果调用了 {@link BeanUtilsBean#setInstance(BeanUtilsBean)}
+     * 替换了 beanutils 的实例,需要调用此方法.
+     * </p>
+     */
+    public static void clear(){
+        synchronized (LOCK){
+            convertUtilsBeanHolders = new ConvertUtilsBeanHolder[0];
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 将 <code>value</code> 转成 <code>targetType</code> 类型.
+     *
+     * @param value
+     *            不能是null
+     * @param targetType
+     *            不能是null
+     * @return 转换之后的值
+     */
+    static Object convert(Object value,Class<?> targetType){
+        Class<?> sourceType = value.getClass();
+        if (!registeredConverterMap.isEmpty()){
+            Converter converter = registeredConverterMap.get(new ConvertKey(sourceType, targetType));
+            if (null != converter){
+                return converter.convert(targetType, value);
+            }
+        }
+
+        FastConverter fastConverter = FAST_CONVERTER_MAP.get(targetType);
+        if (null == fastConverter || !fastConverter.isSupportSourceType(sourceType)){
+            return ConvertUtils.convert(value, targetType);
+        }
+
+        ConvertUtilsBeanHolder holder = getConvertUtilsBeanHolder();
+        ConvertUtilsBean convertUtilsBean = holder.convertUtilsBeanReference.get();
+        if (null == convertUtilsBean){
+            return ConvertUtils.convert(value, targetType);
+        }
+        return holder.getFastEntry(convertUtilsBean, fastConverter, targetType, sourceType == String.class).convert(value, targetType, convertUtilsBean);
+    }
+
+    /**
+     * 获得当前 context classloader 对应的 {@link ConvertUtilsBeanHolder}.
+     *
+     * <p>
+     * {@link BeanUtilsBean#getInstance()} 需要加锁,这里缓存最近使用的 {@link #MAX_HOLDER_COUNT} 个 classloader 对应的实例,多个 web 应用的线程交替调用的时候也不会反复加锁;
+     * {@link ConvertUtilsBean#lookup(Class)} 本身不需要加锁.
+     * </p>
+     *
+     * @return the convert utils bean holder
+     */
+    private static ConvertUtilsBeanHolder getConvertUtilsBeanHolder(){
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        for (ConvertUtilsBeanHolder holder : convertUtilsBeanHolders){
+            if (holder.isFor(classLoader)){
+                return holder;
+            }
+        }
+
+        ConvertUtilsBeanHolder holder = new ConvertUtilsBeanHolder(classLoader, BeanUtilsBean.getInstance().getConvertUtils());
+        synchronized (LOCK){
+            List<ConvertUtilsBeanHolder> list = new ArrayList<ConvertUtilsBeanHolder>(MAX_HOLDER_COUNT);
+            list.add(holder);
+            for (ConvertUtilsBeanHolder oldHolder : convertUtilsBeanHolders){
+                if (list.size() < MAX_HOLDER_COUNT && !oldHolder.isCleared() && !oldHolder.isFor(classLoader)){
+                    list.add(oldHolder);
+                }
+            }
+            convertUtilsBeanHolders = list.toArray(new ConvertUtilsBeanHolder[list.size()]);
+        }
+        return holder;
+    }
+
+    /**
+     * 构建内置的快速转换器.
+     *
+     * @return the map
+     */
+    private static Map<Class<?>, FastConverter> buildFastConverterMap(){
+        Map<Class<?>, FastConverter> map = new HashMap<Class<?>, FastConverter>();
+        map.put(Integer.class, new IntegerFastConverter());
+        map.put(Long.class, new LongFastConverter());
+        map.put(BigDecimal.class, new BigDecimalFastConverter());
+        map.put(Boolean.class, new BooleanFastConverter());
+        map.put(Date.class, new DateFastConverter());
+        return Collections.unmodifiableMap(map);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * beanutils 注册的是否是 <code>standardConverterClass</code>(beanutils 默认注册的转换器会包装成 {@link ConverterFacade}).
+     *
+     * @param delegate
+     *            the delegate
+     * @param standardConverterClass
+     *            标准的转换器类型
+     * @return 如果是 <code>standardConverterClass</code>,并且数字转换器没有指定 pattern 以及 locale,返回true
+     */
+    private static boolean isStandardConverter(Converter delegate,Class<? extends Converter> standardConverterClass){
+        Converter converter = delegate instanceof ConverterFacade ? unwrap((ConverterFacade) delegate) : delegate;
+        if (null == converter || converter.getClass() != standardConverterClass){
+            return false;
+        }
+        if (converter instanceof NumberConverter){
+            NumberConverter numberConverter = (NumberConverter) converter;
+            return null == numberConverter.getPattern() && null == numberConverter.getLocale();
+        }
+        return true;
+    }
+
+    /**
+     * 取出 {@link ConverterFacade} 包装的转换器(beanutils 没有提供 getter).
+     *
+     * @param converterFacade
+     *            the converter facade
+     * @return 如果读取失败(比如 beanutils 版本不同,或者不允许反射),返回null,也就是不使用快速转换器
+     */
+    private static Converter unwrap(ConverterFacade converterFacade){
+        try{
+            return (Converter) FieldUtils.readDeclaredField(converterFacade, "converter", true);
+        }catch (IllegalAccessException | RuntimeException e){
+            return null;
+        }
+    }
+
+    /**
+     * beanutils 注册的转换器对这些值的转换结果和快速转换器一致.
+     *
+     * @param delegate
+     *            the delegate
+     * @param fastConverter
+     *            the fast converter
+     * @param targetType
+     *            the target type
+     * @param probes
+     *            the probes
+     * @return true, if successful
+     */
+    private static boolean isSameResult(Converter delegate,FastConverter fastConverter,Class<?> targetType,Object...probes){
+        try{
+            for (Object probe : probes){
+                Object fastResult = fastConverter.convert(targetType, probe, null);
+                if (null == fastResult || FastConverter.INVALID == fastResult || !fastResult.equals(delegate.convert(targetType, probe))){
+                    return false;
+                }
+            }
+            return true;
+        }catch (RuntimeException e){
+            return false;
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 某个 {@link ConvertUtilsBean} 解析好的,某个目标类型的快速转换方式.
+     */
+    private static final class FastEntry{
+
+        /** 快速转换器;如果 beanutils 注册的不是标准转换器,是null,直接交给 {@link ConvertUtilsBean#convert(Object, Class)}. */
+        private final FastConverter fastConverter;
+
+        /** 解析时 beanutils 注册的转换器. */
+        private final Converter     delegate;
+
+        /** 是否知道 {@link #delegate} 转换失败时的返回值(也就是它不会抛出异常). */
+        private final boolean       isInvalidResultKnown;
+
+        /** {@link #delegate} 转换失败时的返回值(标准转换器返回的是固定的默认值,和值本身无关). */
+        private final Object        invalidResult;
+
+        /**
+         * Instantiates a new fast entry.
+         *
+         * @param fastConverter
+         *            the fast converter
+         * @param targetType
+         *            the target type
+         * @param isStringSource
+         *            值是不是字符串
+         * @param delegate
+         *            解析时 beanutils 注册的转换器
+         */
+        FastEntry(FastConverter fastConverter, Class<?> targetType, boolean isStringSource, Converter delegate){
+            this.fastConverter = null != delegate && fastConverter.isStandard(delegate) ? fastConverter : null;
+            this.delegate = delegate;
+
+            Object result = null;
+            boolean isKnown = false;
+            if (null != this.fastConverter && isStringSource){
+                try{
+                    result = delegate.convert(targetType, INVALID_PROBE);
+                    isKnown = true;
+                }catch (RuntimeException e){
+                    //转换失败会抛出异常,不能跳过 delegate
+                }
+            }
+            this.isInvalidResultKnown = isKnown;
+            this.invalidResult = result;
+        }
+
+        /**
+         * 转换.
+         *
+         * @param value
+         *            the value
+         * @param targetType
+         *            the target type
+         * @param convertUtilsBean
+         *            解析这个 entry 的 {@link ConvertUtilsBean}
+         * @return the object
+         */
+        Object convert(Object value,Class<?> targetType,ConvertUtilsBean convertUtilsBean){
+            if (null == fastConverter){
+                return convertUtilsBean.convert(value, targetType);
+            }
+            Object result = fastConverter.convert(targetType, value, delegate);
+            if (result != FastConverter.INVALID){
+                return result;
+            }
+            //不合法的值直接返回默认值,避免 beanutils 内部构造并捕获异常
+            return isInvalidResultKnown ? invalidResult : delegate.convert(targetType, value);
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 快速转换器.
+     */
+    private abstract static class FastConverter{
+
+        /** 能够确定 beanutils 注册的转换器会转换失败(返回默认值或者抛出异常)的时候,{@link #convert(Class, Object, Converter)} 返回这个值. */
+        static final Object INVALID = new Object();
+
+        /**
+         * 是否处理这种类型的值.
+         *
+         * @param sourceType
+         *            the source type
+         * @return true, if is support source type
+         */
+        abstract boolean isSupportSourceType(Class<?> sourceType);
+
+        /**
+         * beanutils 注册的是否是标准的转换器(对于快速转换器处理的值,转换结果一致).
+         *
+         * @param delegate
+         *            the delegate
+         * @return true, if is standard
+         */
+        abstract boolean isStandard(Converter delegate);
+
+        /**
+         * 转换.
+         *
+         * @param targetType
+         *            the target type
+         * @param value
+         *            the value
+         * @param delegate
+         *            不能处理的值交给它转换;如果是null,不能处理的时候返回null
+         * @return the object
+         */
+        abstract Object convert(Class<?> targetType,Object value,Converter delegate);
+
+        /**
+         * 交给 <code>delegate</code> 转换.
+         *
+         * @param targetType
+         *            the target type
+         * @param value
+         *            the value
+         * @param delegate
+         *            the delegate
+         * @return 如果 <code>delegate</code> 是null,返回null
+         */
+        static Object delegate(Class<?> targetType,Object value,Converter delegate){
+            return null == delegate ? null : delegate.convert(targetType, value);
+        }
+    }
+
+    /**
+     * String/Integer/Long/Short/Byte 转 {@link Integer},规则和 {@link IntegerConverter} 一致.
+     */
+    private static final class IntegerFastConverter extends FastConverter{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isSupportSourceType(java.lang.Class)
+         */
+        @Override
+        boolean isSupportSourceType(Class<?> sourceType){
+            return sourceType == String.class || sourceType == Integer.class || sourceType == Long.class || sourceType == Short.class
+                            || sourceType == Byte.class;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isStandard(org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        boolean isStandard(Converter delegate){
+            return isStandardConverter(delegate, IntegerConverter.class)
+                            && isSameResult(delegate, this, Integer.class, "1234567", "-42", "+7", "007", " 12 ", 5L, (short) 3, (byte) 1);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#convert(java.lang.Class, java.lang.Object,
+         * org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        Object convert(Class<?> targetType,Object value,Converter delegate){
+            if (value instanceof Integer){
+                return value;
+            }
+            if (value instanceof String){
+                String trim = ((String) value).trim();
+                Validity validity = ValidatingParser.checkInteger(trim);
+                if (validity == Validity.VALID){
+                    return Integer.valueOf(trim);
+                }
+                return validity == Validity.INVALID ? INVALID : delegate(targetType, value, delegate);
+            }
+            long longValue = ((Number) value).longValue();
+            return longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE ? Integer.valueOf((int) longValue)
+                            : delegate(targetType, value, delegate);
+        }
+    }
+
+    /**
+     * String/Long/Integer/Short/Byte/Date 转 {@link Long},规则和 {@link LongConverter} 一致.
+     */
+    private static final class LongFastConverter extends FastConverter{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isSupportSourceType(java.lang.Class)
+         */
+        @Override
+        boolean isSupportSourceType(Class<?> sourceType){
+            return sourceType == String.class || sourceType == Long.class || sourceType == Integer.class || sourceType == Short.class
+                            || sourceType == Byte.class || sourceType == Date.class;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isStandard(org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        boolean isStandard(Converter delegate){
+            return isStandardConverter(delegate, LongConverter.class)
+                            && isSameResult(delegate, this, Long.class, "123456789012", "-42", "+7", "007", " 12 ", 5, new Date(8L));
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#convert(java.lang.Class, java.lang.Object,
+         * org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        Object convert(Class<?> targetType,Object value,Converter delegate){
+            if (value instanceof Long){
+                return value;
+            }
+            if (value instanceof String){
+                String trim = ((String) value).trim();
+                Validity validity = ValidatingParser.checkLong(trim);
+                if (validity == Validity.VALID){
+                    return Long.valueOf(trim);
+                }
+                return validity == Validity.INVALID ? INVALID : delegate(targetType, value, delegate);
+            }
+            if (value instanceof Date){
+                return ((Date) value).getTime();
+            }
+            return ((Number) value).longValue();
+        }
+    }
+
+    /**
+     * String/Number 转 {@link BigDecimal},规则和 {@link BigDecimalConverter} 一致.
+     */
+    private static final class BigDecimalFastConverter extends FastConverter{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isSupportSourceType(java.lang.Class)
+         */
+        @Override
+        boolean isSupportSourceType(Class<?> sourceType){
+            return sourceType == String.class || sourceType == BigDecimal.class || sourceType == Integer.class || sourceType == Long.class
+                            || sourceType == Short.class || sourceType == Byte.class || sourceType == Double.class
+                            || sourceType == Float.class;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isStandard(org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        boolean isStandard(Converter delegate){
+            return isStandardConverter(delegate, BigDecimalConverter.class)
+                            && isSameResult(delegate, this, BigDecimal.class, "1234567.8900", "-0.5", "42", " 12.3 ", 5, 6L, 1.25d, 0.1f);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#convert(java.lang.Class, java.lang.Object,
+         * org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        Object convert(Class<?> targetType,Object value,Converter delegate){
+            if (value instanceof BigDecimal){
+                return value;
+            }
+            if (value instanceof String){
+                String trim = ((String) value).trim();
+                Validity validity = ValidatingParser.checkBigDecimal(trim);
+                if (validity == Validity.VALID){
+                    return new BigDecimal(trim);
+                }
+                return validity == Validity.INVALID ? INVALID : delegate(targetType, value, delegate);
+            }
+            if (value instanceof Double || value instanceof Float){
+                return new BigDecimal(value.toString());
+            }
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+    }
+
+    /**
+     * String 转 {@link Boolean},规则和 {@link BooleanConverter} 默认的 trueStrings/falseStrings 一致.
+     */
+    private static final class BooleanFastConverter extends FastConverter{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isSupportSourceType(java.lang.Class)
+         */
+        @Override
+        boolean isSupportSourceType(Class<?> sourceType){
+            return sourceType == String.class || sourceType == Boolean.class;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isStandard(org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        boolean isStandard(Converter delegate){
+            return isStandardConverter(delegate, BooleanConverter.class)
+                            && isSameResult(delegate, this, Boolean.class, (Object[]) ValidatingParser.TRUE_STRINGS)
+                            && isSameResult(delegate, this, Boolean.class, (Object[]) ValidatingParser.FALSE_STRINGS);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#convert(java.lang.Class, java.lang.Object,
+         * org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        Object convert(Class<?> targetType,Object value,Converter delegate){
+            if (value instanceof Boolean){
+                return value;
+            }
+            Boolean result = ValidatingParser.parseBoolean((String) value);
+            return null == result ? INVALID : result;
+        }
+    }
+
+    /**
+     * Date/Long/Calendar 转 {@link Date},规则和 {@link DateConverter} 一致.
+     */
+    private static final class DateFastConverter extends FastConverter{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isSupportSourceType(java.lang.Class)
+         */
+        @Override
+        boolean isSupportSourceType(Class<?> sourceType){
+            return sourceType == Date.class || sourceType == Long.class || Calendar.class.isAssignableFrom(sourceType);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#isStandard(org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        boolean isStandard(Converter delegate){
+            return isStandardConverter(delegate, DateConverter.class) && isSameResult(delegate, this, Date.class, 8L, Calendar.getInstance());
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.bean.ConverterRegistry.FastConverter#convert(java.lang.Class, java.lang.Object,
+         * org.apache.commons.beanutils.Converter)
+         */
+        @Override
+        Object convert(Class<?> targetType,Object value,Converter delegate){
+            if (value instanceof Date){
+                return value;
+            }
+            if (value instanceof Long){
+                return new Date((Long) value);
+            }
+            return new Date(((Calendar) value).getTimeInMillis());
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * (sourceType, targetType).
+     */
+    private static final class ConvertKey{
+
+        /** The source type. */
+        private final Class<?> sourceType;
+
+        /** The target type. */
+        private final Class<?> targetType;
+
+        /**
+         * Instantiates a new convert key.
+         *
+         * @param sourceType
+         *            the source type
+         * @param targetType
+         *            the target type
+         */
+        ConvertKey(Class<?> sourceType, Class<?> targetType){
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode(){
+            return 31 * sourceType.hashCode() + targetType.hashCode();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj){
+            if (this == obj){
+                return true;
+            }
+            if (!(obj instanceof ConvertKey)){
+                return false;
+            }
+            ConvertKey other = (ConvertKey) obj;
+            return sourceType == other.sourceType && targetType == other.targetType;
+        }
+    }
+
+    /**
+     * context classloader 以及对应的 {@link ConvertUtilsBean},还有这个 {@link ConvertUtilsBean} 解析好的快速转换方式.
+     */
+    private static final class ConvertUtilsBeanHolder{
+
+        /** 弱引用,避免 classloader 泄漏;context classloader 是null 的时候是null. */
+        private final WeakReference<ClassLoader>           classLoaderReference;
+
+        /** 弱引用,beanutils 自己按照 classloader 持有它,避免通过注册的转换器间接造成 classloader 泄漏. */
+        private final WeakReference<ConvertUtilsBean>      convertUtilsBeanReference;
+
+        /** 按照 (目标类型, 是否是字符串) 解析好的快速转换方式,最多 {@link ConverterRegistry#FAST_CONVERTER_MAP} 大小的两倍. */
+        private final ConcurrentMap<ConvertKey, FastEntry> fastEntryMap              = new ConcurrentHashMap<ConvertKey, FastEntry>();
+
+        /**
+         * Instantiates a new convert utils bean holder.
+         *
+         * @param classLoader
+         *            the class loader
+         * @param convertUtilsBean
+         *            the convert utils bean
+         */
+        ConvertUtilsBeanHolder(ClassLoader classLoader, ConvertUtilsBean convertUtilsBean){
+            this.classLoaderReference = null == classLoader ? null : new WeakReference<ClassLoader>(classLoader);
+            this.convertUtilsBeanReference = new WeakReference<ConvertUtilsBean>(convertUtilsBean);
+        }
+
+        /**
+         * 是否是 <code>classLoader</code> 对应的.
+         *
+         * @param classLoader
+         *            the class loader
+         * @return true, if is for
+         */
+        boolean isFor(ClassLoader classLoader){
+            if (null == classLoader){
+                return null == classLoaderReference;
+            }
+            return null != classLoaderReference && classLoaderReference.get() == classLoader && null != convertUtilsBeanReference.get();
+        }
+
+        /**
+         * classloader 或者 {@link ConvertUtilsBean} 是否已经被回收.
+         *
+         * @return true, if is cleared
+         */
+        boolean isCleared(){
+            return (null != classLoaderReference && null == classLoaderReference.get()) || null == convertUtilsBeanReference.get();
+        }
+
+        /**
+         * 获得 <code>targetType</code> 的快速转换方式,如果 beanutils 注册的转换器变了,重新解析.
+         *
+         * @param convertUtilsBean
+         *            the convert utils bean
+         * @param fastConverter
+         *            the fast converter
+         * @param targetType
+         *            the target type
+         * @param isStringSource
+         *            值是不是字符串
+         * @return the fast entry
+         */
+        FastEntry getFastEntry(ConvertUtilsBean convertUtilsBean,FastConverter fastConverter,Class<?> targetType,boolean isStringSource){
+            Converter delegate = convertUtilsBean.lookup(targetType);
+            ConvertKey convertKey = new ConvertKey(isStringSource ? String.class : Object.class, targetType);
+            FastEntry fastEntry = fastEntryMap.get(convertKey);
+            if (null == fastEntry || fastEntry.delegate != delegate){
+                fastEntry = new FastEntry(fastConverter, targetType, isStringSource, delegate);
+                fastEntryMap.put(convertKey, fastEntry);
+            }
+            return fastEntry;
+        }
+    }
+}
@@ -0,0 +1,708 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.regex.Pattern;
+
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+
+/**
+ * 基于字段的深度克隆.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>每个类的克隆计划(无参构造函数,需要复制的字段)只在第一次克隆的时候计算一次,基于 {@link ClassValue} 缓存</li>
+ * <li>一次克隆过程中使用 {@link IdentityHashMap} 记录已经克隆过的对象,同一个对象被多处引用时,克隆后依然是同一个对象,循环引用也可以正确克隆</li>
+ * <li>不可变类型(String,基本类型的包装类型,{@link BigDecimal},{@link BigInteger},枚举等)以及调用方指定的类型直接共享引用,不会复制</li>
+ * <li>基本类型数组使用 {@link System#arraycopy(Object, int, Object, int, int)} 复制</li>
+ * <li>JDK 的 {@link Collection}/{@link Map} 使用同类型的新实例(有 comparator 的使用同一个 comparator)重新添加克隆后的元素,
+ * 不会复制 JDK 的内部字段(比如 hash 表)</li>
+ * <li>没有公共构造函数的 JDK 集合(比如 {@link Collections#emptyList()},{@link java.util.Arrays#asList(Object...)},
+ * {@link Collections#unmodifiableList(List)},{@link Collections#singleton(Object)}),按照接口使用 {@link ArrayList},{@link LinkedHashSet},
+ * {@link TreeSet},{@link LinkedHashMap},{@link TreeMap};如果原来是 {@link Collections} 的只读包装类型,克隆之后依然是只读的</li>
+ * <li>普通 bean 只复制自己以及非 JDK 父类声明的字段,遇到 <code>java.*</code>/<code>javax.*</code> 的父类就停止,不会 setAccessible JDK 的私有字段;
+ * 父类是 JDK 的集合/map(比如 <code>MyList extends ArrayList</code>)时,元素通过公共的 add/put 方法重新添加,其他有状态的 JDK 父类使用公共的
+ * <code>clone()</code>,都不支持的时候抛出 {@link BeanOperationException}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see BeanUtil#deepCloneBean(Object, Class...)
+ * @since 1.9.2
+ */
+final class DeepCloner{
+
+    /** 默认的不可变类型,克隆的时候直接共享引用. */
+    private static final Set<Class<?>>          IMMUTABLE_TYPES = new HashSet<Class<?>>();
+
+    static{
+        Class<?>[] immutableTypes = {
+                                      String.class,
+                                      Boolean.class,
+                                      Character.class,
+                                      Byte.class,
+                                      Short.class,
+                                      Integer.class,
+                                      Long.class,
+                                      Float.class,
+                                      Double.class,
+                                      BigDecimal.class,
+                                      BigInteger.class,
+                                      Class.class,
+                                      Locale.class,
+                                      Currency.class,
+                                      UUID.class,
+                                      Pattern.class };
+        for (Class<?> klass : immutableTypes){
+            IMMUTABLE_TYPES.add(klass);
+        }
+    }
+
+    /** PriorityQueue 等只有 (int, Comparator) 构造函数时使用的初始容量. */
+    private static final int                    DEFAULT_INITIAL_CAPACITY = 11;
+
+    /** 按照类缓存的克隆计划. */
+    private static final ClassValue<ClonePlan>  CLONE_PLAN_CACHE = new ClassValue<ClonePlan>(){
+
+        @Override
+        protected ClonePlan computeValue(Class<?> type){
+            return new ClonePlan(type);
+        }
+    };
+
+    /** 调用方指定的需要共享引用的类型(包含子类). */
+    private final Class<?>[]                    shareTypes;
+
+    /** 原始对象和克隆对象的对应关系,用来处理重复引用以及循环引用. */
+    private final IdentityHashMap<Object, Object> clonedMap      = new IdentityHashMap<Object, Object>();
+
+    /**
+     * Instantiates a new deep cloner.
+     *
+     * @param shareTypes
+     *            调用方指定的需要共享引用的类型,可以是null
+     */
+    DeepCloner(Class<?>[] shareTypes){
+        this.shareTypes = isNullOrEmpty(shareTypes) ? new Class<?>[0] : shareTypes;
+    }
+
+    /**
+     * 深度克隆 <code>value</code>.
+     *
+     * @param <T>
+     *            the generic type
+     * @param value
+     *            the value
+     * @return 如果 <code>value</code> 是null,返回null
+     * @throws BeanOperationException
+     *             如果某个需要复制的对象没有无参构造函数
+     */
+    @SuppressWarnings("unchecked")
+    <T> T deepClone(T value){
+        if (null == value || isShared(value)){
+            return value;
+        }
+        Object cloned = clonedMap.get(value);
+        if (null != cloned){
+            return (T) cloned;
+        }
+
+        Class<?> klass = value.getClass();
+        if (klass.isArray()){
+            return (T) cloneArray(value, klass.getComponentType());
+        }
+        if (value instanceof Date){
+            return (T) register(value, ((Date) value).clone());
+        }
+        if (value instanceof Calendar){
+            return (T) register(value, ((Calendar) value).clone());
+        }
+        if (value instanceof EnumSet){
+            //元素都是枚举,浅克隆即可
+            return (T) register(value, ((EnumSet<?>) value).clone());
+        }
+        if (isJdkType(klass)){
+            if (value instanceof Collection){
+                return (T) cloneCollection((Collection<Object>) value);
+            }
+            if (value instanceof Map){
+                return (T) cloneMap((Map<Object, Object>) value);
+            }
+        }
+        return (T) cloneBean(value, CLONE_PLAN_CACHE.get(klass));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 判断 <code>value</code> 是否直接共享引用.
+     *
+     * @param value
+     *            the value
+     * @return true, if is shared
+     */
+    private boolean isShared(Object value){
+        Class<?> klass = value.getClass();
+        if (IMMUTABLE_TYPES.contains(klass) || value instanceof Enum){
+            return true;
+        }
+        for (Class<?> shareType : shareTypes){
+            if (shareType.isAssignableFrom(klass)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 记录克隆关系.
+     *
+     * @param original
+     *            the original
+     * @param cloned
+     *            the cloned
+     * @return the cloned
+     */
+    private Object register(Object original,Object cloned){
+        clonedMap.put(original, cloned);
+        return cloned;
+    }
+
+    /**
+     * 克隆数组.
+     *
+     * @param array
+     *            the array
+     * @param componentType
+     *            the component type
+     * @return the object
+     */
+    private Object cloneArray(Object array,Class<?> componentType){
+        int length = Array.getLength(array);
+        Object newArray = register(array, Array.newInstance(componentType, length));
+        if (componentType.isPrimitive()){
+            System.arraycopy(array, 0, newArray, 0, length);
+            return newArray;
+        }
+
+        Object[] objects = (Object[]) array;
+        Object[] newObjects = (Object[]) newArray;
+        for (int i = 0; i < length; ++i){
+            newObjects[i] = deepClone(objects[i]);
+        }
+        return newArray;
+    }
+
+    /**
+     * 克隆 JDK 的集合.
+     *
+     * @param collection
+     *            the collection
+     * @return the collection
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<Object> cloneCollection(Collection<Object> collection){
+        Collection<Object> newCollection = newCollection(collection);
+        //只读的包装类型,克隆之后依然只读;包装的是 newCollection 的视图,可以先登记再添加元素
+        register(collection, isReadOnlyWrapper(collection) ? unmodifiableCollection(collection, newCollection) : newCollection);
+
+        //先克隆全部元素再添加,避免元素还没有克隆完成(比如循环引用)就计算 hashCode
+        List<Object> elements = new ArrayList<Object>(collection.size());
+        for (Object element : collection){
+            elements.add(deepClone(element));
+        }
+        newCollection.addAll(elements);
+        return (Collection<Object>) clonedMap.get(collection);
+    }
+
+    /**
+     * 克隆 JDK 的map.
+     *
+     * @param map
+     *            the map
+     * @return the map
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> cloneMap(Map<Object, Object> map){
+        Map<Object, Object> newMap = newMap(map);
+        register(map, isReadOnlyWrapper(map) ? unmodifiableMap(newMap) : newMap);
+
+        for (Map.Entry<Object, Object> entry : map.entrySet()){
+            newMap.put(deepClone(entry.getKey()), deepClone(entry.getValue()));
+        }
+        return (Map<Object, Object>) clonedMap.get(map);
+    }
+
+    /**
+     * 创建和 <code>collection</code> 同类型(有 comparator 的使用同一个 comparator)的空集合.
+     *
+     * @param collection
+     *            the collection
+     * @return 如果没有公共的构造函数(比如 {@link Collections#emptyList()},{@link java.util.Arrays#asList(Object...)},
+     *         {@link Collections#unmodifiableList(List)},{@link Collections#singleton(Object)}),按照接口使用 {@link TreeSet},{@link LinkedHashSet}
+     *         或者 {@link ArrayList}
+     */
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> newCollection(Collection<Object> collection){
+        Comparator<Object> comparator = getComparator(collection);
+        Collection<Object> newCollection = (Collection<Object>) newInstance(collection, comparator);
+        if (null != newCollection){
+            return newCollection;
+        }
+        if (collection instanceof SortedSet){
+            return new TreeSet<Object>(comparator);
+        }
+        return collection instanceof Set ? new LinkedHashSet<Object>() : new ArrayList<Object>();
+    }
+
+    /**
+     * 创建和 <code>map</code> 同类型(有 comparator 的使用同一个 comparator)的空map.
+     *
+     * @param map
+     *            the map
+     * @return 如果没有公共的构造函数(比如 {@link Collections#emptyMap()},{@link Collections#unmodifiableMap(Map)}),按照接口使用 {@link TreeMap}
+     *         或者 {@link LinkedHashMap}
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Map<Object, Object> newMap(Map<Object, Object> map){
+        if (map instanceof EnumMap){
+            Map<Object, Object> newMap = new EnumMap((EnumMap) map);
+            newMap.clear();
+            return newMap;
+        }
+        Comparator<Object> comparator = getComparator(map);
+        Map<Object, Object> newMap = (Map<Object, Object>) newInstance(map, comparator);
+        if (null != newMap){
+            return newMap;
+        }
+        return map instanceof SortedMap ? new TreeMap<Object, Object>(comparator) : new LinkedHashMap<Object, Object>();
+    }
+
+    /**
+     * 获得有序集合的 comparator.
+     *
+     * @param value
+     *            the value
+     * @return 如果不是 {@link SortedSet},{@link SortedMap},{@link PriorityQueue},{@link PriorityBlockingQueue},或者使用自然顺序,返回null
+     */
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> getComparator(Object value){
+        if (value instanceof SortedSet){
+            return (Comparator<Object>) ((SortedSet<?>) value).comparator();
+        }
+        if (value instanceof SortedMap){
+            return (Comparator<Object>) ((SortedMap<?, ?>) value).comparator();
+        }
+        if (value instanceof PriorityQueue){
+            return (Comparator<Object>) ((PriorityQueue<?>) value).comparator();
+        }
+        if (value instanceof PriorityBlockingQueue){
+            return (Comparator<Object>) ((PriorityBlockingQueue<?>) value).comparator();
+        }
+        return null;
+    }
+
+    /**
+     * 使用公共的构造函数创建和 <code>value</code> 同类型的 JDK 集合实例.
+     *
+     * @param value
+     *            the value
+     * @param comparator
+     *            如果不是null,使用含有 {@link Comparator} 参数的构造函数
+     * @return 如果类型不是 public,或者没有合适的公共构造函数,返回null
+     */
+    private static Object newInstance(Object value,Comparator<Object> comparator){
+        Class<?> klass = value.getClass();
+        if (!Modifier.isPublic(klass.getModifiers())){
+            return null;
+        }
+        try{
+            Constructor<?> defaultConstructor = null;
+            for (Constructor<?> constructor : klass.getConstructors()){
+                Class<?>[] parameterTypes = constructor.getParameterTypes();
+                if (0 == parameterTypes.length){
+                    defaultConstructor = constructor;
+                }else if (null != comparator){
+                    if (1 == parameterTypes.length && Comparator.class == parameterTypes[0]){
+                        return constructor.newInstance(comparator);
+                    }
+                    //jdk1.7 的 PriorityQueue/PriorityBlockingQueue 只有 (int, Comparator)
+                    if (2 == parameterTypes.length && int.class == parameterTypes[0] && Comparator.class == parameterTypes[1]){
+                        return constructor.newInstance(DEFAULT_INITIAL_CAPACITY, comparator);
+                    }
+                }
+            }
+            return null == defaultConstructor ? null : defaultConstructor.newInstance();
+        }catch (Exception e){
+            throw new BeanOperationException(Slf4jUtil.format("new instance of [{}] error", klass.getName()), e);
+        }
+    }
+
+    /**
+     * 是否是 {@link Collections} 返回的只读包装类型(unmodifiableXXX,emptyXXX,singletonXXX).
+     *
+     * @param value
+     *            the value
+     * @return true, if is read only wrapper
+     */
+    private static boolean isReadOnlyWrapper(Object value){
+        String className = value.getClass().getName();
+        return className.startsWith("java.util.Collections$Unmodifiable") || className.startsWith("java.util.Collections$Empty")
+                        || className.startsWith("java.util.Collections$Singleton");
+    }
+
+    /**
+     * 按照 <code>original</code> 的接口把 <code>newCollection</code> 包装成只读集合.
+     *
+     * @param original
+     *            原来的只读集合
+     * @param newCollection
+     *            the new collection
+     * @return the collection
+     */
+    private static Collection<Object> unmodifiableCollection(Collection<Object> original,Collection<Object> newCollection){
+        if (original instanceof List){
+            return Collections.unmodifiableList((List<Object>) newCollection);
+        }
+        if (original instanceof SortedSet){
+            return Collections.unmodifiableSortedSet((SortedSet<Object>) newCollection);
+        }
+        if (original instanceof Set){
+            return Collections.unmodifiableSet((Set<Object>) newCollection);
+        }
+        return Collections.unmodifiableCollection(newCollection);
+    }
+
+    /**
+     * 按照接口包装成只读map.
+     *
+     * @param map
+     *            the map
+     * @return the map
+     */
+    private static Map<Object, Object> unmodifiableMap(Map<Object, Object> map){
+        return map instanceof SortedMap ? Collections.unmodifiableSortedMap((SortedMap<Object, Object>) map) : Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * 按照克隆计划克隆普通 bean.
+     *
+     * @param bean
+     *            the bean
+     * @param clonePlan
+     *            the clone plan
+     * @return the object
+     */
+    @SuppressWarnings("unchecked")
+    private Object cloneBean(Object bean,ClonePlan clonePlan){
+        Object newBean = register(bean, clonePlan.newInstance(bean));
+        try{
+            for (Field field : clonePlan.shallowFields){
+                field.set(newBean, field.get(bean));
+            }
+            for (Field field : clonePlan.deepFields){
+                field.set(newBean, deepClone(field.get(bean)));
+            }
+        }catch (IllegalAccessException e){
+            throw new BeanOperationException(Slf4jUtil.format("deep clone [{}] error", bean.getClass().getName()), e);
+        }
+
+        //JDK 父类里面的元素,通过公共方法重新添加
+        if (JdkStateCopyType.COLLECTION == clonePlan.jdkStateCopyType){
+            Collection<Object> collection = (Collection<Object>) bean;
+            List<Object> elements = new ArrayList<Object>(collection.size());
+            for (Object element : collection){
+                elements.add(deepClone(element));
+            }
+            ((Collection<Object>) newBean).addAll(elements);
+        }else if (JdkStateCopyType.MAP == clonePlan.jdkStateCopyType){
+            Map<Object, Object> newMap = (Map<Object, Object>) newBean;
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) bean).entrySet()){
+                newMap.put(deepClone(entry.getKey()), deepClone(entry.getValue()));
+            }
+        }
+        return newBean;
+    }
+
+    /**
+     * 是否是 JDK 自带的类型.
+     *
+     * @param klass
+     *            the klass
+     * @return true, if is jdk type
+     */
+    private static boolean isJdkType(Class<?> klass){
+        String className = klass.getName();
+        return className.startsWith("java.") || className.startsWith("javax.");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 最近的 JDK 父类(包括 {@link Object})里面的状态的复制方式.
+     */
+    private enum JdkStateCopyType{
+
+        /** JDK 父类没有需要复制的状态(比如 {@link Object},{@link java.util.AbstractList}),无参构造函数创建即可. */
+        NONE,
+
+        /** JDK 父类是具体的 {@link Collection},无参构造函数(或者 comparator 构造函数)创建之后,通过 add 重新添加元素. */
+        COLLECTION,
+
+        /** JDK 父类是具体的 {@link Map},无参构造函数(或者 comparator 构造函数)创建之后,通过 put 重新添加元素. */
+        MAP,
+
+        /** JDK 父类有其他状态,使用公共的 <code>clone()</code> 创建. */
+        CLONE,
+
+        /** JDK 类型本身,或者 JDK 父类的状态没有办法复制. */
+        UNSUPPORTED
+    }
+
+    /**
+     * 某个类的克隆计划.
+     */
+    private static final class ClonePlan{
+
+        /** 目标类. */
+        private final Class<?>         klass;
+
+        /** 无参构造函数,如果没有是null. */
+        private final Constructor<?>   constructor;
+
+        /** 最近的 JDK 父类,如果 {@link #klass} 本身是 JDK 类型,就是 {@link #klass}. */
+        private final Class<?>         jdkSuperclass;
+
+        /** JDK 父类状态的复制方式. */
+        private final JdkStateCopyType jdkStateCopyType;
+
+        /** 公共的 <code>clone()</code> 方法,{@link JdkStateCopyType#CLONE} 的时候使用,如果没有是null. */
+        private final Method           cloneMethod;
+
+        /** 直接复制值的字段(基本类型以及声明类型就是不可变类型的字段). */
+        private final Field[]          shallowFields;
+
+        /** 需要深度克隆值的字段. */
+        private final Field[]          deepFields;
+
+        /**
+         * Instantiates a new clone plan.
+         *
+         * @param klass
+         *            the klass
+         */
+        ClonePlan(Class<?> klass){
+            this.klass = klass;
+            this.constructor = getDefaultConstructor(klass);
+            this.jdkSuperclass = getJdkSuperclass(klass);
+            this.cloneMethod = getCloneMethod(klass);
+            this.jdkStateCopyType = getJdkStateCopyType(klass, jdkSuperclass, cloneMethod);
+
+            List<Field> shallowFieldList = new ArrayList<Field>();
+            List<Field> deepFieldList = new ArrayList<Field>();
+            //只复制 JDK 父类以下声明的字段,不会 setAccessible JDK 的内部字段
+            for (Class<?> currentClass = klass; currentClass != jdkSuperclass; currentClass = currentClass.getSuperclass()){
+                for (Field field : currentClass.getDeclaredFields()){
+                    if (Modifier.isStatic(field.getModifiers())){
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    Class<?> fieldType = field.getType();
+                    if (fieldType.isPrimitive() || IMMUTABLE_TYPES.contains(fieldType)){
+                        shallowFieldList.add(field);
+                    }else{
+                        deepFieldList.add(field);
+                    }
+                }
+            }
+            this.shallowFields = shallowFieldList.toArray(new Field[shallowFieldList.size()]);
+            this.deepFields = deepFieldList.toArray(new Field[deepFieldList.size()]);
+        }
+
+        /**
+         * 创建新的实例.
+         *
+         * @param bean
+         *            被克隆的对象
+         * @return the object
+         */
+        Object newInstance(Object bean){
+            String pattern = "type:[{}] {},can't deep clone,you can register it as immutable type";
+            if (JdkStateCopyType.UNSUPPORTED == jdkStateCopyType){
+                String reason = isJdkType(klass) ? "is not supported" : "extends [" + jdkSuperclass.getName() + "] which is not supported";
+                throw new BeanOperationException(Slf4jUtil.format(pattern, klass.getName(), reason), null);
+            }
+            try{
+                if (JdkStateCopyType.CLONE == jdkStateCopyType){
+                    return cloneMethod.invoke(bean);
+                }
+                //有 comparator 的集合,优先使用含有 comparator 参数的构造函数
+                Comparator<Object> comparator = getComparator(bean);
+                Object newBean = null == comparator ? null : DeepCloner.newInstance(bean, comparator);
+                if (null != newBean){
+                    return newBean;
+                }
+                if (null == constructor){
+                    throw new BeanOperationException(Slf4jUtil.format(pattern, klass.getName(), "has no default constructor"), null);
+                }
+                return constructor.newInstance();
+            }catch (BeanOperationException e){
+                throw e;
+            }catch (Exception e){
+                throw new BeanOperationException(Slf4jUtil.format("new instance of [{}] error", klass.getName()), e);
+            }
+        }
+
+        /**
+         * 获得最近的 JDK 父类.
+         *
+         * @param klass
+         *            the klass
+         * @return 如果 <code>klass</code> 本身是 JDK 类型,返回 <code>klass</code>
+         */
+        private static Class<?> getJdkSuperclass(Class<?> klass){
+            Class<?> currentClass = klass;
+            while (!isJdkType(currentClass)){
+                currentClass = currentClass.getSuperclass();
+            }
+            return currentClass;
+        }
+
+        /**
+         * 判断 JDK 父类里面的状态的复制方式.
+         *
+         * @param klass
+         *            the klass
+         * @param jdkSuperclass
+         *            最近的 JDK 父类
+         * @param cloneMethod
+         *            公共的 <code>clone()</code> 方法,可以是null
+         * @return the jdk state copy type
+         */
+        private static JdkStateCopyType getJdkStateCopyType(Class<?> klass,Class<?> jdkSuperclass,Method cloneMethod){
+            if (klass == jdkSuperclass){
+                return JdkStateCopyType.UNSUPPORTED;
+            }
+            //抽象的 JDK 集合(AbstractList 等)不保存元素,元素在子类自己的字段里面
+            boolean isAbstract = Modifier.isAbstract(jdkSuperclass.getModifiers());
+            if (Collection.class.isAssignableFrom(jdkSuperclass)){
+                return isAbstract ? JdkStateCopyType.NONE : JdkStateCopyType.COLLECTION;
+            }
+            if (Map.class.isAssignableFrom(jdkSuperclass)){
+                return isAbstract ? JdkStateCopyType.NONE : JdkStateCopyType.MAP;
+            }
+            if (!hasInstanceField(jdkSuperclass)){
+                return JdkStateCopyType.NONE;
+            }
+            return null == cloneMethod ? JdkStateCopyType.UNSUPPORTED : JdkStateCopyType.CLONE;
+        }
+
+        /**
+         * <code>klass</code> 以及父类是否声明了实例字段(只读取修饰符,不会 setAccessible).
+         *
+         * @param klass
+         *            the klass
+         * @return true, if successful
+         */
+        private static boolean hasInstanceField(Class<?> klass){
+            for (Class<?> currentClass = klass; null != currentClass; currentClass = currentClass.getSuperclass()){
+                for (Field field : currentClass.getDeclaredFields()){
+                    if (!Modifier.isStatic(field.getModifiers())){
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 获得公共的 <code>clone()</code> 方法.
+         *
+         * @param klass
+         *            the klass
+         * @return 如果没有实现 {@link Cloneable},或者没有公共的 <code>clone()</code> 方法,返回null
+         */
+        private static Method getCloneMethod(Class<?> klass){
+            if (!Cloneable.class.isAssignableFrom(klass)){
+                return null;
+            }
+            try{
+                Method method = klass.getMethod("clone");
+                //子类自己声明的方法,所在的类可能不是 public
+                if (!isJdkType(method.getDeclaringClass())){
+                    method.setAccessible(true);
+                }
+                return method;
+            }catch (NoSuchMethodException e){
+                return null;
+            }
+        }
+
+        /**
+         * 获得无参构造函数.
+         *
+         * @param klass
+         *            the klass
+         * @return 如果是 JDK 的类型,或者没有无参构造函数,返回null
+         */
+        private static Constructor<?> getDefaultConstructor(Class<?> klass){
+            if (isJdkType(klass) || klass.isInterface() || Modifier.isAbstract(klass.getModifiers())){
+                return null;
+            }
+            try{
+                Constructor<?> constructor = klass.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor;
+            }catch (NoSuchMethodException e){
+                return null;
+            }
+        }
+    }
+}
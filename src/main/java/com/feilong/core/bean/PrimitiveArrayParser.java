@@ -0,0 +1,876 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.ToPrimitiveArrayConfig.InvalidElementPolicy;
+
+/**
+ * 把对象直接解析成基本类型数组,不经过 beanutils {@link org.apache.commons.beanutils.converters.ArrayConverter},也不产生装箱对象.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link CharSequence} 只扫描一遍,在原始字符上按照分隔符定位每个元素的起止位置,然后直接在字符上解析数字,不会 split 出中间字符串</li>
+ * <li>和 {@link org.apache.commons.beanutils.converters.ArrayConverter} 一样,整个字符串可以被 '{' 和 '}' 包裹;没有指定分隔符的时候,
+ * 除了字母,数字,'.','-' 以外的字符(空白,逗号,分号等等)都是分隔符,连续的分隔符不会产生空元素</li>
+ * <li>和 {@link org.apache.commons.beanutils.converters.NumberConverter} 一样,{@link Number} 元素直接使用 {@link Number#longValue()},小数部分直接截掉</li>
+ * <li>结果数组按需扩容,最后截取成实际长度</li>
+ * <li>double 只支持十进制表示(比如 <code>1</code>,<code>-1.5</code>,<code>1e10</code>);尾数不超过 2<sup>53</sup> 并且没有指数的时候直接计算,
+ * 计算结果和 {@link Double#parseDouble(String)} 一致;其他情况在字符校验通过后交给 {@link Double#parseDouble(String)}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+final class PrimitiveArrayParser{
+
+    /** 默认配置,不对外暴露,所以不会被修改. */
+    private static final ToPrimitiveArrayConfig DEFAULT_CONFIG   = new ToPrimitiveArrayConfig();
+
+    /** 字符串解析的时候数组的初始大小. */
+    private static final int                    DEFAULT_CAPACITY = 16;
+
+    /** 10 的 0~22 次方,都可以用 double 精确表示. */
+    private static final double[]               POWERS_OF_TEN    = {
+                                                                     1e0,
+                                                                     1e1,
+                                                                     1e2,
+                                                                     1e3,
+                                                                     1e4,
+                                                                     1e5,
+                                                                     1e6,
+                                                                     1e7,
+                                                                     1e8,
+                                                                     1e9,
+                                                                     1e10,
+                                                                     1e11,
+                                                                     1e12,
+                                                                     1e13,
+                                                                     1e14,
+                                                                     1e15,
+                                                                     1e16,
+                                                                     1e17,
+                                                                     1e18,
+                                                                     1e19,
+                                                                     1e20,
+                                                                     1e21,
+                                                                     1e22 };
+
+    /** 尾数小于这个值的时候,再追加一位数字仍然小于 2<sup>53</sup>,可以用 double 精确表示. */
+    private static final long                   MANTISSA_LIMIT   = (1L << 53) / 10;
+
+    /** Don't let anyone instantiate this class. */
+    private PrimitiveArrayParser(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 转成 <code>int[]</code>.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @param toPrimitiveArrayConfig
+     *            配置,如果是null,使用默认配置
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null
+     */
+    static int[] toIntArray(Object toBeConvertedValue,ToPrimitiveArrayConfig toPrimitiveArrayConfig){
+        if (null == toBeConvertedValue){
+            return null;
+        }
+        IntArrayBuilder builder = new IntArrayBuilder(toPrimitiveArrayConfig, initialCapacity(toBeConvertedValue));
+        parse(toBeConvertedValue, builder);
+        return builder.toArray();
+    }
+
+    /**
+     * 转成 <code>long[]</code>.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @param toPrimitiveArrayConfig
+     *            配置,如果是null,使用默认配置
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null
+     */
+    static long[] toLongArray(Object toBeConvertedValue,ToPrimitiveArrayConfig toPrimitiveArrayConfig){
+        if (null == toBeConvertedValue){
+            return null;
+        }
+        LongArrayBuilder builder = new LongArrayBuilder(toPrimitiveArrayConfig, initialCapacity(toBeConvertedValue));
+        parse(toBeConvertedValue, builder);
+        return builder.toArray();
+    }
+
+    /**
+     * 转成 <code>double[]</code>.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @param toPrimitiveArrayConfig
+     *            配置,如果是null,使用默认配置
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null
+     */
+    static double[] toDoubleArray(Object toBeConvertedValue,ToPrimitiveArrayConfig toPrimitiveArrayConfig){
+        if (null == toBeConvertedValue){
+            return null;
+        }
+        DoubleArrayBuilder builder = new DoubleArrayBuilder(toPrimitiveArrayConfig, initialCapacity(toBeConvertedValue));
+        parse(toBeConvertedValue, builder);
+        return builder.toArray();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 根据 <code>toBeConvertedValue</code> 的类型,把每个元素交给 <code>builder</code>.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @param builder
+     *            the builder
+     */
+    private static void parse(Object toBeConvertedValue,AbstractArrayBuilder builder){
+        if (toBeConvertedValue instanceof CharSequence){
+            parseDelimited((CharSequence) toBeConvertedValue, builder);
+        }else if (toBeConvertedValue instanceof Object[]){
+            for (Object element : (Object[]) toBeConvertedValue){
+                builder.addElement(element);
+            }
+        }else if (toBeConvertedValue instanceof Collection){
+            for (Object element : (Collection<?>) toBeConvertedValue){
+                builder.addElement(element);
+            }
+        }else if (toBeConvertedValue.getClass().isArray()){
+            for (int i = 0, j = Array.getLength(toBeConvertedValue); i < j; ++i){
+                builder.addElement(Array.get(toBeConvertedValue, i));
+            }
+        }else{
+            builder.addElement(toBeConvertedValue);
+        }
+    }
+
+    /**
+     * 扫描一遍 <code>charSequence</code>,按照分隔符把每个元素的起止位置交给 <code>builder</code>.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param builder
+     *            the builder
+     */
+    private static void parseDelimited(CharSequence charSequence,AbstractArrayBuilder builder){
+        int begin = trimBegin(charSequence, 0, charSequence.length());
+        int end = trimEnd(charSequence, begin, charSequence.length());
+
+        //和 ArrayConverter 一样,支持 {1,2,3}
+        if (end - begin >= 2 && charSequence.charAt(begin) == '{' && charSequence.charAt(end - 1) == '}'){
+            begin = trimBegin(charSequence, begin + 1, end - 1);
+            end = trimEnd(charSequence, begin, end - 1);
+        }
+        if (begin == end){
+            return;
+        }
+
+        String delimiters = builder.delimiters;
+        if (null == delimiters){
+            parseDefaultDelimited(charSequence, begin, end, builder);
+            return;
+        }
+        boolean isSingleDelimiter = delimiters.length() == 1;
+        char singleDelimiter = delimiters.charAt(0);
+
+        int elementBegin = begin;
+        for (int i = begin; i < end; ++i){
+            char c = charSequence.charAt(i);
+            if (isSingleDelimiter ? c == singleDelimiter : delimiters.indexOf(c) >= 0){
+                builder.addElement(charSequence, elementBegin, i);
+                elementBegin = i + 1;
+            }
+        }
+        builder.addElement(charSequence, elementBegin, end);
+    }
+
+    /**
+     * 按照 {@link org.apache.commons.beanutils.converters.ArrayConverter} 默认的规则分隔,跳过空元素.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param begin
+     *            the begin
+     * @param end
+     *            the end
+     * @param builder
+     *            the builder
+     */
+    private static void parseDefaultDelimited(CharSequence charSequence,int begin,int end,AbstractArrayBuilder builder){
+        int elementBegin = -1;
+        for (int i = begin; i < end; ++i){
+            if (isDefaultElementChar(charSequence.charAt(i))){
+                if (elementBegin < 0){
+                    elementBegin = i;
+                }
+            }else if (elementBegin >= 0){
+                builder.addElement(charSequence, elementBegin, i);
+                elementBegin = -1;
+            }
+        }
+        if (elementBegin >= 0){
+            builder.addElement(charSequence, elementBegin, end);
+        }
+    }
+
+    /**
+     * 是否是元素的一部分.
+     * 
+     * <p>
+     * 同 {@link org.apache.commons.beanutils.converters.ArrayConverter} 使用的 {@link java.io.StreamTokenizer} 的 word 字符: 字母,数字,'.','-',以及
+     * <code>0xA0</code> 以上的字符,其他字符都当作分隔符.
+     * </p>
+     *
+     * @param c
+     *            the c
+     * @return true, if is default element char
+     */
+    private static boolean isDefaultElementChar(char c){
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '.' || c == '-' || c >= 0xA0;
+    }
+
+    /**
+     * 初始容量,数组和集合可以直接知道长度.
+     *
+     * @param toBeConvertedValue
+     *            the to be converted value
+     * @return the int
+     */
+    private static int initialCapacity(Object toBeConvertedValue){
+        if (toBeConvertedValue instanceof Object[]){
+            return ((Object[]) toBeConvertedValue).length;
+        }
+        if (toBeConvertedValue instanceof Collection){
+            return ((Collection<?>) toBeConvertedValue).size();
+        }
+        if (toBeConvertedValue.getClass().isArray()){
+            return Array.getLength(toBeConvertedValue);
+        }
+        return toBeConvertedValue instanceof CharSequence ? DEFAULT_CAPACITY : 1;
+    }
+
+    /**
+     * 跳过开头的空白(规则同 {@link String#trim()}).
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param begin
+     *            the begin
+     * @param end
+     *            the end
+     * @return 第一个非空白字符的位置,如果全是空白,返回 <code>end</code>
+     */
+    private static int trimBegin(CharSequence charSequence,int begin,int end){
+        int i = begin;
+        while (i < end && charSequence.charAt(i) <= ' '){
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * 跳过结尾的空白(规则同 {@link String#trim()}).
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param begin
+     *            the begin
+     * @param end
+     *            the end
+     * @return 最后一个非空白字符的下一个位置,如果全是空白,返回 <code>begin</code>
+     */
+    private static int trimEnd(CharSequence charSequence,int begin,int end){
+        int i = end;
+        while (i > begin && charSequence.charAt(i - 1) <= ' '){
+            --i;
+        }
+        return i;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 基本类型数组构造器,负责元素的解析,以及按照 {@link InvalidElementPolicy} 处理不能转换的元素.
+     */
+    private abstract static class AbstractArrayBuilder{
+
+        /** The delimiters. */
+        private final String               delimiters;
+
+        /** The invalid element policy. */
+        private final InvalidElementPolicy invalidElementPolicy;
+
+        /** The default value. */
+        protected final Number             defaultValue;
+
+        /** 已经添加的元素个数. */
+        protected int                      size;
+
+        /** 最近一次 {@link #parseLong(CharSequence, int, int, long, long)} 成功的结果. */
+        protected long                     parsedLong;
+
+        /**
+         * Instantiates a new abstract array builder.
+         *
+         * @param toPrimitiveArrayConfig
+         *            the to primitive array config
+         */
+        AbstractArrayBuilder(ToPrimitiveArrayConfig toPrimitiveArrayConfig){
+            ToPrimitiveArrayConfig config = null == toPrimitiveArrayConfig ? DEFAULT_CONFIG : toPrimitiveArrayConfig;
+
+            this.delimiters = config.getDelimiters();
+            this.invalidElementPolicy = config.getInvalidElementPolicy();
+            this.defaultValue = config.getDefaultValue();
+
+            if (null != delimiters){
+                Validate.notEmpty(delimiters, "delimiters can't be empty!");
+            }
+            Validate.notNull(invalidElementPolicy, "invalidElementPolicy can't be null!");
+            if (invalidElementPolicy == InvalidElementPolicy.USE_DEFAULT){
+                Validate.notNull(defaultValue, "when invalidElementPolicy is USE_DEFAULT,defaultValue can't be null!");
+            }
+        }
+
+        /**
+         * 添加数组或者集合里面的一个元素.
+         *
+         * @param element
+         *            the element
+         */
+        void addElement(Object element){
+            if (element instanceof CharSequence){
+                CharSequence charSequence = (CharSequence) element;
+                addElement(charSequence, 0, charSequence.length());
+            }else if (element instanceof Number){
+                addNumber((Number) element);
+            }else if (element instanceof Boolean){
+                //和 NumberConverter 一样, true 转成1, false 转成0
+                addLong(((Boolean) element) ? 1L : 0L);
+            }else if (null == element){
+                handleInvalid(null);
+            }else{
+                String string = element.toString();
+                addElement(string, 0, string.length());
+            }
+        }
+
+        /**
+         * 添加 <code>charSequence</code> 中 [begin,end) 这一段表示的元素.
+         *
+         * @param charSequence
+         *            the char sequence
+         * @param begin
+         *            the begin
+         * @param end
+         *            the end
+         */
+        void addElement(CharSequence charSequence,int begin,int end){
+            int trimBegin = trimBegin(charSequence, begin, end);
+            int trimEnd = trimEnd(charSequence, trimBegin, end);
+            if (trimBegin == trimEnd || !parseAndAdd(charSequence, trimBegin, trimEnd)){
+                handleInvalid(charSequence.subSequence(begin, end));
+            }
+        }
+
+        /**
+         * 添加 {@link Number} 元素,和 {@link org.apache.commons.beanutils.converters.NumberConverter} 一样使用 {@link Number#longValue()},小数部分直接截掉.
+         *
+         * @param number
+         *            the number
+         */
+        void addNumber(Number number){
+            addLong(number.longValue());
+        }
+
+        /**
+         * 按照 {@link InvalidElementPolicy} 处理不能转换的元素.
+         *
+         * @param element
+         *            the element
+         */
+        void handleInvalid(Object element){
+            switch (invalidElementPolicy) {
+                case SKIP:
+                    break;
+                case USE_DEFAULT:
+                    addDefault();
+                    break;
+                default:
+                    throw new NumberFormatException("can't convert element:[" + element + "] to " + getTypeName());
+            }
+        }
+
+        /**
+         * 直接在字符上解析十进制整数,不会抛出异常(逻辑同 {@link Long#parseLong(String)},但是不支持 unicode 数字).
+         *
+         * @param charSequence
+         *            the char sequence
+         * @param begin
+         *            第一个字符,已经去除空白
+         * @param end
+         *            the end
+         * @param min
+         *            允许的最小值
+         * @param max
+         *            允许的最大值
+         * @return 如果是合法并且在范围内的整数,结果保存在 {@link #parsedLong},返回true
+         */
+        boolean parseLong(CharSequence charSequence,int begin,int end,long min,long max){
+            int i = begin;
+            char first = charSequence.charAt(i);
+            boolean negative = first == '-';
+            if (negative || first == '+'){
+                if (++i == end){
+                    return false;
+                }
+            }
+
+            //和 jdk 一样按照负数累加,这样 min 不会溢出
+            long limit = negative ? min : -max;
+            long multmin = limit / 10;
+            long result = 0;
+            for (; i < end; ++i){
+                int digit = charSequence.charAt(i) - '0';
+                if (digit < 0 || digit > 9 || result < multmin){
+                    return false;
+                }
+                result *= 10;
+                if (result < limit + digit){
+                    return false;
+                }
+                result -= digit;
+            }
+            parsedLong = negative ? result : -result;
+            return true;
+        }
+
+        /**
+         * 解析并添加元素.
+         *
+         * @param charSequence
+         *            the char sequence
+         * @param begin
+         *            第一个字符,已经去除空白
+         * @param end
+         *            最后一个字符的下一个位置,已经去除空白,并且 <code>end</code> &gt; <code>begin</code>
+         * @return 如果不能转换,返回false
+         */
+        abstract boolean parseAndAdd(CharSequence charSequence,int begin,int end);
+
+        /**
+         * 添加整数类型的值,如果超出范围,按照 {@link InvalidElementPolicy} 处理.
+         *
+         * @param value
+         *            the value
+         */
+        abstract void addLong(long value);
+
+        /**
+         * 添加默认值.
+         */
+        abstract void addDefault();
+
+        /**
+         * 异常信息里面的类型名字.
+         *
+         * @return the type name
+         */
+        abstract String getTypeName();
+
+        /**
+         * 计算扩容后的长度.
+         *
+         * @param length
+         *            当前长度
+         * @return 新长度
+         */
+        static int grow(int length){
+            return Math.max(DEFAULT_CAPACITY, length + (length >> 1) + 1);
+        }
+    }
+
+    /**
+     * <code>int[]</code> 构造器.
+     */
+    private static final class IntArrayBuilder extends AbstractArrayBuilder{
+
+        /** The array. */
+        private int[] array;
+
+        /**
+         * Instantiates a new int array builder.
+         *
+         * @param toPrimitiveArrayConfig
+         *            the to primitive array config
+         * @param initialCapacity
+         *            the initial capacity
+         */
+        IntArrayBuilder(ToPrimitiveArrayConfig toPrimitiveArrayConfig, int initialCapacity){
+            super(toPrimitiveArrayConfig);
+            this.array = new int[initialCapacity];
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#parseAndAdd(java.lang.CharSequence, int, int)
+         */
+        @Override
+        boolean parseAndAdd(CharSequence charSequence,int begin,int end){
+            if (!parseLong(charSequence, begin, end, Integer.MIN_VALUE, Integer.MAX_VALUE)){
+                return false;
+            }
+            add((int) parsedLong);
+            return true;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#addLong(long)
+         */
+        @Override
+        void addLong(long value){
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE){
+                handleInvalid(value);
+            }else{
+                add((int) value);
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#addDefault()
+         */
+        @Override
+        void addDefault(){
+            add(defaultValue.intValue());
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#getTypeName()
+         */
+        @Override
+        String getTypeName(){
+            return "int";
+        }
+
+        /**
+         * Adds the.
+         *
+         * @param value
+         *            the value
+         */
+        private void add(int value){
+            if (size == array.length){
+                array = Arrays.copyOf(array, grow(size));
+            }
+            array[size++] = value;
+        }
+
+        /**
+         * To array.
+         *
+         * @return the int[]
+         */
+        int[] toArray(){
+            return size == array.length ? array : Arrays.copyOf(array, size);
+        }
+    }
+
+    /**
+     * <code>long[]</code> 构造器.
+     */
+    private static final class LongArrayBuilder extends AbstractArrayBuilder{
+
+        /** The array. */
+        private long[] array;
+
+        /**
+         * Instantiates a new long array builder.
+         *
+         * @param toPrimitiveArrayConfig
+         *            the to primitive array config
+         * @param initialCapacity
+         *            the initial capacity
+         */
+        LongArrayBuilder(ToPrimitiveArrayConfig toPrimitiveArrayConfig, int initialCapacity){
+            super(toPrimitiveArrayConfig);
+            this.array = new long[initialCapacity];
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#parseAndAdd(java.lang.CharSequence, int, int)
+         */
+        @Override
+        boolean parseAndAdd(CharSequence charSequence,int begin,int end){
+            if (!parseLong(charSequence, begin, end, Long.MIN_VALUE, Long.MAX_VALUE)){
+                return false;
+            }
+            addLong(parsedLong);
+            return true;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#addLong(long)
+         */
+        @Override
+        void addLong(long value){
+            if (size == array.length){
+                array = Arrays.copyOf(array, grow(size));
+            }
+            array[size++] = value;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#addDefault()
+         */
+        @Override
+        void addDefault(){
+            addLong(defaultValue.longValue());
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#getTypeName()
+         */
+        @Override
+        String getTypeName(){
+            return "long";
+        }
+
+        /**
+         * To array.
+         *
+         * @return the long[]
+         */
+        long[] toArray(){
+            return size == array.length ? array : Arrays.copyOf(array, size);
+        }
+    }
+
+    /**
+     * <code>double[]</code> 构造器.
+     */
+    private static final class DoubleArrayBuilder extends AbstractArrayBuilder{
+
+        /** The array. */
+        private double[] array;
+
+        /**
+         * Instantiates a new double array builder.
+         *
+         * @param toPrimitiveArrayConfig
+         *            the to primitive array config
+         * @param initialCapacity
+         *            the initial capacity
+         */
+        DoubleArrayBuilder(ToPrimitiveArrayConfig toPrimitiveArrayConfig, int initialCapacity){
+            super(toPrimitiveArrayConfig);
+            this.array = new double[initialCapacity];
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#parseAndAdd(java.lang.CharSequence, int, int)
+         */
+        @Override
+        boolean parseAndAdd(CharSequence charSequence,int begin,int end){
+            int i = begin;
+            char first = charSequence.charAt(i);
+            boolean negative = first == '-';
+            if (negative || first == '+'){
+                ++i;
+            }
+
+            long mantissa = 0;
+            int scale = 0;
+            int digitCount = 0;
+            boolean exact = true;
+            boolean seenDot = false;
+            for (; i < end; ++i){
+                char c = charSequence.charAt(i);
+                if (c >= '0' && c <= '9'){
+                    ++digitCount;
+                    if (mantissa < MANTISSA_LIMIT){
+                        mantissa = mantissa * 10 + (c - '0');
+                        if (seenDot){
+                            ++scale;
+                        }
+                    }else{
+                        exact = false;
+                    }
+                }else if (c == '.' && !seenDot){
+                    seenDot = true;
+                }else{
+                    break;
+                }
+            }
+            if (digitCount == 0){
+                //和 Double.parseDouble 一样,支持 NaN 以及 Infinity
+                if (isWord(charSequence, i, end, "NaN") || isWord(charSequence, i, end, "Infinity")){
+                    add(Double.parseDouble(charSequence.subSequence(begin, end).toString()));
+                    return true;
+                }
+                return false;
+            }
+
+            //剩下的只能是指数部分
+            if (i < end){
+                char c = charSequence.charAt(i);
+                if (c != 'e' && c != 'E'){
+                    return false;
+                }
+                if (++i < end && (charSequence.charAt(i) == '+' || charSequence.charAt(i) == '-')){
+                    ++i;
+                }
+                if (i == end){
+                    return false;
+                }
+                for (; i < end; ++i){
+                    c = charSequence.charAt(i);
+                    if (c < '0' || c > '9'){
+                        return false;
+                    }
+                }
+                exact = false;
+            }
+
+            if (exact && scale < POWERS_OF_TEN.length){
+                //尾数和 10 的幂都是精确的,一次除法的结果就是正确舍入的结果
+                double value = mantissa / POWERS_OF_TEN[scale];
+                add(negative ? -value : value);
+            }else{
+                //字符已经校验过,不会抛出异常
+                add(Double.parseDouble(charSequence.subSequence(begin, end).toString()));
+            }
+            return true;
+        }
+
+        /**
+         * [begin,end) 这一段是否正好是 <code>word</code>.
+         *
+         * @param charSequence
+         *            the char sequence
+         * @param begin
+         *            the begin
+         * @param end
+         *            the end
+         * @param word
+         *            the word
+         * @return true, if is word
+         */
+        private static boolean isWord(CharSequence charSequence,int begin,int end,String word){
+            if (end - begin != word.length()){
+                return false;
+            }
+            for (int i = 0; i < word.length(); ++i){
+                if (charSequence.charAt(begin + i) != word.charAt(i)){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#addNumber(java.lang.Number)
+         */
+        @Override
+        void addNumber(Number number){
+            add(number.doubleValue());
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#addLong(long)
+         */
+        @Override
+        void addLong(long value){
+            add(value);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#addDefault()
+         */
+        @Override
+        void addDefault(){
+            add(defaultValue.doubleValue());
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PrimitiveArrayParser.AbstractArrayBuilder#getTypeName()
+         */
+        @Override
+        String getTypeName(){
+            return "double";
+        }
+
+        /**
+         * Adds the.
+         *
+         * @param value
+         *            the value
+         */
+        private void add(double value){
+            if (size == array.length){
+                array = Arrays.copyOf(array, grow(size));
+            }
+            array[size++] = value;
+        }
+
+        /**
+         * To array.
+         *
+         * @return the double[]
+         */
+        double[] toArray(){
+            return size == array.length ? array : Arrays.copyOf(array, size);
+        }
+    }
+}
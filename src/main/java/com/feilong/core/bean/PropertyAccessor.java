@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import org.apache.commons.beanutils.MethodUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 某个类的某个简单属性(simple property)的读写器,内部持有编译好的 getter/setter {@link MethodHandle}.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>每个 (Class, propertyName) 只会创建一次,由 {@link PropertyAccessorRegistry} 缓存,调用的时候不再需要解析属性名称以及查找
+ * {@link java.beans.PropertyDescriptor}</li>
+ * <li>getter/setter 使用 {@link MethodUtils#getAccessibleMethod(Class, Method)} 查找可访问的方法(和
+ * {@link org.apache.commons.beanutils.PropertyUtils PropertyUtils}规则一致),如果找不到,那么 {@link #isReadable()}/{@link #isWritable()} 返回false</li>
+ * <li>只支持简单属性,nested/indexed/mapped 属性请使用 {@link PropertyUtil}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PropertyAccessorRegistry
+ * @since 1.9.2
+ */
+public final class PropertyAccessor{
+
+    /** The Constant LOGGER. */
+    private static final Logger     LOGGER      = LoggerFactory.getLogger(PropertyAccessor.class);
+
+    /** getter 统一适配成的方法类型 <code>(Object)Object</code>. */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /** setter 统一适配成的方法类型 <code>(Object,Object)void</code>. */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** 属性所在的类. */
+    private final Class<?>          beanClass;
+
+    /** 属性名称. */
+    private final String            propertyName;
+
+    /** 属性类型. */
+    private final Class<?>          propertyType;
+
+    /** getter,如果不可读是null. */
+    private final MethodHandle      getter;
+
+    /** setter,如果不可写是null. */
+    private final MethodHandle      setter;
+
+    /** 是否是含有 indexed getter(比如 <code>getFoo(int)</code>)的 indexed 属性. */
+    private final boolean           indexedProperty;
+
+    /**
+     * Instantiates a new property accessor.
+     *
+     * @param beanClass
+     *            属性所在的类
+     * @param propertyName
+     *            属性名称
+     * @param propertyType
+     *            属性类型
+     * @param readMethod
+     *            读方法,可以是null
+     * @param writeMethod
+     *            写方法,可以是null
+     * @param indexedProperty
+     *            是否是含有 indexed getter 的 indexed 属性
+     */
+    PropertyAccessor(Class<?> beanClass, String propertyName, Class<?> propertyType, Method readMethod, Method writeMethod,
+                    boolean indexedProperty){
+        this.beanClass = beanClass;
+        this.propertyName = propertyName;
+        this.propertyType = propertyType;
+        this.getter = toMethodHandle(beanClass, readMethod, GETTER_TYPE);
+        this.setter = toMethodHandle(beanClass, writeMethod, SETTER_TYPE);
+        this.indexedProperty = indexedProperty;
+    }
+
+    /**
+     * 读取 <code>bean</code> 的属性值.
+     *
+     * @param bean
+     *            bean,必须是 {@link #getBeanClass()} 的实例
+     * @return 属性值
+     * @throws BeanOperationException
+     *             如果属性不可读,或者 getter 执行出现异常
+     */
+    public Object getValue(Object bean){
+        if (null == getter){
+            throw new BeanOperationException(Slf4jUtil.format("property:[{}] of [{}] has no getter method", propertyName, beanClass), null);
+        }
+        try{
+            return (Object) getter.invokeExact(bean);
+        }catch (Error e){
+            throw e;
+        }catch (Throwable e){
+            throw new BeanOperationException(Slf4jUtil.format("get property:[{}] of [{}] error", propertyName, beanClass), e);
+        }
+    }
+
+    /**
+     * 设置 <code>bean</code> 的属性值,不会进行类型转换.
+     *
+     * @param bean
+     *            bean,必须是 {@link #getBeanClass()} 的实例
+     * @param value
+     *            属性值
+     * @throws BeanOperationException
+     *             如果属性不可写,或者 setter 执行出现异常(包括类型不匹配)
+     */
+    public void setValue(Object bean,Object value){
+        if (null == setter){
+            throw new BeanOperationException(Slf4jUtil.format("property:[{}] of [{}] has no setter method", propertyName, beanClass), null);
+        }
+        try{
+            setter.invokeExact(bean, value);
+        }catch (Error e){
+            throw e;
+        }catch (Throwable e){
+            throw new BeanOperationException(Slf4jUtil.format("set property:[{}] of [{}] error", propertyName, beanClass), e);
+        }
+    }
+
+    /**
+     * 是否可读.
+     *
+     * @return 如果有可访问的 getter,返回true
+     */
+    public boolean isReadable(){
+        return null != getter;
+    }
+
+    /**
+     * 是否可写.
+     *
+     * @return 如果有可访问的 setter,返回true
+     */
+    public boolean isWritable(){
+        return null != setter;
+    }
+
+    /**
+     * 是否是含有 indexed getter(比如 <code>getFoo(int)</code>)的 indexed 属性.
+     * 
+     * <p>
+     * 对于这种属性,<code>foo[0]</code> 需要调用 indexed getter,不能先读取整个值再取下标,所以不能走快速通道.
+     * </p>
+     *
+     * @return true, if is indexed property
+     */
+    boolean isIndexedProperty(){
+        return indexedProperty;
+    }
+
+    /**
+     * 将方法转成指定类型的 {@link MethodHandle}.
+     *
+     * @param beanClass
+     *            the bean class
+     * @param method
+     *            the method
+     * @param methodType
+     *            适配的方法类型
+     * @return 如果 <code>method</code> 是null,或者找不到可访问的方法,返回null
+     */
+    private static MethodHandle toMethodHandle(Class<?> beanClass,Method method,MethodType methodType){
+        Method accessibleMethod = null == method ? null : MethodUtils.getAccessibleMethod(beanClass, method);
+        if (null == accessibleMethod){
+            return null;
+        }
+        try{
+            return MethodHandles.publicLookup().unreflect(accessibleMethod).asType(methodType);
+        }catch (IllegalAccessException e){
+            LOGGER.debug("method:[{}] can't be accessed,use PropertyUtils instead", accessibleMethod, e);
+            return null;
+        }
+    }
+
+    /**
+     * 获得 属性所在的类.
+     *
+     * @return the beanClass
+     */
+    public Class<?> getBeanClass(){
+        return beanClass;
+    }
+
+    /**
+     * 获得 属性名称.
+     *
+     * @return the propertyName
+     */
+    public String getPropertyName(){
+        return propertyName;
+    }
+
+    /**
+     * 获得 属性类型.
+     *
+     * @return the propertyType
+     */
+    public Class<?> getPropertyType(){
+        return propertyType;
+    }
+}
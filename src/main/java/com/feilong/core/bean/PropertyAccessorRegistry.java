@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static java.util.Collections.unmodifiableMap;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.PropertyDescriptor;
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+
+/**
+ * {@link PropertyAccessor} 的注册中心,按照 (Class, propertyName) 缓存编译好的属性读写器.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>每个类第一次访问的时候,基于 {@link PropertyUtils#getPropertyDescriptors(Class)} 一次性构建该类所有属性的 {@link PropertyAccessor},以后只读不写,不需要加锁</li>
+ * <li>缓存基于 {@link ClassValue},缓存的数据挂在 Class 上,类被卸载(比如 web 应用 redeploy)的时候会随之回收,不会造成 ClassLoader 泄漏</li>
+ * <li>只处理普通 bean 的简单属性,{@link Map},{@link DynaBean} 以及 nested/indexed/mapped 属性,调用方需要继续使用
+ * {@link PropertyUtils}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PropertyAccessor
+ * @since 1.9.2
+ */
+public final class PropertyAccessorRegistry{
+
+    /** 按照类缓存的 属性名称和 {@link PropertyAccessor} 对应关系,key 的顺序和 {@link PropertyUtils#getPropertyDescriptors(Class)} 一致. */
+    private static final ClassValue<Map<String, PropertyAccessor>> PROPERTY_ACCESSORS_CACHE = new ClassValue<Map<String, PropertyAccessor>>(){
+
+        @Override
+        protected Map<String, PropertyAccessor> computeValue(Class<?> type){
+            return buildPropertyAccessorMap(type);
+        }
+    };
+
+    /** 属性表达式中的特殊字符,含有这些字符的属性名称是 nested/indexed/mapped 属性. */
+    private static final char[]                                     EXPRESSION_CHARS         = { '.', '[', ']', '(', ')' };
+
+    /** Don't let anyone instantiate this class. */
+    private PropertyAccessorRegistry(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * 获得 <code>beanClass</code> 指定简单属性 <code>propertyName</code> 的 {@link PropertyAccessor}.
+     *
+     * @param beanClass
+     *            the bean class
+     * @param propertyName
+     *            简单属性名称
+     * @return 如果 <code>beanClass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>beanClass</code> 没有这个属性,返回null<br>
+     */
+    public static PropertyAccessor getPropertyAccessor(Class<?> beanClass,String propertyName){
+        Validate.notNull(beanClass, "beanClass can't be null!");
+        return PROPERTY_ACCESSORS_CACHE.get(beanClass).get(propertyName);
+    }
+
+    /**
+     * 获得 <code>beanClass</code> 所有属性的 {@link PropertyAccessor}.
+     *
+     * @param beanClass
+     *            the bean class
+     * @return 如果 <code>beanClass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         否则返回不可修改的集合,顺序和 {@link PropertyUtils#getPropertyDescriptors(Class)} 一致(包含 <code>class</code> 属性)
+     */
+    public static Collection<PropertyAccessor> getPropertyAccessors(Class<?> beanClass){
+        Validate.notNull(beanClass, "beanClass can't be null!");
+        return PROPERTY_ACCESSORS_CACHE.get(beanClass).values();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 如果 <code>bean</code> 的 <code>propertyName</code> 可以走缓存的快速通道读取,返回对应的 {@link PropertyAccessor}.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyName
+     *            the property name
+     * @return 如果 <code>bean</code> 是 {@link Map}/{@link DynaBean},或者 <code>propertyName</code> 不是简单属性,或者属性不可读,返回null
+     */
+    static PropertyAccessor getReadablePropertyAccessor(Object bean,String propertyName){
+        PropertyAccessor propertyAccessor = getSimplePropertyAccessor(bean, propertyName);
+        return null != propertyAccessor && propertyAccessor.isReadable() ? propertyAccessor : null;
+    }
+
+    /**
+     * 如果 <code>bean</code> 的 <code>propertyName</code> 可以走缓存的快速通道写入,返回对应的 {@link PropertyAccessor}.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyName
+     *            the property name
+     * @return 如果 <code>bean</code> 是 {@link Map}/{@link DynaBean},或者 <code>propertyName</code> 不是简单属性,或者属性不可写,返回null
+     */
+    static PropertyAccessor getWritablePropertyAccessor(Object bean,String propertyName){
+        PropertyAccessor propertyAccessor = getSimplePropertyAccessor(bean, propertyName);
+        return null != propertyAccessor && propertyAccessor.isWritable() ? propertyAccessor : null;
+    }
+
+    /**
+     * 判断 <code>bean</code> 是否是可以使用 {@link PropertyAccessor} 的普通 bean.
+     *
+     * @param bean
+     *            the bean
+     * @return 如果 <code>bean</code> 不是 {@link Map} 也不是 {@link DynaBean},返回true
+     */
+    static boolean isSupportBean(Object bean){
+        return !(bean instanceof Map) && !(bean instanceof DynaBean);
+    }
+
+    /**
+     * 判断 <code>propertyName</code> 是否是简单属性名称(不是 nested/indexed/mapped 表达式).
+     *
+     * @param propertyName
+     *            the property name
+     * @return 如果不含有 <code>.[]()</code> 字符,返回true
+     */
+    static boolean isSimplePropertyName(String propertyName){
+        return StringUtils.containsNone(propertyName, EXPRESSION_CHARS);
+    }
+
+    /**
+     * 获得简单属性的 {@link PropertyAccessor}.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyName
+     *            the property name
+     * @return 如果不支持,返回null
+     */
+    private static PropertyAccessor getSimplePropertyAccessor(Object bean,String propertyName){
+        return isSupportBean(bean) && isSimplePropertyName(propertyName) ? PROPERTY_ACCESSORS_CACHE.get(bean.getClass()).get(propertyName)
+                        : null;
+    }
+
+    /**
+     * 构建 <code>beanClass</code> 所有属性的 {@link PropertyAccessor}.
+     *
+     * @param beanClass
+     *            the bean class
+     * @return the map
+     */
+    private static Map<String, PropertyAccessor> buildPropertyAccessorMap(Class<?> beanClass){
+        PropertyDescriptor[] propertyDescriptors = PropertyUtils.getPropertyDescriptors(beanClass);
+
+        Map<String, PropertyAccessor> map = newLinkedHashMap(propertyDescriptors.length);
+        for (PropertyDescriptor propertyDescriptor : propertyDescriptors){
+            String name = propertyDescriptor.getName();
+            map.put(
+                            name,
+                            new PropertyAccessor(
+                                            beanClass,
+                                            name,
+                                            propertyDescriptor.getPropertyType(),
+                                            propertyDescriptor.getReadMethod(),
+                                            propertyDescriptor.getWriteMethod(),
+                                            isIndexedProperty(propertyDescriptor)));
+        }
+        return unmodifiableMap(map);
+    }
+
+    /**
+     * 判断是否是含有 indexed getter 的 {@link IndexedPropertyDescriptor}.
+     *
+     * @param propertyDescriptor
+     *            the property descriptor
+     * @return true, if is indexed property
+     */
+    private static boolean isIndexedProperty(PropertyDescriptor propertyDescriptor){
+        return propertyDescriptor instanceof IndexedPropertyDescriptor
+                        && null != ((IndexedPropertyDescriptor) propertyDescriptor).getIndexedReadMethod();
+    }
+}
@@ -0,0 +1,485 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.apache.commons.beanutils.NestedNullException;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.beanutils.expression.Resolver;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 预先解析好的属性表达式(can be nested/indexed/mapped/combo),比如 <code>"order.customer.address.city"</code>,<code>"userAddresseList[0].address"</code>.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>表达式只在 {@link #compile(String)} 的时候使用 beanutils 的 {@link Resolver} 解析一次,以后每次取值/设值不再重复解析字符串</li>
+ * <li>每一段简单属性会绑定运行时类的 {@link PropertyAccessor}(弱引用,不会阻止类卸载),连续访问同一个类型的对象时,不需要再查找缓存</li>
+ * <li>遇到快速通道不支持的情况(比如 {@link org.apache.commons.beanutils.DynaBean DynaBean},mapped 方法,indexed getter,下标越界等),
+ * 从已经取到的中间值开始,把剩下的表达式交给 {@link PropertyUtils} 处理,前面已经调用过的 getter 不会重复调用;中间值是null的时候,直接抛出和
+ * {@link PropertyUtils} 一样的 {@link NestedNullException};因此结果以及异常和 {@link PropertyUtils#getProperty(Object, String)} /
+ * {@link PropertyUtils#setProperty(Object, String, Object)} 一致</li>
+ * <li>线程安全,可以保存成常量重复使用</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * private static final PropertyPath CITY = PropertyPath.compile("customer.address.city");
+ *
+ * for (Order order : orderList){
+ *     String city = (String) CITY.getValue(order);
+ *     ...
+ * }
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PropertyUtil#getProperty(Object, String)
+ * @see PropertyUtil#setProperty(Object, String, Object)
+ * @since 1.9.2
+ */
+public final class PropertyPath implements Serializable{
+
+    /** The Constant serialVersionUID. */
+    private static final long                              serialVersionUID = 288232184048495187L;
+
+    /** 缓存的最大数量,超过之后 {@link #compile(String)} 不再缓存,避免动态拼接的表达式撑爆内存. */
+    private static final int                               MAX_CACHE_SIZE   = 1024;
+
+    /** 表达式和 {@link PropertyPath} 的缓存. */
+    private static final ConcurrentMap<String, PropertyPath> CACHE          = new ConcurrentHashMap<String, PropertyPath>();
+
+    /** 原始表达式. */
+    private final String                                   expression;
+
+    /** 解析好的每一段. */
+    private final transient Segment[]                      segments;
+
+    /**
+     * Instantiates a new property path.
+     *
+     * @param expression
+     *            the expression
+     */
+    private PropertyPath(String expression){
+        this.expression = expression;
+        this.segments = parse(expression);
+    }
+
+    /**
+     * 解析属性表达式.
+     *
+     * <p>
+     * 相同的表达式会返回同一个(缓存的)实例.
+     * </p>
+     *
+     * @param expression
+     *            属性名称 (can be nested/indexed/mapped/combo),参见 <a href="BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>expression</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>expression</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static PropertyPath compile(String expression){
+        Validate.notBlank(expression, "expression can't be blank!");
+
+        PropertyPath propertyPath = CACHE.get(expression);
+        if (null != propertyPath){
+            return propertyPath;
+        }
+        propertyPath = new PropertyPath(expression);
+        if (CACHE.size() < MAX_CACHE_SIZE){
+            PropertyPath existPropertyPath = CACHE.putIfAbsent(expression, propertyPath);
+            return null == existPropertyPath ? propertyPath : existPropertyPath;
+        }
+        return propertyPath;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 从 <code>bean</code> 中取得该表达式对应的值.
+     *
+     * @param bean
+     *            the bean
+     * @return 如果 <code>bean</code> 是null,抛出 {@link NullPointerException}<br>
+     * @throws BeanOperationException
+     *             如果取值过程中有任何异常
+     */
+    public Object getValue(Object bean){
+        Validate.notNull(bean, "bean can't be null!");
+
+        Object current = bean;
+        for (int i = 0; i < segments.length; ++i){
+            Object value = segments[i].getValue(current);
+            if (Segment.UNSUPPORTED == value){
+                //从已经取到的中间值继续,前面的 getter 不会重复调用
+                return getValueByPropertyUtils(current, segments[i].nestedExpression);
+            }
+            if (null == value && i < segments.length - 1){
+                throw newNestedNullException(current, segments[i]);
+            }
+            current = value;
+        }
+        return current;
+    }
+
+    /**
+     * 将 <code>value</code> 设置到 <code>bean</code> 该表达式对应的属性中,不会进行类型转换.
+     *
+     * @param bean
+     *            the bean
+     * @param value
+     *            the value
+     * @throws NullPointerException
+     *             如果 <code>bean</code> 是null
+     * @throws BeanOperationException
+     *             如果设值过程中有任何异常
+     */
+    public void setValue(Object bean,Object value){
+        Validate.notNull(bean, "bean can't be null!");
+
+        Object current = bean;
+        int lastIndex = segments.length - 1;
+        for (int i = 0; i < lastIndex; ++i){
+            Object nestedBean = segments[i].getValue(current);
+            if (Segment.UNSUPPORTED == nestedBean){
+                //从已经取到的中间值继续,前面的 getter 不会重复调用
+                setValueByPropertyUtils(current, segments[i].nestedExpression, value);
+                return;
+            }
+            if (null == nestedBean){
+                throw newNestedNullException(current, segments[i]);
+            }
+            current = nestedBean;
+        }
+
+        Segment lastSegment = segments[lastIndex];
+        if (!lastSegment.setValue(current, value)){
+            setValueByPropertyUtils(current, lastSegment.nestedExpression, value);
+        }
+    }
+
+    /**
+     * 是否是简单属性(不是 nested/indexed/mapped).
+     *
+     * @return true, if is simple
+     */
+    public boolean isSimple(){
+        return 1 == segments.length && segments[0].isSimple();
+    }
+
+    /**
+     * 获得 原始表达式.
+     *
+     * @return the expression
+     */
+    public String getExpression(){
+        return expression;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return expression;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 使用 {@link PropertyUtils#getProperty(Object, String)} 取值.
+     *
+     * @param bean
+     *            已经取到的中间值
+     * @param nestedExpression
+     *            从 <code>bean</code> 开始剩下的表达式
+     * @return the value
+     */
+    private static Object getValueByPropertyUtils(Object bean,String nestedExpression){
+        try{
+            return PropertyUtils.getProperty(bean, nestedExpression);
+        }catch (Exception e){
+            throw new BeanOperationException(e);
+        }
+    }
+
+    /**
+     * 使用 {@link PropertyUtils#setProperty(Object, String, Object)} 设值.
+     *
+     * @param bean
+     *            已经取到的中间值
+     * @param nestedExpression
+     *            从 <code>bean</code> 开始剩下的表达式
+     * @param value
+     *            the value
+     */
+    private static void setValueByPropertyUtils(Object bean,String nestedExpression,Object value){
+        try{
+            PropertyUtils.setProperty(bean, nestedExpression, value);
+        }catch (Exception e){
+            throw new BeanOperationException(e);
+        }
+    }
+
+    /**
+     * 中间值是null,异常信息同 <code>PropertyUtilsBean.getNestedProperty</code>.
+     *
+     * @param bean
+     *            取值的对象
+     * @param segment
+     *            取到null的那一段
+     * @return the bean operation exception
+     */
+    private static BeanOperationException newNestedNullException(Object bean,Segment segment){
+        String message = "Null property value for '" + segment.nestedExpression + "' on bean class '" + bean.getClass() + "'";
+        return new BeanOperationException(new NestedNullException(message));
+    }
+
+    /**
+     * 反序列化的时候重新解析.
+     *
+     * @return the object
+     */
+    private Object readResolve(){
+        return compile(expression);
+    }
+
+    /**
+     * 使用 beanutils 当前的 {@link Resolver} 解析表达式.
+     *
+     * @param expression
+     *            the expression
+     * @return the segment[]
+     */
+    private static Segment[] parse(String expression){
+        Resolver resolver = BeanUtilsBean.getInstance().getPropertyUtils().getResolver();
+
+        List<Segment> list = new ArrayList<Segment>();
+        String remain = expression;
+        while (null != remain){
+            String next = resolver.next(remain);
+            boolean indexed = resolver.isIndexed(next);
+            list.add(new Segment(remain, resolver.getProperty(next), indexed, indexed ? toIndex(resolver, next) : -1, resolver.getKey(next)));
+            remain = resolver.hasNested(remain) ? resolver.remove(remain) : null;
+        }
+        return list.toArray(new Segment[list.size()]);
+    }
+
+    /**
+     * 解析下标.
+     *
+     * @param resolver
+     *            the resolver
+     * @param segment
+     *            the segment
+     * @return 如果下标格式不对,返回 -1,取值的时候交给 {@link PropertyUtils} 抛出和原来一致的异常
+     */
+    private static int toIndex(Resolver resolver,String segment){
+        try{
+            return resolver.getIndex(segment);
+        }catch (IllegalArgumentException e){
+            return -1;
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 表达式中的一段,比如 <code>"name"</code>,<code>"list[0]"</code>,<code>"map(key)"</code>.
+     */
+    private static final class Segment{
+
+        /** 表示快速通道不支持,需要交给 {@link PropertyUtils} 处理. */
+        private static final Object              UNSUPPORTED = new Object();
+
+        /** 从这一段开始剩下的表达式,比如 <code>"userInfo.age"</code> 的第二段是 <code>"age"</code>,快速通道不支持的时候交给 {@link PropertyUtils}. */
+        private final String                     nestedExpression;
+
+        /** 属性名称,对于 <code>"[0]"</code> 这样的片段是 empty. */
+        private final String                     name;
+
+        /** 是否是 indexed. */
+        private final boolean                    indexed;
+
+        /** 下标,如果不是 indexed 或者下标格式不对,是 -1. */
+        private final int                        index;
+
+        /** mapped key,如果不是 mapped 是null. */
+        private final String                     key;
+
+        /** 最近一次使用的 {@link PropertyAccessor},弱引用,不会阻止类卸载. */
+        private WeakReference<PropertyAccessor> lastPropertyAccessorReference;
+
+        /**
+         * Instantiates a new segment.
+         *
+         * @param nestedExpression
+         *            从这一段开始剩下的表达式
+         * @param name
+         *            the name
+         * @param indexed
+         *            the indexed
+         * @param index
+         *            the index
+         * @param key
+         *            the key
+         */
+        private Segment(String nestedExpression, String name, boolean indexed, int index, String key){
+            this.nestedExpression = nestedExpression;
+            this.name = null == name ? "" : name;
+            this.indexed = indexed;
+            this.index = index;
+            this.key = key;
+        }
+
+        /**
+         * 从 <code>bean</code> 中取值.
+         *
+         * @param bean
+         *            the bean
+         * @return 如果快速通道不支持(包括 <code>bean</code> 是null),返回 {@link #UNSUPPORTED}
+         */
+        private Object getValue(Object bean){
+            if (null == bean){
+                return UNSUPPORTED;
+            }
+            if (bean instanceof Map){
+                return getMapValue((Map<?, ?>) bean);
+            }
+            if (!PropertyAccessorRegistry.isSupportBean(bean) || null != key){
+                return UNSUPPORTED;
+            }
+            if (!indexed){
+                PropertyAccessor propertyAccessor = getPropertyAccessor(bean.getClass());
+                return null != propertyAccessor && propertyAccessor.isReadable() ? propertyAccessor.getValue(bean) : UNSUPPORTED;
+            }
+            return index < 0 ? UNSUPPORTED : getIndexedValue(bean);
+        }
+
+        /**
+         * 设置 <code>bean</code> 的属性值.
+         *
+         * @param bean
+         *            the bean
+         * @param value
+         *            the value
+         * @return 如果快速通道不支持,返回false
+         */
+        private boolean setValue(Object bean,Object value){
+            if (null == bean || !isSimple() || !PropertyAccessorRegistry.isSupportBean(bean)){
+                return false;
+            }
+            PropertyAccessor propertyAccessor = getPropertyAccessor(bean.getClass());
+            if (null == propertyAccessor || !propertyAccessor.isWritable()){
+                return false;
+            }
+            propertyAccessor.setValue(bean, value);
+            return true;
+        }
+
+        /**
+         * 是否是简单属性.
+         *
+         * @return true, if is simple
+         */
+        private boolean isSimple(){
+            return !indexed && null == key;
+        }
+
+        /**
+         * 从 map 中取值,规则同 <code>PropertyUtilsBean.getPropertyOfMapBean</code>.
+         *
+         * @param map
+         *            the map
+         * @return the map value
+         */
+        private Object getMapValue(Map<?, ?> map){
+            if (indexed){
+                return UNSUPPORTED;
+            }
+            if (null != key){
+                //和 PropertyUtils 一致,map 只支持 "(key)",不支持 "name(key)"
+                return key.isEmpty() || !name.isEmpty() ? UNSUPPORTED : map.get(key);
+            }
+            return map.get(name);
+        }
+
+        /**
+         * 取 indexed 值,只处理数组和 {@link List},并且下标不越界的情况.
+         *
+         * @param bean
+         *            the bean
+         * @return the indexed value
+         */
+        private Object getIndexedValue(Object bean){
+            Object indexedBean = bean;
+            if (!name.isEmpty()){
+                PropertyAccessor propertyAccessor = getPropertyAccessor(bean.getClass());
+                if (null == propertyAccessor || !propertyAccessor.isReadable() || propertyAccessor.isIndexedProperty()){
+                    return UNSUPPORTED;
+                }
+                indexedBean = propertyAccessor.getValue(bean);
+            }
+
+            if (indexedBean instanceof List){
+                List<?> list = (List<?>) indexedBean;
+                return index < list.size() ? list.get(index) : UNSUPPORTED;
+            }
+            if (null != indexedBean && indexedBean.getClass().isArray()){
+                return index < Array.getLength(indexedBean) ? Array.get(indexedBean, index) : UNSUPPORTED;
+            }
+            return UNSUPPORTED;
+        }
+
+        /**
+         * 获得 <code>beanClass</code> 的 {@link PropertyAccessor},优先使用上次绑定的.
+         *
+         * @param beanClass
+         *            the bean class
+         * @return the property accessor
+         */
+        private PropertyAccessor getPropertyAccessor(Class<?> beanClass){
+            WeakReference<PropertyAccessor> reference = lastPropertyAccessorReference;
+            PropertyAccessor propertyAccessor = null == reference ? null : reference.get();
+            if (null != propertyAccessor && propertyAccessor.getBeanClass() == beanClass){
+                return propertyAccessor;
+            }
+
+            propertyAccessor = PropertyAccessorRegistry.getPropertyAccessor(beanClass, name);
+            if (null != propertyAccessor){
+                lastPropertyAccessorReference = new WeakReference<PropertyAccessor>(propertyAccessor);
+            }
+            return propertyAccessor;
+        }
+    }
+}
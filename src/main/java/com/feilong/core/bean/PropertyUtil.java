@@ -178,6 +178,8 @@ public final class PropertyUtil{
      * <li>将 checkedException 异常转成了 {@link BeanOperationException} RuntimeException,因为通常copy的时候出现了checkedException,也是普普通通记录下log,没有更好的处理方式
      * </li>
      * <li>支持 includePropertyNames 参数,允许针对性copy 个别属性</li>
+     * <li>如果 <code>toObj</code> 和 <code>fromObj</code> 都是普通bean(不是 {@link java.util.Map} 也不是 {@link org.apache.commons.beanutils.DynaBean
+     * DynaBean}),使用按照 (fromClass, toClass, includePropertyNames) 缓存的 {@link BeanCopier} 复制计划,不需要每次内省</li>
      * <li>更多,更容易理解的的javadoc</li>
      * </ol>
      * </blockquote>
@@ -202,6 +204,7 @@ public final class PropertyUtil{
      *             如果在copy的过程中,有任何的checkedException,将会被转成该异常返回
      * @see #setProperty(Object, String, Object)
      * @see BeanUtil#copyProperties(Object, Object, String...)
+     * @see BeanCopier
      * @see org.apache.commons.beanutils.PropertyUtilsBean#copyProperties(Object, Object)
      * @see <a href="http://www.cnblogs.com/kaka/archive/2013/03/06/2945514.html">Bean复制的几种框架性能比较(Apache BeanUtils、PropertyUtils,Spring
      *      BeanUtils,Cglib BeanCopier)</a>
@@ -211,6 +214,12 @@ public final class PropertyUtil{
         Validate.notNull(toObj, "toObj [destination bean] not specified!");
         Validate.notNull(fromObj, "fromObj [origin bean] not specified!");
 
+        //普通bean 使用缓存的复制计划,不需要每次内省
+        if (PropertyAccessorRegistry.isSupportBean(toObj) && PropertyAccessorRegistry.isSupportBean(fromObj)){
+            BeanCopier.getInstance(fromObj.getClass(), toObj.getClass(), false, includePropertyNames, null).copy(toObj, fromObj);
+            return;
+        }
+
         if (isNullOrEmpty(includePropertyNames)){
             try{
                 PropertyUtils.copyProperties(toObj, fromObj);
@@ -225,6 +234,50 @@ public final class PropertyUtil{
         }
     }
 
+    /**
+     * 将 <code>fromObj</code> 中除了 <code>excludePropertyNames</code> 之外的全部属性的值,复制到 <code>toObj</code> 对象中(不进行类型转换).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>这种copy都是 <span style="color:red">浅拷贝</span></li>
+     * <li>规则和 {@link PropertyUtils#copyProperties(Object, Object)} 一致,只复制 <code>fromObj</code> 可读并且 <code>toObj</code> 可写的属性</li>
+     * <li>使用按照 (fromClass, toClass, excludePropertyNames) 缓存的 {@link BeanCopier} 复制计划</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * PropertyUtil.copyPropertiesExclude(user, userForm, "id", "password");
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param toObj
+     *            目标对象,不能是 {@link java.util.Map} 或者 {@link org.apache.commons.beanutils.DynaBean DynaBean}
+     * @param fromObj
+     *            原始对象,不能是 {@link java.util.Map} 或者 {@link org.apache.commons.beanutils.DynaBean DynaBean}
+     * @param excludePropertyNames
+     *            排除的属性名字数组,如果是null或者empty,复制全部属性
+     * @throws NullPointerException
+     *             如果 <code>toObj</code> 是null,或者 <code>fromObj</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>toObj</code> 或者 <code>fromObj</code> 是 {@link java.util.Map} 或者 {@link org.apache.commons.beanutils.DynaBean DynaBean}
+     * @throws BeanOperationException
+     *             如果在copy的过程中,有任何异常
+     * @see BeanCopier
+     * @since 1.9.2
+     */
+    public static void copyPropertiesExclude(Object toObj,Object fromObj,String...excludePropertyNames){
+        Validate.notNull(toObj, "toObj [destination bean] not specified!");
+        Validate.notNull(fromObj, "fromObj [origin bean] not specified!");
+
+        BeanCopier.getInstance(fromObj.getClass(), toObj.getClass(), false, null, excludePropertyNames).copy(toObj, fromObj);
+    }
+
     /**
      * 返回一个 <code>bean</code>中指定属性 <code>propertyNames</code><span style="color:green">可读属性</span>,并将属性名/属性值放入一个
      * {@link java.util.LinkedHashMap LinkedHashMap} 中.
@@ -311,6 +364,7 @@ public final class PropertyUtil{
      *             如果 <code>propertyNames</code> 包含 blank的元素
      * @see org.apache.commons.beanutils.BeanUtils#describe(Object)
      * @see org.apache.commons.beanutils.PropertyUtils#describe(Object)
+     * @see #describeView(Object)
      * @since 1.8.0
      */
     public static Map<String, Object> describe(Object bean,String...propertyNames){
@@ -329,6 +383,43 @@ public final class PropertyUtil{
         return map;
     }
 
+    /**
+     * 返回 <code>bean</code> 所有可读属性的只读实时视图(key 是属性名称,value 是属性值).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>和 {@link #describe(Object, String...)} 不同,不会一次性读取全部属性的值,只有在读取某个 key 的时候才会调用对应的 getter</li>
+     * <li>key 的集合以及顺序来自缓存的类元数据,和 {@link PropertyUtils#describe(Object)} 一致(包含 <code>class</code> 属性)</li>
+     * <li>适合只需要读取少量属性,或者遍历的过程中可能提前结束的场景</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, Object>} map = PropertyUtil.describeView(user);
+     * Object id = map.get("id"); //此时才会调用 user.getId()
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param bean
+     *            Bean whose properties are to be extracted
+     * @return 只读的 {@link BeanPropertyMap}
+     * @throws NullPointerException
+     *             如果 <code>bean</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>bean</code> 是 {@link Map} 或者 {@link org.apache.commons.beanutils.DynaBean DynaBean}
+     * @see BeanPropertyMap
+     * @since 1.9.2
+     */
+    public static Map<String, Object> describeView(Object bean){
+        return new BeanPropertyMap(bean);
+    }
+
     /**
      * 使用 {@link PropertyUtils#setProperty(Object, String, Object)} 来设置指定bean对象中的指定属性的值.
      * 
@@ -336,6 +427,8 @@ public final class PropertyUtil{
      * <blockquote>
      * <ol>
      * <li>不会进行类型转换</li>
+     * <li>如果 <code>bean</code> 是普通bean并且 <code>propertyName</code> 是简单属性,直接使用 {@link PropertyAccessorRegistry} 缓存的setter设置,否则使用缓存的
+     * {@link PropertyPath} 设置</li>
      * </ol>
      * </blockquote>
      * 
@@ -387,11 +480,14 @@ public final class PropertyUtil{
     public static void setProperty(Object bean,String propertyName,Object value){
         Validate.notNull(bean, "bean can't be null!");
         Validate.notBlank(propertyName, "propertyName can't be null!");
-        try{
-            PropertyUtils.setProperty(bean, propertyName, value);
-        }catch (Exception e){
-            throw new BeanOperationException(e);
+
+        //简单属性直接使用缓存的 setter,避免每次解析属性名称以及查找 PropertyDescriptor
+        PropertyAccessor propertyAccessor = PropertyAccessorRegistry.getWritablePropertyAccessor(bean, propertyName);
+        if (null != propertyAccessor){
+            propertyAccessor.setValue(bean, value);
+            return;
         }
+        PropertyPath.compile(propertyName).setValue(bean, value);
     }
 
     /**
@@ -465,6 +561,8 @@ public final class PropertyUtil{
      * <blockquote>
      * <ol>
      * <li>不会进行类型转换.</li>
+     * <li>如果 <code>bean</code> 是普通bean并且 <code>propertyName</code> 是简单属性,直接使用 {@link PropertyAccessorRegistry} 缓存的getter读取,否则使用缓存的
+     * {@link PropertyPath} 读取</li>
      * </ol>
      * </blockquote>
      * 
@@ -503,7 +601,7 @@ public final class PropertyUtil{
      * @return 如果 <code>bean</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
-     *         否则 使用{@link PropertyUtils#getProperty(Object, String)} 从对象中取得属性值
+     *         否则 从对象中取得属性值,结果和{@link PropertyUtils#getProperty(Object, String)}一致
      * @see BeanUtil#getProperty(Object, String)
      * @see org.apache.commons.beanutils.BeanUtils#getProperty(Object, String)
      * @see org.apache.commons.beanutils.PropertyUtils#getProperty(Object, String)
@@ -513,11 +611,13 @@ public final class PropertyUtil{
     public static <T> T getProperty(Object bean,String propertyName){
         Validate.notNull(bean, "bean can't be null!");
         Validate.notBlank(propertyName, "propertyName can't be blank!");
-        try{
-            return (T) PropertyUtils.getProperty(bean, propertyName);
-        }catch (Exception e){
-            throw new BeanOperationException(e);
+
+        //简单属性直接使用缓存的 getter,避免每次解析属性名称以及查找 PropertyDescriptor
+        PropertyAccessor propertyAccessor = PropertyAccessorRegistry.getReadablePropertyAccessor(bean, propertyName);
+        if (null != propertyAccessor){
+            return (T) propertyAccessor.getValue(bean);
         }
+        return (T) PropertyPath.compile(propertyName).getValue(bean);
     }
 
     // [end]
@@ -531,7 +631,9 @@ public final class PropertyUtil{
      * <ol>
      * <li>如果 <code>ClassUtil.isInstance(obj, toBeFindedClassType)</code> 直接返回 findValue</li>
      * <li>不支持obj是<code>isPrimitiveOrWrapper</code>,<code>CharSequence</code>,<code>Collection</code>,<code>Map</code>类型,自动过滤</li>
-     * <li>调用 {@link PropertyUtil#describe(Object, String...)} 再递归查找</li>
+     * <li>普通bean 会按照 (运行时类型, <code>toBeFindedClassType</code>) 缓存属性声明类型的可达性分析结果,不可能找到目标类型的属性不会读取,也不会递归;
+     * 声明类型本身就可能是 <code>toBeFindedClassType</code> 的属性优先查找,找到之后后面的属性不会再读取</li>
+     * <li>如果有多个属性都可以找到匹配的值,优先返回声明类型直接匹配的属性的值</li>
      * <li>目前暂不支持从集合里面找到指定类型的值,参见 {@link #isDonotSupportFindType(Object)},如果你有相关需求,可以调用 {@link
      * "org.springframework.util.CollectionUtils#findValueOfType(Collection, Class)"}</li>
      * </ol>
@@ -592,15 +694,20 @@ public final class PropertyUtil{
         }
 
         //******************************************************************************
-        Map<String, Object> describe = describe(obj);
-
-        for (Map.Entry<String, Object> entry : describe.entrySet()){
-            String key = entry.getKey();
-            Object value = entry.getValue();
+        //普通bean 只读取按照属性声明类型分析之后,有可能找到目标类型的属性
+        if (PropertyAccessorRegistry.isSupportBean(obj)){
+            for (PropertyAccessor propertyAccessor : TypeReachability.getCandidatePropertyAccessors(obj.getClass(), toBeFindedClassType)){
+                T t = findValueOfTypeFromValue(propertyAccessor.getValue(obj), toBeFindedClassType);
+                if (null != t){
+                    return t;
+                }
+            }
+            return null;
+        }
 
-            if (null != value && !"class".equals(key)){
-                //级联查询
-                T t = findValueOfType(value, toBeFindedClassType);
+        for (Map.Entry<String, Object> entry : describe(obj).entrySet()){
+            if (!"class".equals(entry.getKey())){
+                T t = findValueOfTypeFromValue(entry.getValue(), toBeFindedClassType);
                 if (null != t){
                     return t;
                 }
@@ -609,6 +716,22 @@ public final class PropertyUtil{
         return null;
     }
 
+    /**
+     * 从属性值中级联查找.
+     *
+     * @param <T>
+     *            the generic type
+     * @param value
+     *            属性值
+     * @param toBeFindedClassType
+     *            the to be finded class type
+     * @return 如果 <code>value</code> 是null,返回null
+     * @since 1.9.2
+     */
+    private static <T> T findValueOfTypeFromValue(Object value,Class<T> toBeFindedClassType){
+        return null == value ? null : findValueOfType(value, toBeFindedClassType);
+    }
+
     /**
      * 一般自定义的command 里面 就是些 string int,list map等对象.
      * 
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.io.Serializable;
+
+/**
+ * 设置 把对象转成基本类型数组(<code>int[]</code>,<code>long[]</code>,<code>double[]</code>) 的配置.
+ * 
+ * <h3>默认的规则:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>不指定分隔符,和 {@link org.apache.commons.beanutils.converters.ArrayConverter} 一样,除了字母,数字,'.','-' 以外的字符都是分隔符(比如空白,逗号,分号),
+ * 连续的分隔符不会产生空元素</li>
+ * <li>遇到不能转换的元素(null,空白,格式不对,超出范围),抛出 {@link NumberFormatException},见 {@link InvalidElementPolicy#THROW}</li>
+ * <li>默认值是 0,只有 {@link InvalidElementPolicy#USE_DEFAULT} 的时候使用</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ConvertUtil#toIntArray(Object, ToPrimitiveArrayConfig)
+ * @see ConvertUtil#toLongArray(Object, ToPrimitiveArrayConfig)
+ * @see ConvertUtil#toDoubleArray(Object, ToPrimitiveArrayConfig)
+ * @since 1.9.2
+ */
+public final class ToPrimitiveArrayConfig implements Serializable{
+
+    /** The Constant serialVersionUID. */
+    private static final long    serialVersionUID     = -6251335412871926412L;
+
+    //**********************************************************************************************
+
+    /**
+     * 分隔符,<b>每一个字符</b>都是一个分隔符,比如 <code>",;"</code> 表示逗号和分号都是分隔符,两个分隔符之间的空元素按照 {@link #invalidElementPolicy} 处理;
+     * 默认是null,表示使用 {@link org.apache.commons.beanutils.converters.ArrayConverter} 的规则.
+     */
+    private String               delimiters;
+
+    /** 遇到不能转换的元素的处理策略,默认={@link InvalidElementPolicy#THROW}. */
+    private InvalidElementPolicy invalidElementPolicy = InvalidElementPolicy.THROW;
+
+    /** 默认值,{@link InvalidElementPolicy#USE_DEFAULT} 的时候使用,默认是 0. */
+    private Number               defaultValue         = 0;
+
+    //**********************************************************************************************
+
+    /**
+     * 遇到不能转换的元素的处理策略.
+     */
+    public enum InvalidElementPolicy{
+
+        /** 抛出 {@link NumberFormatException}. */
+        THROW,
+
+        /** 忽略这个元素,结果数组的长度会变短. */
+        SKIP,
+
+        /** 使用 {@link ToPrimitiveArrayConfig#getDefaultValue()} 替代. */
+        USE_DEFAULT
+    }
+
+    //**********************************************************************************************
+
+    /**
+     * <h3>默认的规则:</h3>
+     * 
+     * <blockquote>
+     * <ol>
+     * <li>和 {@link org.apache.commons.beanutils.converters.ArrayConverter} 一样,除了字母,数字,'.','-' 以外的字符都是分隔符</li>
+     * <li>遇到不能转换的元素,抛出 {@link NumberFormatException}</li>
+     * </ol>
+     * </blockquote>
+     */
+    public ToPrimitiveArrayConfig(){
+    }
+
+    /**
+     * Instantiates a new to primitive array config.
+     *
+     * @param delimiters
+     *            分隔符,每一个字符都是一个分隔符,null 表示使用 {@link org.apache.commons.beanutils.converters.ArrayConverter} 的规则
+     */
+    public ToPrimitiveArrayConfig(String delimiters){
+        this.delimiters = delimiters;
+    }
+
+    /**
+     * Instantiates a new to primitive array config.
+     *
+     * @param delimiters
+     *            分隔符,每一个字符都是一个分隔符,null 表示使用 {@link org.apache.commons.beanutils.converters.ArrayConverter} 的规则
+     * @param invalidElementPolicy
+     *            遇到不能转换的元素的处理策略
+     */
+    public ToPrimitiveArrayConfig(String delimiters, InvalidElementPolicy invalidElementPolicy){
+        this.delimiters = delimiters;
+        this.invalidElementPolicy = invalidElementPolicy;
+    }
+
+    /**
+     * Instantiates a new to primitive array config.
+     *
+     * @param delimiters
+     *            分隔符,每一个字符都是一个分隔符,null 表示使用 {@link org.apache.commons.beanutils.converters.ArrayConverter} 的规则
+     * @param invalidElementPolicy
+     *            遇到不能转换的元素的处理策略
+     * @param defaultValue
+     *            默认值,{@link InvalidElementPolicy#USE_DEFAULT} 的时候使用
+     */
+    public ToPrimitiveArrayConfig(String delimiters, InvalidElementPolicy invalidElementPolicy, Number defaultValue){
+        this.delimiters = delimiters;
+        this.invalidElementPolicy = invalidElementPolicy;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * 获得 分隔符,每一个字符都是一个分隔符,默认是null,表示使用 {@link org.apache.commons.beanutils.converters.ArrayConverter} 的规则.
+     *
+     * @return the delimiters
+     */
+    public String getDelimiters(){
+        return delimiters;
+    }
+
+    /**
+     * 设置 分隔符,每一个字符都是一个分隔符,默认是null,表示使用 {@link org.apache.commons.beanutils.converters.ArrayConverter} 的规则.
+     *
+     * @param delimiters
+     *            the delimiters to set
+     */
+    public void setDelimiters(String delimiters){
+        this.delimiters = delimiters;
+    }
+
+    /**
+     * 获得 遇到不能转换的元素的处理策略,默认={@link InvalidElementPolicy#THROW}.
+     *
+     * @return the invalidElementPolicy
+     */
+    public InvalidElementPolicy getInvalidElementPolicy(){
+        return invalidElementPolicy;
+    }
+
+    /**
+     * 设置 遇到不能转换的元素的处理策略,默认={@link InvalidElementPolicy#THROW}.
+     *
+     * @param invalidElementPolicy
+     *            the invalidElementPolicy to set
+     */
+    public void setInvalidElementPolicy(InvalidElementPolicy invalidElementPolicy){
+        this.invalidElementPolicy = invalidElementPolicy;
+    }
+
+    /**
+     * 获得 默认值,{@link InvalidElementPolicy#USE_DEFAULT} 的时候使用,默认是 0.
+     *
+     * @return the defaultValue
+     */
+    public Number getDefaultValue(){
+        return defaultValue;
+    }
+
+    /**
+     * 设置 默认值,{@link InvalidElementPolicy#USE_DEFAULT} 的时候使用,默认是 0.
+     *
+     * @param defaultValue
+     *            the defaultValue to set
+     */
+    public void setDefaultValue(Number defaultValue){
+        this.defaultValue = defaultValue;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.commons.lang3.ClassUtils;
+
+/**
+ * 基于属性声明类型的静态可达性分析,用于 {@link PropertyUtil#findValueOfType(Object, Class)} 剪枝.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>对于某个运行时类型以及要查找的类型,计算出哪些属性<b>有可能</b>找到目标类型的值,只读取这些属性,结果按照 (运行时类型, 目标类型) 缓存</li>
+ * <li>属性的声明类型如果是基本类型,包装类型,{@link CharSequence},{@link Collection},{@link Map},那么查找不会再往下走,只有值本身可能是目标类型</li>
+ * <li>属性的声明类型如果是 final 类,那么运行时类型就是声明类型,可以继续分析它的属性(支持循环引用);如果不是 final 类,运行时可能是子类,保守认为可达,
+ * 等到真正访问值的时候再按照值的运行时类型剪枝</li>
+ * <li>可达的属性中,值本身就可能是目标类型的属性排在前面,其余保持属性原来的顺序</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+final class TypeReachability{
+
+    /**
+     * 按照运行时类型缓存的,每个目标类型需要读取的属性.
+     * 
+     * <p>
+     * 缓存挂在运行时类型上,随运行时类型一起回收;目标类型使用 {@link WeakHashMap} 弱引用,不会因为查找过某个类型就阻止它被卸载.
+     * </p>
+     */
+    private static final ClassValue<Map<Class<?>, PropertyAccessor[]>> CANDIDATE_ACCESSORS_CACHE = new ClassValue<Map<Class<?>, PropertyAccessor[]>>(){
+
+        @Override
+        protected Map<Class<?>, PropertyAccessor[]> computeValue(Class<?> type){
+            return Collections.synchronizedMap(new WeakHashMap<Class<?>, PropertyAccessor[]>());
+        }
+    };
+
+    /** Don't let anyone instantiate this class. */
+    private TypeReachability(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * 获得 <code>beanClass</code> 中有可能找到 <code>targetType</code> 类型值的可读属性.
+     *
+     * @param beanClass
+     *            运行时类型
+     * @param targetType
+     *            要查找的类型
+     * @return 按照可能性排序的属性,不包含 <code>class</code> 属性
+     */
+    static PropertyAccessor[] getCandidatePropertyAccessors(Class<?> beanClass,Class<?> targetType){
+        Map<Class<?>, PropertyAccessor[]> map = CANDIDATE_ACCESSORS_CACHE.get(beanClass);
+        PropertyAccessor[] propertyAccessors = map.get(targetType);
+        if (null == propertyAccessors){
+            propertyAccessors = buildCandidatePropertyAccessors(beanClass, targetType);
+            map.put(targetType, propertyAccessors);
+        }
+        return propertyAccessors;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 构建候选属性.
+     *
+     * @param beanClass
+     *            the bean class
+     * @param targetType
+     *            the target type
+     * @return the property accessor[]
+     */
+    private static PropertyAccessor[] buildCandidatePropertyAccessors(Class<?> beanClass,Class<?> targetType){
+        List<PropertyAccessor> directList = new ArrayList<PropertyAccessor>();
+        List<PropertyAccessor> nestedList = new ArrayList<PropertyAccessor>();
+
+        for (PropertyAccessor propertyAccessor : getSearchablePropertyAccessors(beanClass)){
+            Class<?> propertyType = propertyAccessor.getPropertyType();
+            if (canBeInstance(propertyType, targetType)){
+                directList.add(propertyAccessor);
+            }else if (mayReach(propertyType, targetType, new HashSet<Class<?>>())){
+                nestedList.add(propertyAccessor);
+            }
+        }
+        directList.addAll(nestedList);
+        return directList.toArray(new PropertyAccessor[directList.size()]);
+    }
+
+    /**
+     * 声明类型是 <code>declaredType</code> 的值,是否有可能找到 <code>targetType</code> 类型的值.
+     *
+     * @param declaredType
+     *            the declared type
+     * @param targetType
+     *            the target type
+     * @param visited
+     *            已经分析过的 final 类型,用来处理循环引用
+     * @return true, if successful
+     */
+    private static boolean mayReach(Class<?> declaredType,Class<?> targetType,Set<Class<?>> visited){
+        if (canBeInstance(declaredType, targetType)){
+            return true;
+        }
+        if (isLeafType(declaredType)){
+            return false;
+        }
+        //运行时可能是子类,子类可能有更多的属性,保守认为可达
+        if (!Modifier.isFinal(declaredType.getModifiers())){
+            return true;
+        }
+        if (!visited.add(declaredType)){
+            return false;
+        }
+        for (PropertyAccessor propertyAccessor : getSearchablePropertyAccessors(declaredType)){
+            if (mayReach(propertyAccessor.getPropertyType(), targetType, visited)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 声明类型是 <code>declaredType</code> 的值,本身是否有可能是 <code>targetType</code> 的实例.
+     *
+     * @param declaredType
+     *            the declared type
+     * @param targetType
+     *            the target type
+     * @return true, if successful
+     */
+    private static boolean canBeInstance(Class<?> declaredType,Class<?> targetType){
+        Class<?> type = declaredType.isPrimitive() ? ClassUtils.primitiveToWrapper(declaredType) : declaredType;
+        if (targetType.isAssignableFrom(type) || type.isAssignableFrom(targetType)){
+            return true;
+        }
+        if (Modifier.isFinal(type.getModifiers())){
+            return false;
+        }
+        //非 final 类的子类可以实现任意接口
+        if (targetType.isInterface()){
+            return true;
+        }
+        return type.isInterface() && !Modifier.isFinal(targetType.getModifiers());
+    }
+
+    /**
+     * 是否是查找不会再往下走的类型,规则和 {@link PropertyUtil#findValueOfType(Object, Class)} 一致.
+     *
+     * @param declaredType
+     *            the declared type
+     * @return true, if is leaf type
+     */
+    private static boolean isLeafType(Class<?> declaredType){
+        return ClassUtils.isPrimitiveOrWrapper(declaredType) || CharSequence.class.isAssignableFrom(declaredType)
+                        || Collection.class.isAssignableFrom(declaredType) || Map.class.isAssignableFrom(declaredType);
+    }
+
+    /**
+     * 获得参与查找的属性(可读,不是 <code>class</code>).
+     *
+     * @param beanClass
+     *            the bean class
+     * @return the searchable property accessors
+     */
+    private static List<PropertyAccessor> getSearchablePropertyAccessors(Class<?> beanClass){
+        Collection<PropertyAccessor> propertyAccessors = PropertyAccessorRegistry.getPropertyAccessors(beanClass);
+
+        List<PropertyAccessor> list = new ArrayList<PropertyAccessor>(propertyAccessors.size());
+        for (PropertyAccessor propertyAccessor : propertyAccessors){
+            if (propertyAccessor.isReadable() && !"class".equals(propertyAccessor.getPropertyName())){
+                list.add(propertyAccessor);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.math.BigDecimal;
+
+/**
+ * 通过扫描字符(而不是抛出并捕获异常)判断字符串能否转成 {@link Integer},{@link Long},{@link BigDecimal},{@link Boolean}.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>beanutils 的 {@link org.apache.commons.beanutils.converters.NumberConverter} 遇到不合法的字符串,是 <code>Integer.valueOf</code> 抛出
+ * {@link NumberFormatException},再包装成 {@link org.apache.commons.beanutils.ConversionException},最后 catch 住返回默认值,每次都要构造两个带堆栈的异常;
+ * 对于大量的非法输入(比如爬虫乱传的页码),这是主要的开销</li>
+ * <li>这里按照 jdk 的语法规则扫描一遍,能够确定合法的,调用方直接 parse(不会抛出异常);能够确定不合法的,调用方直接使用默认值</li>
+ * <li>jdk 还接受非 ASCII 的数字(比如全角数字),这种情况返回 {@link Validity#UNKNOWN},调用方交给 beanutils 处理,所以结果和原来完全一致</li>
+ * <li>字符串需要调用方先 {@link String#trim()},规则同 {@link org.apache.commons.beanutils.converters.NumberConverter}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+final class ValidatingParser{
+
+    /** 和 {@link org.apache.commons.beanutils.converters.BooleanConverter} 默认的一致. */
+    static final String[] TRUE_STRINGS           = { "true", "yes", "y", "on", "1" };
+
+    /** 和 {@link org.apache.commons.beanutils.converters.BooleanConverter} 默认的一致. */
+    static final String[] FALSE_STRINGS          = { "false", "no", "n", "off", "0" };
+
+    /** 指数部分超过这个位数(不算前导0),交给 {@link BigDecimal} 自己判断是否溢出. */
+    private static final int MAX_EXPONENT_DIGITS = 9;
+
+    /**
+     * 校验结果.
+     */
+    enum Validity{
+
+        /** 合法,直接 parse 不会抛出异常. */
+        VALID,
+
+        /** 不合法,parse 一定会抛出 {@link NumberFormatException}. */
+        INVALID,
+
+        /** 不能确定(包含非 ASCII 字符),交给原来的逻辑处理. */
+        UNKNOWN
+    }
+
+    /** Don't let anyone instantiate this class. */
+    private ValidatingParser(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 判断 <code>trim</code> 能否使用 {@link Integer#valueOf(String)} 转换.
+     *
+     * @param trim
+     *            已经 trim 过的字符串
+     * @return the validity
+     */
+    static Validity checkInteger(String trim){
+        return checkIntegral(trim, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 判断 <code>trim</code> 能否使用 {@link Long#valueOf(String)} 转换.
+     *
+     * @param trim
+     *            已经 trim 过的字符串
+     * @return the validity
+     */
+    static Validity checkLong(String trim){
+        return checkIntegral(trim, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * 判断 <code>trim</code> 能否使用 {@link BigDecimal#BigDecimal(String)} 转换.
+     *
+     * <p>
+     * 语法: 可选的 <code>+</code>/<code>-</code>,至少一位数字(中间最多一个 <code>.</code>),可选的指数部分(<code>e</code>/<code>E</code>,可选的符号,至少一位数字).
+     * </p>
+     *
+     * @param trim
+     *            已经 trim 过的字符串
+     * @return the validity
+     */
+    static Validity checkBigDecimal(String trim){
+        int length = trim.length();
+        int i = skipSign(trim, 0);
+
+        int digitCount = 0;
+        boolean seenDot = false;
+        for (; i < length; ++i){
+            char c = trim.charAt(i);
+            if (c >= '0' && c <= '9'){
+                ++digitCount;
+            }else if (c == '.' && !seenDot){
+                seenDot = true;
+            }else{
+                break;
+            }
+        }
+        if (i < length && (trim.charAt(i) == 'e' || trim.charAt(i) == 'E')){
+            if (digitCount == 0){
+                return invalidOrUnknown(trim, i);
+            }
+            return checkExponent(trim, i + 1);
+        }
+        if (i < length || digitCount == 0){
+            return invalidOrUnknown(trim, i);
+        }
+        return Validity.VALID;
+    }
+
+    /**
+     * 按照 {@link org.apache.commons.beanutils.converters.BooleanConverter} 默认的规则转换(先 {@link String#toLowerCase()},不 trim).
+     *
+     * @param value
+     *            the value
+     * @return 如果不是 {@link #TRUE_STRINGS} 也不是 {@link #FALSE_STRINGS},返回null
+     */
+    static Boolean parseBoolean(String value){
+        String lowerCase = value.toLowerCase();
+        for (String trueString : TRUE_STRINGS){
+            if (trueString.equals(lowerCase)){
+                return Boolean.TRUE;
+            }
+        }
+        for (String falseString : FALSE_STRINGS){
+            if (falseString.equals(lowerCase)){
+                return Boolean.FALSE;
+            }
+        }
+        return null;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 按照 {@link Long#parseLong(String)} 的算法校验(按照负数累加,判断溢出).
+     *
+     * @param trim
+     *            the trim
+     * @param min
+     *            允许的最小值
+     * @param max
+     *            允许的最大值
+     * @return the validity
+     */
+    private static Validity checkIntegral(String trim,long min,long max){
+        int length = trim.length();
+        boolean negative = length > 0 && trim.charAt(0) == '-';
+        int i = skipSign(trim, 0);
+        if (i == length){
+            return Validity.INVALID;
+        }
+
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < length; ++i){
+            int digit = trim.charAt(i) - '0';
+            if (digit < 0 || digit > 9){
+                return invalidOrUnknown(trim, i);
+            }
+            if (result < multmin){
+                return Validity.INVALID;
+            }
+            result *= 10;
+            if (result < limit + digit){
+                return Validity.INVALID;
+            }
+            result -= digit;
+        }
+        return Validity.VALID;
+    }
+
+    /**
+     * 校验指数部分.
+     *
+     * @param trim
+     *            the trim
+     * @param begin
+     *            <code>e</code>/<code>E</code> 后面的位置
+     * @return the validity
+     */
+    private static Validity checkExponent(String trim,int begin){
+        int length = trim.length();
+        int i = skipSign(trim, begin);
+        if (i == length){
+            return Validity.INVALID;
+        }
+
+        int significantDigitCount = 0;
+        for (; i < length; ++i){
+            char c = trim.charAt(i);
+            if (c < '0' || c > '9'){
+                return invalidOrUnknown(trim, i);
+            }
+            if (significantDigitCount > 0 || c != '0'){
+                ++significantDigitCount;
+            }
+        }
+        return significantDigitCount > MAX_EXPONENT_DIGITS ? Validity.UNKNOWN : Validity.VALID;
+    }
+
+    /**
+     * 跳过可选的 <code>+</code>/<code>-</code>.
+     *
+     * @param value
+     *            the value
+     * @param index
+     *            the index
+     * @return 符号后面的位置
+     */
+    private static int skipSign(String value,int index){
+        if (index < value.length()){
+            char c = value.charAt(index);
+            if (c == '-' || c == '+'){
+                return index + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 从 <code>index</code> 开始如果有非 ASCII 字符(jdk 可能把它当成数字),返回 {@link Validity#UNKNOWN},否则返回 {@link Validity#INVALID}.
+     *
+     * @param value
+     *            the value
+     * @param index
+     *            第一个不符合语法的位置
+     * @return the validity
+     */
+    private static Validity invalidOrUnknown(String value,int index){
+        for (int i = index, j = value.length(); i < j; ++i){
+            if (value.charAt(i) > 0x7F){
+                return Validity.UNKNOWN;
+            }
+        }
+        return Validity.INVALID;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * {@link ForkJoinPool} 工具类.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>jdk1.7 没有 <code>ForkJoinPool.commonPool()</code>,这里提供一个延迟创建的共享 {@link ForkJoinPool},并行度是
+ * {@link Runtime#availableProcessors()},工作线程都是 daemon 线程,不会阻止 jvm 退出</li>
+ * <li>feilong-core 里面所有的并行操作(比如 parallel populate,parallel sort)都使用这个 pool</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public final class ForkJoinUtil{
+
+    /** Don't let anyone instantiate this class. */
+    private ForkJoinUtil(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * 获得共享的 {@link ForkJoinPool}.
+     *
+     * @return 共享的 {@link ForkJoinPool}
+     */
+    public static ForkJoinPool getForkJoinPool(){
+        return ForkJoinPoolHolder.FORK_JOIN_POOL;
+    }
+
+    /**
+     * 使用共享的 {@link ForkJoinPool} 执行 <code>forkJoinTask</code>,并等待返回结果.
+     *
+     * <p>
+     * 如果当前线程已经是共享 pool 的工作线程(比如在任务里面再次调用),直接 {@link ForkJoinTask#invoke()},避免阻塞工作线程.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param forkJoinTask
+     *            the fork join task
+     * @return 任务的执行结果
+     * @throws NullPointerException
+     *             如果 <code>forkJoinTask</code> 是null
+     */
+    public static <T> T invoke(ForkJoinTask<T> forkJoinTask){
+        Validate.notNull(forkJoinTask, "forkJoinTask can't be null!");
+        if (ForkJoinTask.getPool() == getForkJoinPool()){
+            return forkJoinTask.invoke();
+        }
+        return getForkJoinPool().invoke(forkJoinTask);
+    }
+
+    /**
+     * 延迟创建 {@link ForkJoinPool}.
+     */
+    private static final class ForkJoinPoolHolder{
+
+        /** The Constant FORK_JOIN_POOL. */
+        private static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -28,6 +28,7 @@ import java.util.TreeMap;
 
 import org.apache.commons.collections4.Predicate;
 import org.apache.commons.collections4.PredicateUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -112,7 +113,24 @@ import static com.feilong.core.Validator.isNullOrEmpty;
 public final class FieldUtil{
 
     /** The Constant LOGGER. */
-    private static final Logger LOGGER = LoggerFactory.getLogger(FieldUtil.class);
+    private static final Logger              LOGGER           = LoggerFactory.getLogger(FieldUtil.class);
+
+    /**
+     * 按照类缓存的所有非静态字段(包括所有的parents,已经 setAccessible),顺序和 {@link FieldUtils#getAllFieldsList(Class)} 一致.
+     * 
+     * @since 1.9.2
+     */
+    private static final ClassValue<Field[]> ALL_FIELDS_CACHE = new ClassValue<Field[]>(){
+
+        @Override
+        protected Field[] computeValue(Class<?> type){
+            List<Field> fieldList = getAllFieldList(type);
+            for (Field field : fieldList){
+                field.setAccessible(true);
+            }
+            return fieldList.toArray(new Field[fieldList.size()]);
+        }
+    };
 
     /** Don't let anyone instantiate this class. */
     private FieldUtil(){
@@ -157,13 +175,20 @@ public final class FieldUtil{
      * @see #getFieldValue(Object, String)
      */
     public static Map<String, Object> getAllFieldNameAndValueMap(Object obj,String...excludeFieldNames){
-        List<Field> fieldList = getAllFieldList(obj.getClass(), excludeFieldNames);
-        if (isNullOrEmpty(fieldList)){
+        //字段列表按照类缓存,不需要每次查找字段以及设置 accessible
+        Field[] fields = ALL_FIELDS_CACHE.get(obj.getClass());
+        if (isNullOrEmpty(fields)){
             return emptyMap();
         }
+
         Map<String, Object> map = new TreeMap<String, Object>();
-        for (Field field : fieldList){
-            map.put(field.getName(), getFieldValue(obj, field.getName()));
+        for (Field field : fields){
+            String fieldName = field.getName();
+            //子类的字段在前,同名(被隐藏)的父类字段忽略,和按照名称读取字段值的规则一致
+            if (map.containsKey(fieldName) || ArrayUtils.contains(excludeFieldNames, fieldName)){
+                continue;
+            }
+            map.put(fieldName, getFieldValue(obj, field));
         }
         return map;
     }
@@ -205,6 +230,26 @@ public final class FieldUtil{
         return CollectionsUtil.selectRejected(fieldList, PredicateUtils.orPredicate(excludeFieldPredicate, staticPredicate));
     }
 
+    /**
+     * 读取已经 setAccessible 的字段 <code>field</code> 的值.
+     *
+     * @param obj
+     *            the obj
+     * @param field
+     *            the field
+     * @return the field value
+     * @since 1.9.2
+     */
+    private static Object getFieldValue(Object obj,Field field){
+        try{
+            return field.get(obj);
+        }catch (IllegalAccessException e){
+            String message = Slf4jUtil.format("ownerClass:[{}],fieldName:[{}],ownerObj:[{}]", obj.getClass().getName(), field.getName(), obj);
+            LOGGER.error(message, e);
+            throw new ReflectException(message, e);
+        }
+    }
+
     /**
      * 得到某个对象 <code>owner</code> 的公共字段 <code>fieldName</code> 值.
      *
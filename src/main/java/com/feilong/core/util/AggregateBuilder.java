@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyPath;
+import com.feilong.core.lang.NumberUtil;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+
+/**
+ * 一次遍历同时计算多个属性的多个统计值(sum/avg/count/min/max/distinct count).
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link AggregateUtil#sum(Collection, String...)},{@link AggregateUtil#avg(Collection, String[], int)} 每次都要遍历一遍集合;
+ * 需要求多个统计值的时候,使用这个类只需要遍历一遍,每个元素的每个属性只取一次值(同一个属性的多个统计值共用)</li>
+ * <li>属性值通过预先解析好的 {@link PropertyPath} 读取,累加器按照属性下标保存在数组里面,遍历过程中不需要 {@link Map} 查找</li>
+ * <li>整数类型的值直接在 <code>long</code> 上累加(溢出时自动转成 {@link BigDecimal}),不会为每个值创建 {@link BigDecimal}</li>
+ * <li>sum 的规则和 {@link AggregateUtil#sum(Collection, String[], Predicate)} 一致,如果属性值是null,使用0代替</li>
+ * <li>avg = sum / count,count 是符合条件的元素个数,使用 {@link RoundingMode#HALF_UP} 保留 <code>scale</code> 位小数</li>
+ * <li>min/max/distinct count 和 sql 一样,忽略null值;min/max 要求属性值是 {@link Comparable}</li>
+ * <li>配置好之后可以重复调用 {@link #aggregate(Collection)},只要不再修改配置,多线程调用是安全的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * AggregateResult aggregateResult = new AggregateBuilder()//
+ *                 .sum("money")
+ *                 .avg("money", 2)
+ *                 .min("age")
+ *                 .max("age")
+ *                 .distinctCount("name")
+ *                 .aggregate(userList);
+ *
+ * aggregateResult.getCount();              //符合条件的元素个数
+ * aggregateResult.getSum("money");
+ * aggregateResult.getAvg("money");
+ * aggregateResult.getMin("age");
+ * aggregateResult.getDistinctCount("name");
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see AggregateUtil
+ * @see AggregateResult
+ * @since 1.9.2
+ */
+public final class AggregateBuilder{
+
+    /** sum. */
+    static final int                  SUM            = 1;
+
+    /** avg. */
+    static final int                  AVG            = 1 << 1;
+
+    /** min. */
+    static final int                  MIN            = 1 << 2;
+
+    /** max. */
+    static final int                  MAX            = 1 << 3;
+
+    /** distinct count. */
+    static final int                  DISTINCT_COUNT = 1 << 4;
+
+    /** 属性名称和需要计算的统计值(位标记),按照添加的顺序. */
+    private final Map<String, Integer> propertyNameAndMetricsMap = new LinkedHashMap<String, Integer>();
+
+    /** 属性名称和 avg 的标度. */
+    private final Map<String, Integer> propertyNameAndScaleMap   = new LinkedHashMap<String, Integer>();
+
+    //*****************************************************************************************
+
+    /**
+     * 计算 <code>propertyName</code> 的总和.
+     *
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public AggregateBuilder sum(String propertyName){
+        return addMetric(propertyName, SUM);
+    }
+
+    /**
+     * 计算 <code>propertyName</code> 的算术平均值.
+     *
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param scale
+     *            标度,小数的位数,四舍五入,用于 {@link java.math.BigDecimal#setScale(int, RoundingMode)}
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public AggregateBuilder avg(String propertyName,int scale){
+        addMetric(propertyName, AVG);
+        propertyNameAndScaleMap.put(propertyName, scale);
+        return this;
+    }
+
+    /**
+     * 计算 <code>propertyName</code> 的最小值(忽略null值).
+     *
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public AggregateBuilder min(String propertyName){
+        return addMetric(propertyName, MIN);
+    }
+
+    /**
+     * 计算 <code>propertyName</code> 的最大值(忽略null值).
+     *
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public AggregateBuilder max(String propertyName){
+        return addMetric(propertyName, MAX);
+    }
+
+    /**
+     * 计算 <code>propertyName</code> 不同值的个数(忽略null值,使用 {@link Object#equals(Object)} 判断).
+     *
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public AggregateBuilder distinctCount(String propertyName){
+        return addMetric(propertyName, DISTINCT_COUNT);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 遍历一遍 <code>objectCollection</code>,计算所有配置的统计值.
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 count 是0 的结果
+     * @see #aggregate(Collection, Predicate)
+     */
+    public <O> AggregateResult aggregate(Collection<O> objectCollection){
+        return aggregate(objectCollection, null);
+    }
+
+    /**
+     * 遍历一遍 <code>objectCollection</code>,只统计符合 <code>includePredicate</code> 的元素,计算所有配置的统计值.
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param includePredicate
+     *            只选择 符合 <code>includePredicate</code>的对象,如果是null 则统计集合中全部的元素
+     * @return 如果 <code>objectCollection</code> 是null或者empty,或者没有符合 <code>includePredicate</code>的元素,返回 count 是0 的结果(sum/avg/min/max
+     *         是null,distinct count 是0)
+     * @throws com.feilong.core.bean.BeanOperationException
+     *             如果取属性值的时候出现异常
+     */
+    public <O> AggregateResult aggregate(Collection<O> objectCollection,Predicate<O> includePredicate){
+        Accumulator accumulator = new Accumulator(this);
+        if (isNullOrEmpty(objectCollection)){
+            return accumulator.toAggregateResult();
+        }
+        for (O obj : objectCollection){
+            if (null == includePredicate || includePredicate.evaluate(obj)){
+                accumulator.accumulate(obj);
+            }
+        }
+        return accumulator.toAggregateResult();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 添加统计值.
+     *
+     * @param propertyName
+     *            the property name
+     * @param metric
+     *            the metric
+     * @return this
+     */
+    private AggregateBuilder addMetric(String propertyName,int metric){
+        Validate.notBlank(propertyName, "propertyName can't be blank!");
+        Integer metrics = propertyNameAndMetricsMap.get(propertyName);
+        propertyNameAndMetricsMap.put(propertyName, null == metrics ? metric : metrics | metric);
+        return this;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 一次遍历的累加器,每个属性的累加值按照属性下标保存在数组里面.
+     */
+    static final class Accumulator{
+
+        /** 属性名称和下标. */
+        private final Map<String, Integer> indexMap;
+
+        /** 每个属性的表达式. */
+        private final PropertyPath[]      propertyPaths;
+
+        /** 每个属性需要计算的统计值. */
+        private final int[]               metrics;
+
+        /** 每个属性 avg 的标度. */
+        private final int[]               scales;
+
+        /** 每个属性的总和. */
+        private final NumberAccumulator[] sums;
+
+        /** 每个属性的最小值. */
+        private final Object[]            mins;
+
+        /** 每个属性的最大值. */
+        private final Object[]            maxs;
+
+        /** 每个属性的不同值. */
+        private final Set<Object>[]       distinctValueSets;
+
+        /** 符合条件的元素个数. */
+        private long                      count;
+
+        /**
+         * Instantiates a new accumulator.
+         *
+         * @param aggregateBuilder
+         *            the aggregate builder
+         */
+        Accumulator(AggregateBuilder aggregateBuilder){
+            int size = aggregateBuilder.propertyNameAndMetricsMap.size();
+            this.indexMap = new LinkedHashMap<String, Integer>(size * 2);
+            this.propertyPaths = new PropertyPath[size];
+            this.metrics = new int[size];
+            this.scales = new int[size];
+            this.sums = new NumberAccumulator[size];
+            this.mins = new Object[size];
+            this.maxs = new Object[size];
+
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            Set<Object>[] distinctValueSets = new Set[size];
+            this.distinctValueSets = distinctValueSets;
+
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : aggregateBuilder.propertyNameAndMetricsMap.entrySet()){
+                String propertyName = entry.getKey();
+                indexMap.put(propertyName, i);
+                propertyPaths[i] = PropertyPath.compile(propertyName);
+                metrics[i] = entry.getValue();
+                if ((metrics[i] & AVG) != 0){
+                    scales[i] = aggregateBuilder.propertyNameAndScaleMap.get(propertyName);
+                }
+                if ((metrics[i] & (SUM | AVG)) != 0){
+                    sums[i] = new NumberAccumulator();
+                }
+                if ((metrics[i] & DISTINCT_COUNT) != 0){
+                    distinctValueSets[i] = new HashSet<Object>();
+                }
+                ++i;
+            }
+        }
+
+        /**
+         * 累加一个元素.
+         *
+         * @param obj
+         *            the obj
+         */
+        void accumulate(Object obj){
+            ++count;
+            for (int i = 0; i < propertyPaths.length; ++i){
+                Object value = propertyPaths[i].getValue(obj);
+                int metric = metrics[i];
+                if ((metric & (SUM | AVG)) != 0){
+                    //如果通过反射某个元素值是null,则使用默认值0 代替
+                    sums[i].add((Number) value);
+                }
+                if (null == value){
+                    continue;
+                }
+                if ((metric & MIN) != 0 && (null == mins[i] || compare(value, mins[i]) < 0)){
+                    mins[i] = value;
+                }
+                if ((metric & MAX) != 0 && (null == maxs[i] || compare(value, maxs[i]) > 0)){
+                    maxs[i] = value;
+                }
+                if ((metric & DISTINCT_COUNT) != 0){
+                    distinctValueSets[i].add(value);
+                }
+            }
+        }
+
+        /**
+         * 生成结果.
+         *
+         * @return the aggregate result
+         */
+        AggregateResult toAggregateResult(){
+            int size = propertyPaths.length;
+            BigDecimal[] sumValues = new BigDecimal[size];
+            BigDecimal[] avgs = new BigDecimal[size];
+            int[] distinctCounts = new int[size];
+            for (int i = 0; i < size; ++i){
+                if ((metrics[i] & (SUM | AVG)) != 0 && count > 0){
+                    sumValues[i] = sums[i].getSum();
+                }
+                if ((metrics[i] & AVG) != 0 && count > 0){
+                    avgs[i] = NumberUtil.getDivideValue(sumValues[i], count, scales[i]);
+                }
+                if ((metrics[i] & DISTINCT_COUNT) != 0){
+                    distinctCounts[i] = distinctValueSets[i].size();
+                }
+            }
+            return new AggregateResult(indexMap, metrics, count, sumValues, avgs, mins, maxs, distinctCounts);
+        }
+
+        /**
+         * Compare.
+         *
+         * @param one
+         *            the one
+         * @param two
+         *            the two
+         * @return the int
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static int compare(Object one,Object two){
+            return ((Comparable) one).compareTo(two);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import static com.feilong.core.util.AggregateBuilder.AVG;
+import static com.feilong.core.util.AggregateBuilder.DISTINCT_COUNT;
+import static com.feilong.core.util.AggregateBuilder.MAX;
+import static com.feilong.core.util.AggregateBuilder.MIN;
+import static com.feilong.core.util.AggregateBuilder.SUM;
+
+/**
+ * {@link AggregateBuilder#aggregate(java.util.Collection, org.apache.commons.collections4.Predicate)} 的结果.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>只能获取 {@link AggregateBuilder} 配置过的统计值,否则抛出 {@link IllegalArgumentException}</li>
+ * <li>如果没有符合条件的元素,sum/avg/min/max 是null,distinct count 是0</li>
+ * <li>不可变对象</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see AggregateBuilder
+ * @since 1.9.2
+ */
+public final class AggregateResult{
+
+    /** 属性名称和下标. */
+    private final Map<String, Integer> indexMap;
+
+    /** 每个属性计算了哪些统计值. */
+    private final int[]                metrics;
+
+    /** 符合条件的元素个数. */
+    private final long                 count;
+
+    /** The sums. */
+    private final BigDecimal[]         sums;
+
+    /** The avgs. */
+    private final BigDecimal[]         avgs;
+
+    /** The mins. */
+    private final Object[]             mins;
+
+    /** The maxs. */
+    private final Object[]             maxs;
+
+    /** The distinct counts. */
+    private final int[]                distinctCounts;
+
+    /**
+     * Instantiates a new aggregate result.
+     *
+     * @param indexMap
+     *            the index map
+     * @param metrics
+     *            the metrics
+     * @param count
+     *            the count
+     * @param sums
+     *            the sums
+     * @param avgs
+     *            the avgs
+     * @param mins
+     *            the mins
+     * @param maxs
+     *            the maxs
+     * @param distinctCounts
+     *            the distinct counts
+     */
+    AggregateResult(Map<String, Integer> indexMap, int[] metrics, long count, BigDecimal[] sums, BigDecimal[] avgs, Object[] mins,
+                    Object[] maxs, int[] distinctCounts){
+        this.indexMap = indexMap;
+        this.metrics = metrics;
+        this.count = count;
+        this.sums = sums;
+        this.avgs = avgs;
+        this.mins = mins;
+        this.maxs = maxs;
+        this.distinctCounts = distinctCounts;
+    }
+
+    /**
+     * 获得 符合条件的元素个数.
+     *
+     * @return the count
+     */
+    public long getCount(){
+        return count;
+    }
+
+    /**
+     * 获得 <code>propertyName</code> 的总和.
+     *
+     * @param propertyName
+     *            the property name
+     * @return 如果没有符合条件的元素,返回null
+     * @throws IllegalArgumentException
+     *             如果没有配置 {@link AggregateBuilder#sum(String)}
+     */
+    public BigDecimal getSum(String propertyName){
+        return sums[index(propertyName, SUM)];
+    }
+
+    /**
+     * 获得 <code>propertyName</code> 的算术平均值.
+     *
+     * @param propertyName
+     *            the property name
+     * @return 如果没有符合条件的元素,返回null
+     * @throws IllegalArgumentException
+     *             如果没有配置 {@link AggregateBuilder#avg(String, int)}
+     */
+    public BigDecimal getAvg(String propertyName){
+        return avgs[index(propertyName, AVG)];
+    }
+
+    /**
+     * 获得 <code>propertyName</code> 的最小值.
+     *
+     * @param <T>
+     *            the generic type
+     * @param propertyName
+     *            the property name
+     * @return 如果没有符合条件的元素,或者值都是null,返回null
+     * @throws IllegalArgumentException
+     *             如果没有配置 {@link AggregateBuilder#min(String)}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getMin(String propertyName){
+        return (T) mins[index(propertyName, MIN)];
+    }
+
+    /**
+     * 获得 <code>propertyName</code> 的最大值.
+     *
+     * @param <T>
+     *            the generic type
+     * @param propertyName
+     *            the property name
+     * @return 如果没有符合条件的元素,或者值都是null,返回null
+     * @throws IllegalArgumentException
+     *             如果没有配置 {@link AggregateBuilder#max(String)}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getMax(String propertyName){
+        return (T) maxs[index(propertyName, MAX)];
+    }
+
+    /**
+     * 获得 <code>propertyName</code> 不同值的个数(不包含null).
+     *
+     * @param propertyName
+     *            the property name
+     * @return the distinct count
+     * @throws IllegalArgumentException
+     *             如果没有配置 {@link AggregateBuilder#distinctCount(String)}
+     */
+    public int getDistinctCount(String propertyName){
+        return distinctCounts[index(propertyName, DISTINCT_COUNT)];
+    }
+
+    /**
+     * 属性的下标.
+     *
+     * @param propertyName
+     *            the property name
+     * @param metric
+     *            the metric
+     * @return the int
+     */
+    private int index(String propertyName,int metric){
+        Integer index = indexMap.get(propertyName);
+        Validate.isTrue(null != index && (metrics[index] & metric) != 0, "propertyName:[%s] not aggregate this metric", propertyName);
+        return index;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        ToStringBuilder toStringBuilder = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("count", count);
+        for (Map.Entry<String, Integer> entry : indexMap.entrySet()){
+            int i = entry.getValue();
+            String propertyName = entry.getKey();
+            appendIfAggregated(toStringBuilder, i, SUM, "sum(" + propertyName + ")", sums[i]);
+            appendIfAggregated(toStringBuilder, i, AVG, "avg(" + propertyName + ")", avgs[i]);
+            appendIfAggregated(toStringBuilder, i, MIN, "min(" + propertyName + ")", mins[i]);
+            appendIfAggregated(toStringBuilder, i, MAX, "max(" + propertyName + ")", maxs[i]);
+            appendIfAggregated(toStringBuilder, i, DISTINCT_COUNT, "distinctCount(" + propertyName + ")", distinctCounts[i]);
+        }
+        return toStringBuilder.toString();
+    }
+
+    /**
+     * Append if aggregated.
+     *
+     * @param toStringBuilder
+     *            the to string builder
+     * @param index
+     *            the index
+     * @param metric
+     *            the metric
+     * @param fieldName
+     *            the field name
+     * @param value
+     *            the value
+     */
+    private void appendIfAggregated(ToStringBuilder toStringBuilder,int index,int metric,String fieldName,Object value){
+        if ((metrics[index] & metric) != 0){
+            toStringBuilder.append(fieldName, value);
+        }
+    }
+}
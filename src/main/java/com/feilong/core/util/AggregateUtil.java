@@ -16,18 +16,19 @@
 package com.feilong.core.util;
 
 import static java.util.Collections.emptyMap;
-import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.collections4.Predicate;
 import org.apache.commons.lang3.Validate;
 
+import com.feilong.core.bean.PropertyPath;
 import com.feilong.core.bean.PropertyUtil;
 import com.feilong.core.lang.NumberUtil;
 
@@ -45,6 +46,7 @@ import static com.feilong.core.util.MapUtil.newLinkedHashMap;
  *
  * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
  * @see "java.util.stream.Collectors"
+ * @see AggregateBuilder
  * @since 1.8.0
  */
 //Aggregate Functions
@@ -383,6 +385,15 @@ public final class AggregateUtil{
     /**
      * 迭代<code>objectCollection</code>,提取符合 <code>includePredicate</code>的元素 的指定 <code>propertyNames</code> 元素的值 ,累计总和.
      * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>{@link Integer},{@link Long},{@link Short},{@link Byte} 类型的值直接在 <code>long</code> 上累加(溢出时自动转成 {@link BigDecimal}),
+     * 其他类型的值使用 {@link BigDecimal} 精确累加,结果和逐个使用 {@link NumberUtil#getAddValue(Number...)} 累加完全一致</li>
+     * <li>如果是 float/double 类型的属性,并且只需要 double 结果,可以使用 {@link #sumDouble(Collection, String, Predicate)}</li>
+     * </ol>
+     * </blockquote>
+     * 
      * <h3>示例:</h3>
      * 
      * <blockquote>
@@ -447,23 +458,273 @@ public final class AggregateUtil{
         }
         Validate.noNullElements(propertyNames, "propertyNames can't be null/empty!");
 
-        Map<String, BigDecimal> sumMap = newLinkedHashMap(objectCollection.size());
+        int length = propertyNames.length;
+        PropertyPath[] propertyPaths = new PropertyPath[length];
+        NumberAccumulator[] numberAccumulators = new NumberAccumulator[length];
+        for (int i = 0; i < length; ++i){
+            propertyPaths[i] = PropertyPath.compile(propertyNames[i]);
+            numberAccumulators[i] = new NumberAccumulator();
+        }
+
+        boolean hasIncluded = false;
         for (O obj : objectCollection){
             if (null != includePredicate && !includePredicate.evaluate(obj)){
                 continue;
             }
-
-            for (String propertyName : propertyNames){
+            hasIncluded = true;
+            for (int i = 0; i < length; ++i){
                 //如果通过反射某个元素值是null,则使用默认值0 代替
-                BigDecimal addValue = NumberUtil.getAddValue(
-                                defaultIfNull(sumMap.get(propertyName), 0),
-                                defaultIfNull(PropertyUtil.<Number> getProperty(obj, propertyName), 0));
-                sumMap.put(propertyName, addValue);
+                numberAccumulators[i].add((Number) propertyPaths[i].getValue(obj));
+            }
+        }
+
+        return toSumMap(propertyNames, hasIncluded ? numberAccumulators : null);
+    }
+
+    /**
+     * 把每个属性的累加结果转成 map.
+     *
+     * @param propertyNames
+     *            the property names
+     * @param numberAccumulators
+     *            和 <code>propertyNames</code> 一一对应的累加器,如果没有符合条件的元素,是null
+     * @return 如果 <code>numberAccumulators</code> 是null,返回 empty {@link LinkedHashMap}
+     * @since 1.9.2
+     */
+    private static Map<String, BigDecimal> toSumMap(String[] propertyNames,NumberAccumulator[] numberAccumulators){
+        int length = propertyNames.length;
+        Map<String, BigDecimal> sumMap = newLinkedHashMap(length);
+        if (null != numberAccumulators){
+            for (int i = 0; i < length; ++i){
+                //同一个属性名称出现多次的时候,和以前一样重复累加
+                BigDecimal sum = numberAccumulators[i].getSum();
+                BigDecimal existSum = sumMap.get(propertyNames[i]);
+                sumMap.put(propertyNames[i], null == existSum ? sum : existSum.add(sum));
             }
         }
         return sumMap;
     }
 
+    //***********************************sumParallel*************************************************************
+
+    /**
+     * {@link #sum(Collection, String)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>元素个数达到阈值(8192)的时候,使用 fork-join 把 <code>objectCollection</code> 拆分成若干段,每一段在各自的线程里累加,最后再把各段的结果相加;
+     * 元素个数小于阈值的时候,直接调用顺序的实现</li>
+     * <li>累加是精确的(参见 {@link #sum(Collection, String[], Predicate)}),所以结果和顺序的实现完全一致,包括 {@link BigDecimal#scale()}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>objectCollection</code> 是null或者 empty,返回 null<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}
+     * @see #sum(Collection, String)
+     * @since 1.9.2
+     */
+    public static <O> BigDecimal sumParallel(Collection<O> objectCollection,String propertyName){
+        Validate.notBlank(propertyName, "propertyName can't be blank!");
+        return sumParallel(objectCollection, propertyName, null);
+    }
+
+    /**
+     * {@link #sum(Collection, String, Predicate)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>拆分合并的规则,参见 {@link #sumParallel(Collection, String)}</li>
+     * <li><code>includePredicate</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param includePredicate
+     *            the include predicate
+     * @return 如果 <code>objectCollection</code> 是null或者 empty,返回 null<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>includePredicate</code> 是null,那么迭代所有的元素<br>
+     *         如果<code>objectCollection</code>没有符合 <code>includePredicate</code>的元素,返回 <code>null</code>
+     * @see #sum(Collection, String, Predicate)
+     * @since 1.9.2
+     */
+    public static <O> BigDecimal sumParallel(Collection<O> objectCollection,String propertyName,Predicate<O> includePredicate){
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+        return sumParallel(objectCollection, toArray(propertyName), includePredicate).get(propertyName);
+    }
+
+    /**
+     * {@link #sum(Collection, String...)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>拆分合并的规则,参见 {@link #sumParallel(Collection, String)}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果通过反射某个元素值是null,则使用默认值0代替,再进行累加<br>
+     * @throws NullPointerException
+     *             如果<code>propertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             果<code>propertyNames</code> 有元素 是null <br>
+     * @see #sum(Collection, String...)
+     * @since 1.9.2
+     */
+    public static <O> Map<String, BigDecimal> sumParallel(Collection<O> objectCollection,String...propertyNames){
+        return sumParallel(objectCollection, propertyNames, null);
+    }
+
+    /**
+     * {@link #sum(Collection, String[], Predicate)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>拆分合并的规则,参见 {@link #sumParallel(Collection, String)}</li>
+     * <li><code>includePredicate</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param includePredicate
+     *            the include predicate
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果通过反射某个元素值是null,则使用默认值0代替,再进行累加<br>
+     *         如果 <code>includePredicate</code> 是null,那么迭代所有的元素<br>
+     *         如果<code>objectCollection</code>没有符合 <code>includePredicate</code>的元素,返回 <code>new LinkedHashMap</code>
+     * @throws NullPointerException
+     *             如果<code>propertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             果<code>propertyNames</code> 有元素 是null <br>
+     * @see #sum(Collection, String[], Predicate)
+     * @since 1.9.2
+     */
+    public static <O> Map<String, BigDecimal> sumParallel(Collection<O> objectCollection,String[] propertyNames,Predicate<O> includePredicate){
+        if (isNullOrEmpty(objectCollection)){
+            return emptyMap();
+        }
+        Validate.noNullElements(propertyNames, "propertyNames can't be null/empty!");
+
+        if (!ParallelReducer.isParallel(objectCollection)){
+            return sum(objectCollection, propertyNames, includePredicate);
+        }
+        int length = propertyNames.length;
+        PropertyPath[] propertyPaths = new PropertyPath[length];
+        for (int i = 0; i < length; ++i){
+            propertyPaths[i] = PropertyPath.compile(propertyNames[i]);
+        }
+        return toSumMap(propertyNames, new SumReducer<O>(propertyPaths, includePredicate).invoke(objectCollection));
+    }
+
+    //***********************************sumDouble*************************************************************
+
+    /**
+     * 使用补偿求和(Kahan-Babuska/Neumaier)计算 <code>objectCollection</code> 内指定的属性名 <code>propertyName</code> 值的 double 总和.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>适合 float/double 类型的属性:整个累加过程只使用 double,不会为每个值创建 {@link BigDecimal};补偿求和把每一步的舍入误差累计下来最后补回去,
+     * 误差和元素个数无关,比直接 <code>sum += value</code> 精确得多</li>
+     * <li>结果是二进制浮点数,不是十进制精确值;如果需要十进制精确的结果(比如金额),请使用 {@link #sum(Collection, String)}</li>
+     * <li>如果通过反射某个元素值是null,则使用默认值0代替</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>objectCollection</code> 是null或者 empty,返回 0<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}
+     * @see #sumDouble(Collection, String, Predicate)
+     * @since 1.9.2
+     */
+    public static <O> double sumDouble(Collection<O> objectCollection,String propertyName){
+        return sumDouble(objectCollection, propertyName, null);
+    }
+
+    /**
+     * 迭代<code>objectCollection</code>,提取 符合 <code>includePredicate</code>的元素 的指定 <code>propertyName</code> 元素的值,使用补偿求和计算 double 总和.
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param includePredicate
+     *            the include predicate
+     * @return 如果 <code>objectCollection</code> 是null或者 empty,返回 0<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>includePredicate</code> 是null,那么迭代所有的元素
+     * @see #sumDouble(Collection, String)
+     * @since 1.9.2
+     */
+    public static <O> double sumDouble(Collection<O> objectCollection,String propertyName,Predicate<O> includePredicate){
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+        if (isNullOrEmpty(objectCollection)){
+            return 0;
+        }
+
+        PropertyPath propertyPath = PropertyPath.compile(propertyName);
+        double sum = 0;
+        double compensation = 0;
+        for (O obj : objectCollection){
+            if (null != includePredicate && !includePredicate.evaluate(obj)){
+                continue;
+            }
+            Number number = (Number) propertyPath.getValue(obj);
+            if (null == number){
+                continue;
+            }
+            double value = number.doubleValue();
+            double t = sum + value;
+            //Neumaier: 较小的数在加法中丢失的低位
+            compensation += Math.abs(sum) >= Math.abs(value) ? (sum - t) + value : (value - t) + sum;
+            sum = t;
+        }
+        return sum + compensation;
+    }
+
     //***********************************************************************************************
 
     /**
@@ -598,13 +859,221 @@ public final class AggregateUtil{
         }
         Validate.notBlank(propertyName, "propertyName can't be null/empty!");
 
-        Map<T, Integer> map = new LinkedHashMap<T, Integer>();
+        CounterMap<T> counterMap = new CounterMap<T>();
         for (O obj : objectCollection){
             if (null != includePredicate && !includePredicate.evaluate(obj)){
                 continue;
             }
-            MapUtil.putSumValue(map, PropertyUtil.<T> getProperty(obj, propertyName), 1);
+            counterMap.increment(PropertyUtil.<T> getProperty(obj, propertyName));
+        }
+        return counterMap.toMap();
+    }
+
+    //***********************************groupCountParallel*************************************************************
+
+    /**
+     * {@link #groupCount(Collection, String)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>元素个数达到阈值(8192)的时候,使用 fork-join 把 <code>objectCollection</code> 拆分成若干段,每一段在各自的线程里统计成部分 map,再按照段的顺序合并;
+     * 元素个数小于阈值的时候,直接调用 {@link #groupCount(Collection, String)}</li>
+     * <li>返回的 {@link LinkedHashMap} 和 {@link #groupCount(Collection, String)} 完全一致,key 的顺序是第一次出现的顺序</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * @see #groupCount(Collection, String)
+     * @since 1.9.2
+     */
+    public static <T, O> Map<T, Integer> groupCountParallel(Collection<O> objectCollection,String propertyName){
+        return groupCountParallel(objectCollection, propertyName, null);
+    }
+
+    /**
+     * {@link #groupCount(Collection, String, Predicate)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>拆分合并的规则以及返回结果的顺序,参见 {@link #groupCountParallel(Collection, String)}</li>
+     * <li><code>includePredicate</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param includePredicate
+     *            只选择 符合 <code>includePredicate</code>的对象,如果是null 则统计集合中全部的元素
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>includePredicate</code> 是null,则统计集合中全部的元素<br>
+     * @see #groupCount(Collection, String, Predicate)
+     * @since 1.9.2
+     */
+    public static <T, O> Map<T, Integer> groupCountParallel(Collection<O> objectCollection,String propertyName,Predicate<O> includePredicate){
+        if (isNullOrEmpty(objectCollection)){
+            return emptyMap();
+        }
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+
+        if (!ParallelReducer.isParallel(objectCollection)){
+            return groupCount(objectCollection, propertyName, includePredicate);
+        }
+        return new GroupCountReducer<T, O>(propertyName, includePredicate).invoke(objectCollection).toMap();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * {@link AggregateUtil#sumParallel(Collection, String[], Predicate)} 使用的并行归约,每一段得到每个属性的累加器,没有符合条件的元素的段返回null.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class SumReducer<O> extends ParallelReducer<O, NumberAccumulator[]>{
+
+        /** The property paths. */
+        private final PropertyPath[] propertyPaths;
+
+        /** The include predicate. */
+        private final Predicate<O>   includePredicate;
+
+        /**
+         * Instantiates a new sum reducer.
+         *
+         * @param propertyPaths
+         *            the property paths
+         * @param includePredicate
+         *            the include predicate
+         */
+        SumReducer(PropertyPath[] propertyPaths, Predicate<O> includePredicate){
+            this.propertyPaths = propertyPaths;
+            this.includePredicate = includePredicate;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelReducer#reduce(java.util.List, int, int)
+         */
+        @Override
+        NumberAccumulator[] reduce(List<O> list,int fromIndex,int toIndex){
+            int length = propertyPaths.length;
+            NumberAccumulator[] numberAccumulators = null;
+            for (int i = fromIndex; i < toIndex; ++i){
+                O obj = list.get(i);
+                if (null != includePredicate && !includePredicate.evaluate(obj)){
+                    continue;
+                }
+                if (null == numberAccumulators){
+                    numberAccumulators = new NumberAccumulator[length];
+                    for (int j = 0; j < length; ++j){
+                        numberAccumulators[j] = new NumberAccumulator();
+                    }
+                }
+                for (int j = 0; j < length; ++j){
+                    numberAccumulators[j].add((Number) propertyPaths[j].getValue(obj));
+                }
+            }
+            return numberAccumulators;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelReducer#merge(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        NumberAccumulator[] merge(NumberAccumulator[] left,NumberAccumulator[] right){
+            if (null == left){
+                return right;
+            }
+            if (null != right){
+                for (int i = 0; i < left.length; ++i){
+                    left[i].merge(right[i]);
+                }
+            }
+            return left;
+        }
+    }
+
+    /**
+     * {@link AggregateUtil#groupCountParallel(Collection, String, Predicate)} 使用的并行归约,每一段统计成部分 {@link CounterMap},再按照段的顺序合并.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     */
+    private static final class GroupCountReducer<T, O> extends ParallelReducer<O, CounterMap<T>>{
+
+        /** The property name. */
+        private final String       propertyName;
+
+        /** The include predicate. */
+        private final Predicate<O> includePredicate;
+
+        /**
+         * Instantiates a new group count reducer.
+         *
+         * @param propertyName
+         *            the property name
+         * @param includePredicate
+         *            the include predicate
+         */
+        GroupCountReducer(String propertyName, Predicate<O> includePredicate){
+            this.propertyName = propertyName;
+            this.includePredicate = includePredicate;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelReducer#reduce(java.util.List, int, int)
+         */
+        @Override
+        CounterMap<T> reduce(List<O> list,int fromIndex,int toIndex){
+            CounterMap<T> counterMap = new CounterMap<T>();
+            for (int i = fromIndex; i < toIndex; ++i){
+                O obj = list.get(i);
+                if (null != includePredicate && !includePredicate.evaluate(obj)){
+                    continue;
+                }
+                counterMap.increment(PropertyUtil.<T> getProperty(obj, propertyName));
+            }
+            return counterMap;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelReducer#merge(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        CounterMap<T> merge(CounterMap<T> left,CounterMap<T> right){
+            //right 里面第一次出现的key,放在 left 所有key的后面,和顺序执行的顺序一致
+            return left.incrementAll(right);
         }
-        return map;
     }
 }
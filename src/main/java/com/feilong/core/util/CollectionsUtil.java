@@ -247,6 +247,7 @@ import static com.feilong.core.util.MapUtil.newLinkedHashMap;
  * @see org.apache.commons.collections4.ListUtils
  * @see org.apache.commons.collections4.IterableUtils
  * @see org.apache.commons.collections4.CollectionUtils
+ * @see Query
  * @see "org.springframework.util.CollectionUtils"
  * @see "com.google.common.collect.Sets"
  * @see "com.google.common.collect.Lists"
@@ -1132,6 +1133,7 @@ public final class CollectionsUtil{
      *         如果 <code>iterable</code>中没有相关元素的属性<code>propertyName</code> 值是<code>propertyValue</code>,返回null
      * @see #find(Iterable, Predicate)
      * @see com.feilong.core.util.predicate.BeanPredicateUtil#equalPredicate(String, Object)
+     * @see PropertyIndex#find(Object)
      */
     public static <O, V> O find(Iterable<O> iterable,String propertyName,V propertyValue){
         return null == iterable ? null : find(iterable, BeanPredicateUtil.<O, V> equalPredicate(propertyName, propertyValue));
@@ -1322,6 +1324,7 @@ public final class CollectionsUtil{
      *         否则调用 {@link #select(Collection, Predicate)}
      * @see #select(Collection, Predicate)
      * @see BeanPredicateUtil#containsPredicate(String, Collection)
+     * @see PropertyIndex#select(Collection)
      * @since 1.5.0
      */
     public static <O, V> List<O> select(Collection<O> objectCollection,String propertyName,Collection<V> propertyValueList){
@@ -1409,6 +1412,37 @@ public final class CollectionsUtil{
                         : (List<O>) CollectionUtils.select(objectCollection, predicate);
     }
 
+    /**
+     * {@link #select(Collection, Predicate)} 的并行版本,适合 <code>predicate</code> 比较耗时(比如反射读取属性,类型转换)的场景.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>如果 <code>objectCollection</code> 是 {@link java.util.RandomAccess} 的 {@link List},并且元素个数达到阈值(8192),使用 fork-join 按照下标拆分成若干段,
+     * 每一段把符合条件的元素写到自己的缓冲区,最后按照段的顺序拼接;否则直接调用 {@link #select(Collection, Predicate)}</li>
+     * <li>返回结果的顺序和 {@link #select(Collection, Predicate)} 完全一致</li>
+     * <li><code>predicate</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param predicate
+     *            the predicate
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>predicate</code> 是null,返回 empty list
+     * @see #select(Collection, Predicate)
+     * @since 1.9.2
+     */
+    public static <O> List<O> selectParallel(Collection<O> objectCollection,Predicate<O> predicate){
+        if (null == predicate || !ParallelListUtil.isParallel(objectCollection)){
+            return select(objectCollection, predicate);
+        }
+        return ParallelListUtil.select((List<O>) objectCollection, predicate, false);
+    }
+
     //***************************selectRejected*********************************************************************
 
     /**
@@ -1583,6 +1617,35 @@ public final class CollectionsUtil{
                         : (List<O>) CollectionUtils.selectRejected(objectCollection, predicate);
     }
 
+    /**
+     * {@link #selectRejected(Collection, Predicate)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>拆分合并的规则以及返回结果的顺序,参见 {@link #selectParallel(Collection, Predicate)}</li>
+     * <li><code>predicate</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param predicate
+     *            the predicate
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>predicate</code> 是null,返回 empty list
+     * @see #selectRejected(Collection, Predicate)
+     * @since 1.9.2
+     */
+    public static <O> List<O> selectRejectedParallel(Collection<O> objectCollection,Predicate<O> predicate){
+        if (null == predicate || !ParallelListUtil.isParallel(objectCollection)){
+            return selectRejected(objectCollection, predicate);
+        }
+        return ParallelListUtil.select((List<O>) objectCollection, predicate, true);
+    }
+
     /**
      * 循环 <code>inputIterable</code>,将每个元素使用 <code>transformer</code> 转换成新的对象,返回<b>新的list</b>.
      * 
@@ -1630,6 +1693,39 @@ public final class CollectionsUtil{
         return null == inputIterable ? Collections.<T> emptyList() : (List<T>) CollectionUtils.collect(inputIterable, transformer);
     }
 
+    /**
+     * {@link #collect(Iterable, Transformer)} 的并行版本,适合 <code>transformer</code> 比较耗时(比如反射读取属性,类型转换)的场景.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>如果 <code>inputIterable</code> 是 {@link java.util.RandomAccess} 的 {@link List},并且元素个数达到阈值(8192),使用 fork-join 按照下标拆分成若干段,
+     * 每个元素的转换结果直接写到预先分配好的数组的对应下标;否则直接调用 {@link #collect(Iterable, Transformer)}</li>
+     * <li>返回结果的顺序和 {@link #collect(Iterable, Transformer)} 完全一致</li>
+     * <li><code>transformer</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the type of object in the input collection
+     * @param <T>
+     *            the type of object in the output collection
+     * @param inputIterable
+     *            the inputIterable to get the input from
+     * @param transformer
+     *            the transformer to use, may be null
+     * @return 如果 <code>inputIterable</code> 是null,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>transformer</code> 是null,返回 empty list
+     * @see #collect(Iterable, Transformer)
+     * @since 1.9.2
+     */
+    public static <O, T> List<T> collectParallel(final Iterable<O> inputIterable,final Transformer<? super O, ? extends T> transformer){
+        if (null == transformer || !(inputIterable instanceof Collection) || !ParallelListUtil.isParallel((Collection<O>) inputIterable)){
+            return collect(inputIterable, transformer);
+        }
+        return ParallelListUtil.collect((List<O>) inputIterable, transformer);
+    }
+
     /**
      * 循环 <code>inputIterator</code>,将每个元素使用 <code>transformer</code> 转换成新的对象 返回<b>新的list</b>.
      * 
@@ -1805,6 +1901,7 @@ public final class CollectionsUtil{
      *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}
      * @see #group(Collection, String, Predicate)
+     * @see #groupCompact(Collection, String)
      * @since 1.0.8
      */
     public static <T, O> Map<T, List<O>> group(Collection<O> objectCollection,String propertyName){
@@ -2167,6 +2264,7 @@ public final class CollectionsUtil{
      *         如果没有任何element match <code>includePredicate</code>,返回 empty {@link LinkedHashMap}<br>
      * @see org.apache.commons.collections4.Transformer#transform(Object)
      * @see <a href="https://github.com/venusdrogon/feilong-core/issues/270">List to Map 实现类似矩阵的逻辑 by ananbeike</a>
+     * @see #groupCompact(Collection, Predicate, Transformer)
      * @since 1.8.8
      */
     public static <T, O> Map<T, List<O>> group(
@@ -2188,6 +2286,275 @@ public final class CollectionsUtil{
         return map;
     }
 
+    //***********************************groupParallel*************************************************************
+
+    /**
+     * {@link #group(Collection, String)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>元素个数达到阈值(8192)的时候,使用 fork-join 把 <code>objectCollection</code> 拆分成若干段,每一段在各自的线程里分组成部分 map,再按照段的顺序合并;
+     * 元素个数小于阈值的时候,直接调用 {@link #group(Collection, String)}</li>
+     * <li>返回的 {@link LinkedHashMap} 和 {@link #group(Collection, String)} 完全一致:key 的顺序是第一次出现的顺序,每个key下面元素的顺序是
+     * <code>objectCollection</code> 的顺序</li>
+     * <li>如果 <code>objectCollection</code> 不是 {@link java.util.RandomAccess} 的 {@link List},会先复制一份,以便按照下标拆分</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * @see #group(Collection, String)
+     * @since 1.9.2
+     */
+    public static <T, O> Map<T, List<O>> groupParallel(Collection<O> objectCollection,String propertyName){
+        return groupParallel(objectCollection, propertyName, null);
+    }
+
+    /**
+     * {@link #group(Collection, String, Predicate)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>拆分合并的规则以及返回结果的顺序,参见 {@link #groupParallel(Collection, String)}</li>
+     * <li><code>includePredicate</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param includePredicate
+     *            the include predicate
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果没有任何element match <code>includePredicate</code>,返回 empty {@link LinkedHashMap}<br>
+     *         如果 <code>includePredicate</code> 是null,那么以所有的元素进行分组
+     * @see #group(Collection, String, Predicate)
+     * @since 1.9.2
+     */
+    public static <T, O> Map<T, List<O>> groupParallel(Collection<O> objectCollection,final String propertyName,Predicate<O> includePredicate){
+        if (isNullOrEmpty(objectCollection)){
+            return emptyMap();
+        }
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+
+        return groupParallel(objectCollection, includePredicate, new Transformer<O, T>(){
+
+            @Override
+            public T transform(O input){
+                return PropertyUtil.getProperty(input, propertyName);
+            }
+        });
+    }
+
+    /**
+     * {@link #group(Collection, Transformer)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>拆分合并的规则以及返回结果的顺序,参见 {@link #groupParallel(Collection, String)}</li>
+     * <li><code>keyTransformer</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param keyTransformer
+     *            返回的map,key转换器
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>keyTransformer</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see #group(Collection, Transformer)
+     * @since 1.9.2
+     */
+    public static <T, O> Map<T, List<O>> groupParallel(Collection<O> objectCollection,Transformer<O, T> keyTransformer){
+        return groupParallel(objectCollection, null, keyTransformer);
+    }
+
+    /**
+     * {@link #group(Collection, Predicate, Transformer)} 的并行版本.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>拆分合并的规则以及返回结果的顺序,参见 {@link #groupParallel(Collection, String)}</li>
+     * <li><code>includePredicate</code> 以及 <code>keyTransformer</code> 会在多个线程里同时调用,必须是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object list
+     * @param includePredicate
+     *            the include predicate
+     * @param keyTransformer
+     *            返回的map,key转换器
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>keyTransformer</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>includePredicate</code> 是null,那么以所有的元素进行分组<br>
+     *         如果没有任何element match <code>includePredicate</code>,返回 empty {@link LinkedHashMap}<br>
+     * @see #group(Collection, Predicate, Transformer)
+     * @since 1.9.2
+     */
+    public static <T, O> Map<T, List<O>> groupParallel(
+                    Collection<O> objectCollection,
+                    Predicate<O> includePredicate,
+                    Transformer<O, T> keyTransformer){
+        if (isNullOrEmpty(objectCollection)){
+            return emptyMap();
+        }
+        Validate.notNull(keyTransformer, "keyTransformer can't be null!");
+
+        if (!ParallelReducer.isParallel(objectCollection)){
+            return group(objectCollection, includePredicate, keyTransformer);
+        }
+        return new GroupReducer<T, O>(includePredicate, keyTransformer).invoke(objectCollection);
+    }
+
+    //***********************************groupCompact*************************************************************
+
+    /**
+     * 和 {@link #group(Collection, String)} 一样分组,但是返回内存更紧凑的 {@link CompactMultiMap}.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>所有的元素保存在一个共享的数组里面,不需要为每个 key 创建 entry 以及 {@link ArrayList},适合元素很多,分组也很多的场景</li>
+     * <li>key 的顺序是第一次出现的顺序,每个key下面元素的顺序是 <code>objectCollection</code> 的顺序,和 {@link #group(Collection, String)} 一致</li>
+     * <li>需要 {@link Map} 的时候,可以使用 {@link CompactMultiMap#asMap()} 只读视图,或者 {@link CompactMultiMap#toMap()}</li>
+     * <li>返回之前已经调用过 {@link CompactMultiMap#trimToSize()},如果之后不再 put,多个线程可以同时读取</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            注意,此处的T是属性值,Object类型,如果从excel中读取的类型是String,那么不能简简单单的使用Integer来接收,不能强制转换
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 empty {@link CompactMultiMap}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}
+     * @see #group(Collection, String)
+     * @since 1.9.2
+     */
+    public static <T, O> CompactMultiMap<T, O> groupCompact(Collection<O> objectCollection,String propertyName){
+        return groupCompact(objectCollection, propertyName, null);
+    }
+
+    /**
+     * 和 {@link #group(Collection, String, Predicate)} 一样分组,但是返回内存更紧凑的 {@link CompactMultiMap}.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param includePredicate
+     *            the include predicate
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 empty {@link CompactMultiMap}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果没有任何element match <code>includePredicate</code>,返回 empty {@link CompactMultiMap}<br>
+     *         如果 <code>includePredicate</code> 是null,那么以所有的元素进行分组
+     * @see #group(Collection, String, Predicate)
+     * @see #groupCompact(Collection, String)
+     * @since 1.9.2
+     */
+    public static <T, O> CompactMultiMap<T, O> groupCompact(
+                    Collection<O> objectCollection,
+                    final String propertyName,
+                    Predicate<O> includePredicate){
+        if (isNullOrEmpty(objectCollection)){
+            return new CompactMultiMap<T, O>(0, 0);
+        }
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+
+        return groupCompact(objectCollection, includePredicate, new Transformer<O, T>(){
+
+            @Override
+            public T transform(O input){
+                return PropertyUtil.getProperty(input, propertyName);
+            }
+        });
+    }
+
+    /**
+     * 和 {@link #group(Collection, Predicate, Transformer)} 一样分组,但是返回内存更紧凑的 {@link CompactMultiMap}.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param objectCollection
+     *            the object collection
+     * @param includePredicate
+     *            the include predicate
+     * @param keyTransformer
+     *            返回的map,key转换器
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回 empty {@link CompactMultiMap}<br>
+     *         如果 <code>keyTransformer</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>includePredicate</code> 是null,那么以所有的元素进行分组<br>
+     *         如果没有任何element match <code>includePredicate</code>,返回 empty {@link CompactMultiMap}<br>
+     * @see #group(Collection, Predicate, Transformer)
+     * @see #groupCompact(Collection, String)
+     * @since 1.9.2
+     */
+    public static <T, O> CompactMultiMap<T, O> groupCompact(
+                    Collection<O> objectCollection,
+                    Predicate<O> includePredicate,
+                    Transformer<O, T> keyTransformer){
+        if (isNullOrEmpty(objectCollection)){
+            return new CompactMultiMap<T, O>(0, 0);
+        }
+        Validate.notNull(keyTransformer, "keyTransformer can't be null!");
+
+        //key 的个数未知,按照元素个数的 1/4 预估,不够会自动扩容
+        CompactMultiMap<T, O> compactMultiMap = new CompactMultiMap<T, O>(objectCollection.size() >> 2, objectCollection.size());
+        for (O obj : objectCollection){
+            if (null != includePredicate && !includePredicate.evaluate(obj)){
+                continue;
+            }
+            compactMultiMap.put(keyTransformer.transform(obj), obj);
+        }
+        //按 key 排列成连续的,释放预估多出来的空间,之后可以多线程读取
+        compactMultiMap.trimToSize();
+        return compactMultiMap;
+    }
+
     /**
      * 循环 <code>objectCollection</code>,以元素的 <code>propertyName</code>属性值为key,元素为value,封装成map返回(map只put第一个匹配的元素,<b>后面出现相同的元素将会忽略</b>).
      * 
@@ -2271,4 +2638,73 @@ public final class CollectionsUtil{
         return map;
     }
 
+    //*****************************************************************************************
+
+    /**
+     * {@link CollectionsUtil#groupParallel(Collection, Predicate, Transformer)} 使用的并行归约,每一段分组成部分 {@link LinkedHashMap},再按照段的顺序合并.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     */
+    private static final class GroupReducer<T, O> extends ParallelReducer<O, Map<T, List<O>>>{
+
+        /** The include predicate. */
+        private final Predicate<O>      includePredicate;
+
+        /** The key transformer. */
+        private final Transformer<O, T> keyTransformer;
+
+        /**
+         * Instantiates a new group reducer.
+         *
+         * @param includePredicate
+         *            the include predicate
+         * @param keyTransformer
+         *            the key transformer
+         */
+        GroupReducer(Predicate<O> includePredicate, Transformer<O, T> keyTransformer){
+            this.includePredicate = includePredicate;
+            this.keyTransformer = keyTransformer;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelReducer#reduce(java.util.List, int, int)
+         */
+        @Override
+        Map<T, List<O>> reduce(List<O> list,int fromIndex,int toIndex){
+            Map<T, List<O>> map = new LinkedHashMap<T, List<O>>();
+            for (int i = fromIndex; i < toIndex; ++i){
+                O obj = list.get(i);
+                if (null != includePredicate && !includePredicate.evaluate(obj)){
+                    continue;
+                }
+                MapUtil.putMultiValue(map, keyTransformer.transform(obj), obj);
+            }
+            return map;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelReducer#merge(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        Map<T, List<O>> merge(Map<T, List<O>> left,Map<T, List<O>> right){
+            for (Map.Entry<T, List<O>> entry : right.entrySet()){
+                List<O> list = left.get(entry.getKey());
+                if (null == list){
+                    //right 里面第一次出现的key,放在 left 所有key的后面,和顺序执行的顺序一致
+                    left.put(entry.getKey(), entry.getValue());
+                }else{
+                    list.addAll(entry.getValue());
+                }
+            }
+            return left;
+        }
+    }
+
 }
\ No newline at end of file
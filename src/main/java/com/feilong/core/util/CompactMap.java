@@ -0,0 +1,502 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 基于数组的,有序的,不可变的紧凑 {@link Map},适合元素不多并且只读的返回值.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link LinkedHashMap} 每个元素都需要一个 entry 对象(hash,key,value,next,before,after),还有一个 table 数组;
+ * 这里 key 和 value 交替保存在一个 <code>Object[]</code> 里面(<code>[k0, v0, k1, v1, ...]</code>),遍历顺序就是数组的顺序</li>
+ * <li>元素个数不超过 {@link #LINEAR_SEARCH_THRESHOLD} 的时候,查找直接顺序比较 key,不需要 hash 表;
+ * 超过之后额外创建开放寻址(线性探测)的 <code>int[]</code> hash 表以及 hash 值数组</li>
+ * <li>不可变,所有修改的方法都抛出 {@link UnsupportedOperationException};支持 null key 以及 null value</li>
+ * <li>{@link #equals(Object)},{@link #hashCode()},{@link #toString()} 和其他 {@link Map} 实现一致</li>
+ * <li>通过 {@link MapUtil#toCompactMap(Map)} 复制已有的 map 创建;或者使用 {@link Builder} 直接填充,不需要先创建中间的 {@link LinkedHashMap}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            key 的类型
+ * @param <V>
+ *            value 的类型
+ * @see MapUtil#toCompactMap(Map)
+ * @see Builder
+ * @since 1.9.2
+ */
+public final class CompactMap<K, V> extends AbstractMap<K, V> implements Serializable{
+
+    /** The Constant serialVersionUID. */
+    private static final long serialVersionUID        = 5372871651302453813L;
+
+    /** 不超过这个个数的时候,顺序查找. */
+    static final int          LINEAR_SEARCH_THRESHOLD = 8;
+
+    /** key 和 value 交替保存. */
+    private final Object[]    keyValues;
+
+    /**
+     * key 的 hash 值,只有超过 {@link #LINEAR_SEARCH_THRESHOLD} 的时候才有.
+     * 
+     * <p>
+     * 不序列化,{@link Object#hashCode()} 在不同的 jvm 里面可能不一样(比如枚举),反序列化的时候重新计算.
+     * </p>
+     */
+    private transient int[]   hashes;
+
+    /** 开放寻址的 hash 表,保存元素的下标 + 1,0 表示空位;只有超过 {@link #LINEAR_SEARCH_THRESHOLD} 的时候才有,不序列化. */
+    private transient int[]   table;
+
+    /**
+     * 复制 <code>map</code>.
+     *
+     * @param map
+     *            the map
+     */
+    CompactMap(Map<? extends K, ? extends V> map){
+        int size = map.size();
+        this.keyValues = new Object[size << 1];
+
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()){
+            keyValues[i++] = entry.getKey();
+            keyValues[i++] = entry.getValue();
+        }
+
+        buildIndex();
+    }
+
+    /**
+     * 直接使用 {@link Builder} 填充的数组,key 重复的时候和 {@link LinkedHashMap#put(Object, Object)} 一样,保留第一次出现的位置,使用最后一次的 value.
+     *
+     * @param keyValues
+     *            key 和 value 交替保存,数组会被修改
+     * @param size
+     *            元素个数(包含重复的 key)
+     */
+    private CompactMap(Object[] keyValues, int size){
+        int distinctSize = 0;
+        if (size <= LINEAR_SEARCH_THRESHOLD){
+            for (int i = 0; i < size; ++i){
+                distinctSize = putLinear(keyValues, distinctSize, i);
+            }
+        }else{
+            int[] builtHashes = new int[size];
+            int[] builtTable = new int[tableLength(size)];
+            int mask = builtTable.length - 1;
+            for (int i = 0; i < size; ++i){
+                Object key = keyValues[i << 1];
+                int hash = KeyIndexTable.hash(key);
+                int slot = hash & mask;
+                while (true){
+                    int index = builtTable[slot] - 1;
+                    if (index < 0){
+                        builtTable[slot] = distinctSize + 1;
+                        builtHashes[distinctSize] = hash;
+                        keyValues[distinctSize << 1] = key;
+                        keyValues[(distinctSize << 1) + 1] = keyValues[(i << 1) + 1];
+                        ++distinctSize;
+                        break;
+                    }
+                    if (builtHashes[index] == hash && Objects.equals(keyValues[index << 1], key)){
+                        keyValues[(index << 1) + 1] = keyValues[(i << 1) + 1];
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+            //去重之后不超过阈值,直接顺序查找
+            if (distinctSize > LINEAR_SEARCH_THRESHOLD){
+                this.hashes = distinctSize == size ? builtHashes : Arrays.copyOf(builtHashes, distinctSize);
+                this.table = builtTable;
+            }
+        }
+        this.keyValues = keyValues.length == distinctSize << 1 ? keyValues : Arrays.copyOf(keyValues, distinctSize << 1);
+    }
+
+    //*****************************************************************************************
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.AbstractMap#get(java.lang.Object)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key){
+        int index = indexOf(key);
+        return index < 0 ? null : (V) keyValues[(index << 1) + 1];
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.AbstractMap#containsKey(java.lang.Object)
+     */
+    @Override
+    public boolean containsKey(Object key){
+        return indexOf(key) >= 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.AbstractMap#containsValue(java.lang.Object)
+     */
+    @Override
+    public boolean containsValue(Object value){
+        for (int i = 1; i < keyValues.length; i += 2){
+            if (Objects.equals(keyValues[i], value)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.AbstractMap#size()
+     */
+    @Override
+    public int size(){
+        return keyValues.length >> 1;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.AbstractMap#isEmpty()
+     */
+    @Override
+    public boolean isEmpty(){
+        return 0 == keyValues.length;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.AbstractMap#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet(){
+        return new AbstractSet<Map.Entry<K, V>>(){
+
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator(){
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size(){
+                return CompactMap.this.size();
+            }
+        };
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 元素个数超过 {@link #LINEAR_SEARCH_THRESHOLD} 的时候,创建 hash 表.
+     */
+    private void buildIndex(){
+        int size = size();
+        if (size <= LINEAR_SEARCH_THRESHOLD){
+            return;
+        }
+
+        hashes = new int[size];
+        table = new int[tableLength(size)];
+        int mask = table.length - 1;
+        for (int index = 0; index < size; ++index){
+            int hash = KeyIndexTable.hash(keyValues[index << 1]);
+            hashes[index] = hash;
+
+            int slot = hash & mask;
+            while (0 != table[slot]){
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+    }
+
+    /**
+     * hash 表的长度,2 的幂,负载因子不超过 0.5.
+     *
+     * @param size
+     *            元素个数,大于 {@link #LINEAR_SEARCH_THRESHOLD}
+     * @return the int
+     */
+    private static int tableLength(int size){
+        return Integer.highestOneBit(size - 1) << 2;
+    }
+
+    /**
+     * 把第 <code>i</code> 个元素顺序合并到前 <code>distinctSize</code> 个不重复的元素里面.
+     *
+     * @param keyValues
+     *            key 和 value 交替保存
+     * @param distinctSize
+     *            前面不重复的元素个数
+     * @param i
+     *            当前元素的下标,不小于 <code>distinctSize</code>
+     * @return 合并之后不重复的元素个数
+     */
+    private static int putLinear(Object[] keyValues,int distinctSize,int i){
+        Object key = keyValues[i << 1];
+        Object value = keyValues[(i << 1) + 1];
+        for (int j = 0; j < distinctSize; ++j){
+            if (Objects.equals(keyValues[j << 1], key)){
+                keyValues[(j << 1) + 1] = value;
+                return distinctSize;
+            }
+        }
+        keyValues[distinctSize << 1] = key;
+        keyValues[(distinctSize << 1) + 1] = value;
+        return distinctSize + 1;
+    }
+
+    /**
+     * 反序列化之后,使用当前 jvm 的 {@link Object#hashCode()} 重建 hash 表.
+     *
+     * @param objectInputStream
+     *            the object input stream
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws ClassNotFoundException
+     *             the class not found exception
+     */
+    private void readObject(ObjectInputStream objectInputStream) throws IOException,ClassNotFoundException{
+        objectInputStream.defaultReadObject();
+        buildIndex();
+    }
+
+    /**
+     * 查找 <code>key</code> 的下标.
+     *
+     * @param key
+     *            the key
+     * @return 如果不存在,返回 -1
+     */
+    private int indexOf(Object key){
+        if (null == table){
+            for (int i = 0; i < keyValues.length; i += 2){
+                if (Objects.equals(keyValues[i], key)){
+                    return i >> 1;
+                }
+            }
+            return -1;
+        }
+
+        int hash = KeyIndexTable.hash(key);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (true){
+            int index = table[slot] - 1;
+            if (index < 0 || (hashes[index] == hash && Objects.equals(keyValues[index << 1], key))){
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 按照数组顺序遍历的 entry 迭代器.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>>{
+
+        /** 下一个 key 在 {@link CompactMap#keyValues} 中的下标. */
+        private int position;
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#hasNext()
+         */
+        @Override
+        public boolean hasNext(){
+            return position < keyValues.length;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#next()
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next(){
+            if (position >= keyValues.length){
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<K, V>((K) keyValues[position], (V) keyValues[position + 1]);
+            position += 2;
+            return entry;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#remove()
+         */
+        @Override
+        public void remove(){
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 直接填充 {@link CompactMap},不需要先创建中间的 {@link LinkedHashMap} 再复制.
+     *
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>key 和 value 直接追加到数组里面,{@link #put(Object, Object)} 不查找 key;{@link #build()} 的时候一次性去重并创建 hash 表</li>
+     * <li>key 重复的时候和 {@link LinkedHashMap#put(Object, Object)} 一样,保留第一次出现的位置,使用最后一次的 value</li>
+     * <li>知道元素个数的时候,使用 {@link #Builder(int)},数组不需要扩容</li>
+     * <li>{@link #build()} 直接使用内部的数组,所以只能调用一次,之后再调用 {@link #put(Object, Object)} 或者 {@link #build()} 会抛出
+     * {@link IllegalStateException};非线程安全</li>
+     * </ol>
+     * </blockquote>
+     *
+     * <h3>示例:</h3>
+     * <blockquote>
+     *
+     * <pre class="code">
+     * CompactMap{@code <String, Integer>} map = new CompactMap.Builder{@code <String, Integer>}(2)//
+     *                 .put("a", 3007)
+     *                 .put("c", 3001)
+     *                 .build();
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * @param <K>
+     *            key 的类型
+     * @param <V>
+     *            value 的类型
+     * @since 1.9.2
+     */
+    public static final class Builder<K, V>{
+
+        /** 没有指定元素个数的时候,数组的初始元素个数. */
+        private static final int DEFAULT_EXPECTED_SIZE = 8;
+
+        /** key 和 value 交替保存,{@link #build()} 之后是 null. */
+        private Object[]         keyValues;
+
+        /** 已经添加的元素个数(包含重复的 key). */
+        private int              size;
+
+        /**
+         * Instantiates a new builder.
+         */
+        public Builder(){
+            this(DEFAULT_EXPECTED_SIZE);
+        }
+
+        /**
+         * Instantiates a new builder.
+         *
+         * @param expectedSize
+         *            预计的元素个数
+         * @throws IllegalArgumentException
+         *             如果 <code>expectedSize</code> 小于0
+         */
+        public Builder(int expectedSize){
+            Validate.isTrue(expectedSize >= 0, "expectedSize:[%s] can't < 0", expectedSize);
+            this.keyValues = new Object[expectedSize << 1];
+        }
+
+        /**
+         * 添加一个元素.
+         *
+         * @param key
+         *            the key,可以是null
+         * @param value
+         *            the value,可以是null
+         * @return this
+         * @throws IllegalStateException
+         *             如果已经调用过 {@link #build()}
+         */
+        public Builder<K, V> put(K key,V value){
+            Validate.validState(null != keyValues, "build() has been called!");
+            int position = size << 1;
+            if (position == keyValues.length){
+                keyValues = Arrays.copyOf(keyValues, Math.max(DEFAULT_EXPECTED_SIZE, size + (size >> 1) + 1) << 1);
+            }
+            keyValues[position] = key;
+            keyValues[position + 1] = value;
+            ++size;
+            return this;
+        }
+
+        /**
+         * 添加 <code>map</code> 里面所有的元素.
+         *
+         * @param map
+         *            the map
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>map</code> 是null
+         * @throws IllegalStateException
+         *             如果已经调用过 {@link #build()}
+         */
+        public Builder<K, V> putAll(Map<? extends K, ? extends V> map){
+            Validate.notNull(map, "map can't be null!");
+            for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()){
+                put(entry.getKey(), entry.getValue());
+            }
+            return this;
+        }
+
+        /**
+         * 创建 {@link CompactMap}.
+         *
+         * @return the compact map
+         * @throws IllegalStateException
+         *             如果已经调用过 {@link #build()}
+         */
+        public CompactMap<K, V> build(){
+            Validate.validState(null != keyValues, "build() has been called!");
+            Object[] builtKeyValues = keyValues;
+            keyValues = null;
+            return new CompactMap<K, V>(builtKeyValues, size);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 紧凑的一对多 map,所有的 value 保存在一个共享的数组里面,用于大量分组的场景(比如 {@link CollectionsUtil#groupCompact(java.util.Collection, String)}).
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link MapUtil#putMultiValue(Map, Object, Object)} 每个 key 都需要一个 entry 对象以及一个 {@link ArrayList}(默认长度10),
+ * key 很多,每个 key 的 value 很少的时候,大部分内存都浪费在这些对象以及 {@link ArrayList} 没有使用的空位上</li>
+ * <li>这里 key 使用 {@link KeyIndexTable} 按照第一次出现的顺序编号;所有的 value 按照 put 的顺序追加到一个共享的 <code>Object[]</code>,
+ * 同一个 key 的 value 通过平行的 <code>int[]</code> next 下标串起来,每个 key 只需要保存 head/tail/size 三个 int</li>
+ * <li>如果同一个 key 的 value 在共享数组里面是连续的(比如数据已经按照 key 排好序),{@link #get(Object)} 返回的 {@link List} 可以直接按照下标读取;
+ * 否则第一次按照下标读取的时候会把所有的 value 按照 key 重新排列一遍(O(n)),之后都是连续的</li>
+ * <li>{@link #get(Object)} 以及 {@link #asMap()} 返回的都是只读视图,不会复制 value;{@link #toMap()} 返回新的 {@link LinkedHashMap},
+ * 方便和原来使用 {@link Map} 的代码兼容</li>
+ * <li>支持 null key 以及 null value;不支持删除</li>
+ * <li>不是线程安全的;由于读取的时候可能会重新排列,如果需要多个线程同时读取,需要先调用 {@link #trimToSize()}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * CompactMultiMap{@code <String, User>} multiMap = new CompactMultiMap{@code <>}();
+ * for (User user : userList){
+ *     multiMap.put(user.getName(), user);
+ * }
+ *
+ * List{@code <User>} list = multiMap.get("关羽");
+ * Map{@code <String, List<User>>} map = multiMap.asMap();
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            key 的类型
+ * @param <V>
+ *            value 的类型
+ * @see MapUtil#putMultiValue(Map, Object, Object)
+ * @since 1.9.2
+ */
+public final class CompactMultiMap<K, V> {
+
+    /** 默认的预期 key 个数. */
+    private static final int       DEFAULT_EXPECTED_KEY_SIZE   = 16;
+
+    /** 默认的预期 value 个数. */
+    private static final int       DEFAULT_EXPECTED_VALUE_SIZE = 16;
+
+    /** 链表结束的标识. */
+    private static final int       END                         = -1;
+
+    /** key 的编号. */
+    private final KeyIndexTable<K> keyIndexTable;
+
+    /** 按照 key 的编号保存的,第一个 value 在 {@link #values} 中的下标. */
+    private int[]                  heads;
+
+    /** 按照 key 的编号保存的,最后一个 value 在 {@link #values} 中的下标. */
+    private int[]                  tails;
+
+    /** 按照 key 的编号保存的,value 的个数. */
+    private int[]                  sizes;
+
+    /** 所有的 value. */
+    private Object[]               values;
+
+    /** 和 {@link #values} 对应的,同一个 key 下一个 value 的下标,{@link #END} 表示结束. */
+    private int[]                  next;
+
+    /** value 的个数. */
+    private int                    valueSize;
+
+    /** 是否每个 key 的 value 在 {@link #values} 中都是连续的. */
+    private boolean                packed                      = true;
+
+    /**
+     * Instantiates a new compact multi map.
+     */
+    public CompactMultiMap(){
+        this(DEFAULT_EXPECTED_KEY_SIZE, DEFAULT_EXPECTED_VALUE_SIZE);
+    }
+
+    /**
+     * Instantiates a new compact multi map.
+     *
+     * @param expectedKeySize
+     *            预期的 key 个数,超过之后自动扩容
+     * @param expectedValueSize
+     *            预期的 value 个数,超过之后自动扩容
+     * @throws IllegalArgumentException
+     *             如果 <code>expectedKeySize</code> {@code <} 0,或者 <code>expectedValueSize</code> {@code <} 0
+     */
+    public CompactMultiMap(int expectedKeySize,int expectedValueSize){
+        Validate.isTrue(expectedValueSize >= 0, "expectedValueSize:[%s] can't < 0", expectedValueSize);
+        this.keyIndexTable = new KeyIndexTable<K>(expectedKeySize);
+
+        int keyCapacity = keyIndexTable.capacity();
+        this.heads = new int[keyCapacity];
+        this.tails = new int[keyCapacity];
+        this.sizes = new int[keyCapacity];
+
+        this.values = new Object[expectedValueSize];
+        this.next = new int[expectedValueSize];
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 将 <code>value</code> 追加到 <code>key</code> 的 value 列表最后.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @return 追加之后 <code>key</code> 的 value 个数
+     */
+    public int put(K key,V value){
+        int valueIndex = appendValue(value);
+
+        int index = keyIndexTable.add(key, KeyIndexTable.hash(key));
+        if (index >= 0){
+            int tail = tails[index];
+            if (tail != valueIndex - 1){
+                packed = false;
+            }
+            next[tail] = valueIndex;
+            tails[index] = valueIndex;
+            return ++sizes[index];
+        }
+
+        //新的 key
+        int newIndex = -index - 1;
+        if (newIndex >= heads.length){
+            int keyCapacity = keyIndexTable.capacity();
+            heads = Arrays.copyOf(heads, keyCapacity);
+            tails = Arrays.copyOf(tails, keyCapacity);
+            sizes = Arrays.copyOf(sizes, keyCapacity);
+        }
+        heads[newIndex] = valueIndex;
+        tails[newIndex] = valueIndex;
+        sizes[newIndex] = 1;
+        return 1;
+    }
+
+    /**
+     * 获得 <code>key</code> 的 value 列表.
+     *
+     * @param key
+     *            the key
+     * @return 如果 <code>key</code> 不存在,返回 null<br>
+     *         否则返回只读的 {@link List} 视图,后续 {@link #put(Object, Object)} 的 value 会反映到视图里
+     */
+    public List<V> get(Object key){
+        int index = keyIndexTable.indexOf(key);
+        return index < 0 ? null : new ValueList(index);
+    }
+
+    /**
+     * 是否包含 <code>key</code>.
+     *
+     * @param key
+     *            the key
+     * @return true, if successful
+     */
+    public boolean containsKey(Object key){
+        return keyIndexTable.indexOf(key) >= 0;
+    }
+
+    /**
+     * key 的个数.
+     *
+     * @return the int
+     */
+    public int keySize(){
+        return keyIndexTable.size();
+    }
+
+    /**
+     * value 的个数(所有 key 的 value 个数之和).
+     *
+     * @return the int
+     */
+    public int valueSize(){
+        return valueSize;
+    }
+
+    /**
+     * 是否没有任何 key.
+     *
+     * @return true, if is empty
+     */
+    public boolean isEmpty(){
+        return 0 == keyIndexTable.size();
+    }
+
+    /**
+     * 获得只读的 {@link Map} 视图,遍历顺序是 key 第一次出现的顺序.
+     *
+     * @return the map
+     */
+    public Map<K, List<V>> asMap(){
+        return new MapView();
+    }
+
+    /**
+     * 转成新的 {@link LinkedHashMap},每个 value 列表都是刚好够用的 {@link ArrayList}.
+     *
+     * @return the map
+     */
+    @SuppressWarnings("unchecked")
+    public Map<K, List<V>> toMap(){
+        int keySize = keyIndexTable.size();
+        Map<K, List<V>> map = MapUtil.newLinkedHashMap(keySize);
+        for (int i = 0; i < keySize; ++i){
+            List<V> list = new ArrayList<V>(sizes[i]);
+            for (int valueIndex = heads[i]; END != valueIndex; valueIndex = next[valueIndex]){
+                list.add((V) values[valueIndex]);
+            }
+            map.put(keyIndexTable.getKey(i), list);
+        }
+        return map;
+    }
+
+    /**
+     * 将每个 key 的 value 重新排列成连续的,并且释放数组多余的空间.
+     *
+     * <p>
+     * 调用之后,如果不再 {@link #put(Object, Object)},那么多个线程可以同时读取.
+     * </p>
+     */
+    public void trimToSize(){
+        ensurePacked();
+        if (values.length != valueSize){
+            values = Arrays.copyOf(values, valueSize);
+            next = Arrays.copyOf(next, valueSize);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return asMap().toString();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 追加 value,必要的时候扩容.
+     *
+     * @param value
+     *            the value
+     * @return value 的下标
+     */
+    private int appendValue(V value){
+        if (valueSize == values.length){
+            Validate.validState(valueSize < Integer.MAX_VALUE - 8, "can't hold more than %s values", valueSize);
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(valueSize + (valueSize >> 1), 16L));
+            values = Arrays.copyOf(values, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        values[valueSize] = value;
+        next[valueSize] = END;
+        return valueSize++;
+    }
+
+    /**
+     * 如果有 key 的 value 不是连续的,按照 key 的编号把所有的 value 重新排列一遍.
+     */
+    private void ensurePacked(){
+        if (packed){
+            return;
+        }
+        Object[] newValues = new Object[values.length];
+        int[] newNext = new int[next.length];
+        int position = 0;
+        for (int i = 0; i < keyIndexTable.size(); ++i){
+            int head = position;
+            for (int valueIndex = heads[i]; END != valueIndex; valueIndex = next[valueIndex]){
+                newValues[position] = values[valueIndex];
+                newNext[position] = position + 1;
+                position++;
+            }
+            newNext[position - 1] = END;
+            heads[i] = head;
+            tails[i] = position - 1;
+        }
+        values = newValues;
+        next = newNext;
+        packed = true;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 某个 key 的只读 value 列表.
+     */
+    private final class ValueList extends AbstractList<V> implements RandomAccess{
+
+        /** key 的编号. */
+        private final int keyIndex;
+
+        /**
+         * Instantiates a new value list.
+         *
+         * @param keyIndex
+         *            the key index
+         */
+        private ValueList(int keyIndex){
+            this.keyIndex = keyIndex;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractList#get(int)
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int index){
+            if (index < 0 || index >= sizes[keyIndex]){
+                throw new IndexOutOfBoundsException("index:" + index + ",size:" + sizes[keyIndex]);
+            }
+            ensurePacked();
+            return (V) values[heads[keyIndex] + index];
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractCollection#size()
+         */
+        @Override
+        public int size(){
+            return sizes[keyIndex];
+        }
+    }
+
+    /**
+     * 只读的 {@link Map} 视图.
+     */
+    private final class MapView extends AbstractMap<K, List<V>>{
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractMap#get(java.lang.Object)
+         */
+        @Override
+        public List<V> get(Object key){
+            return CompactMultiMap.this.get(key);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractMap#containsKey(java.lang.Object)
+         */
+        @Override
+        public boolean containsKey(Object key){
+            return CompactMultiMap.this.containsKey(key);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractMap#size()
+         */
+        @Override
+        public int size(){
+            return keyIndexTable.size();
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractMap#entrySet()
+         */
+        @Override
+        public Set<Map.Entry<K, List<V>>> entrySet(){
+            return new AbstractSet<Map.Entry<K, List<V>>>(){
+
+                @Override
+                public Iterator<Map.Entry<K, List<V>>> iterator(){
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size(){
+                    return keyIndexTable.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * 按照 key 编号遍历的 entry 迭代器.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, List<V>>>{
+
+        /** 下一个 key 的编号. */
+        private int index;
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#hasNext()
+         */
+        @Override
+        public boolean hasNext(){
+            return index < keyIndexTable.size();
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#next()
+         */
+        @Override
+        public Map.Entry<K, List<V>> next(){
+            if (index >= keyIndexTable.size()){
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, List<V>> entry = new AbstractMap.SimpleImmutableEntry<K, List<V>>(
+                            keyIndexTable.getKey(index),
+                            new ValueList(index));
+            index++;
+            return entry;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#remove()
+         */
+        @Override
+        public void remove(){
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+}
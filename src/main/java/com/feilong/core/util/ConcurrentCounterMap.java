@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 线程安全的对象到 <code>long</code> 计数的计数器,{@link MapUtil#putSumValue(Map, Object, Integer)} 的并发版本.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link MapUtil#putSumValue(Map, Object, Integer)} 是 get + put 两步操作,多个线程累加同一个 map 的时候只能在外面加锁,所有线程串行</li>
+ * <li>这里 key 保存在 {@link ConcurrentHashMap} 里面,只有第一次出现的时候才 {@link ConcurrentMap#putIfAbsent(Object, Object)};
+ * 每个 key 的计数是一个分段累加的计数器(类似 jdk1.8 的 <code>LongAdder</code>),多个线程同时累加同一个热点 key 时各自累加不同的分段,不会互相阻塞</li>
+ * <li>{@link #get(Object)} 以及 {@link #toMap()} 读取的时候才把分段加起来;并发累加的时候它们不是原子快照,只保证包含读取之前已经完成的累加</li>
+ * <li>{@link #toMap()} 的顺序是 {@link ConcurrentHashMap} 的遍历顺序,不是 key 第一次出现的顺序;需要顺序的话,可以自行排序,
+ * 比如 {@link SortUtil#sortMapByValueDesc(Map)}</li>
+ * <li>支持 null key;不支持删除</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * ConcurrentCounterMap{@code <String>} counterMap = new ConcurrentCounterMap{@code <>}();
+ * 
+ * //多个线程
+ * counterMap.increment(tag);
+ *
+ * //全部线程结束之后
+ * Map{@code <String, Integer>} map = counterMap.toMap();
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            key 的类型
+ * @see MapUtil#putSumValue(Map, Object, Integer)
+ * @see CounterMap
+ * @since 1.9.2
+ */
+public final class ConcurrentCounterMap<K> {
+
+    /** 代替 null key,{@link ConcurrentHashMap} 不支持 null key. */
+    private static final Object                       NULL_KEY = new Object();
+
+    /** key 以及它的计数器. */
+    private final ConcurrentMap<Object, StripedLong> map;
+
+    /**
+     * Instantiates a new concurrent counter map.
+     */
+    public ConcurrentCounterMap(){
+        this.map = new ConcurrentHashMap<Object, StripedLong>();
+    }
+
+    /**
+     * Instantiates a new concurrent counter map.
+     *
+     * @param expectedSize
+     *            预期的 key 个数
+     * @throws IllegalArgumentException
+     *             如果 <code>expectedSize</code> {@code <} 0
+     */
+    public ConcurrentCounterMap(int expectedSize){
+        this.map = new ConcurrentHashMap<Object, StripedLong>(expectedSize);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * <code>key</code> 的计数加1.
+     *
+     * @param key
+     *            the key
+     */
+    public void increment(K key){
+        increment(key, 1);
+    }
+
+    /**
+     * <code>key</code> 的计数加上 <code>delta</code>.
+     *
+     * <p>
+     * 为了不在热点 key 上产生竞争,这里不返回累加之后的计数,需要的话调用 {@link #get(Object)}.
+     * </p>
+     *
+     * @param key
+     *            the key
+     * @param delta
+     *            可以是负数
+     */
+    public void increment(K key,long delta){
+        Object maskedKey = maskNull(key);
+        StripedLong stripedLong = map.get(maskedKey);
+        if (null == stripedLong){
+            StripedLong newStripedLong = new StripedLong();
+            stripedLong = map.putIfAbsent(maskedKey, newStripedLong);
+            if (null == stripedLong){
+                stripedLong = newStripedLong;
+            }
+        }
+        stripedLong.add(delta);
+    }
+
+    /**
+     * 获得 <code>key</code> 的计数.
+     *
+     * @param key
+     *            the key
+     * @return 如果 <code>key</code> 不存在,返回0
+     */
+    public long get(Object key){
+        StripedLong stripedLong = map.get(maskNull(key));
+        return null == stripedLong ? 0 : stripedLong.sum();
+    }
+
+    /**
+     * 是否包含 <code>key</code>.
+     *
+     * @param key
+     *            the key
+     * @return true, if successful
+     */
+    public boolean containsKey(Object key){
+        return map.containsKey(maskNull(key));
+    }
+
+    /**
+     * key 的个数.
+     *
+     * @return the int
+     */
+    public int size(){
+        return map.size();
+    }
+
+    /**
+     * 是否没有任何 key.
+     *
+     * @return true, if is empty
+     */
+    public boolean isEmpty(){
+        return map.isEmpty();
+    }
+
+    /**
+     * 转成新的 {@link java.util.LinkedHashMap} 快照,和 {@link MapUtil#putSumValue(Map, Object, Integer)} 的结果类型一致.
+     *
+     * @return the map
+     * @throws ArithmeticException
+     *             如果有计数超出 {@link Integer} 范围
+     */
+    public Map<K, Integer> toMap(){
+        Map<K, Integer> snapshot = MapUtil.newLinkedHashMap(map.size());
+        for (Map.Entry<Object, StripedLong> entry : map.entrySet()){
+            snapshot.put(ConcurrentCounterMap.<K> unmaskNull(entry.getKey()), CounterMap.toInteger(entry.getValue().sum()));
+        }
+        return snapshot;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<Object, StripedLong> entry : map.entrySet()){
+            if (sb.length() > 1){
+                sb.append(", ");
+            }
+            sb.append(unmaskNull(entry.getKey())).append('=').append(entry.getValue().sum());
+        }
+        return sb.append('}').toString();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * null key 转成 {@link #NULL_KEY}.
+     *
+     * @param key
+     *            the key
+     * @return the object
+     */
+    private static Object maskNull(Object key){
+        return null == key ? NULL_KEY : key;
+    }
+
+    /**
+     * {@link #NULL_KEY} 转回 null.
+     *
+     * @param <K>
+     *            the key type
+     * @param maskedKey
+     *            the masked key
+     * @return the k
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> K unmaskNull(Object maskedKey){
+        return NULL_KEY == maskedKey ? null : (K) maskedKey;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 线程安全的一对多 map,{@link MapUtil#putMultiValue(Map, Object, Object)} 的并发版本.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link MapUtil#putMultiValue(Map, Object, Object)} 操作的是普通的 {@link Map} 以及 {@link ArrayList},多个线程同时追加只能在外面加锁</li>
+ * <li>这里 key 保存在 {@link ConcurrentHashMap} 里面,只有第一次出现的时候才 {@link ConcurrentMap#putIfAbsent(Object, Object)};
+ * 每个 key 的 value 保存在 {@link ConcurrentLinkedQueue} 里面,追加是无锁的(CAS 链表尾部)</li>
+ * <li>同一个线程追加的 value 保持追加的顺序;不同线程之间的顺序是实际完成追加的顺序</li>
+ * <li>{@link #get(Object)} 以及 {@link #toMap()} 返回的都是复制出来的快照,和 {@link MapUtil#putMultiValue(Map, Object, Object)} 的结果类型一致;
+ * 并发追加的时候它们不是原子快照,只保证包含读取之前已经完成的追加</li>
+ * <li>{@link #toMap()} 的顺序是 {@link ConcurrentHashMap} 的遍历顺序,不是 key 第一次出现的顺序</li>
+ * <li>支持 null key 以及 null value;不支持删除</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            key 的类型
+ * @param <V>
+ *            value 的类型
+ * @see MapUtil#putMultiValue(Map, Object, Object)
+ * @see CompactMultiMap
+ * @since 1.9.2
+ */
+public final class ConcurrentMultiMap<K, V> {
+
+    /** 代替 null key 以及 null value,{@link ConcurrentHashMap} 和 {@link ConcurrentLinkedQueue} 都不支持 null. */
+    private static final Object                                         NULL = new Object();
+
+    /** key 以及它的 value. */
+    private final ConcurrentMap<Object, ConcurrentLinkedQueue<Object>> map;
+
+    /**
+     * Instantiates a new concurrent multi map.
+     */
+    public ConcurrentMultiMap(){
+        this.map = new ConcurrentHashMap<Object, ConcurrentLinkedQueue<Object>>();
+    }
+
+    /**
+     * Instantiates a new concurrent multi map.
+     *
+     * @param expectedKeySize
+     *            预期的 key 个数
+     * @throws IllegalArgumentException
+     *             如果 <code>expectedKeySize</code> {@code <} 0
+     */
+    public ConcurrentMultiMap(int expectedKeySize){
+        this.map = new ConcurrentHashMap<Object, ConcurrentLinkedQueue<Object>>(expectedKeySize);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 将 <code>value</code> 追加到 <code>key</code> 的 value 列表最后.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     */
+    public void put(K key,V value){
+        Object maskedKey = maskNull(key);
+        ConcurrentLinkedQueue<Object> queue = map.get(maskedKey);
+        if (null == queue){
+            ConcurrentLinkedQueue<Object> newQueue = new ConcurrentLinkedQueue<Object>();
+            queue = map.putIfAbsent(maskedKey, newQueue);
+            if (null == queue){
+                queue = newQueue;
+            }
+        }
+        queue.offer(maskNull(value));
+    }
+
+    /**
+     * 获得 <code>key</code> 的 value 列表快照.
+     *
+     * @param key
+     *            the key
+     * @return 如果 <code>key</code> 不存在,返回 null
+     */
+    public List<V> get(Object key){
+        ConcurrentLinkedQueue<Object> queue = map.get(maskNull(key));
+        return null == queue ? null : ConcurrentMultiMap.<V> toList(queue);
+    }
+
+    /**
+     * 是否包含 <code>key</code>.
+     *
+     * @param key
+     *            the key
+     * @return true, if successful
+     */
+    public boolean containsKey(Object key){
+        return map.containsKey(maskNull(key));
+    }
+
+    /**
+     * key 的个数.
+     *
+     * @return the int
+     */
+    public int keySize(){
+        return map.size();
+    }
+
+    /**
+     * 是否没有任何 key.
+     *
+     * @return true, if is empty
+     */
+    public boolean isEmpty(){
+        return map.isEmpty();
+    }
+
+    /**
+     * 转成新的 {@link java.util.LinkedHashMap} 快照,每个 value 列表都是新的 {@link ArrayList}.
+     *
+     * @return the map
+     */
+    public Map<K, List<V>> toMap(){
+        Map<K, List<V>> snapshot = MapUtil.newLinkedHashMap(map.size());
+        for (Map.Entry<Object, ConcurrentLinkedQueue<Object>> entry : map.entrySet()){
+            snapshot.put(ConcurrentMultiMap.<K> unmaskNull(entry.getKey()), ConcurrentMultiMap.<V> toList(entry.getValue()));
+        }
+        return snapshot;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return toMap().toString();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 复制 <code>queue</code>.
+     *
+     * @param <V>
+     *            the value type
+     * @param queue
+     *            the queue
+     * @return the list
+     */
+    private static <V> List<V> toList(ConcurrentLinkedQueue<Object> queue){
+        List<V> list = new ArrayList<V>();
+        for (Object maskedValue : queue){
+            list.add(ConcurrentMultiMap.<V> unmaskNull(maskedValue));
+        }
+        return list;
+    }
+
+    /**
+     * null 转成 {@link #NULL}.
+     *
+     * @param object
+     *            the object
+     * @return the object
+     */
+    private static Object maskNull(Object object){
+        return null == object ? NULL : object;
+    }
+
+    /**
+     * {@link #NULL} 转回 null.
+     *
+     * @param <T>
+     *            the generic type
+     * @param maskedObject
+     *            the masked object
+     * @return the t
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T unmaskNull(Object maskedObject){
+        return NULL == maskedObject ? null : (T) maskedObject;
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 对象到 <code>long</code> 计数的计数器,用于高频的计数场景(比如 {@link AggregateUtil#groupCount(java.util.Collection, String)}).
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>计数保存在 <code>long[]</code> 里面,{@link #increment(Object, long)} 不会创建 {@link Integer}/{@link Long} 对象;
+ * 而 {@link MapUtil#putSumValue(Map, Object, Integer)} 每次都要 get + put 两次 hash 查找,并且每次都装箱一个新的 {@link Integer}</li>
+ * <li>key 使用 {@link KeyIndexTable}(开放寻址,线性探测)按照第一次出现的顺序编号,计数按照编号保存在平行的数组里面,遍历顺序和 {@link LinkedHashMap} 一致</li>
+ * <li>{@link #increment(Object, long)} 只需要一次探测:找到就直接累加,找不到就在探测停下的位置插入</li>
+ * <li>支持 null key;不支持删除 key</li>
+ * <li>{@link #asMap()} 返回只读的 {@link Map} 视图,{@link #toMap()} 返回新的 {@link LinkedHashMap},方便和原来使用 {@link Map} 的代码兼容</li>
+ * <li>不是线程安全的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * CounterMap{@code <String>} counterMap = new CounterMap{@code <>}();
+ * for (String tag : tags){
+ *     counterMap.increment(tag);
+ * }
+ *
+ * counterMap.get("java");
+ * for (int i = 0; i {@code <} counterMap.size(); ++i){
+ *     LOGGER.debug("{}:{}", counterMap.getKey(i), counterMap.getCount(i));
+ * }
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            key 的类型
+ * @see MapUtil#putSumValue(Map, Object, Integer)
+ * @since 1.9.2
+ */
+public final class CounterMap<K> {
+
+    /** 默认的预期 key 个数. */
+    private static final int      DEFAULT_EXPECTED_SIZE = 16;
+
+    /** key 的编号. */
+    private final KeyIndexTable<K> keyIndexTable;
+
+    /** 按照 key 的编号保存的计数. */
+    private long[]                 counts;
+
+    /**
+     * Instantiates a new counter map.
+     */
+    public CounterMap(){
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Instantiates a new counter map.
+     *
+     * @param expectedSize
+     *            预期的 key 个数,超过之后自动扩容
+     * @throws IllegalArgumentException
+     *             如果 <code>expectedSize</code> {@code <} 0
+     */
+    public CounterMap(int expectedSize){
+        this.keyIndexTable = new KeyIndexTable<K>(expectedSize);
+        this.counts = new long[keyIndexTable.capacity()];
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * <code>key</code> 的计数加1.
+     *
+     * @param key
+     *            the key,可以是null
+     * @return 累加之后的计数
+     */
+    public long increment(K key){
+        return increment(key, 1);
+    }
+
+    /**
+     * <code>key</code> 的计数加 <code>delta</code>;如果 <code>key</code> 还不存在,添加到最后,计数是 <code>delta</code>.
+     *
+     * @param key
+     *            the key,可以是null
+     * @param delta
+     *            增加的值,可以是负数
+     * @return 累加之后的计数
+     */
+    public long increment(K key,long delta){
+        return increment(key, KeyIndexTable.hash(key), delta);
+    }
+
+    /**
+     * 累加另外一个 {@link CounterMap} 的所有计数,<code>counterMap</code> 里面新出现的 key 按照在 <code>counterMap</code> 里面的顺序添加到最后.
+     *
+     * @param counterMap
+     *            the counter map
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>counterMap</code> 是null
+     */
+    public CounterMap<K> incrementAll(CounterMap<? extends K> counterMap){
+        Validate.notNull(counterMap, "counterMap can't be null!");
+        KeyIndexTable<? extends K> otherKeyIndexTable = counterMap.keyIndexTable;
+        for (int i = 0; i < otherKeyIndexTable.size(); ++i){
+            increment(otherKeyIndexTable.getKey(i), otherKeyIndexTable.getHash(i), counterMap.counts[i]);
+        }
+        return this;
+    }
+
+    /**
+     * 获得 <code>key</code> 的计数.
+     *
+     * @param key
+     *            the key
+     * @return 如果 <code>key</code> 不存在,返回0
+     */
+    public long get(Object key){
+        int index = keyIndexTable.indexOf(key);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * 是否包含 <code>key</code>.
+     *
+     * @param key
+     *            the key
+     * @return true, if successful
+     */
+    public boolean containsKey(Object key){
+        return keyIndexTable.indexOf(key) >= 0;
+    }
+
+    /**
+     * key 的个数.
+     *
+     * @return the int
+     */
+    public int size(){
+        return keyIndexTable.size();
+    }
+
+    /**
+     * 是否没有 key.
+     *
+     * @return true, if is empty
+     */
+    public boolean isEmpty(){
+        return 0 == keyIndexTable.size();
+    }
+
+    /**
+     * 获得第 <code>index</code> 个(按照第一次出现的顺序)key,配合 {@link #getCount(int)} 可以不创建任何对象遍历所有计数.
+     *
+     * @param index
+     *            [0, {@link #size()})
+     * @return the key
+     * @throws IndexOutOfBoundsException
+     *             如果 <code>index</code> 越界
+     */
+    public K getKey(int index){
+        keyIndexTable.checkIndex(index);
+        return keyIndexTable.getKey(index);
+    }
+
+    /**
+     * 获得第 <code>index</code> 个(按照第一次出现的顺序)key 的计数.
+     *
+     * @param index
+     *            [0, {@link #size()})
+     * @return the count
+     * @throws IndexOutOfBoundsException
+     *             如果 <code>index</code> 越界
+     */
+    public long getCount(int index){
+        keyIndexTable.checkIndex(index);
+        return counts[index];
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 返回只读的 {@link Map} 视图,key 的顺序是第一次出现的顺序.
+     * 
+     * <p>
+     * 视图不会复制数据,{@link Map#get(Object)} 的时候才装箱;之后的 {@link #increment(Object, long)} 在视图里面也能看到.
+     * </p>
+     *
+     * @return the map
+     * @throws ArithmeticException
+     *             读取的计数超出 {@link Integer} 范围的时候
+     */
+    public Map<K, Integer> asMap(){
+        return new MapView();
+    }
+
+    /**
+     * 转成新的 {@link LinkedHashMap},key 的顺序是第一次出现的顺序.
+     *
+     * @return the map
+     * @throws ArithmeticException
+     *             如果有计数超出 {@link Integer} 范围
+     */
+    public Map<K, Integer> toMap(){
+        int size = keyIndexTable.size();
+        Map<K, Integer> map = MapUtil.newLinkedHashMap(size);
+        for (int i = 0; i < size; ++i){
+            map.put(keyIndexTable.getKey(i), toInteger(counts[i]));
+        }
+        return map;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < keyIndexTable.size(); ++i){
+            if (i > 0){
+                sb.append(", ");
+            }
+            sb.append(keyIndexTable.getKey(i)).append('=').append(counts[i]);
+        }
+        return sb.append('}').toString();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 一次探测完成查找以及插入.
+     *
+     * @param key
+     *            the key
+     * @param hash
+     *            the hash
+     * @param delta
+     *            the delta
+     * @return 累加之后的计数
+     */
+    private long increment(K key,int hash,long delta){
+        int index = keyIndexTable.add(key, hash);
+        if (index >= 0){
+            counts[index] += delta;
+            return counts[index];
+        }
+
+        //新的 key
+        int newIndex = -index - 1;
+        if (newIndex >= counts.length){
+            counts = Arrays.copyOf(counts, keyIndexTable.capacity());
+        }
+        counts[newIndex] = delta;
+        return delta;
+    }
+
+    /**
+     * 计数转成 {@link Integer}.
+     *
+     * @param count
+     *            the count
+     * @return the integer
+     * @throws ArithmeticException
+     *             如果超出 {@link Integer} 范围
+     */
+    static Integer toInteger(long count){
+        if (count > Integer.MAX_VALUE || count < Integer.MIN_VALUE){
+            throw new ArithmeticException("count:" + count + " overflows Integer");
+        }
+        return (int) count;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 只读的 {@link Map} 视图.
+     */
+    private final class MapView extends AbstractMap<K, Integer>{
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractMap#get(java.lang.Object)
+         */
+        @Override
+        public Integer get(Object key){
+            int index = keyIndexTable.indexOf(key);
+            return index < 0 ? null : toInteger(counts[index]);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractMap#containsKey(java.lang.Object)
+         */
+        @Override
+        public boolean containsKey(Object key){
+            return keyIndexTable.indexOf(key) >= 0;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractMap#size()
+         */
+        @Override
+        public int size(){
+            return keyIndexTable.size();
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractMap#entrySet()
+         */
+        @Override
+        public Set<Map.Entry<K, Integer>> entrySet(){
+            return new AbstractSet<Map.Entry<K, Integer>>(){
+
+                @Override
+                public Iterator<Map.Entry<K, Integer>> iterator(){
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size(){
+                    return keyIndexTable.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * 按照第一次出现的顺序遍历.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, Integer>>{
+
+        /** 下一个下标. */
+        private int index;
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#hasNext()
+         */
+        @Override
+        public boolean hasNext(){
+            return index < keyIndexTable.size();
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#next()
+         */
+        @Override
+        public Map.Entry<K, Integer> next(){
+            if (index >= keyIndexTable.size()){
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, Integer> entry = new AbstractMap.SimpleImmutableEntry<K, Integer>(keyIndexTable.getKey(index), toInteger(counts[index]));
+            ++index;
+            return entry;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#remove()
+         */
+        @Override
+        public void remove(){
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+}
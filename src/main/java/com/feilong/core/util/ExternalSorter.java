@@ -0,0 +1,731 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.apache.commons.collections4.ComparatorUtils;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.UncheckedIOException;
+
+/**
+ * 外部排序(spill-to-disk merge sort),用于排序内存放不下的大量数据.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>从 {@link Iterator} 读取数据,每读满 {@link #maxRecordsInMemory(int)} 条,就在内存里使用 {@link Collections#sort(List, Comparator)}
+ * 排好序(一个 run),通过 {@link Serializer} 写到临时文件;全部读完之后,再对所有 run 做 k 路归并,以 {@link Iterator} 的方式逐条返回</li>
+ * <li>如果数据一次就能放进内存,不会写临时文件,直接返回内存里排好序的结果</li>
+ * <li>run 的个数超过 {@link #mergeFanIn(int)} 的时候,先把相邻的 run 分组归并成更大的 run,直到个数不超过 {@link #mergeFanIn(int)},
+ * 避免同时打开太多文件</li>
+ * <li>排序是稳定的:比较结果相同的元素,先读到的排在前面</li>
+ * <li>比较器的规则和 {@link SortUtil#sortList(List, Comparator...)} 一致,多个比较器使用 {@link ComparatorUtils#chainedComparator(Comparator...)}
+ * 组合</li>
+ * <li>默认使用 java 序列化,元素必须实现 {@link Serializable};数据量大的时候建议自定义 {@link Serializer},速度和文件大小都会好很多</li>
+ * <li>每个 run 读完之后立即删除对应的临时文件;如果没有遍历完,需要调用 {@link CloseableIterator#close()} 删除剩下的临时文件</li>
+ * <li>配置好之后可以重复调用 {@link #sort(Iterator)},只要不再修改配置,多线程调用是安全的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * ExternalSorter{@code <User>} externalSorter = new ExternalSorter{@code <User>}(new PropertyComparator{@code <User>}("id"))//
+ *                 .maxRecordsInMemory(100000)
+ *                 .tempDirectory(new File("/data/tmp"));
+ *
+ * try (ExternalSorter.CloseableIterator{@code <User>} iterator = externalSorter.sort(userIterator)){
+ *     while (iterator.hasNext()){
+ *         User user = iterator.next();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <T>
+ *            元素类型
+ * @see SortUtil#sortList(List, Comparator...)
+ * @since 1.9.2
+ */
+public final class ExternalSorter<T> {
+
+    /** 默认内存里最多保存的元素个数 <code>{@value}</code>. */
+    public static final int     DEFAULT_MAX_RECORDS_IN_MEMORY = 100000;
+
+    /** 默认一次最多归并的 run 个数 <code>{@value}</code>. */
+    public static final int     DEFAULT_MERGE_FAN_IN          = 64;
+
+    /** 读写临时文件的缓冲区大小. */
+    private static final int    BUFFER_SIZE                   = 64 * 1024;
+
+    /** 临时文件名前缀. */
+    private static final String TEMP_FILE_PREFIX              = "feilong-sort-";
+
+    /** 临时文件名后缀. */
+    private static final String TEMP_FILE_SUFFIX              = ".run";
+
+    /** The comparator. */
+    private final Comparator<T> comparator;
+
+    /** 内存里最多保存的元素个数. */
+    private int                 maxRecordsInMemory            = DEFAULT_MAX_RECORDS_IN_MEMORY;
+
+    /** 一次最多归并的 run 个数. */
+    private int                 mergeFanIn                    = DEFAULT_MERGE_FAN_IN;
+
+    /** 临时文件目录,null 表示使用系统临时目录. */
+    private File                tempDirectory;
+
+    /** The serializer. */
+    private Serializer<T>       serializer                    = new JavaSerializer<T>();
+
+    /**
+     * Instantiates a new external sorter.
+     *
+     * @param comparators
+     *            the comparators,如果有多个,使用 {@link ComparatorUtils#chainedComparator(Comparator...)} 组合
+     * @throws NullPointerException
+     *             如果 <code>comparators</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>comparators</code> 是empty,或者有null 元素
+     */
+    @SafeVarargs
+    public ExternalSorter(Comparator<T>...comparators){
+        Validate.notEmpty(comparators, "comparators can't be null/empty!");
+        Validate.noNullElements(comparators, "comparators can't has null element!");
+        this.comparator = 1 == comparators.length ? comparators[0] : ComparatorUtils.chainedComparator(comparators);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 设置内存里最多保存的元素个数,也就是每个 run 的大小,默认 {@link #DEFAULT_MAX_RECORDS_IN_MEMORY}.
+     * 
+     * <p>
+     * 根据单个元素大约占用的内存以及可用的堆大小设置.
+     * </p>
+     *
+     * @param maxRecordsInMemory
+     *            大于0
+     * @return this
+     * @throws IllegalArgumentException
+     *             如果 <code>maxRecordsInMemory</code> {@code <=} 0
+     */
+    public ExternalSorter<T> maxRecordsInMemory(int maxRecordsInMemory){
+        Validate.isTrue(maxRecordsInMemory > 0, "maxRecordsInMemory:[%s] must > 0", maxRecordsInMemory);
+        this.maxRecordsInMemory = maxRecordsInMemory;
+        return this;
+    }
+
+    /**
+     * 设置一次最多归并的 run 个数(同时打开的临时文件个数),默认 {@link #DEFAULT_MERGE_FAN_IN}.
+     *
+     * @param mergeFanIn
+     *            大于等于2
+     * @return this
+     * @throws IllegalArgumentException
+     *             如果 <code>mergeFanIn</code> {@code <} 2
+     */
+    public ExternalSorter<T> mergeFanIn(int mergeFanIn){
+        Validate.isTrue(mergeFanIn >= 2, "mergeFanIn:[%s] must >= 2", mergeFanIn);
+        this.mergeFanIn = mergeFanIn;
+        return this;
+    }
+
+    /**
+     * 设置临时文件目录,默认使用系统临时目录(<code>java.io.tmpdir</code>).
+     *
+     * @param tempDirectory
+     *            临时文件目录,null 表示使用系统临时目录
+     * @return this
+     */
+    public ExternalSorter<T> tempDirectory(File tempDirectory){
+        this.tempDirectory = tempDirectory;
+        return this;
+    }
+
+    /**
+     * 设置元素写到临时文件以及从临时文件读取的方式,默认使用 java 序列化.
+     *
+     * @param serializer
+     *            the serializer
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>serializer</code> 是null
+     */
+    public ExternalSorter<T> serializer(Serializer<T> serializer){
+        Validate.notNull(serializer, "serializer can't be null!");
+        this.serializer = serializer;
+        return this;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 排序 <code>iterator</code> 的所有元素.
+     * 
+     * <p>
+     * 这个方法会把 <code>iterator</code> 读完,所有 run 都写到临时文件之后才返回;返回的 {@link CloseableIterator} 在遍历的时候才真正归并.
+     * </p>
+     *
+     * @param iterator
+     *            the iterator
+     * @return 按顺序返回元素的 {@link CloseableIterator};如果 <code>iterator</code> 是null,返回没有元素的 {@link CloseableIterator}
+     * @throws UncheckedIOException
+     *             如果读写临时文件出错,已经创建的临时文件会被删除
+     */
+    public CloseableIterator<T> sort(Iterator<T> iterator){
+        if (null == iterator){
+            return new ListCloseableIterator<T>(Collections.<T> emptyList());
+        }
+
+        List<Run> runs = new ArrayList<Run>();
+        try{
+            List<T> buffer = new ArrayList<T>(Math.min(maxRecordsInMemory, 1024));
+            while (iterator.hasNext()){
+                buffer.add(iterator.next());
+                if (buffer.size() >= maxRecordsInMemory && iterator.hasNext()){
+                    runs.add(spill(buffer));
+                    buffer.clear();
+                }
+            }
+            Collections.sort(buffer, comparator);
+            if (runs.isEmpty()){
+                return new ListCloseableIterator<T>(buffer);
+            }
+            runs.add(spill(buffer));
+            buffer = null;
+
+            //分组归并,直到可以一次归并完
+            while (runs.size() > mergeFanIn){
+                runs = mergeGroups(runs);
+            }
+            return new MergeIterator(runs);
+        }catch (IOException e){
+            delete(runs);
+            throw new UncheckedIOException("sort error", e);
+        }catch (RuntimeException e){
+            delete(runs);
+            throw e;
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 排序 <code>buffer</code> 并写到一个新的临时文件.
+     *
+     * @param buffer
+     *            the buffer
+     * @return the run
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private Run spill(List<T> buffer) throws IOException{
+        Collections.sort(buffer, comparator);
+
+        Run run = new Run(createTempFile());
+        try (DataOutputStream dataOutputStream = run.openOutputStream()){
+            for (T record : buffer){
+                serializer.write(record, dataOutputStream);
+            }
+            run.count = buffer.size();
+        }catch (IOException | RuntimeException e){
+            run.delete();
+            throw e;
+        }
+        return run;
+    }
+
+    /**
+     * 把相邻的每 {@link #mergeFanIn} 个 run 归并成一个新的 run,保持 run 之间的先后顺序.
+     *
+     * @param runs
+     *            the runs
+     * @return 新的 run
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private List<Run> mergeGroups(List<Run> runs) throws IOException{
+        List<Run> mergedRuns = new ArrayList<Run>((runs.size() + mergeFanIn - 1) / mergeFanIn);
+        try{
+            for (int i = 0; i < runs.size(); i += mergeFanIn){
+                List<Run> group = runs.subList(i, Math.min(i + mergeFanIn, runs.size()));
+                mergedRuns.add(1 == group.size() ? group.get(0) : mergeToRun(group));
+            }
+        }catch (IOException | RuntimeException e){
+            delete(mergedRuns);
+            throw e;
+        }
+        return mergedRuns;
+    }
+
+    /**
+     * 把 <code>runs</code> 归并成一个新的 run,原来的 run 的临时文件会被删除.
+     *
+     * @param runs
+     *            the runs
+     * @return the run
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private Run mergeToRun(List<Run> runs) throws IOException{
+        Run run = new Run(createTempFile());
+        try (MergeIterator mergeIterator = new MergeIterator(runs); DataOutputStream dataOutputStream = run.openOutputStream()){
+            long count = 0;
+            while (mergeIterator.hasNext()){
+                serializer.write(mergeIterator.next(), dataOutputStream);
+                ++count;
+            }
+            run.count = count;
+        }catch (IOException | RuntimeException e){
+            run.delete();
+            throw e;
+        }
+        return run;
+    }
+
+    /**
+     * 创建临时文件.
+     *
+     * @return the path
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private Path createTempFile() throws IOException{
+        return null == tempDirectory ? Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX)
+                        : Files.createTempFile(tempDirectory.toPath(), TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+    }
+
+    /**
+     * 删除 <code>runs</code> 的临时文件.
+     *
+     * @param runs
+     *            the runs
+     */
+    private static void delete(List<Run> runs){
+        for (Run run : runs){
+            run.delete();
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 元素写到临时文件以及从临时文件读取的方式.
+     * 
+     * <p>
+     * 每个临时文件里面的元素个数是已知的,实现类不需要写结束标记;{@link #read(DataInputStream)} 只需要读出 {@link #write(Object, DataOutputStream)}
+     * 写入的内容.
+     * </p>
+     *
+     * @param <T>
+     *            元素类型
+     */
+    public interface Serializer<T> {
+
+        /**
+         * 把 <code>record</code> 写到 <code>dataOutputStream</code>.
+         *
+         * @param record
+         *            the record
+         * @param dataOutputStream
+         *            the data output stream
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        void write(T record,DataOutputStream dataOutputStream) throws IOException;
+
+        /**
+         * 从 <code>dataInputStream</code> 读取一个元素.
+         *
+         * @param dataInputStream
+         *            the data input stream
+         * @return the t
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        T read(DataInputStream dataInputStream) throws IOException;
+    }
+
+    /**
+     * 需要关闭的 {@link Iterator},关闭的时候删除还没有读完的临时文件.
+     *
+     * @param <T>
+     *            元素类型
+     */
+    public interface CloseableIterator<T> extends Iterator<T>, Closeable{
+
+        /**
+         * 删除还没有读完的临时文件,可以重复调用.
+         */
+        @Override
+        void close();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 使用 java 序列化,每个元素写成 <code>长度 + 序列化字节</code>.
+     *
+     * @param <T>
+     *            元素类型,必须实现 {@link Serializable}
+     */
+    private static final class JavaSerializer<T> implements Serializer<T>{
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ExternalSorter.Serializer#write(java.lang.Object, java.io.DataOutputStream)
+         */
+        @Override
+        public void write(T record,DataOutputStream dataOutputStream) throws IOException{
+            byte[] bytes = SerializationUtils.serialize((Serializable) record);
+            dataOutputStream.writeInt(bytes.length);
+            dataOutputStream.write(bytes);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ExternalSorter.Serializer#read(java.io.DataInputStream)
+         */
+        @Override
+        public T read(DataInputStream dataInputStream) throws IOException{
+            byte[] bytes = new byte[dataInputStream.readInt()];
+            dataInputStream.readFully(bytes);
+            return SerializationUtils.<T> deserialize(bytes);
+        }
+    }
+
+    /**
+     * 一个排好序的临时文件.
+     */
+    private static final class Run{
+
+        /** The path. */
+        private final Path path;
+
+        /** 元素个数. */
+        private long       count;
+
+        /**
+         * Instantiates a new run.
+         *
+         * @param path
+         *            the path
+         */
+        Run(Path path){
+            this.path = path;
+        }
+
+        /**
+         * Open output stream.
+         *
+         * @return the data output stream
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        DataOutputStream openOutputStream() throws IOException{
+            return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        }
+
+        /**
+         * Open input stream.
+         *
+         * @return the data input stream
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        DataInputStream openInputStream() throws IOException{
+            return new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        }
+
+        /**
+         * 删除临时文件,忽略删除失败.
+         */
+        void delete(){
+            try{
+                Files.deleteIfExists(path);
+            }catch (IOException e){
+                path.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * 顺序读取一个 run.
+     */
+    private final class RunReader{
+
+        /** run 的下标,比较结果相同的时候下标小的排在前面. */
+        private final int             index;
+
+        /** The run. */
+        private final Run             run;
+
+        /** The data input stream. */
+        private final DataInputStream dataInputStream;
+
+        /** 还没有读取的元素个数. */
+        private long                  remaining;
+
+        /** 当前元素. */
+        private T                     current;
+
+        /**
+         * Instantiates a new run reader.
+         *
+         * @param index
+         *            the index
+         * @param run
+         *            the run
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        RunReader(int index, Run run) throws IOException{
+            this.index = index;
+            this.run = run;
+            this.dataInputStream = run.openInputStream();
+            this.remaining = run.count;
+        }
+
+        /**
+         * 读取下一个元素到 {@link #current}.
+         *
+         * @return 如果已经读完,返回false
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        boolean advance() throws IOException{
+            if (0 == remaining){
+                current = null;
+                return false;
+            }
+            current = serializer.read(dataInputStream);
+            --remaining;
+            return true;
+        }
+
+        /**
+         * 关闭并删除临时文件.
+         */
+        void close(){
+            try{
+                dataInputStream.close();
+            }catch (IOException e){
+                //ignore,文件马上删除
+            }
+            run.delete();
+        }
+    }
+
+    /**
+     * k 路归并.
+     */
+    private final class MergeIterator implements CloseableIterator<T>{
+
+        /** 所有的 reader,用于关闭. */
+        private final List<RunReader>          runReaders;
+
+        /** 还有元素的 reader,按照当前元素排序. */
+        private final PriorityQueue<RunReader> priorityQueue;
+
+        /**
+         * Instantiates a new merge iterator.
+         *
+         * @param runs
+         *            the runs
+         * @throws IOException
+         *             Signals that an I/O exception has occurred.
+         */
+        MergeIterator(List<Run> runs) throws IOException{
+            this.runReaders = new ArrayList<RunReader>(runs.size());
+            this.priorityQueue = new PriorityQueue<RunReader>(runs.size(), new Comparator<RunReader>(){
+
+                @Override
+                public int compare(RunReader runReader1,RunReader runReader2){
+                    int result = comparator.compare(runReader1.current, runReader2.current);
+                    return 0 != result ? result : Integer.compare(runReader1.index, runReader2.index);
+                }
+            });
+
+            try{
+                for (Run run : runs){
+                    RunReader runReader = new RunReader(runReaders.size(), run);
+                    runReaders.add(runReader);
+                    if (runReader.advance()){
+                        priorityQueue.add(runReader);
+                    }else{
+                        runReader.close();
+                    }
+                }
+            }catch (IOException | RuntimeException e){
+                close();
+                delete(runs);
+                throw e;
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#hasNext()
+         */
+        @Override
+        public boolean hasNext(){
+            return !priorityQueue.isEmpty();
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#next()
+         */
+        @Override
+        public T next(){
+            RunReader runReader = priorityQueue.poll();
+            if (null == runReader){
+                throw new NoSuchElementException();
+            }
+
+            T result = runReader.current;
+            try{
+                if (runReader.advance()){
+                    priorityQueue.add(runReader);
+                }else{
+                    runReader.close();
+                }
+            }catch (IOException e){
+                close();
+                throw new UncheckedIOException("read run error", e);
+            }catch (RuntimeException e){
+                close();
+                throw e;
+            }
+            return result;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#remove()
+         */
+        @Override
+        public void remove(){
+            throw new UnsupportedOperationException("remove");
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ExternalSorter.CloseableIterator#close()
+         */
+        @Override
+        public void close(){
+            priorityQueue.clear();
+            for (RunReader runReader : runReaders){
+                runReader.close();
+            }
+        }
+    }
+
+    /**
+     * 数据一次就能放进内存的时候,直接遍历排好序的 list.
+     *
+     * @param <T>
+     *            元素类型
+     */
+    private static final class ListCloseableIterator<T> implements CloseableIterator<T>{
+
+        /** The iterator. */
+        private final Iterator<T> iterator;
+
+        /**
+         * Instantiates a new list closeable iterator.
+         *
+         * @param list
+         *            the list
+         */
+        ListCloseableIterator(List<T> list){
+            this.iterator = list.iterator();
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#hasNext()
+         */
+        @Override
+        public boolean hasNext(){
+            return iterator.hasNext();
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#next()
+         */
+        @Override
+        public T next(){
+            return iterator.next();
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Iterator#remove()
+         */
+        @Override
+        public void remove(){
+            throw new UnsupportedOperationException("remove");
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ExternalSorter.CloseableIterator#close()
+         */
+        @Override
+        public void close(){
+            //nothing to close
+        }
+    }
+}
@@ -0,0 +1,451 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.ObjectUtils;
+
+import com.feilong.core.util.comparator.PropertyComparator;
+
+/**
+ * 先提取排序 key 再排序(decorate-sort-undecorate),供 {@link SortUtil#sortListByExtractedKeys(List, PropertyComparator...)} 以及
+ * {@link SortUtil#sortListByExtractedKeysParallel(List, PropertyComparator...)} 使用.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>使用 {@link Comparator} 排序的时候,每次比较都要读取两个元素的属性值(以及可能的类型转换),一共 O(n log n) 次;这里每个元素的每个排序属性只读取一次,
+ * 保存到和元素下标对应的 key 数组里面,然后对下标排序,最后按照排好的下标重新排列 list</li>
+ * <li>如果某个属性的所有值都是同一种整数类型({@link Integer},{@link Long},{@link Short},{@link Byte})或者浮点类型({@link Double},{@link Float}),
+ * 并且没有指定比较器,key 保存在 <code>long[]</code>/<code>double[]</code> 里面,比较的时候不需要拆箱以及 {@link Comparable#compareTo(Object)} 虚调用</li>
+ * <li>下标排序使用稳定的归并排序,所有属性值都相同的元素保持原来的顺序</li>
+ * <li>并行的时候,属性值的读取使用 {@link ParallelListUtil#collect(List, Transformer)},下标排序使用 {@link ParallelMergeSorter},结果和顺序执行完全一致</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+final class KeyExtractingSorter{
+
+    /** 小于这个长度的区间使用插入排序. */
+    private static final int INSERTION_SORT_THRESHOLD = 7;
+
+    /** Don't let anyone instantiate this class. */
+    private KeyExtractingSorter(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * 依次按照 <code>propertyComparators</code> 的属性值对 <code>list</code> 排序,null 元素排在最后.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyComparators
+     *            提供属性值以及属性值的比较规则
+     * @param parallel
+     *            是否允许并行,元素个数没有达到 {@link ParallelReducer#PARALLEL_THRESHOLD} 的时候还是顺序执行
+     */
+    @SuppressWarnings("unchecked")
+    static <O> void sort(List<O> list,PropertyComparator<O>[] propertyComparators,boolean parallel){
+        Object[] elements = list.toArray();
+        int size = elements.length;
+        if (size < 2){
+            return;
+        }
+
+        boolean isParallel = parallel && ParallelReducer.isParallel(size);
+        KeyColumn[] keyColumns = new KeyColumn[propertyComparators.length];
+        for (int i = 0; i < propertyComparators.length; ++i){
+            keyColumns[i] = extract(elements, propertyComparators[i], isParallel);
+        }
+
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; ++i){
+            indexes[i] = i;
+        }
+        IndexComparator indexComparator = new IndexComparator(elements, keyColumns);
+        if (isParallel){
+            new IndexSorter(indexComparator).sort(indexes, indexes.clone(), size);
+        }else{
+            mergeSort(indexes.clone(), indexes, 0, size, indexComparator);
+        }
+
+        ListIterator<O> listIterator = list.listIterator();
+        for (int index : indexes){
+            listIterator.next();
+            listIterator.set((O) elements[index]);
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 提取所有元素的属性值.
+     *
+     * @param <O>
+     *            the generic type
+     * @param elements
+     *            the elements
+     * @param propertyComparator
+     *            the property comparator
+     * @param parallel
+     *            是否并行读取属性值
+     * @return the key column
+     */
+    @SuppressWarnings("rawtypes")
+    private static <O> KeyColumn extract(Object[] elements,PropertyComparator<O> propertyComparator,boolean parallel){
+        int size = elements.length;
+        Comparable[] values = readValues(elements, propertyComparator, parallel);
+
+        //没有指定比较器,并且所有值都是同一个类型的时候,才能使用基本类型比较
+        Class<?> valueClass = null;
+        boolean isSameClass = null == propertyComparator.getComparator();
+        for (int i = 0; i < size; ++i){
+            if (null == elements[i]){
+                continue;
+            }
+            Comparable value = values[i];
+            if (isSameClass){
+                if (null == value){
+                    isSameClass = false;
+                }else if (null == valueClass){
+                    valueClass = value.getClass();
+                }else{
+                    isSameClass = valueClass == value.getClass();
+                }
+            }
+        }
+
+        if (isSameClass && (Integer.class == valueClass || Long.class == valueClass || Short.class == valueClass || Byte.class == valueClass)){
+            long[] longValues = new long[size];
+            for (int i = 0; i < size; ++i){
+                longValues[i] = null == values[i] ? 0 : ((Number) values[i]).longValue();
+            }
+            return new LongKeyColumn(longValues);
+        }
+        if (isSameClass && (Double.class == valueClass || Float.class == valueClass)){
+            double[] doubleValues = new double[size];
+            for (int i = 0; i < size; ++i){
+                doubleValues[i] = null == values[i] ? 0 : ((Number) values[i]).doubleValue();
+            }
+            return new DoubleKeyColumn(doubleValues);
+        }
+        return new ObjectKeyColumn(values, propertyComparator.getComparator());
+    }
+
+    /**
+     * 读取所有元素的属性值,null 元素对应的值是null.
+     *
+     * @param <O>
+     *            the generic type
+     * @param elements
+     *            the elements
+     * @param propertyComparator
+     *            the property comparator
+     * @param parallel
+     *            是否并行读取
+     * @return the comparable[]
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static <O> Comparable[] readValues(Object[] elements,final PropertyComparator<O> propertyComparator,boolean parallel){
+        if (parallel){
+            List<Comparable> valueList = ParallelListUtil.collect(Arrays.asList(elements), new Transformer<Object, Comparable>(){
+
+                @Override
+                public Comparable transform(Object input){
+                    return null == input ? null : propertyComparator.getPropertyValue((O) input);
+                }
+            });
+            return valueList.toArray(new Comparable[elements.length]);
+        }
+
+        Comparable[] values = new Comparable[elements.length];
+        for (int i = 0; i < elements.length; ++i){
+            if (null != elements[i]){
+                values[i] = propertyComparator.getPropertyValue((O) elements[i]);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 稳定的归并排序,把 <code>src</code> [<code>low</code>, <code>high</code>) 排好序放到 <code>dest</code> 同样的区间.
+     * 
+     * <p>
+     * 调用前 <code>src</code> 和 <code>dest</code> 的内容必须相同,参见 jdk 的 <code>Arrays.legacyMergeSort</code>.
+     * </p>
+     *
+     * @param src
+     *            the src
+     * @param dest
+     *            the dest
+     * @param low
+     *            开始下标(包含)
+     * @param high
+     *            结束下标(不包含)
+     * @param indexComparator
+     *            the index comparator
+     */
+    private static void mergeSort(int[] src,int[] dest,int low,int high,IndexComparator indexComparator){
+        int length = high - low;
+        if (length < INSERTION_SORT_THRESHOLD){
+            for (int i = low + 1; i < high; ++i){
+                for (int j = i; j > low && indexComparator.compare(dest[j - 1], dest[j]) > 0; --j){
+                    int temp = dest[j];
+                    dest[j] = dest[j - 1];
+                    dest[j - 1] = temp;
+                }
+            }
+            return;
+        }
+
+        int middle = (low + high) >>> 1;
+        mergeSort(dest, src, low, middle, indexComparator);
+        mergeSort(dest, src, middle, high, indexComparator);
+
+        //两半已经有序,直接复制
+        if (indexComparator.compare(src[middle - 1], src[middle]) <= 0){
+            System.arraycopy(src, low, dest, low, length);
+            return;
+        }
+        for (int i = low, p = low, q = middle; i < high; ++i){
+            if (q >= high || p < middle && indexComparator.compare(src[p], src[q]) <= 0){
+                dest[i] = src[p++];
+            }else{
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 按照下标比较元素.
+     */
+    private static final class IndexComparator{
+
+        /** The elements. */
+        private final Object[]    elements;
+
+        /** The key columns. */
+        private final KeyColumn[] keyColumns;
+
+        /**
+         * Instantiates a new index comparator.
+         *
+         * @param elements
+         *            the elements
+         * @param keyColumns
+         *            the key columns
+         */
+        IndexComparator(Object[] elements, KeyColumn[] keyColumns){
+            this.elements = elements;
+            this.keyColumns = keyColumns;
+        }
+
+        /**
+         * 比较下标 <code>i</code> 和 <code>j</code> 的元素,null 元素排在后面.
+         *
+         * @param i
+         *            the i
+         * @param j
+         *            the j
+         * @return the int
+         */
+        int compare(int i,int j){
+            if (null == elements[i] || null == elements[j]){
+                return null == elements[i] ? (null == elements[j] ? 0 : 1) : -1;
+            }
+            for (KeyColumn keyColumn : keyColumns){
+                int result = keyColumn.compare(i, j);
+                if (0 != result){
+                    return result;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * 并行排序下标.
+     */
+    private static final class IndexSorter extends ParallelMergeSorter<int[]>{
+
+        /** The index comparator. */
+        private final IndexComparator indexComparator;
+
+        /**
+         * Instantiates a new index sorter.
+         *
+         * @param indexComparator
+         *            the index comparator
+         */
+        IndexSorter(IndexComparator indexComparator){
+            this.indexComparator = indexComparator;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelMergeSorter#sortRange(java.lang.Object, java.lang.Object, int, int)
+         */
+        @Override
+        void sortRange(int[] src,int[] dest,int from,int to){
+            mergeSort(src, dest, from, to, indexComparator);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelMergeSorter#compare(java.lang.Object, int, int)
+         */
+        @Override
+        int compare(int[] array,int i,int j){
+            return indexComparator.compare(array[i], array[j]);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelMergeSorter#move(java.lang.Object, int, java.lang.Object, int)
+         */
+        @Override
+        void move(int[] src,int srcIndex,int[] dest,int destIndex){
+            dest[destIndex] = src[srcIndex];
+        }
+    }
+
+    /**
+     * 一个排序属性所有元素的 key.
+     */
+    private abstract static class KeyColumn{
+
+        /**
+         * 比较下标 <code>i</code> 和 <code>j</code> 的 key.
+         *
+         * @param i
+         *            the i
+         * @param j
+         *            the j
+         * @return the int
+         */
+        abstract int compare(int i,int j);
+    }
+
+    /**
+     * 整数 key.
+     */
+    private static final class LongKeyColumn extends KeyColumn{
+
+        /** The values. */
+        private final long[] values;
+
+        /**
+         * Instantiates a new long key column.
+         *
+         * @param values
+         *            the values
+         */
+        LongKeyColumn(long[] values){
+            this.values = values;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.KeyExtractingSorter.KeyColumn#compare(int, int)
+         */
+        @Override
+        int compare(int i,int j){
+            return values[i] < values[j] ? -1 : (values[i] == values[j] ? 0 : 1);
+        }
+    }
+
+    /**
+     * 浮点数 key,和 {@link Double#compareTo(Double)} 一致.
+     */
+    private static final class DoubleKeyColumn extends KeyColumn{
+
+        /** The values. */
+        private final double[] values;
+
+        /**
+         * Instantiates a new double key column.
+         *
+         * @param values
+         *            the values
+         */
+        DoubleKeyColumn(double[] values){
+            this.values = values;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.KeyExtractingSorter.KeyColumn#compare(int, int)
+         */
+        @Override
+        int compare(int i,int j){
+            return Double.compare(values[i], values[j]);
+        }
+    }
+
+    /**
+     * 对象 key,和 {@link PropertyComparator} 比较属性值的规则一致.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final class ObjectKeyColumn extends KeyColumn{
+
+        /** The values. */
+        private final Comparable[] values;
+
+        /** 如果是null,使用 {@link ObjectUtils#compare(Comparable, Comparable)}. */
+        private final Comparator   comparator;
+
+        /**
+         * Instantiates a new object key column.
+         *
+         * @param values
+         *            the values
+         * @param comparator
+         *            the comparator
+         */
+        ObjectKeyColumn(Comparable[] values, Comparator comparator){
+            this.values = values;
+            this.comparator = comparator;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.KeyExtractingSorter.KeyColumn#compare(int, int)
+         */
+        @Override
+        int compare(int i,int j){
+            return null == comparator ? ObjectUtils.compare(values[i], values[j]) : comparator.compare(values[i], values[j]);
+        }
+    }
+}
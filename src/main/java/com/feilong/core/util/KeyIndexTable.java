@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 按照第一次出现的顺序给 key 编号(0,1,2...)的开放寻址 hash 表,供 {@link CounterMap},{@link CompactMultiMap} 使用.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>key 以及 hash 值按照编号保存在紧凑的数组里面,使用方按照同样的编号把自己的数据(比如计数)保存在平行的基本类型数组里,不需要为每个 key 创建 entry 对象</li>
+ * <li>hash 表使用线性探测,表里面只保存编号 + 1(0 表示空位);长度是2的幂,至少是紧凑数组长度的2倍,负载因子不超过0.5</li>
+ * <li>{@link #add(Object, int)} 只需要一次探测:找到就返回编号,找不到就在探测停下的位置插入</li>
+ * <li>支持 null key;不支持删除;不是线程安全的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            key 的类型
+ * @since 1.9.2
+ */
+final class KeyIndexTable<K> {
+
+    /** 紧凑数组最大的长度. */
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    /** 按照编号保存的 key. */
+    private Object[]         keys;
+
+    /** 和 {@link #keys} 对应的 hash 值,扩容的时候不需要重新计算 {@link Object#hashCode()}. */
+    private int[]            hashes;
+
+    /** key 的个数. */
+    private int              size;
+
+    /** 开放寻址的 hash 表,保存 key 的编号 + 1,0 表示空位. */
+    private int[]            table;
+
+    /** table.length - 1. */
+    private int              mask;
+
+    /**
+     * Instantiates a new key index table.
+     *
+     * @param expectedSize
+     *            预期的 key 个数,超过之后自动扩容
+     * @throws IllegalArgumentException
+     *             如果 <code>expectedSize</code> {@code <} 0
+     */
+    KeyIndexTable(int expectedSize){
+        Validate.isTrue(expectedSize >= 0, "expectedSize:[%s] can't < 0", expectedSize);
+        int capacity = Math.min(Math.max(expectedSize, 4), MAX_CAPACITY);
+        this.keys = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.table = new int[Integer.highestOneBit(capacity - 1) << 2];
+        this.mask = table.length - 1;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 查找或者添加 <code>key</code>.
+     *
+     * @param key
+     *            the key
+     * @param hash
+     *            <code>key</code> 的 {@link #hash(Object)}
+     * @return 如果 <code>key</code> 已经存在,返回它的编号;否则添加到最后,返回 <code>-(新编号) - 1</code>
+     */
+    int add(K key,int hash){
+        int slot = hash & mask;
+        while (true){
+            int index = table[slot] - 1;
+            if (index < 0){
+                return -insert(key, hash, slot) - 1;
+            }
+            if (hashes[index] == hash && Objects.equals(keys[index], key)){
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 查找 <code>key</code> 的编号.
+     *
+     * @param key
+     *            the key
+     * @return 如果不存在,返回 -1
+     */
+    int indexOf(Object key){
+        int hash = hash(key);
+        int slot = hash & mask;
+        while (true){
+            int index = table[slot] - 1;
+            if (index < 0 || (hashes[index] == hash && Objects.equals(keys[index], key))){
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 获得编号是 <code>index</code> 的 key.
+     *
+     * @param index
+     *            [0, {@link #size()})
+     * @return the key
+     */
+    @SuppressWarnings("unchecked")
+    K getKey(int index){
+        return (K) keys[index];
+    }
+
+    /**
+     * 获得编号是 <code>index</code> 的 key 的 hash 值.
+     *
+     * @param index
+     *            [0, {@link #size()})
+     * @return the hash
+     */
+    int getHash(int index){
+        return hashes[index];
+    }
+
+    /**
+     * key 的个数.
+     *
+     * @return the int
+     */
+    int size(){
+        return size;
+    }
+
+    /**
+     * 紧凑数组当前的长度,使用方平行数组的长度应该跟着一起增长.
+     *
+     * @return the int
+     */
+    int capacity(){
+        return keys.length;
+    }
+
+    /**
+     * 检查编号是否越界.
+     *
+     * @param index
+     *            the index
+     * @throws IndexOutOfBoundsException
+     *             如果 <code>index</code> 越界
+     */
+    void checkIndex(int index){
+        if (index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("index:" + index + ",size:" + size);
+        }
+    }
+
+    /**
+     * 打散 {@link Object#hashCode()} 的高位,避免低位相同的 key 挤在一起,null 的 hash 是0.
+     *
+     * @param key
+     *            the key
+     * @return the int
+     */
+    static int hash(Object key){
+        if (null == key){
+            return 0;
+        }
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 在空位 <code>slot</code> 插入新的 key.
+     *
+     * @param key
+     *            the key
+     * @param hash
+     *            the hash
+     * @param slot
+     *            探测停下的空位
+     * @return 新的编号
+     */
+    private int insert(K key,int hash,int slot){
+        int emptySlot = slot;
+        if (size == keys.length){
+            grow();
+            emptySlot = findEmptySlot(hash);
+        }
+        keys[size] = key;
+        hashes[size] = hash;
+        table[emptySlot] = size + 1;
+        return size++;
+    }
+
+    /**
+     * 紧凑数组扩容一倍,并重建 hash 表.
+     */
+    private void grow(){
+        Validate.validState(keys.length < MAX_CAPACITY, "can't hold more than %s keys", MAX_CAPACITY);
+        int capacity = keys.length << 1;
+        keys = Arrays.copyOf(keys, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+
+        table = new int[table.length << 1];
+        mask = table.length - 1;
+        for (int i = 0; i < size; ++i){
+            table[findEmptySlot(hashes[i])] = i + 1;
+        }
+    }
+
+    /**
+     * 查找 <code>hash</code> 对应的第一个空位.
+     *
+     * @param hash
+     *            the hash
+     * @return the slot
+     */
+    private int findEmptySlot(int hash){
+        int slot = hash & mask;
+        while (0 != table[slot]){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -30,7 +30,7 @@ import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.bean.PropertyPath;
 import com.feilong.tools.jsonlib.JsonUtil;
 
 import static com.feilong.core.Validator.isNotNullOrEmpty;
@@ -527,6 +527,8 @@ public final class MapUtil{
      * @see org.apache.commons.collections4.bag.HashBag
      * @see org.apache.commons.lang3.mutable.MutableInt
      * @see "java.util.Map#getOrDefault(Object, Object)"
+     * @see CounterMap
+     * @see ConcurrentCounterMap
      * @see <a href="http://stackoverflow.com/questions/81346/most-efficient-way-to-increment-a-map-value-in-java">most-efficient-way-to-
      *      increment-a-map-value-in-java</a>
      * @since 1.5.5
@@ -626,6 +628,8 @@ public final class MapUtil{
      * @see org.apache.commons.collections4.IterableMap
      * @see org.apache.commons.collections4.MultiMapUtils
      * @see org.apache.commons.collections4.multimap.AbstractMultiValuedMap#put(Object, Object)
+     * @see CompactMultiMap
+     * @see ConcurrentMultiMap
      * @since 1.6.2
      */
     public static <K, V> Map<K, List<V>> putMultiValue(Map<K, List<V>> map,K key,V value){
@@ -683,6 +687,8 @@ public final class MapUtil{
      * @return 如果 <code>map</code> 是null或者empty,返回 {@link Collections#emptyMap()};<br>
      *         如果 <code>keys</code> 是null或者empty,直接返回 <code>map</code><br>
      *         如果循环的 key不在map key里面,则返回的map中忽略该key,并输出warn level log
+     * @see #toCompactMap(Map)
+     * @see #getSubCompactMap(Map, Object...)
      */
     @SafeVarargs
     public static <K, T> Map<K, T> getSubMap(Map<K, T> map,K...keys){
@@ -704,6 +710,74 @@ public final class MapUtil{
         return returnMap;
     }
 
+    /**
+     * 获得一个<code>map</code> 中的按照指定的<code>key</code> 整理成新的不可变的 {@link CompactMap}.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>规则同 {@link #getSubMap(Map, Object...)},只是结果直接填充到 {@link CompactMap.Builder},不会先创建 {@link LinkedHashMap} 再复制</li>
+     * <li>适合生成之后只读的返回值;返回的map不能修改</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, Integer>} map = new HashMap{@code <String, Integer>}();
+     * map.put("a", 3007);
+     * map.put("b", 3001);
+     * map.put("c", 3001);
+     * map.put("d", 3003);
+     * LOGGER.debug(JsonUtil.format(MapUtil.getSubCompactMap(map, "a", "c")));
+     * </pre>
+     * 
+     * <b>返回:</b>
+     * 
+     * <pre class="code">
+     * {
+     * "a": 3007,
+     * "c": 3001
+     * }
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <T>
+     *            the generic type
+     * @param map
+     *            the map
+     * @param keys
+     *            如果循环的 key不在map key里面,则返回的map中忽略该key,并输出warn level log
+     * @return 如果 <code>map</code> 是null或者empty,返回 {@link Collections#emptyMap()};<br>
+     *         如果 <code>keys</code> 是null或者empty,返回 {@link #toCompactMap(Map)}<br>
+     *         如果循环的 key不在map key里面,则返回的map中忽略该key,并输出warn level log
+     * @see #getSubMap(Map, Object...)
+     * @see CompactMap.Builder
+     * @since 1.9.2
+     */
+    @SafeVarargs
+    public static <K, T> Map<K, T> getSubCompactMap(Map<K, T> map,K...keys){
+        if (isNullOrEmpty(map)){
+            return emptyMap();
+        }
+        if (isNullOrEmpty(keys)){
+            return toCompactMap(map);
+        }
+        CompactMap.Builder<K, T> builder = new CompactMap.Builder<K, T>(keys.length);
+        for (K key : keys){
+            if (map.containsKey(key)){
+                builder.put(key, map.get(key));
+            }else{
+                LOGGER.warn("map:[{}] don't contains key:[{}]", JsonUtil.format(map.keySet(), 0, 0), key);
+            }
+        }
+        return builder.build();
+    }
+
     /**
      * 获得 sub map(去除不需要的keys).
      * 
@@ -1028,6 +1102,8 @@ public final class MapUtil{
         }
 
         Validate.notBlank(extractPropertyName, "extractPropertyName can't be null/empty!");
+        //只解析一次属性表达式,循环中重复使用
+        PropertyPath extractPropertyPath = PropertyPath.compile(extractPropertyName);
 
         //如果excludeKeys是null,那么抽取所有的key
         @SuppressWarnings("unchecked") // NOPMD - false positive for generics
@@ -1037,7 +1113,9 @@ public final class MapUtil{
         Map<K, V> returnMap = newLinkedHashMap(useIncludeKeys.length);
         for (K key : useIncludeKeys){
             if (map.containsKey(key)){
-                returnMap.put(key, PropertyUtil.<V> getProperty(map.get(key), extractPropertyName));
+                @SuppressWarnings("unchecked")
+                V value = (V) extractPropertyPath.getValue(map.get(key));
+                returnMap.put(key, value);
             }else{
                 LOGGER.warn("map:[{}] don't contains key:[{}]", JsonUtil.format(map.keySet(), 0, 0), key);
             }
@@ -1246,6 +1324,53 @@ public final class MapUtil{
         return new LinkedHashMap<K, V>(toInitialCapacity(expectedSize));
     }
 
+    /**
+     * 将 <code>map</code> 复制成不可变的 {@link CompactMap},适合元素不多并且只读的返回值.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>key 和 value 交替保存在一个数组里面,遍历顺序和 <code>map</code> 的遍历顺序一致;元素不多的时候顺序查找,多的时候使用 hash 表查找,
+     * 参见 {@link CompactMap}</li>
+     * <li>和 {@link LinkedHashMap} 相比,不需要为每个元素创建 entry 对象,适合 {@link #getSubMap(Map, Object...)},
+     * {@link com.feilong.core.bean.PropertyUtil#describe(Object, String...)} 这类方法的返回值,生成之后只读的场景</li>
+     * <li>返回的 map 不能修改,需要修改的话,请直接使用 <code>map</code></li>
+     * <li>如果 <code>map</code> 只是为了复制而临时创建的,可以使用 {@link CompactMap.Builder} 或者 {@link #getSubCompactMap(Map, Object...)} 直接填充</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, Integer>} map = MapUtil.toCompactMap(userIdAndNameMap);
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @return 如果 <code>map</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>map</code> 已经是 {@link CompactMap},直接返回<br>
+     *         否则返回新的 {@link CompactMap}
+     * @see CompactMap
+     * @since 1.9.2
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> Map<K, V> toCompactMap(Map<? extends K, ? extends V> map){
+        if (isNullOrEmpty(map)){
+            return emptyMap();
+        }
+        if (map instanceof CompactMap){
+            return (Map<K, V>) map;
+        }
+        return new CompactMap<K, V>(map);
+    }
+
     /**
      * 将<code>size</code>转成 <code>initialCapacity</code> (for {@link java.util.HashMap}).
      * 
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.math.BigDecimal;
+
+import com.feilong.core.bean.ConvertUtil;
+
+/**
+ * 数值累加器,结果和使用 {@link com.feilong.core.lang.NumberUtil#getAddValue(Number...)} 逐个累加完全一致(包括 {@link BigDecimal#scale()}).
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link Integer},{@link Long},{@link Short},{@link Byte} 直接在 <code>long</code> 上累加,不会为每个值创建 {@link BigDecimal};
+ * 如果累加会溢出,把当前的 <code>long</code> 累加值合并到 {@link BigDecimal} 部分,再从0开始累加</li>
+ * <li>其他类型(比如 {@link Double},{@link BigDecimal})使用 {@link ConvertUtil#toBigDecimal(Object)} 转换后在 {@link BigDecimal} 部分精确累加,
+ * 因此 <code>0.1 + 0.2</code> 依然是 <code>0.3</code></li>
+ * <li>整数累加是精确的,加法满足结合律,所以分成两部分累加,最后再相加,结果不变</li>
+ * <li>null 当做0</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+final class NumberAccumulator{
+
+    /** 整数部分的累加值. */
+    private long       longSum;
+
+    /** 非整数值以及溢出的整数部分的累加值,没有的时候是null. */
+    private BigDecimal bigDecimalSum;
+
+    /**
+     * 累加.
+     *
+     * @param number
+     *            the number
+     */
+    void add(Number number){
+        if (null == number){
+            return;
+        }
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte){
+            addLong(number.longValue());
+        }else{
+            addBigDecimal(ConvertUtil.toBigDecimal(number));
+        }
+    }
+
+    /**
+     * 合并另外一个累加器.
+     *
+     * @param numberAccumulator
+     *            the number accumulator
+     */
+    void merge(NumberAccumulator numberAccumulator){
+        addLong(numberAccumulator.longSum);
+        if (null != numberAccumulator.bigDecimalSum){
+            addBigDecimal(numberAccumulator.bigDecimalSum);
+        }
+    }
+
+    /**
+     * 获得总和.
+     *
+     * @return the sum
+     */
+    BigDecimal getSum(){
+        BigDecimal longPart = BigDecimal.valueOf(longSum);
+        return null == bigDecimalSum ? longPart : bigDecimalSum.add(longPart);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 在 <code>long</code> 上累加,溢出的时候合并到 {@link BigDecimal} 部分(jdk1.7 没有 <code>Math.addExact</code>).
+     *
+     * @param value
+     *            the value
+     */
+    private void addLong(long value){
+        long result = longSum + value;
+        //两个加数同号,并且结果的符号和它们不同,就是溢出了
+        if (((longSum ^ result) & (value ^ result)) < 0){
+            addBigDecimal(BigDecimal.valueOf(longSum));
+            longSum = value;
+        }else{
+            longSum = result;
+        }
+    }
+
+    /**
+     * 在 {@link BigDecimal} 部分累加.
+     *
+     * @param value
+     *            the value
+     */
+    private void addBigDecimal(BigDecimal value){
+        bigDecimalSum = null == bigDecimalSum ? value : bigDecimalSum.add(value);
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+
+import com.feilong.core.lang.ForkJoinUtil;
+
+/**
+ * 基于 fork-join 的 {@link RandomAccess} list 并行 select/collect,供 <code>selectParallel</code>,<code>selectRejectedParallel</code>,
+ * <code>collectParallel</code> 使用.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>把 list 按照下标拆分成若干连续的段(参见 {@link ParallelReducer#getSegmentSize(int)}),每一段在各自的线程里处理,结果写到预先分配好的这一段自己的缓冲区,
+ * 所有段处理完之后,再按照段的顺序一次性拼接,结果的顺序和顺序执行完全一致</li>
+ * <li>collect 的结果个数等于元素个数,所有段共用一个预先分配好的数组,每个元素直接写到自己的下标</li>
+ * <li>只处理 {@link RandomAccess} 的 {@link List},其他集合按照下标访问太慢,调用方应该直接走顺序的实现,参见 {@link #isParallel(Collection)}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+final class ParallelListUtil{
+
+    /** Don't let anyone instantiate this class. */
+    private ParallelListUtil(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * 是否应该走并行的实现.
+     *
+     * @param collection
+     *            the collection
+     * @return 如果 <code>collection</code> 是 {@link RandomAccess} 的 {@link List},并且 {@link ParallelReducer#isParallel(Collection)},返回true
+     */
+    static boolean isParallel(Collection<?> collection){
+        return collection instanceof List && collection instanceof RandomAccess && ParallelReducer.isParallel(collection);
+    }
+
+    /**
+     * 并行查询 <code>list</code> 中 <code>predicate.evaluate</code> 结果不是 <code>rejected</code> 的元素.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param predicate
+     *            the predicate,会在多个线程里同时调用
+     * @param rejected
+     *            如果是true,查询不符合 <code>predicate</code> 的元素
+     * @return 按照 <code>list</code> 顺序排列的 {@link ArrayList}
+     */
+    static <O> List<O> select(final List<O> list,final Predicate<O> predicate,final boolean rejected){
+        final int segmentSize = ParallelReducer.getSegmentSize(list.size());
+        int segmentCount = getSegmentCount(list.size(), segmentSize);
+
+        final Object[][] buffers = new Object[segmentCount][];
+        final int[] counts = new int[segmentCount];
+        invoke(list.size(), segmentSize, new SegmentHandler(){
+
+            @Override
+            public void handle(int segment,int fromIndex,int toIndex){
+                Object[] buffer = new Object[toIndex - fromIndex];
+                int count = 0;
+                for (int i = fromIndex; i < toIndex; ++i){
+                    O obj = list.get(i);
+                    if (predicate.evaluate(obj) != rejected){
+                        buffer[count++] = obj;
+                    }
+                }
+                buffers[segment] = buffer;
+                counts[segment] = count;
+            }
+        });
+
+        int total = 0;
+        for (int count : counts){
+            total += count;
+        }
+        List<O> result = new ArrayList<O>(total);
+        for (int segment = 0; segment < segmentCount; ++segment){
+            @SuppressWarnings("unchecked")
+            O[] buffer = (O[]) buffers[segment];
+            result.addAll(Arrays.asList(buffer).subList(0, counts[segment]));
+        }
+        return result;
+    }
+
+    /**
+     * 并行使用 <code>transformer</code> 转换 <code>list</code> 中的每个元素.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param transformer
+     *            the transformer,会在多个线程里同时调用
+     * @return 按照 <code>list</code> 顺序排列的 {@link ArrayList}
+     */
+    static <O, T> List<T> collect(final List<O> list,final Transformer<? super O, ? extends T> transformer){
+        final Object[] results = new Object[list.size()];
+        invoke(list.size(), ParallelReducer.getSegmentSize(list.size()), new SegmentHandler(){
+
+            @Override
+            public void handle(int segment,int fromIndex,int toIndex){
+                for (int i = fromIndex; i < toIndex; ++i){
+                    results[i] = transformer.transform(list.get(i));
+                }
+            }
+        });
+        @SuppressWarnings("unchecked")
+        T[] elements = (T[]) results;
+        return new ArrayList<T>(Arrays.asList(elements));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 使用共享的 pool 并行处理所有的段,等待全部处理完成.
+     *
+     * @param size
+     *            元素个数
+     * @param segmentSize
+     *            每一段的大小
+     * @param segmentHandler
+     *            the segment handler
+     */
+    private static void invoke(int size,int segmentSize,SegmentHandler segmentHandler){
+        ForkJoinUtil.invoke(new SegmentAction(segmentHandler, size, segmentSize, 0, getSegmentCount(size, segmentSize)));
+    }
+
+    /**
+     * 段的个数.
+     *
+     * @param size
+     *            the size
+     * @param segmentSize
+     *            the segment size
+     * @return the segment count
+     */
+    private static int getSegmentCount(int size,int segmentSize){
+        return (size + segmentSize - 1) / segmentSize;
+    }
+
+    /**
+     * 处理一段.
+     */
+    private interface SegmentHandler{
+
+        /**
+         * 处理下标区间 [<code>fromIndex</code>, <code>toIndex</code>) 的元素.
+         *
+         * @param segment
+         *            第几段
+         * @param fromIndex
+         *            开始下标(包含)
+         * @param toIndex
+         *            结束下标(不包含)
+         */
+        void handle(int segment,int fromIndex,int toIndex);
+    }
+
+    /**
+     * 按照段拆分的任务.
+     */
+    private static final class SegmentAction extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long    serialVersionUID = 1L;
+
+        /** The segment handler. */
+        private final SegmentHandler segmentHandler;
+
+        /** 元素个数. */
+        private final int            size;
+
+        /** 每一段的大小. */
+        private final int            segmentSize;
+
+        /** 开始段(包含). */
+        private final int            fromSegment;
+
+        /** 结束段(不包含). */
+        private final int            toSegment;
+
+        /**
+         * Instantiates a new segment action.
+         *
+         * @param segmentHandler
+         *            the segment handler
+         * @param size
+         *            the size
+         * @param segmentSize
+         *            the segment size
+         * @param fromSegment
+         *            the from segment
+         * @param toSegment
+         *            the to segment
+         */
+        SegmentAction(SegmentHandler segmentHandler, int size, int segmentSize, int fromSegment, int toSegment){
+            this.segmentHandler = segmentHandler;
+            this.size = size;
+            this.segmentSize = segmentSize;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute(){
+            if (toSegment - fromSegment > 1){
+                int middle = (fromSegment + toSegment) >>> 1;
+                invokeAll(
+                                new SegmentAction(segmentHandler, size, segmentSize, fromSegment, middle),
+                                new SegmentAction(segmentHandler, size, segmentSize, middle, toSegment));
+                return;
+            }
+            int fromIndex = fromSegment * segmentSize;
+            segmentHandler.handle(fromSegment, fromIndex, Math.min(size, fromIndex + segmentSize));
+        }
+    }
+}
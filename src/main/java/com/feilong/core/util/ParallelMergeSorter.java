@@ -0,0 +1,416 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import com.feilong.core.lang.ForkJoinUtil;
+
+/**
+ * 基于 fork-join 的稳定并行归并排序,供 <code>sortArrayParallel</code>,<code>sortListParallel</code>,
+ * <code>sortListByExtractedKeysParallel</code> 使用.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>把数组按照下标拆分成若干连续的段(参见 {@link ParallelReducer#getSegmentSize(int)}),每一段在各自的线程里使用 {@link #sortRange(Object, Object, int, int)}
+ * 稳定排序,然后两两归并;归并本身也是并行的:把较长的那一段从中间拆开,在另一段里二分查找对应的位置,拆成两个互不相关的子归并</li>
+ * <li>归并的时候,比较结果相同的元素,左边那一段的元素排在前面,所以结果和顺序的稳定排序(比如 {@link Arrays#sort(Object[], Comparator)})完全一致</li>
+ * <li>使用一个和原数组一样大的缓冲数组,原数组和缓冲数组在每一层交替作为输入和输出(参见 jdk 的 <code>Arrays.legacyMergeSort</code>),
+ * 不需要每一层都把结果复制回原数组</li>
+ * <li>使用 {@link ForkJoinUtil#getForkJoinPool()} 执行;元素个数小于 {@link ParallelReducer#PARALLEL_THRESHOLD} 的时候,调用方应该直接走顺序的实现,参见
+ * {@link ParallelReducer#isParallel(int)}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <A>
+ *            数组类型,比如 <code>Object[]</code>,<code>int[]</code>
+ * @since 1.9.2
+ */
+abstract class ParallelMergeSorter<A> {
+
+    /**
+     * 并行排序 <code>array</code> 的前 <code>size</code> 个元素.
+     *
+     * @param array
+     *            the array
+     * @param buffer
+     *            缓冲数组,长度不能小于 <code>size</code>,并且前 <code>size</code> 个元素必须和 <code>array</code> 相同(比如 <code>array.clone()</code>)
+     * @param size
+     *            元素个数
+     */
+    final void sort(A array,A buffer,int size){
+        ForkJoinUtil.invoke(new SortTask(buffer, array, 0, size, ParallelReducer.getSegmentSize(size)));
+    }
+
+    /**
+     * 使用对象比较器并行排序 <code>array</code>.
+     *
+     * @param <T>
+     *            the generic type
+     * @param array
+     *            the array
+     * @param comparator
+     *            the comparator,会在多个线程里同时调用
+     */
+    static <T> void sort(T[] array,Comparator<? super T> comparator){
+        new ObjectArraySorter<T>(comparator).sort(array, array.clone(), array.length);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 顺序稳定排序一段,会在多个线程里同时调用.
+     *
+     * @param src
+     *            [<code>from</code>, <code>to</code>) 的元素和 <code>dest</code> 相同,可以作为临时空间使用
+     * @param dest
+     *            排序结果写到 <code>dest</code> 的 [<code>from</code>, <code>to</code>)
+     * @param from
+     *            开始下标(包含)
+     * @param to
+     *            结束下标(不包含)
+     */
+    abstract void sortRange(A src,A dest,int from,int to);
+
+    /**
+     * 比较 <code>array</code> 下标 <code>i</code> 和 <code>j</code> 的元素.
+     *
+     * @param array
+     *            the array
+     * @param i
+     *            the i
+     * @param j
+     *            the j
+     * @return the int
+     */
+    abstract int compare(A array,int i,int j);
+
+    /**
+     * <code>dest[destIndex] = src[srcIndex]</code>.
+     *
+     * @param src
+     *            the src
+     * @param srcIndex
+     *            the src index
+     * @param dest
+     *            the dest
+     * @param destIndex
+     *            the dest index
+     */
+    abstract void move(A src,int srcIndex,A dest,int destIndex);
+
+    //*****************************************************************************************
+
+    /**
+     * 在已经排好序的 <code>array</code> [<code>from</code>, <code>to</code>) 里面查找第一个不小于 <code>array[keyIndex]</code> 的下标.
+     *
+     * @param array
+     *            the array
+     * @param from
+     *            the from
+     * @param to
+     *            the to
+     * @param keyIndex
+     *            the key index
+     * @return the int
+     */
+    private int lowerBound(A array,int from,int to,int keyIndex){
+        int low = from;
+        int high = to;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (compare(array, middle, keyIndex) < 0){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 在已经排好序的 <code>array</code> [<code>from</code>, <code>to</code>) 里面查找第一个大于 <code>array[keyIndex]</code> 的下标.
+     *
+     * @param array
+     *            the array
+     * @param from
+     *            the from
+     * @param to
+     *            the to
+     * @param keyIndex
+     *            the key index
+     * @return the int
+     */
+    private int upperBound(A array,int from,int to,int keyIndex){
+        int low = from;
+        int high = to;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (compare(array, middle, keyIndex) <= 0){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 把 <code>src</code> [<code>from</code>, <code>to</code>) 排好序写到 <code>dest</code> 同样的区间;调用前两者在这个区间的内容必须相同.
+     */
+    private final class SortTask extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The src. */
+        private final A           src;
+
+        /** The dest. */
+        private final A           dest;
+
+        /** 开始下标(包含). */
+        private final int         from;
+
+        /** 结束下标(不包含). */
+        private final int         to;
+
+        /** 不再拆分的段的大小. */
+        private final int         segmentSize;
+
+        /**
+         * Instantiates a new sort task.
+         *
+         * @param src
+         *            the src
+         * @param dest
+         *            the dest
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         * @param segmentSize
+         *            the segment size
+         */
+        SortTask(A src, A dest, int from, int to, int segmentSize){
+            this.src = src;
+            this.dest = dest;
+            this.from = from;
+            this.to = to;
+            this.segmentSize = segmentSize;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute(){
+            if (to - from <= segmentSize){
+                sortRange(src, dest, from, to);
+                return;
+            }
+
+            //两半排好序写到 src,再归并到 dest
+            int middle = (from + to) >>> 1;
+            ForkJoinTask.invokeAll(
+                            new SortTask(dest, src, from, middle, segmentSize),
+                            new SortTask(dest, src, middle, to, segmentSize));
+
+            //两半已经有序,直接复制
+            if (compare(src, middle - 1, middle) <= 0){
+                System.arraycopy(src, from, dest, from, to - from);
+                return;
+            }
+            new MergeTask(src, from, middle, middle, to, dest, from, segmentSize).compute();
+        }
+    }
+
+    /**
+     * 把 <code>src</code> 两个相邻的有序区间 [<code>leftFrom</code>, <code>leftTo</code>),[<code>rightFrom</code>, <code>rightTo</code>) 归并到
+     * <code>dest</code> 从 <code>destFrom</code> 开始的位置.
+     */
+    private final class MergeTask extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The src. */
+        private final A           src;
+
+        /** 左边区间开始下标(包含). */
+        private final int         leftFrom;
+
+        /** 左边区间结束下标(不包含). */
+        private final int         leftTo;
+
+        /** 右边区间开始下标(包含). */
+        private final int         rightFrom;
+
+        /** 右边区间结束下标(不包含). */
+        private final int         rightTo;
+
+        /** The dest. */
+        private final A           dest;
+
+        /** 写到 dest 的开始下标. */
+        private final int         destFrom;
+
+        /** 不再拆分的元素个数. */
+        private final int         segmentSize;
+
+        /**
+         * Instantiates a new merge task.
+         *
+         * @param src
+         *            the src
+         * @param leftFrom
+         *            the left from
+         * @param leftTo
+         *            the left to
+         * @param rightFrom
+         *            the right from
+         * @param rightTo
+         *            the right to
+         * @param dest
+         *            the dest
+         * @param destFrom
+         *            the dest from
+         * @param segmentSize
+         *            the segment size
+         */
+        MergeTask(A src, int leftFrom, int leftTo, int rightFrom, int rightTo, A dest, int destFrom, int segmentSize){
+            this.src = src;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.dest = dest;
+            this.destFrom = destFrom;
+            this.segmentSize = segmentSize;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute(){
+            int leftSize = leftTo - leftFrom;
+            int rightSize = rightTo - rightFrom;
+            if (leftSize + rightSize <= segmentSize || 0 == leftSize || 0 == rightSize){
+                merge();
+                return;
+            }
+
+            //从较长的一段中间拆开;比较结果相同的元素,左边的要排在右边的前面
+            int leftSplit;
+            int rightSplit;
+            if (leftSize >= rightSize){
+                leftSplit = (leftFrom + leftTo) >>> 1;
+                rightSplit = lowerBound(src, rightFrom, rightTo, leftSplit);
+            }else{
+                rightSplit = (rightFrom + rightTo) >>> 1;
+                leftSplit = upperBound(src, leftFrom, leftTo, rightSplit);
+            }
+            int destSplit = destFrom + (leftSplit - leftFrom) + (rightSplit - rightFrom);
+            ForkJoinTask.invokeAll(
+                            new MergeTask(src, leftFrom, leftSplit, rightFrom, rightSplit, dest, destFrom, segmentSize),
+                            new MergeTask(src, leftSplit, leftTo, rightSplit, rightTo, dest, destSplit, segmentSize));
+        }
+
+        /**
+         * 顺序归并.
+         */
+        private void merge(){
+            int left = leftFrom;
+            int right = rightFrom;
+            int destIndex = destFrom;
+            while (left < leftTo && right < rightTo){
+                if (compare(src, right, left) < 0){
+                    move(src, right++, dest, destIndex++);
+                }else{
+                    move(src, left++, dest, destIndex++);
+                }
+            }
+            System.arraycopy(src, left, dest, destIndex, leftTo - left);
+            System.arraycopy(src, right, dest, destIndex + leftTo - left, rightTo - right);
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 使用对象比较器排序对象数组.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private static final class ObjectArraySorter<T> extends ParallelMergeSorter<T[]>{
+
+        /** The comparator. */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * Instantiates a new object array sorter.
+         *
+         * @param comparator
+         *            the comparator
+         */
+        ObjectArraySorter(Comparator<? super T> comparator){
+            this.comparator = comparator;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelMergeSorter#sortRange(java.lang.Object, java.lang.Object, int, int)
+         */
+        @Override
+        void sortRange(T[] src,T[] dest,int from,int to){
+            Arrays.sort(dest, from, to, comparator);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelMergeSorter#compare(java.lang.Object, int, int)
+         */
+        @Override
+        int compare(T[] array,int i,int j){
+            return comparator.compare(array[i], array[j]);
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelMergeSorter#move(java.lang.Object, int, java.lang.Object, int)
+         */
+        @Override
+        void move(T[] src,int srcIndex,T[] dest,int destIndex){
+            dest[destIndex] = src[srcIndex];
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveTask;
+
+import com.feilong.core.lang.ForkJoinUtil;
+
+/**
+ * 基于 fork-join 的并行归约,供 <code>groupParallel</code>,<code>groupCountParallel</code>,<code>sumParallel</code> 等方法使用.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>把集合按照下标拆分成若干连续的段,每一段使用 {@link #reduce(List, int, int)} 在各自的线程里归约成部分结果,再使用
+ * {@link #merge(Object, Object)} 两两合并</li>
+ * <li>合并的时候 <code>left</code> 永远是下标在前面的段,所以只要 {@link #merge(Object, Object)} 把 <code>right</code> 追加到 <code>left</code> 后面,
+ * 最终结果的顺序就和顺序执行完全一致(比如 {@link java.util.LinkedHashMap} 的key顺序,以及每个key下面元素的顺序)</li>
+ * <li>如果集合不是 {@link RandomAccess} 的 {@link List},会先复制成 {@link ArrayList},以便按照下标拆分</li>
+ * <li>使用 {@link ForkJoinUtil#getForkJoinPool()} 执行;元素个数小于 {@link #PARALLEL_THRESHOLD} 的时候,调用方应该直接走顺序的实现,参见
+ * {@link #isParallel(Collection)}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <O>
+ *            元素类型
+ * @param <R>
+ *            部分结果以及最终结果的类型
+ * @since 1.9.2
+ */
+abstract class ParallelReducer<O, R> {
+
+    /** 元素个数达到这个值才会并行,再小的集合拆分以及合并的开销会超过并行带来的收益. */
+    static final int         PARALLEL_THRESHOLD = 8192;
+
+    /** 每一段最少的元素个数. */
+    private static final int MIN_SEGMENT_SIZE   = 1024;
+
+    /**
+     * 是否应该走并行的实现.
+     *
+     * @param collection
+     *            the collection
+     * @return 如果元素个数达到 {@link #PARALLEL_THRESHOLD} 并且 pool 的并行度大于1,返回true
+     */
+    static boolean isParallel(Collection<?> collection){
+        return isParallel(collection.size());
+    }
+
+    /**
+     * 处理 <code>size</code> 个元素的时候,是否应该走并行的实现.
+     *
+     * @param size
+     *            元素个数
+     * @return 如果 <code>size</code> 达到 {@link #PARALLEL_THRESHOLD} 并且 pool 的并行度大于1,返回true
+     */
+    static boolean isParallel(int size){
+        return size >= PARALLEL_THRESHOLD && ForkJoinUtil.getForkJoinPool().getParallelism() > 1;
+    }
+
+    /**
+     * 并行归约 <code>collection</code>.
+     *
+     * @param collection
+     *            the collection
+     * @return 归约结果
+     */
+    final R invoke(Collection<O> collection){
+        List<O> list = collection instanceof List && collection instanceof RandomAccess ? (List<O>) collection : new ArrayList<O>(collection);
+        int size = list.size();
+        return ForkJoinUtil.invoke(new ReduceTask(list, 0, size, getSegmentSize(size)));
+    }
+
+    /**
+     * 获得并行处理 <code>size</code> 个元素的时候,每一段的大小.
+     *
+     * @param size
+     *            元素个数
+     * @return 每个工作线程大约分到4段,方便 work-stealing 平衡各段耗时不同的情况;每一段最少 1024 个元素
+     */
+    static int getSegmentSize(int size){
+        return Math.max(MIN_SEGMENT_SIZE, size / (ForkJoinUtil.getForkJoinPool().getParallelism() << 2));
+    }
+
+    /**
+     * 顺序归约 <code>list</code> 下标区间 [<code>fromIndex</code>, <code>toIndex</code>) 的元素,会在多个线程里同时调用.
+     *
+     * @param list
+     *            the list
+     * @param fromIndex
+     *            开始下标(包含)
+     * @param toIndex
+     *            结束下标(不包含)
+     * @return 部分结果
+     */
+    abstract R reduce(List<O> list,int fromIndex,int toIndex);
+
+    /**
+     * 合并两个相邻段的部分结果.
+     *
+     * @param left
+     *            下标在前面的段的结果,可以直接修改并返回
+     * @param right
+     *            紧跟在 <code>left</code> 后面的段的结果
+     * @return 合并后的结果
+     */
+    abstract R merge(R left,R right);
+
+    //*****************************************************************************************
+
+    /**
+     * 按照下标区间拆分的归约任务.
+     */
+    private final class ReduceTask extends RecursiveTask<R>{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The list. */
+        private final List<O>     list;
+
+        /** 开始下标(包含). */
+        private final int         from;
+
+        /** 结束下标(不包含). */
+        private final int         to;
+
+        /** 不再拆分的段的大小. */
+        private final int         segmentSize;
+
+        /**
+         * Instantiates a new reduce task.
+         *
+         * @param list
+         *            the list
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         * @param segmentSize
+         *            the segment size
+         */
+        ReduceTask(List<O> list, int from, int to, int segmentSize){
+            this.list = list;
+            this.from = from;
+            this.to = to;
+            this.segmentSize = segmentSize;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.RecursiveTask#compute()
+         */
+        @Override
+        protected R compute(){
+            if (to - from <= segmentSize){
+                return reduce(list, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ReduceTask leftTask = new ReduceTask(list, from, middle, segmentSize);
+            leftTask.fork();
+            R right = new ReduceTask(list, middle, to, segmentSize).compute();
+            return merge(leftTask.join(), right);
+        }
+    }
+}
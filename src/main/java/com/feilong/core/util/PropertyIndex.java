@@ -0,0 +1,482 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.commons.collections4.ComparatorUtils;
+import org.apache.commons.collections4.functors.ComparatorPredicate.Criterion;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyPath;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * 在集合的某个属性上建立的索引,建立一次之后可以多次查询,不需要每次都线性扫描集合以及反射读取属性值.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>{@link #newHashIndex(Collection, String)} 基于 {@link HashMap},支持相等以及包含查询,相等的判断使用 {@link Object#equals(Object)},和
+ * {@link CollectionsUtil#find(Iterable, String, Object)},{@link CollectionsUtil#select(Collection, String, Collection)} 一致</li>
+ * <li>{@link #newSortedIndex(Collection, String)} 基于 {@link NavigableMap},除了相等以及包含查询,还支持 {@link #select(Object, Criterion)} 以及
+ * {@link #selectRange(Object, boolean, Object, boolean)} 范围查询;相等的判断使用 {@link Comparator}(比较结果是0),比如 <code>new BigDecimal("1.0")</code> 和
+ * <code>new BigDecimal("1.00")</code> 是相等的</li>
+ * <li>查询结果的顺序是元素加入索引的顺序(也就是原来集合的顺序,后面 {@link #add(Object)} 的元素排在后面),和 {@link CollectionsUtil#select(Collection, Predicate)}
+ * 一致,和查询参数的顺序无关</li>
+ * <li>属性值是null的元素也会被索引,可以使用 <code>find(null)</code> 或者 <code>select(null)</code> 查询(和
+ * {@link org.apache.commons.collections4.PredicateUtils#equalPredicate(Object)} 一致);范围查询不包含属性值是null的元素</li>
+ * <li>元素不能是null;元素在索引中的时候,不要修改它的 <code>propertyName</code> 属性值,如果需要修改,先 {@link #remove(Object)},修改之后再 {@link #add(Object)}</li>
+ * <li>不是线程安全的;建立之后如果不再 {@link #add(Object)} 或者 {@link #remove(Object)},可以被多个线程同时查询</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * PropertyIndex{@code <User, Integer>} ageIndex = PropertyIndex.newSortedIndex(userList, "age");
+ * 
+ * User user = ageIndex.find(24);
+ * List{@code <User>} list = ageIndex.select(24, 25);
+ * List{@code <User>} between = ageIndex.selectRange(20, true, 30, false);
+ * List{@code <User>} older = ageIndex.select(30, Criterion.LESS);//和 BeanPredicateUtil.comparatorPredicate("age", 30, Criterion.LESS) 一致
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <O>
+ *            元素类型
+ * @param <V>
+ *            属性值类型
+ * @see CollectionsUtil#find(Iterable, String, Object)
+ * @see CollectionsUtil#select(Collection, String, Collection)
+ * @see com.feilong.core.util.predicate.BeanPredicateUtil#comparatorPredicate(String, Comparable, Comparator, Criterion)
+ * @since 1.9.2
+ */
+public final class PropertyIndex<O, V> {
+
+    /** 按照加入顺序排序. */
+    private static final Comparator<Entry<?>> SEQUENCE_COMPARATOR = new Comparator<Entry<?>>(){
+
+        @Override
+        public int compare(Entry<?> entry1,Entry<?> entry2){
+            return entry1.sequence < entry2.sequence ? -1 : (entry1.sequence == entry2.sequence ? 0 : 1);
+        }
+    };
+
+    /** The property path. */
+    private final PropertyPath              propertyPath;
+
+    /** 属性值不是null的元素,sorted 模式是 {@link NavigableMap}. */
+    private final Map<V, List<Entry<O>>>    map;
+
+    /** 属性值是null的元素. */
+    private final List<Entry<O>>            nullValueEntries = new ArrayList<Entry<O>>();
+
+    /** 下一个加入的元素的顺序. */
+    private long                            nextSequence;
+
+    /** 元素个数. */
+    private int                             size;
+
+    /**
+     * Instantiates a new property index.
+     *
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            the property name
+     * @param map
+     *            the map
+     */
+    private PropertyIndex(Collection<O> objectCollection, String propertyName, Map<V, List<Entry<O>>> map){
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+        this.propertyPath = PropertyPath.compile(propertyName);
+        this.map = map;
+        if (isNullOrEmpty(objectCollection)){
+            return;
+        }
+        for (O obj : objectCollection){
+            add(obj);
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 在 <code>objectCollection</code> 的 <code>propertyName</code> 属性上建立 hash 索引.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <V>
+     *            the value type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回空的索引,之后可以 {@link #add(Object)}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>objectCollection</code> 有元素是null,抛出 {@link NullPointerException}
+     */
+    public static <O, V> PropertyIndex<O, V> newHashIndex(Collection<O> objectCollection,String propertyName){
+        int size = null == objectCollection ? 0 : objectCollection.size();
+        return new PropertyIndex<O, V>(objectCollection, propertyName, MapUtil.<V, List<Entry<O>>> newHashMap(size));
+    }
+
+    /**
+     * 在 <code>objectCollection</code> 的 <code>propertyName</code> 属性上建立使用自然顺序的 sorted 索引.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <V>
+     *            the value type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回空的索引,之后可以 {@link #add(Object)}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>objectCollection</code> 有元素是null,抛出 {@link NullPointerException}
+     * @see ComparatorUtils#naturalComparator()
+     */
+    public static <O, V extends Comparable<? super V>> PropertyIndex<O, V> newSortedIndex(Collection<O> objectCollection,String propertyName){
+        return newSortedIndex(objectCollection, propertyName, ComparatorUtils.<V> naturalComparator());
+    }
+
+    /**
+     * 在 <code>objectCollection</code> 的 <code>propertyName</code> 属性上建立使用 <code>comparator</code> 排序的 sorted 索引.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <V>
+     *            the value type
+     * @param objectCollection
+     *            the object collection
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param comparator
+     *            属性值的比较器
+     * @return 如果 <code>objectCollection</code> 是null或者empty,返回空的索引,之后可以 {@link #add(Object)}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>comparator</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>objectCollection</code> 有元素是null,抛出 {@link NullPointerException}
+     */
+    public static <O, V> PropertyIndex<O, V> newSortedIndex(Collection<O> objectCollection,String propertyName,Comparator<? super V> comparator){
+        Validate.notNull(comparator, "comparator can't be null!");
+        return new PropertyIndex<O, V>(objectCollection, propertyName, new TreeMap<V, List<Entry<O>>>(comparator));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 将 <code>obj</code> 加入索引,排在已有元素的后面.
+     *
+     * @param obj
+     *            the obj
+     * @throws NullPointerException
+     *             如果 <code>obj</code> 是null
+     */
+    public void add(O obj){
+        Validate.notNull(obj, "obj can't be null!");
+        @SuppressWarnings("unchecked")
+        V value = (V) propertyPath.getValue(obj);
+
+        List<Entry<O>> entries = getEntries(value);
+        if (null == entries){
+            entries = new ArrayList<Entry<O>>(1);
+            map.put(value, entries);
+        }
+        entries.add(new Entry<O>(obj, nextSequence++));
+        size++;
+    }
+
+    /**
+     * 从索引中删除第一个 equals <code>obj</code> 的元素.
+     * 
+     * <p>
+     * 使用 <code>obj</code> 当前的 <code>propertyName</code> 属性值定位,所以加入索引之后不要修改这个属性值.
+     * </p>
+     *
+     * @param obj
+     *            the obj
+     * @return 如果索引中有这个元素,返回true
+     * @throws NullPointerException
+     *             如果 <code>obj</code> 是null
+     */
+    public boolean remove(O obj){
+        Validate.notNull(obj, "obj can't be null!");
+        Object value = propertyPath.getValue(obj);
+
+        List<Entry<O>> entries = getEntries(value);
+        if (null == entries){
+            return false;
+        }
+        for (int i = 0, j = entries.size(); i < j; ++i){
+            if (obj.equals(entries.get(i).element)){
+                entries.remove(i);
+                if (entries.isEmpty() && null != value){
+                    map.remove(value);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 索引中元素的个数.
+     *
+     * @return the int
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * 是否有元素的属性值是 <code>propertyValue</code>.
+     *
+     * @param propertyValue
+     *            属性值,可以是null
+     * @return 如果有,返回true
+     */
+    public boolean contains(V propertyValue){
+        List<Entry<O>> entries = getEntries(propertyValue);
+        return null != entries && !entries.isEmpty();
+    }
+
+    /**
+     * 找到第一个属性值是 <code>propertyValue</code> 的元素,和 {@link CollectionsUtil#find(Iterable, String, Object)} 一致.
+     *
+     * @param propertyValue
+     *            属性值,可以是null
+     * @return 如果没有,返回null
+     */
+    public O find(V propertyValue){
+        List<Entry<O>> entries = getEntries(propertyValue);
+        return null == entries || entries.isEmpty() ? null : entries.get(0).element;
+    }
+
+    /**
+     * 查询属性值是 <code>propertyValues</code> 中任意一个的元素,和 {@link CollectionsUtil#select(Collection, String, Object...)} 一致.
+     *
+     * @param propertyValues
+     *            属性值
+     * @return 如果 <code>propertyValues</code> 是null,返回 {@code new ArrayList<O>}<br>
+     *         结果按照元素加入索引的顺序排列
+     */
+    @SafeVarargs
+    public final List<O> select(V...propertyValues){
+        return null == propertyValues ? new ArrayList<O>() : select(toList(propertyValues));
+    }
+
+    /**
+     * 查询属性值在 <code>propertyValueList</code> 中的元素,和 {@link CollectionsUtil#select(Collection, String, Collection)} 一致.
+     *
+     * @param propertyValueList
+     *            属性值
+     * @return 如果 <code>propertyValueList</code> 是null或者empty,返回 {@code new ArrayList<O>}<br>
+     *         结果按照元素加入索引的顺序排列
+     */
+    public List<O> select(Collection<V> propertyValueList){
+        if (isNullOrEmpty(propertyValueList)){
+            return new ArrayList<O>();
+        }
+        //同一个值出现多次(sorted 模式下比较结果是0也算同一个值),只取一次
+        Set<List<Entry<O>>> entriesSet = Collections.newSetFromMap(new IdentityHashMap<List<Entry<O>>, Boolean>());
+        for (V propertyValue : propertyValueList){
+            List<Entry<O>> entries = getEntries(propertyValue);
+            if (null != entries && !entries.isEmpty()){
+                entriesSet.add(entries);
+            }
+        }
+        return toElementList(entriesSet);
+    }
+
+    /**
+     * 拿 <code>valueToCompare</code> 和元素的属性值进行比较(<code>comparator.compare(valueToCompare, propertyValue)</code>),查询符合
+     * <code>criterion</code> 的元素,和 {@link com.feilong.core.util.predicate.BeanPredicateUtil#comparatorPredicate(String, Comparable, Criterion)}
+     * 一致.
+     * 
+     * <p>
+     * 比如 <code>select(20, Criterion.LESS)</code> 查询属性值大于20的元素(<code>20 {@code <} propertyValue</code>).
+     * </p>
+     *
+     * @param valueToCompare
+     *            the value to compare
+     * @param criterion
+     *            the criterion
+     * @return 结果按照元素加入索引的顺序排列,不包含属性值是null的元素
+     * @throws NullPointerException
+     *             如果 <code>valueToCompare</code> 或者 <code>criterion</code> 是null
+     * @throws IllegalStateException
+     *             如果不是 {@link #newSortedIndex(Collection, String)} 建立的索引
+     */
+    public List<O> select(V valueToCompare,Criterion criterion){
+        Validate.notNull(valueToCompare, "valueToCompare can't be null!");
+        Validate.notNull(criterion, "criterion can't be null!");
+        NavigableMap<V, List<Entry<O>>> navigableMap = getNavigableMap();
+
+        switch (criterion) {
+            case EQUAL:
+                return select(Collections.singletonList(valueToCompare));
+            case GREATER:
+                return toElementList(navigableMap.headMap(valueToCompare, false).values());
+            case GREATER_OR_EQUAL:
+                return toElementList(navigableMap.headMap(valueToCompare, true).values());
+            case LESS:
+                return toElementList(navigableMap.tailMap(valueToCompare, false).values());
+            case LESS_OR_EQUAL:
+                return toElementList(navigableMap.tailMap(valueToCompare, true).values());
+            default:
+                throw new IllegalArgumentException("The current criterion '" + criterion + "' is invalid.");
+        }
+    }
+
+    /**
+     * 查询属性值在 <code>fromValue</code> 和 <code>toValue</code> 之间的元素.
+     *
+     * @param fromValue
+     *            开始值
+     * @param fromInclusive
+     *            是否包含 <code>fromValue</code>
+     * @param toValue
+     *            结束值
+     * @param toInclusive
+     *            是否包含 <code>toValue</code>
+     * @return 结果按照元素加入索引的顺序排列,不包含属性值是null的元素
+     * @throws NullPointerException
+     *             如果 <code>fromValue</code> 或者 <code>toValue</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>fromValue</code> 大于 <code>toValue</code>
+     * @throws IllegalStateException
+     *             如果不是 {@link #newSortedIndex(Collection, String)} 建立的索引
+     */
+    public List<O> selectRange(V fromValue,boolean fromInclusive,V toValue,boolean toInclusive){
+        Validate.notNull(fromValue, "fromValue can't be null!");
+        Validate.notNull(toValue, "toValue can't be null!");
+        return toElementList(getNavigableMap().subMap(fromValue, fromInclusive, toValue, toInclusive).values());
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 获得属性值是 <code>propertyValue</code> 的元素.
+     *
+     * @param propertyValue
+     *            the property value
+     * @return 如果没有,返回null
+     */
+    private List<Entry<O>> getEntries(Object propertyValue){
+        return null == propertyValue ? nullValueEntries : map.get(propertyValue);
+    }
+
+    /**
+     * Gets the navigable map.
+     *
+     * @return the navigable map
+     * @throws IllegalStateException
+     *             如果不是 sorted 索引
+     */
+    private NavigableMap<V, List<Entry<O>>> getNavigableMap(){
+        Validate.validState(map instanceof NavigableMap, "range query need sorted index,please use PropertyIndex.newSortedIndex");
+        return (NavigableMap<V, List<Entry<O>>>) map;
+    }
+
+    /**
+     * 把多个属性值对应的元素合并成一个list,按照加入索引的顺序排列.
+     *
+     * @param entriesCollection
+     *            每个属性值对应的元素,每一个都是按照加入索引的顺序排列的
+     * @return the list
+     */
+    private List<O> toElementList(Collection<List<Entry<O>>> entriesCollection){
+        if (entriesCollection.isEmpty()){
+            return new ArrayList<O>();
+        }
+        List<Entry<O>> entryList;
+        if (1 == entriesCollection.size()){
+            entryList = entriesCollection.iterator().next();
+        }else{
+            entryList = new ArrayList<Entry<O>>();
+            for (List<Entry<O>> entries : entriesCollection){
+                entryList.addAll(entries);
+            }
+            Collections.sort(entryList, SEQUENCE_COMPARATOR);
+        }
+
+        List<O> list = new ArrayList<O>(entryList.size());
+        for (Entry<O> entry : entryList){
+            list.add(entry.element);
+        }
+        return list;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 索引中的元素以及加入的顺序.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class Entry<O> {
+
+        /** The element. */
+        private final O    element;
+
+        /** 加入索引的顺序. */
+        private final long sequence;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param element
+         *            the element
+         * @param sequence
+         *            the sequence
+         */
+        Entry(O element, long sequence){
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,512 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static java.util.Collections.emptyIterator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyPath;
+import com.feilong.core.util.predicate.BeanPredicateUtil;
+
+/**
+ * 延迟执行的链式查询,把过滤,投影,分组等多个步骤合并成一次遍历.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>依次调用 {@link CollectionsUtil#select(java.util.Collection, Predicate)},{@link CollectionsUtil#collect(Iterable, Transformer)},
+ * {@link CollectionsUtil#group(java.util.Collection, String)},每一步都会创建一个完整的中间 {@link ArrayList};使用这个类,
+ * {@link #where(Predicate)},{@link #select(String)} 等中间步骤只是记录下来,调用 {@link #toList()},{@link #groupBy(String)} 等终止操作的时候,
+ * 每个元素依次经过所有的步骤,只遍历一遍,没有中间集合</li>
+ * <li>这里的 <code>where</code> 是过滤(相当于 {@link CollectionsUtil#select(java.util.Collection, Predicate)}),<code>select</code> 是投影(相当于
+ * {@link CollectionsUtil#collect(Iterable, Transformer)}),和 sql 一样</li>
+ * <li>属性值通过预先解析好的 {@link PropertyPath} 读取,会使用缓存的属性访问器</li>
+ * <li>{@link Query} 对象是不可变的,每个中间步骤都返回新的 {@link Query},可以在同一个 {@link Query} 上继续不同的查询;如果数据来源是 {@link Iterator},
+ * 只能执行一次终止操作</li>
+ * <li>终止操作返回的结果和对应的 {@link CollectionsUtil},{@link AggregateUtil} 方法一致(顺序,null 的处理)</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * Map{@code <String, List<User>>} map = Query.from(userList)//
+ *                 .where(BeanPredicateUtil.{@code <User, Integer>} comparatorPredicate("age", 30, Criterion.LESS))
+ *                 .groupBy("name");
+ * 
+ * List{@code <String>} names = Query.from(userList).where("age", 24).{@code <String>} select("name").toList();
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <T>
+ *            当前步骤输出的元素类型
+ * @since 1.9.2
+ */
+public final class Query<T> {
+
+    /** 没有步骤. */
+    private static final Stage[] EMPTY_STAGES = {};
+
+    /** 数据来源,{@link Iterable} 或者 {@link Iterator}. */
+    private final Object         source;
+
+    /** 依次执行的步骤. */
+    private final Stage[]        stages;
+
+    /**
+     * Instantiates a new query.
+     *
+     * @param source
+     *            the source
+     * @param stages
+     *            the stages
+     */
+    private Query(Object source, Stage[] stages){
+        this.source = source;
+        this.stages = stages;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 从 <code>iterable</code> 开始查询.
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterable
+     *            the iterable
+     * @return 如果 <code>iterable</code> 是null,当做没有元素
+     */
+    public static <T> Query<T> from(Iterable<T> iterable){
+        return new Query<T>(iterable, EMPTY_STAGES);
+    }
+
+    /**
+     * 从 <code>iterator</code> 开始查询,只能执行一次终止操作.
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @return 如果 <code>iterator</code> 是null,当做没有元素
+     */
+    public static <T> Query<T> from(Iterator<T> iterator){
+        return new Query<T>(iterator, EMPTY_STAGES);
+    }
+
+    //*******************************中间步骤**********************************************************
+
+    /**
+     * 只保留符合 <code>predicate</code> 的元素.
+     *
+     * @param predicate
+     *            the predicate
+     * @return 新的 {@link Query}
+     * @throws NullPointerException
+     *             如果 <code>predicate</code> 是null
+     */
+    public Query<T> where(final Predicate<? super T> predicate){
+        Validate.notNull(predicate, "predicate can't be null!");
+        return then(new Stage(){
+
+            @SuppressWarnings("unchecked")
+            @Override
+            Object apply(Object obj){
+                return ((Predicate<Object>) predicate).evaluate(obj) ? obj : SKIP;
+            }
+        });
+    }
+
+    /**
+     * 只保留 <code>propertyName</code> 属性值 equals <code>propertyValue</code> 的元素,和
+     * {@link BeanPredicateUtil#equalPredicate(String, Object)} 一致.
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyName
+     *            泛型T对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param propertyValue
+     *            属性值,可以是null
+     * @return 新的 {@link Query}
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public <V> Query<T> where(String propertyName,V propertyValue){
+        return where(BeanPredicateUtil.<T, V> equalPredicate(propertyName, propertyValue));
+    }
+
+    /**
+     * 把每个元素转成 <code>propertyName</code> 的属性值(投影),相当于 {@link CollectionsUtil#getPropertyValueList(java.util.Collection, String)}.
+     *
+     * @param <R>
+     *            属性值类型
+     * @param propertyName
+     *            泛型T对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 新的 {@link Query}
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public <R> Query<R> select(String propertyName){
+        final PropertyPath propertyPath = compile(propertyName);
+        return then(new Stage(){
+
+            @Override
+            Object apply(Object obj){
+                return propertyPath.getValue(obj);
+            }
+        });
+    }
+
+    /**
+     * 使用 <code>transformer</code> 转换每个元素(投影),相当于 {@link CollectionsUtil#collect(Iterable, Transformer)}.
+     *
+     * @param <R>
+     *            转换之后的类型
+     * @param transformer
+     *            the transformer
+     * @return 新的 {@link Query}
+     * @throws NullPointerException
+     *             如果 <code>transformer</code> 是null
+     */
+    public <R> Query<R> select(final Transformer<? super T, ? extends R> transformer){
+        Validate.notNull(transformer, "transformer can't be null!");
+        return then(new Stage(){
+
+            @SuppressWarnings("unchecked")
+            @Override
+            Object apply(Object obj){
+                return ((Transformer<Object, Object>) transformer).transform(obj);
+            }
+        });
+    }
+
+    //*******************************终止操作**********************************************************
+
+    /**
+     * 执行查询,返回所有的元素.
+     *
+     * @return 按照数据来源顺序排列的 {@link ArrayList},如果没有元素,返回 empty {@link ArrayList}
+     */
+    public List<T> toList(){
+        final List<T> list = new ArrayList<T>();
+        execute(new Sink<T>(){
+
+            @Override
+            boolean accept(T obj){
+                list.add(obj);
+                return true;
+            }
+        });
+        return list;
+    }
+
+    /**
+     * 执行查询,返回第一个元素,找到之后不再遍历后面的元素,相当于 {@link CollectionsUtil#find(Iterable, Predicate)}.
+     *
+     * @return 如果没有元素,返回null
+     */
+    public T first(){
+        final List<T> list = new ArrayList<T>(1);
+        execute(new Sink<T>(){
+
+            @Override
+            boolean accept(T obj){
+                list.add(obj);
+                return false;
+            }
+        });
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * 执行查询,返回元素的个数.
+     *
+     * @return the int
+     */
+    public int count(){
+        final int[] count = { 0 };
+        execute(new Sink<T>(){
+
+            @Override
+            boolean accept(T obj){
+                count[0]++;
+                return true;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * 执行查询,以元素的 <code>propertyName</code> 属性值为key分组,相当于 {@link CollectionsUtil#group(java.util.Collection, String)}.
+     *
+     * @param <K>
+     *            the key type
+     * @param propertyName
+     *            泛型T对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 按照key第一次出现的顺序排列的 {@link LinkedHashMap},如果没有元素,返回 empty {@link LinkedHashMap}
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public <K> Map<K, List<T>> groupBy(String propertyName){
+        return groupBy(new PropertyTransformer<T, K>(compile(propertyName)));
+    }
+
+    /**
+     * 执行查询,使用 <code>keyTransformer</code> 转换的key分组,相当于 {@link CollectionsUtil#group(java.util.Collection, Transformer)}.
+     *
+     * @param <K>
+     *            the key type
+     * @param keyTransformer
+     *            the key transformer
+     * @return 按照key第一次出现的顺序排列的 {@link LinkedHashMap},如果没有元素,返回 empty {@link LinkedHashMap}
+     * @throws NullPointerException
+     *             如果 <code>keyTransformer</code> 是null
+     */
+    public <K> Map<K, List<T>> groupBy(final Transformer<? super T, K> keyTransformer){
+        Validate.notNull(keyTransformer, "keyTransformer can't be null!");
+
+        final Map<K, List<T>> map = new LinkedHashMap<K, List<T>>();
+        execute(new Sink<T>(){
+
+            @Override
+            boolean accept(T obj){
+                MapUtil.putMultiValue(map, keyTransformer.transform(obj), obj);
+                return true;
+            }
+        });
+        return map;
+    }
+
+    /**
+     * 执行查询,统计元素的 <code>propertyName</code> 属性值出现的次数,相当于 {@link AggregateUtil#groupCount(java.util.Collection, String)}.
+     *
+     * @param <K>
+     *            the key type
+     * @param propertyName
+     *            泛型T对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 按照key第一次出现的顺序排列的 {@link LinkedHashMap},如果没有元素,返回 empty {@link LinkedHashMap}
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public <K> Map<K, Integer> groupCount(String propertyName){
+        final PropertyTransformer<T, K> keyTransformer = new PropertyTransformer<T, K>(compile(propertyName));
+
+        final CounterMap<K> counterMap = new CounterMap<K>();
+        execute(new Sink<T>(){
+
+            @Override
+            boolean accept(T obj){
+                counterMap.increment(keyTransformer.transform(obj));
+                return true;
+            }
+        });
+        return counterMap.toMap();
+    }
+
+    /**
+     * 执行查询,计算元素的 <code>propertyName</code> 属性值的总和,相当于 {@link AggregateUtil#sum(java.util.Collection, String)}.
+     *
+     * @param propertyName
+     *            泛型T对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果没有元素,返回null<br>
+     *         如果某个元素的属性值是null,使用0代替
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     */
+    public BigDecimal sum(String propertyName){
+        final PropertyPath propertyPath = compile(propertyName);
+
+        final NumberAccumulator numberAccumulator = new NumberAccumulator();
+        final boolean[] hasElement = { false };
+        execute(new Sink<T>(){
+
+            @Override
+            boolean accept(T obj){
+                hasElement[0] = true;
+                numberAccumulator.add((Number) propertyPath.getValue(obj));
+                return true;
+            }
+        });
+        return hasElement[0] ? numberAccumulator.getSum() : null;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 在当前的步骤后面追加 <code>stage</code>.
+     *
+     * @param <R>
+     *            the generic type
+     * @param stage
+     *            the stage
+     * @return 新的 {@link Query}
+     */
+    private <R> Query<R> then(Stage stage){
+        Stage[] newStages = Arrays.copyOf(stages, stages.length + 1);
+        newStages[stages.length] = stage;
+        return new Query<R>(source, newStages);
+    }
+
+    /**
+     * 遍历数据来源,每个元素依次经过所有的步骤,没有被过滤掉的交给 <code>sink</code>.
+     *
+     * @param sink
+     *            the sink
+     */
+    @SuppressWarnings("unchecked")
+    private void execute(Sink<T> sink){
+        Iterator<?> iterator = getIterator();
+        while (iterator.hasNext()){
+            Object current = iterator.next();
+            for (Stage stage : stages){
+                current = stage.apply(current);
+                if (Stage.SKIP == current){
+                    break;
+                }
+            }
+            if (Stage.SKIP != current && !sink.accept((T) current)){
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the iterator.
+     *
+     * @return the iterator
+     */
+    private Iterator<?> getIterator(){
+        if (null == source){
+            return emptyIterator();
+        }
+        return source instanceof Iterable ? ((Iterable<?>) source).iterator() : (Iterator<?>) source;
+    }
+
+    /**
+     * Compile.
+     *
+     * @param propertyName
+     *            the property name
+     * @return the property path
+     */
+    private static PropertyPath compile(String propertyName){
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+        return PropertyPath.compile(propertyName);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 一个步骤.
+     */
+    private abstract static class Stage{
+
+        /** 表示元素被过滤掉. */
+        static final Object SKIP = new Object();
+
+        /**
+         * 处理一个元素.
+         *
+         * @param obj
+         *            the obj
+         * @return 处理之后的元素,如果被过滤掉,返回 {@link #SKIP}
+         */
+        abstract Object apply(Object obj);
+    }
+
+    /**
+     * 终止操作接收元素.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private abstract static class Sink<T> {
+
+        /**
+         * 接收一个元素.
+         *
+         * @param obj
+         *            the obj
+         * @return 如果不再需要后面的元素,返回false
+         */
+        abstract boolean accept(T obj);
+    }
+
+    /**
+     * 读取属性值的 {@link Transformer}.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <K>
+     *            the key type
+     */
+    private static final class PropertyTransformer<T, K> implements Transformer<T, K>{
+
+        /** The property path. */
+        private final PropertyPath propertyPath;
+
+        /**
+         * Instantiates a new property transformer.
+         *
+         * @param propertyPath
+         *            the property path
+         */
+        PropertyTransformer(PropertyPath propertyPath){
+            this.propertyPath = propertyPath;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see org.apache.commons.collections4.Transformer#transform(java.lang.Object)
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        public K transform(T input){
+            return (K) propertyPath.getValue(input);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 
 import org.apache.commons.collections4.ComparatorUtils;
@@ -161,6 +162,7 @@ public final class SortUtil{
      * @return 如果 <code>array</code> 是null,返回 empty array<br>
      *         如果 <code>comparators</code> 是null或者empty,直接返回 <code>arrays</code><br>
      * @see java.util.Arrays#sort(Object[], Comparator)
+     * @see #sortArrayParallel(Object[], Comparator...)
      * @since 1.8.2 change to varargs parameter comparator
      * @since 1.8.7 change method name
      */
@@ -295,6 +297,8 @@ public final class SortUtil{
      *         如果 <code>comparators length ==1</code>,取 comparators[0]做排序; <br>
      *         如果 {@code comparators length > 1},转成 {@link ComparatorUtils#chainedComparator(Comparator...)}排序;
      * @see java.util.Collections#sort(List, Comparator)
+     * @see #sortListParallel(List, Comparator...)
+     * @see ExternalSorter
      * @since 1.8.2
      * @since 1.8.7 change method name
      */
@@ -381,6 +385,7 @@ public final class SortUtil{
      * @see BeanComparatorUtil#chainedComparator(String...)
      * @see org.apache.commons.collections4.ComparatorUtils#chainedComparator(java.util.Comparator...)
      * @see #sortList(List, Comparator...)
+     * @see #sortListByExtractedKeys(List, String...)
      * 
      * @since 1.8.7 change name
      */
@@ -397,6 +402,437 @@ public final class SortUtil{
                                         : BeanComparatorUtil.<O> chainedComparator(propertyNames));
     }
 
+    /**
+     * 对集合 <code>list</code>,按照指定属性的值(组合)进行排序,每个元素的每个属性只读取一次.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>{@link #sortListByPropertyNamesValue(List, String...)} 每次比较都要通过反射读取两个元素的属性值,一共读取 O(n log n) 次;
+     * 这个方法先把每个元素的属性值读取出来(decorate),再对下标排序(sort),最后按照排好的下标重新排列 <code>list</code>(undecorate),属性一共只读取 n 次,
+     * 适合元素较多或者属性读取比较慢(比如嵌套属性)的场景</li>
+     * <li>如果属性值都是同一种整数或者浮点数类型,会使用基本类型数组保存和比较</li>
+     * <li>排序是稳定的,所有属性值都相同的元素保持原来的顺序</li>
+     * <li>属性值是null 排在最前面,<code>list</code> 中的null 元素排在最后面</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * List{@code <User>} list = new ArrayList{@code <>}();
+     * list.add(new User(12L, 18));
+     * list.add(new User(2L, 36));
+     * list.add(new User(2L, 2));
+     * list.add(new User(2L, 30));
+     * list.add(new User(1L, 8));
+     * 
+     * SortUtil.sortListByExtractedKeys(list, "id", "age");
+     * 
+     * LOGGER.debug(JsonUtil.formatWithIncludes(list, "id", "age"));
+     * </pre>
+     * 
+     * <b>返回:</b>
+     * 
+     * <pre class="code">
+     * [
+     *  {"id": 1,"age": 8},
+     *  {"id": 2,"age": 2},
+     *  {"id": 2,"age": 30},
+     *  {"id": 2,"age": 36},
+     *  {"id": 12,"age": 18}
+     * ]
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty ,或者有 null元素
+     * @see #sortListByPropertyNamesValue(List, String...)
+     * @see #sortListByExtractedKeys(List, PropertyComparator...)
+     * @since 1.9.2
+     */
+    public static <O> List<O> sortListByExtractedKeys(List<O> list,String...propertyNames){
+        if (null == list){
+            return emptyList();
+        }
+        KeyExtractingSorter.sort(list, SortUtil.<O> toPropertyComparators(propertyNames), false);
+        return list;
+    }
+
+    /**
+     * 对集合 <code>list</code>,依次按照 <code>propertyComparators</code> 的属性值进行排序,每个元素的每个属性只读取一次.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>属性值的读取,类型转换以及比较规则和 {@link PropertyComparator} 一致,但是不使用 {@link PropertyComparator#compare(Object, Object)}
+     * 里面"属性值相等时比较 hashCode"的规则,而是保持原来的顺序(稳定排序)</li>
+     * <li>其余参见 {@link #sortListByExtractedKeys(List, String...)}</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * SortUtil.sortListByExtractedKeys(list, new PropertyComparator{@code <User>}("name", Integer.class), new PropertyComparator{@code <User>}("id"));
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyComparators
+     *            提供属性名称,属性值转换类型以及属性值比较器
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @throws NullPointerException
+     *             如果 <code>propertyComparators</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyComparators</code> 是empty ,或者有 null元素
+     * @see PropertyComparator#getPropertyValue(Object)
+     * @since 1.9.2
+     */
+    @SafeVarargs
+    public static <O> List<O> sortListByExtractedKeys(List<O> list,PropertyComparator<O>...propertyComparators){
+        if (null == list){
+            return emptyList();
+        }
+        Validate.notEmpty(propertyComparators, "propertyComparators can't be null/empty!");
+        Validate.noNullElements(propertyComparators, "propertyComparators can't has null element!");
+
+        KeyExtractingSorter.sort(list, propertyComparators, false);
+        return list;
+    }
+
+    /**
+     * 将 <code>propertyNames</code> 转成 {@link PropertyComparator} 数组.
+     *
+     * @param <O>
+     *            the generic type
+     * @param propertyNames
+     *            the property names
+     * @return the property comparator[]
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty ,或者有 null元素
+     * @since 1.9.2
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <O> PropertyComparator<O>[] toPropertyComparators(String...propertyNames){
+        Validate.notEmpty(propertyNames, "propertyNames can't be null/empty!");
+        Validate.noNullElements(propertyNames, "propertyNames can't has null element!");
+
+        PropertyComparator<O>[] propertyComparators = new PropertyComparator[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; ++i){
+            propertyComparators[i] = new PropertyComparator<O>(propertyNames[i]);
+        }
+        return propertyComparators;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 对 数组 <code>arrays</code> 使用 <code>comparators</code> 并行排序.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>元素个数达到并行阈值(8192)并且 cpu 多于1个的时候,在共享的 {@link java.util.concurrent.ForkJoinPool ForkJoinPool}
+     * 里面分段排序再并行归并;否则等同于 {@link #sortArray(Object[], Comparator...)}</li>
+     * <li>排序是稳定的,结果和 {@link #sortArray(Object[], Comparator...)} 完全一致</li>
+     * <li><code>comparators</code> 会在多个线程里同时调用,必须是线程安全的(比如 {@link PropertyComparator})</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param arrays
+     *            the arrays
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>array</code> 是null,返回 empty array<br>
+     *         如果 <code>comparators</code> 是null或者empty,直接返回 <code>arrays</code><br>
+     * @see #sortArray(Object[], Comparator...)
+     * @since 1.9.2
+     */
+    @SafeVarargs
+    public static <T> T[] sortArrayParallel(T[] arrays,Comparator<T>...comparators){
+        if (null == arrays || isNullOrEmpty(comparators) || !ParallelReducer.isParallel(arrays.length)){
+            return sortArray(arrays, comparators);
+        }
+        ParallelMergeSorter.sort(arrays, toComparator(comparators));
+        return arrays;
+    }
+
+    /**
+     * 对集合 <code>list</code> 使用 <code>comparators</code> 并行排序.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>和 {@link java.util.Collections#sort(List, Comparator) Collections.sort} 一样,先转成数组排序,再按顺序写回 <code>list</code></li>
+     * <li>其余参见 {@link #sortArrayParallel(Object[], Comparator...)},结果和 {@link #sortList(List, Comparator...)} 完全一致</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>comparators</code> 是null或者empty,直接返回 <code>list</code><br>
+     * @see #sortList(List, Comparator...)
+     * @since 1.9.2
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <O> List<O> sortListParallel(List<O> list,Comparator<O>...comparators){
+        if (null == list || isNullOrEmpty(comparators) || !ParallelReducer.isParallel(list)){
+            return sortList(list, comparators);
+        }
+
+        O[] array = (O[]) list.toArray();
+        ParallelMergeSorter.sort(array, toComparator(comparators));
+
+        ListIterator<O> listIterator = list.listIterator();
+        for (O o : array){
+            listIterator.next();
+            listIterator.set(o);
+        }
+        return list;
+    }
+
+    /**
+     * 对集合 <code>list</code>,按照指定属性的值(组合)并行排序,每个元素的每个属性只读取一次.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>元素个数达到并行阈值(8192)并且 cpu 多于1个的时候,属性值的读取以及排序都是并行的;否则等同于 {@link #sortListByExtractedKeys(List, String...)}</li>
+     * <li>属性值是同一种整数或者浮点数类型的时候,使用基本类型数组保存和比较</li>
+     * <li>排序是稳定的,结果和 {@link #sortListByExtractedKeys(List, String...)} 完全一致</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyNames</code> 是empty ,或者有 null元素
+     * @see #sortListByExtractedKeys(List, String...)
+     * @since 1.9.2
+     */
+    public static <O> List<O> sortListByExtractedKeysParallel(List<O> list,String...propertyNames){
+        if (null == list){
+            return emptyList();
+        }
+        KeyExtractingSorter.sort(list, SortUtil.<O> toPropertyComparators(propertyNames), true);
+        return list;
+    }
+
+    /**
+     * 对集合 <code>list</code>,依次按照 <code>propertyComparators</code> 的属性值并行排序,每个元素的每个属性只读取一次.
+     * 
+     * <p>
+     * 参见 {@link #sortListByExtractedKeysParallel(List, String...)} 以及 {@link #sortListByExtractedKeys(List, PropertyComparator...)};
+     * <code>propertyComparators</code> 里面的属性值比较器会在多个线程里同时调用,必须是线程安全的.
+     * </p>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyComparators
+     *            提供属性名称,属性值转换类型以及属性值比较器
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @throws NullPointerException
+     *             如果 <code>propertyComparators</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyComparators</code> 是empty ,或者有 null元素
+     * @see #sortListByExtractedKeys(List, PropertyComparator...)
+     * @since 1.9.2
+     */
+    @SafeVarargs
+    public static <O> List<O> sortListByExtractedKeysParallel(List<O> list,PropertyComparator<O>...propertyComparators){
+        if (null == list){
+            return emptyList();
+        }
+        Validate.notEmpty(propertyComparators, "propertyComparators can't be null/empty!");
+        Validate.noNullElements(propertyComparators, "propertyComparators can't has null element!");
+
+        KeyExtractingSorter.sort(list, propertyComparators, true);
+        return list;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 按照 <code>comparators</code> 选出 <code>iterable</code> 中排在最前面的 <code>k</code> 个元素,并按顺序返回(不会修改 <code>iterable</code>).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 <code>sortList(list, comparators).subList(0, k)</code> 一致,但是不需要对整个集合排序:
+     * 遍历一次,维护一个容量是 k 的堆,时间复杂度 O(n log k),额外空间 O(k),适合从很大的集合里面取前几十个元素的场景</li>
+     * <li>如果 k 大于等于集合大小的一半,直接复制一份进行排序再截取</li>
+     * <li>比较结果相同的元素,先出现的排在前面</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <p>
+     * <b>场景:</b> 取出 id 最小的 2 个 user
+     * </p>
+     * 
+     * <pre class="code">
+     * List{@code <User>} list = new ArrayList{@code <>}();
+     * list.add(new User(12L, 18));
+     * list.add(new User(2L, 36));
+     * list.add(new User(5L, 22));
+     * list.add(new User(1L, 8));
+     * 
+     * List{@code <User>} topList = SortUtil.topK(list, 2, new PropertyComparator{@code <User>}("id"));
+     * LOGGER.debug(JsonUtil.formatWithIncludes(topList, "id", "age"));
+     * </pre>
+     * 
+     * <b>返回:</b>
+     * 
+     * <pre class="code">
+     * [{"id": 1,"age": 8},{"id": 2,"age": 36}]
+     * </pre>
+     * 
+     * <p>
+     * 如果需要取最大的 k 个,使用 {@link ReverseComparator} 包装比较器.
+     * </p>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterable
+     *            the iterable
+     * @param k
+     *            需要的元素个数
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>iterable</code> 是null,或者 <code>k</code> 是0,返回 {@link Collections#emptyList()}<br>
+     *         否则返回新的 list,元素个数是 <code>k</code> 和 <code>iterable</code> 元素个数中较小的那个
+     * @throws NullPointerException
+     *             如果 <code>comparators</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>k</code> {@code <} 0,或者 <code>comparators</code> 是empty,或者有null 元素
+     * @see #sortList(List, Comparator...)
+     * @since 1.9.2
+     */
+    @SafeVarargs
+    public static <O> List<O> topK(Iterable<O> iterable,int k,Comparator<O>...comparators){
+        Validate.isTrue(k >= 0, "k:[%s] can't < 0", k);
+        Validate.notEmpty(comparators, "comparators can't be null/empty!");
+        Validate.noNullElements(comparators, "comparators can't has null element!");
+
+        if (null == iterable || 0 == k){
+            return emptyList();
+        }
+        return TopKSelector.select(iterable, k, toComparator(comparators));
+    }
+
+    /**
+     * 按照指定属性的值(组合)选出 <code>iterable</code> 中排在最前面的 <code>k</code> 个元素,并按顺序返回(不会修改 <code>iterable</code>).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>排序规则和 {@link #sortListByPropertyNamesValue(List, String...)} 一致</li>
+     * <li>其余参见 {@link #topK(Iterable, int, Comparator...)}</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <p>
+     * <b>场景:</b> 先按照 age 再按照 id 排序,取出前 2 个 user
+     * </p>
+     * 
+     * <pre class="code">
+     * List{@code <User>} list = new ArrayList{@code <>}();
+     * list.add(new User(12L, 18));
+     * list.add(new User(2L, 36));
+     * list.add(new User(2L, 8));
+     * list.add(new User(1L, 8));
+     * 
+     * List{@code <User>} topList = SortUtil.topKByPropertyNamesValue(list, 2, "age", "id");
+     * LOGGER.debug(JsonUtil.formatWithIncludes(topList, "id", "age"));
+     * </pre>
+     * 
+     * <b>返回:</b>
+     * 
+     * <pre class="code">
+     * [{"id": 1,"age": 8},{"id": 2,"age": 8}]
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterable
+     *            the iterable
+     * @param k
+     *            需要的元素个数
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>iterable</code> 是null,或者 <code>k</code> 是0,返回 {@link Collections#emptyList()}<br>
+     *         否则返回新的 list,元素个数是 <code>k</code> 和 <code>iterable</code> 元素个数中较小的那个
+     * @throws NullPointerException
+     *             如果 <code>propertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>k</code> {@code <} 0,或者 <code>propertyNames</code> 是empty ,或者有 null元素
+     * @see #topK(Iterable, int, Comparator...)
+     * @see #sortListByPropertyNamesValue(List, String...)
+     * @since 1.9.2
+     */
+    public static <O> List<O> topKByPropertyNamesValue(Iterable<O> iterable,int k,String...propertyNames){
+        Validate.notEmpty(propertyNames, "propertyNames can't be null/empty!");
+        Validate.noNullElements(propertyNames, "propertyNames can't has null element!");
+
+        return topK(
+                        iterable,
+                        k,
+                        1 == propertyNames.length ? BeanComparatorUtil.<O> propertyComparator(propertyNames[0])
+                                        : BeanComparatorUtil.<O> chainedComparator(propertyNames));
+    }
+
     //*************************************************************************************************
 
     /**
@@ -687,6 +1123,7 @@ public final class SortUtil{
      *            the map
      * @return 如果 <code>map</code> 是null,返回 {@link Collections#emptyMap()}<br>
      * @see #sortMap(Map, Comparator)
+     * @see #topKMapByValueAsc(Map, int)
      * @since 1.8.0 move from MapUtil
      * @since 1.8.7 change name from sortByValueAsc
      */
@@ -740,6 +1177,7 @@ public final class SortUtil{
      *            the map
      * @return 如果 <code>map</code> 是null,返回 {@link Collections#emptyMap()}<br>
      * @see #sortMap(Map, Comparator)
+     * @see #topKMapByValueDesc(Map, int)
      * @since 1.8.0 move from MapUtil
      * @since 1.8.7 change method name from sortByValueDesc
      */
@@ -822,6 +1260,8 @@ public final class SortUtil{
      * @return 如果 <code>map</code> 是null,返回 {@link Collections#emptyMap()}<br>
      *         如果 <code>mapEntryComparator</code> 是null,抛出 {@link NullPointerException}<br>
      * @see java.util.Collections#sort(List, Comparator)
+     * @see #topKMap(Map, int, Comparator)
+     * @see #sortMapEntries(Map, Comparator)
      * @since 1.8.0 move from MapUtil
      * @since 1.8.7 change method name from sort
      */
@@ -835,4 +1275,281 @@ public final class SortUtil{
         return toMap(sortList(mapEntryList, mapEntryComparator));
     }
 
+    //*******************************map top k / 排序视图****************************************************
+
+    /**
+     * 选出 <code>map</code> 中 value 最小的 <code>k</code> 个 entry,按照 value 升序返回(原 <code>map</code> 的顺序不变).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #sortMapByValueAsc(Map)} 的前 <code>k</code> 个 entry 一致,但是不需要对整个 map 排序以及重建整个 {@link java.util.LinkedHashMap},
+     * 参见 {@link #topKMap(Map, int, Comparator)}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @param k
+     *            需要的 entry 个数
+     * @return 如果 <code>map</code> 是null,或者 <code>k</code> 是0,返回 {@link Collections#emptyMap()}<br>
+     * @throws IllegalArgumentException
+     *             如果 <code>k</code> {@code <} 0
+     * @see #sortMapByValueAsc(Map)
+     * @since 1.9.2
+     */
+    public static <K, V extends Comparable<V>> Map<K, V> topKMapByValueAsc(Map<K, V> map,int k){
+        return topKMap(map, k, new PropertyComparator<Map.Entry<K, V>>("value"));
+    }
+
+    /**
+     * 选出 <code>map</code> 中 value 最大的 <code>k</code> 个 entry,按照 value 倒序返回(原 <code>map</code> 的顺序不变).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #sortMapByValueDesc(Map)} 的前 <code>k</code> 个 entry 一致,但是不需要对整个 map 排序以及重建整个 {@link java.util.LinkedHashMap},
+     * 参见 {@link #topKMap(Map, int, Comparator)}</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <p>
+     * <b>场景:</b> 从单词出现次数的 map 里面取出出现次数最多的 2 个
+     * </p>
+     * 
+     * <pre class="code">
+     * Map{@code <String, Integer>} map = new LinkedHashMap{@code <>}();
+     * 
+     * map.put("a", 123);
+     * map.put("c", 345);
+     * map.put("b", 8);
+     * 
+     * LOGGER.debug(JsonUtil.format(SortUtil.topKMapByValueDesc(map, 2)));
+     * </pre>
+     * 
+     * <b>返回:</b>
+     * 
+     * <pre class="code">
+     * {
+     * "c": 345,
+     * "a": 123
+     * }
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @param k
+     *            需要的 entry 个数
+     * @return 如果 <code>map</code> 是null,或者 <code>k</code> 是0,返回 {@link Collections#emptyMap()}<br>
+     * @throws IllegalArgumentException
+     *             如果 <code>k</code> {@code <} 0
+     * @see #sortMapByValueDesc(Map)
+     * @since 1.9.2
+     */
+    public static <K, V extends Comparable<V>> Map<K, V> topKMapByValueDesc(Map<K, V> map,int k){
+        return topKMap(map, k, new ReverseComparator<Map.Entry<K, V>>(new PropertyComparator<Map.Entry<K, V>>("value")));
+    }
+
+    /**
+     * 选出 <code>map</code> 中 key 最小的 <code>k</code> 个 entry,按照 key 升序返回(原 <code>map</code> 的顺序不变).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #sortMapByKeyAsc(Map)} 的前 <code>k</code> 个 entry 一致,参见 {@link #topKMap(Map, int, Comparator)}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @param k
+     *            需要的 entry 个数
+     * @return 如果 <code>map</code> 是null,或者 <code>k</code> 是0,返回 {@link Collections#emptyMap()}<br>
+     * @throws IllegalArgumentException
+     *             如果 <code>k</code> {@code <} 0
+     * @see #sortMapByKeyAsc(Map)
+     * @since 1.9.2
+     */
+    public static <K, V> Map<K, V> topKMapByKeyAsc(Map<K, V> map,int k){
+        return topKMap(map, k, new PropertyComparator<Map.Entry<K, V>>("key"));
+    }
+
+    /**
+     * 选出 <code>map</code> 中 key 最大的 <code>k</code> 个 entry,按照 key 倒序返回(原 <code>map</code> 的顺序不变).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #sortMapByKeyDesc(Map)} 的前 <code>k</code> 个 entry 一致,参见 {@link #topKMap(Map, int, Comparator)}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @param k
+     *            需要的 entry 个数
+     * @return 如果 <code>map</code> 是null,或者 <code>k</code> 是0,返回 {@link Collections#emptyMap()}<br>
+     * @throws IllegalArgumentException
+     *             如果 <code>k</code> {@code <} 0
+     * @see #sortMapByKeyDesc(Map)
+     * @since 1.9.2
+     */
+    public static <K, V> Map<K, V> topKMapByKeyDesc(Map<K, V> map,int k){
+        return topKMap(map, k, new ReverseComparator<Map.Entry<K, V>>(new PropertyComparator<Map.Entry<K, V>>("key")));
+    }
+
+    /**
+     * 使用基于 {@link java.util.Map.Entry Entry} 的 <code>mapEntryComparator</code> 选出 <code>map</code> 中排在最前面的 <code>k</code> 个 entry,
+     * 按顺序返回(原 <code>map</code> 的顺序不变).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 <code>sortMap(map, mapEntryComparator)</code> 的前 <code>k</code> 个 entry 一致;
+     * 但是 {@link #sortMap(Map, Comparator)} 需要复制全部 entry,整体排序 O(n log n),再重建整个 {@link java.util.LinkedHashMap}</li>
+     * <li>这里遍历一次 entry,维护一个容量是 k 的堆(参见 {@link #topK(Iterable, int, Comparator...)}),时间复杂度 O(n log k),
+     * 返回的 {@link java.util.LinkedHashMap} 只有 k 个 entry,适合从很大的 map(比如几百万个单词的出现次数)里面取前几十个的场景</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @param k
+     *            需要的 entry 个数
+     * @param mapEntryComparator
+     *            基于 {@link java.util.Map.Entry Entry} 的 {@link Comparator}
+     * @return 如果 <code>map</code> 是null,或者 <code>k</code> 是0,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>mapEntryComparator</code> 是null,抛出 {@link NullPointerException}<br>
+     * @throws IllegalArgumentException
+     *             如果 <code>k</code> {@code <} 0
+     * @see #sortMap(Map, Comparator)
+     * @see #topK(Iterable, int, Comparator...)
+     * @since 1.9.2
+     */
+    public static <K, V> Map<K, V> topKMap(Map<K, V> map,int k,Comparator<Map.Entry<K, V>> mapEntryComparator){
+        Validate.isTrue(k >= 0, "k:[%s] can't < 0", k);
+        if (null == map || 0 == k){
+            return emptyMap();
+        }
+        Validate.notNull(mapEntryComparator, "mapEntryComparator can't be null!");
+
+        return toMap(TopKSelector.select(map.entrySet(), k, mapEntryComparator));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 按照 value 升序,返回 <code>map</code> entry 的只读排序视图(原 <code>map</code> 的顺序不变).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>顺序和 {@link #sortMapByValueAsc(Map)} 一致,参见 {@link #sortMapEntries(Map, Comparator)}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @return 如果 <code>map</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @see #sortMapByValueAsc(Map)
+     * @since 1.9.2
+     */
+    public static <K, V extends Comparable<V>> List<Map.Entry<K, V>> sortMapEntriesByValueAsc(Map<K, V> map){
+        return sortMapEntries(map, new PropertyComparator<Map.Entry<K, V>>("value"));
+    }
+
+    /**
+     * 按照 value 倒序,返回 <code>map</code> entry 的只读排序视图(原 <code>map</code> 的顺序不变).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>顺序和 {@link #sortMapByValueDesc(Map)} 一致,参见 {@link #sortMapEntries(Map, Comparator)}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @return 如果 <code>map</code> 是null,返回 {@link Collections#emptyList()}<br>
+     * @see #sortMapByValueDesc(Map)
+     * @since 1.9.2
+     */
+    public static <K, V extends Comparable<V>> List<Map.Entry<K, V>> sortMapEntriesByValueDesc(Map<K, V> map){
+        return sortMapEntries(map, new ReverseComparator<Map.Entry<K, V>>(new PropertyComparator<Map.Entry<K, V>>("value")));
+    }
+
+    /**
+     * 使用基于 {@link java.util.Map.Entry Entry} 的 <code>mapEntryComparator</code>,返回 <code>map</code> entry 的只读排序视图(原 <code>map</code>
+     * 的顺序不变).
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>顺序和 {@link #sortMap(Map, Comparator)} 一致;但是只把 entry 的引用放到一个数组里面排序,不会复制 entry,也不会重建 {@link java.util.LinkedHashMap},
+     * 适合只需要按顺序遍历(比如排行榜刷新)的场景</li>
+     * <li>返回的 {@link List} 是 {@link java.util.RandomAccess} 的,可以直接 {@link List#subList(int, int)} 分页</li>
+     * <li>返回的 entry 就是 <code>map</code> 自己的 entry,如果之后修改了 <code>map</code>,视图的顺序不会更新,需要重新调用</li>
+     * <li>返回的 {@link List} 是只读的,但是 entry 不是;调用 {@link java.util.Map.Entry#setValue(Object) Entry.setValue(Object)} 会直接修改原
+     * <code>map</code>(视图的顺序同样不会更新),如果需要隔离,请使用 {@link #sortMap(Map, Comparator)}</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @param mapEntryComparator
+     *            基于 {@link java.util.Map.Entry Entry} 的 {@link Comparator}
+     * @return 如果 <code>map</code> 是null,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>mapEntryComparator</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see #sortMap(Map, Comparator)
+     * @since 1.9.2
+     */
+    public static <K, V> List<Map.Entry<K, V>> sortMapEntries(Map<K, V> map,Comparator<Map.Entry<K, V>> mapEntryComparator){
+        if (null == map){
+            return emptyList();
+        }
+        Validate.notNull(mapEntryComparator, "mapEntryComparator can't be null!");
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Map.Entry<K, V>[] entries = map.entrySet().toArray(new Map.Entry[map.size()]);
+        Arrays.sort(entries, mapEntryComparator);
+        return Collections.unmodifiableList(Arrays.asList(entries));
+    }
+
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段累加的 <code>long</code> 计数器,供 {@link ConcurrentCounterMap} 使用.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>jdk1.7 没有 <code>java.util.concurrent.atomic.LongAdder</code>,这里实现一个简化的版本</li>
+ * <li>没有竞争的时候只 CAS 一个 {@link AtomicLong};第一次 CAS 失败之后创建分段,之后每个线程按照线程 id 累加到各自的分段,
+ * 多个线程同时累加同一个计数器(热点 key)时不会在同一个内存地址上反复 CAS 失败</li>
+ * <li>分段的个数是不小于 {@link Runtime#availableProcessors()} 的2的幂;每个分段之间间隔 {@link #PADDING} 个 long(64字节),避免伪共享</li>
+ * <li>{@link #sum()} 不是原子快照,并发累加的时候返回的是某个中间值</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+final class StripedLong{
+
+    /** 每个分段占用的 long 个数,一个 cache line. */
+    private static final int         PADDING     = 8;
+
+    /** 分段的个数. */
+    private static final int         STRIPE_SIZE = Math.max(2, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() - 1) << 1);
+
+    /** 没有竞争的时候累加的值. */
+    private final AtomicLong         base        = new AtomicLong();
+
+    /** 分段,出现竞争之后才创建. */
+    private volatile AtomicLongArray cells;
+
+    /**
+     * 累加 <code>delta</code>.
+     *
+     * @param delta
+     *            the delta
+     */
+    void add(long delta){
+        AtomicLongArray currentCells = cells;
+        if (null == currentCells){
+            long current = base.get();
+            if (base.compareAndSet(current, current + delta)){
+                return;
+            }
+            currentCells = initCells();
+        }
+        currentCells.getAndAdd(stripeIndex() * PADDING, delta);
+    }
+
+    /**
+     * 所有分段的和.
+     *
+     * @return the long
+     */
+    long sum(){
+        long sum = base.get();
+        AtomicLongArray currentCells = cells;
+        if (null != currentCells){
+            for (int i = 0; i < currentCells.length(); i += PADDING){
+                sum += currentCells.get(i);
+            }
+        }
+        return sum;
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 创建分段.
+     *
+     * @return the atomic long array
+     */
+    private synchronized AtomicLongArray initCells(){
+        if (null == cells){
+            cells = new AtomicLongArray(STRIPE_SIZE * PADDING);
+        }
+        return cells;
+    }
+
+    /**
+     * 当前线程使用的分段,同一个线程总是使用同一个分段.
+     *
+     * @return the int
+     */
+    private static int stripeIndex(){
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (STRIPE_SIZE - 1);
+    }
+}
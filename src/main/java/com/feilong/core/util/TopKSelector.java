@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 选出最小的 k 个元素(top-k),供 {@link SortUtil#topK(Iterable, int, Comparator...)} 以及 {@link SortUtil#topKMap(java.util.Map, int, Comparator)} 使用.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>遍历一次,维护一个容量是 k 的大顶堆,堆顶是目前选出的 k 个元素里面最大的;新元素比堆顶小才替换堆顶,时间复杂度 O(n log k),额外空间 O(k)</li>
+ * <li>比较结果相同的元素,先出现的优先被选中,返回结果里面也排在前面(和 {@link Collections#sort(List, Comparator)} 稳定排序的结果一致)</li>
+ * <li>如果 k 大于等于集合大小的一半,堆并不能节省多少,直接复制一份进行稳定排序再截取</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+final class TopKSelector{
+
+    /** Don't let anyone instantiate this class. */
+    private TopKSelector(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    /**
+     * 按照 <code>comparator</code> 选出 <code>iterable</code> 中最小的 <code>k</code> 个元素,升序返回.
+     *
+     * @param <O>
+     *            the generic type
+     * @param iterable
+     *            the iterable
+     * @param k
+     *            大于0
+     * @param comparator
+     *            the comparator
+     * @return 新的 list,不会修改 <code>iterable</code>
+     */
+    static <O> List<O> select(Iterable<O> iterable,int k,Comparator<O> comparator){
+        if (iterable instanceof Collection && k >= ((Collection<O>) iterable).size() / 2){
+            List<O> list = new ArrayList<O>((Collection<O>) iterable);
+            Collections.sort(list, comparator);
+            return list.size() > k ? new ArrayList<O>(list.subList(0, k)) : list;
+        }
+        return new BoundedHeap<O>(k, comparator).offerAll(iterable).toSortedList();
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 容量固定的大顶堆,按照 (comparator, 出现顺序) 比较.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class BoundedHeap<O> {
+
+        /** The comparator. */
+        private final Comparator<O> comparator;
+
+        /** 堆里面的元素. */
+        private Object[]            elements;
+
+        /** 和 {@link #elements} 对应的元素出现顺序. */
+        private long[]              sequences;
+
+        /** 容量. */
+        private final int           capacity;
+
+        /** 堆里面元素个数. */
+        private int                 size;
+
+        /**
+         * Instantiates a new bounded heap.
+         *
+         * @param capacity
+         *            the capacity
+         * @param comparator
+         *            the comparator
+         */
+        BoundedHeap(int capacity, Comparator<O> comparator){
+            this.capacity = capacity;
+            this.comparator = comparator;
+
+            //k 可能很大而实际元素很少,按需扩容
+            int initialCapacity = Math.min(capacity, 16);
+            this.elements = new Object[initialCapacity];
+            this.sequences = new long[initialCapacity];
+        }
+
+        /**
+         * 依次放入 <code>iterable</code> 的元素.
+         *
+         * @param iterable
+         *            the iterable
+         * @return this
+         */
+        @SuppressWarnings("unchecked")
+        BoundedHeap<O> offerAll(Iterable<O> iterable){
+            long sequence = 0;
+            for (O o : iterable){
+                if (size < capacity){
+                    add(o, sequence);
+                }else if (comparator.compare(o, (O) elements[0]) < 0){
+                    //相等的时候保留先出现的元素
+                    elements[0] = o;
+                    sequences[0] = sequence;
+                    siftDown(0);
+                }
+                ++sequence;
+            }
+            return this;
+        }
+
+        /**
+         * 升序返回堆里面的元素.
+         *
+         * @return the list
+         */
+        @SuppressWarnings("unchecked")
+        List<O> toSortedList(){
+            Object[] result = new Object[size];
+            //每次取出堆顶(最大)放在最后
+            for (int i = size - 1; i >= 0; --i){
+                result[i] = elements[0];
+                --size;
+                elements[0] = elements[size];
+                sequences[0] = sequences[size];
+                elements[size] = null;
+                siftDown(0);
+            }
+
+            List<O> list = new ArrayList<O>(result.length);
+            for (Object o : result){
+                list.add((O) o);
+            }
+            return list;
+        }
+
+        //*****************************************************************************************
+
+        /**
+         * 放入元素,堆未满时调用.
+         *
+         * @param o
+         *            the o
+         * @param sequence
+         *            the sequence
+         */
+        private void add(O o,long sequence){
+            if (size == elements.length){
+                int newLength = (int) Math.min((long) capacity, 2L * elements.length);
+                elements = Arrays.copyOf(elements, newLength);
+                sequences = Arrays.copyOf(sequences, newLength);
+            }
+            elements[size] = o;
+            sequences[size] = sequence;
+            siftUp(size);
+            ++size;
+        }
+
+        /**
+         * 上浮.
+         *
+         * @param index
+         *            the index
+         */
+        private void siftUp(int index){
+            int child = index;
+            while (child > 0){
+                int parent = (child - 1) >>> 1;
+                if (compare(parent, child) >= 0){
+                    break;
+                }
+                swap(parent, child);
+                child = parent;
+            }
+        }
+
+        /**
+         * 下沉.
+         *
+         * @param index
+         *            the index
+         */
+        private void siftDown(int index){
+            int parent = index;
+            int half = size >>> 1;
+            while (parent < half){
+                int child = 2 * parent + 1;
+                int right = child + 1;
+                if (right < size && compare(right, child) > 0){
+                    child = right;
+                }
+                if (compare(parent, child) >= 0){
+                    break;
+                }
+                swap(parent, child);
+                parent = child;
+            }
+        }
+
+        /**
+         * 比较堆里面下标 <code>i</code> 和 <code>j</code> 的元素,比较结果相同时后出现的更大.
+         *
+         * @param i
+         *            the i
+         * @param j
+         *            the j
+         * @return the int
+         */
+        @SuppressWarnings("unchecked")
+        private int compare(int i,int j){
+            int result = comparator.compare((O) elements[i], (O) elements[j]);
+            if (0 != result){
+                return result;
+            }
+            return sequences[i] < sequences[j] ? -1 : (sequences[i] == sequences[j] ? 0 : 1);
+        }
+
+        /**
+         * Swap.
+         *
+         * @param i
+         *            the i
+         * @param j
+         *            the j
+         */
+        private void swap(int i,int j){
+            Object element = elements[i];
+            elements[i] = elements[j];
+            elements[j] = element;
+
+            long sequence = sequences[i];
+            sequences[i] = sequences[j];
+            sequences[j] = sequence;
+        }
+    }
+}
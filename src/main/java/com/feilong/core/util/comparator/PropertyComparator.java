@@ -25,7 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.feilong.core.bean.ConvertUtil;
-import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.bean.PropertyPath;
 
 /**
  * 属性比较器,自动获取 <code>T</code>中的属性名字是 {@link #propertyName}的值,进行比较,不用每个需要排序的字段创建 {@link Comparator}类.
@@ -82,6 +82,9 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
      */
     private final String                propertyName;
 
+    /** 预先解析好的 {@link #propertyName},比较的时候不需要每次解析属性表达式. */
+    private final PropertyPath          propertyPath;
+
     /** The comparator. */
     @SuppressWarnings("rawtypes")
     private Comparator                  comparator;
@@ -143,6 +146,7 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
     public PropertyComparator(String propertyName){
         Validate.notBlank(propertyName, "propertyName can't be blank!");
         this.propertyName = propertyName;
+        this.propertyPath = PropertyPath.compile(propertyName);
         LOGGER.trace("propertyName:[{}]", propertyName);
     }
 
@@ -165,6 +169,7 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
     public PropertyComparator(String propertyName, Comparator comparator){
         Validate.notBlank(propertyName, "propertyName can't be blank!");
         this.propertyName = propertyName;
+        this.propertyPath = PropertyPath.compile(propertyName);
         this.comparator = comparator;
         LOGGER.trace("propertyName:[{}]", propertyName);
     }
@@ -253,6 +258,7 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
     public PropertyComparator(String propertyName, Class<? extends Comparable> propertyValueConvertToClass){
         Validate.notBlank(propertyName, "propertyName can't be blank!");
         this.propertyName = propertyName;
+        this.propertyPath = PropertyPath.compile(propertyName);
         this.propertyValueConvertToClass = propertyValueConvertToClass;
         LOGGER.trace("propertyName:[{}]", propertyName);
     }
@@ -284,6 +290,39 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
     public PropertyComparator(String propertyName, Class<? extends Comparable> propertyValueConvertToClass, Comparator comparator){
         Validate.notBlank(propertyName, "propertyName can't be blank!");
         this.propertyName = propertyName;
+        this.propertyPath = PropertyPath.compile(propertyName);
+        this.propertyValueConvertToClass = propertyValueConvertToClass;
+        this.comparator = comparator;
+        LOGGER.trace("propertyName:[{}]", propertyName);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param propertyPath
+     *            预先解析好的属性表达式,该属性的value 必须实现 {@link Comparable}接口.
+     * @since 1.9.2
+     */
+    public PropertyComparator(PropertyPath propertyPath){
+        this(propertyPath, null, null);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param propertyPath
+     *            预先解析好的属性表达式,该属性的value 必须实现 {@link Comparable}接口.
+     * @param propertyValueConvertToClass
+     *            反射提取出来的值,需要类型转成到的类型,可以是null
+     * @param comparator
+     *            the comparator,可以是null
+     * @since 1.9.2
+     */
+    @SuppressWarnings("rawtypes")
+    public PropertyComparator(PropertyPath propertyPath, Class<? extends Comparable> propertyValueConvertToClass, Comparator comparator){
+        Validate.notNull(propertyPath, "propertyPath can't be null!");
+        this.propertyName = propertyPath.getExpression();
+        this.propertyPath = propertyPath;
         this.propertyValueConvertToClass = propertyValueConvertToClass;
         this.comparator = comparator;
         LOGGER.trace("propertyName:[{}]", propertyName);
@@ -311,15 +350,42 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
             return -1;
         }
 
-        Comparable propertyValue1 = PropertyUtil.getProperty(t1, propertyName);
-        Comparable propertyValue2 = PropertyUtil.getProperty(t2, propertyName);
+        Comparable propertyValue1 = getPropertyValue(t1);
+        Comparable propertyValue2 = getPropertyValue(t2);
+        return null != comparator ? comparator.compare(propertyValue1, propertyValue2) : compare(t1, t2, propertyValue1, propertyValue2);
+    }
+
+    /**
+     * 获得 <code>t</code> 用来比较的属性值.
+     * 
+     * <p>
+     * 读取 {@link #propertyName} 的值,如果设置了 {@link #propertyValueConvertToClass},再转换成该类型;{@link #compare(Object, Object)} 也是使用这个值进行比较.
+     * </p>
+     *
+     * @param t
+     *            the t
+     * @return the property value
+     * @throws NullPointerException
+     *             如果 <code>t</code> 是null
+     * @since 1.9.2
+     */
+    @SuppressWarnings("rawtypes")
+    public Comparable getPropertyValue(T t){
+        Comparable propertyValue = (Comparable) propertyPath.getValue(t);
 
         //如果值需要类型转换
-        if (null != propertyValueConvertToClass){
-            propertyValue1 = ConvertUtil.convert(propertyValue1, propertyValueConvertToClass);
-            propertyValue2 = ConvertUtil.convert(propertyValue2, propertyValueConvertToClass);
-        }
-        return null != comparator ? comparator.compare(propertyValue1, propertyValue2) : compare(t1, t2, propertyValue1, propertyValue2);
+        return null == propertyValueConvertToClass ? propertyValue : ConvertUtil.convert(propertyValue, propertyValueConvertToClass);
+    }
+
+    /**
+     * 获得属性值的比较器.
+     *
+     * @return 如果没有设置,返回null,此时使用 {@link ObjectUtils#compare(Comparable, Comparable)} 比较属性值(null 排在前面)
+     * @since 1.9.2
+     */
+    @SuppressWarnings("rawtypes")
+    public Comparator getComparator(){
+        return comparator;
     }
 
     /**
@@ -18,10 +18,10 @@ package com.feilong.core.util.predicate;
 import org.apache.commons.collections4.Predicate;
 import org.apache.commons.lang3.Validate;
 
-import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.bean.PropertyPath;
 
 /**
- * 调用 {@link PropertyUtil#getProperty(Object, String)} 匹配属性值.
+ * 调用 {@link PropertyPath#getValue(Object)} 匹配属性值.
  *
  * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
  * @param <T>
@@ -35,14 +35,14 @@ import com.feilong.core.bean.PropertyUtil;
 public class BeanPredicate<T> implements Predicate<T>{
 
     /**
-     * 泛型T对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     * 泛型T对象指定的属性名称(预先解析好),Possibly indexed and/or nested name of the property to be modified,参见
      * <a href="../../bean/BeanUtil.html#propertyName">propertyName</a>.
      */
-    private final String    propertyName;
+    private final PropertyPath propertyPath;
 
     /** The value predicate. */
     @SuppressWarnings("rawtypes")
-    private final Predicate valuePredicate;
+    private final Predicate    valuePredicate;
 
     /**
      * The Constructor.
@@ -63,7 +63,29 @@ public class BeanPredicate<T> implements Predicate<T>{
         Validate.notBlank(propertyName, "propertyName can't be blank!");
         Validate.notNull(valuePredicate, "predicate can't be null!");
 
-        this.propertyName = propertyName;
+        this.propertyPath = PropertyPath.compile(propertyName);
+        this.valuePredicate = valuePredicate;
+    }
+
+    /**
+     * The Constructor.
+     * 
+     * <p>
+     * 如果 <code>propertyPath</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>valuePredicate</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     *
+     * @param propertyPath
+     *            预先解析好的属性表达式
+     * @param valuePredicate
+     *            the predicate
+     * @since 1.9.2
+     */
+    public BeanPredicate(PropertyPath propertyPath, @SuppressWarnings("rawtypes") Predicate valuePredicate){
+        Validate.notNull(propertyPath, "propertyPath can't be null!");
+        Validate.notNull(valuePredicate, "predicate can't be null!");
+
+        this.propertyPath = propertyPath;
         this.valuePredicate = valuePredicate;
     }
 
@@ -75,7 +97,7 @@ public class BeanPredicate<T> implements Predicate<T>{
     @SuppressWarnings("unchecked")
     @Override
     public boolean evaluate(T object){
-        Object currentPropertyValue = PropertyUtil.getProperty(object, propertyName);
+        Object currentPropertyValue = propertyPath.getValue(object);
         return valuePredicate.evaluate(currentPropertyValue);
     }
 }
\ No newline at end of file
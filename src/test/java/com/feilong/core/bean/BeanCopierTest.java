@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.commons.collections4.Factory;
+import org.junit.Test;
+
+import com.feilong.core.entity.UserForm;
+import com.feilong.test.IsolatedClassLoader;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class BeanCopierTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class BeanCopierTest{
+
+    /**
+     * Test get instance cached.
+     */
+    @Test
+    public void testGetInstanceCached(){
+        assertThat(
+                        BeanCopier.getInstance(User.class, User.class, false, toArray("id", "name"), null),
+                        is(sameInstance(BeanCopier.getInstance(User.class, User.class, false, toArray("id", "name"), null))));
+    }
+
+    /**
+     * Test copy.
+     */
+    @Test
+    public void testCopy(){
+        User user = new User(5L);
+        user.setMoney(new BigDecimal(500));
+        user.setNickNames(toArray("feilong", "飞天奔月"));
+
+        User user2 = new User();
+        BeanCopier.getInstance(User.class, User.class, false, null, null).copy(user2, user);
+
+        assertThat(user2, allOf(//
+                        hasProperty("id", is(5L)),
+                        hasProperty("money", is(new BigDecimal(500))),
+                        hasProperty("nickNames", is(sameInstance(user.getNickNames())))));
+    }
+
+    /**
+     * Test copy exclude.
+     */
+    @Test
+    public void testCopyExclude(){
+        User user = new User(5L);
+        user.setMoney(new BigDecimal(500));
+
+        User user2 = new User();
+        PropertyUtil.copyPropertiesExclude(user2, user, "id");
+
+        assertThat(user2, allOf(hasProperty("id", is(nullValue())), hasProperty("money", is(new BigDecimal(500)))));
+    }
+
+    /**
+     * Test copy include nested.
+     */
+    @Test
+    public void testCopyIncludeNested(){
+        User user = new User(5L);
+        user.getUserInfo().setAge(18);
+
+        User user2 = new User();
+        PropertyUtil.copyProperties(user2, user, "id", "userInfo.age");
+
+        assertEquals(5L, user2.getId().longValue());
+        assertEquals(18, user2.getUserInfo().getAge().intValue());
+    }
+
+    /**
+     * Test copy with convert.
+     */
+    @Test
+    public void testCopyWithConvert(){
+        User user = new User("关羽", 30);
+        user.setId(8L);
+
+        UserForm userForm = new UserForm();
+        BeanUtil.copyPropertiesExclude(userForm, user, "name");
+
+        assertThat(userForm, allOf(//
+                        hasProperty("id", is("8")),
+                        hasProperty("age", is("30")),
+                        hasProperty("name", is(nullValue()))));
+    }
+
+    /**
+     * Test copy all.
+     */
+    @Test
+    public void testCopyAll(){
+        List<User> userList = toList(new User(1L), new User(2L));
+
+        BeanCopier beanCopier = BeanCopier.getInstance(User.class, UserForm.class, true, toArray("id"), null);
+        List<UserForm> userFormList = beanCopier.copyAll(userList, new Factory<UserForm>(){
+
+            @Override
+            public UserForm create(){
+                return new UserForm();
+            }
+        });
+
+        assertEquals(2, userFormList.size());
+        assertEquals("1", userFormList.get(0).getId());
+        assertEquals("2", userFormList.get(1).getId());
+        assertEquals(null, userFormList.get(1).getName());
+    }
+
+    /**
+     * Test copy not instance.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCopyNotInstance(){
+        BeanCopier.getInstance(User.class, User.class, false, null, null).copy(new User(), new UserForm());
+    }
+
+    /**
+     * Test get instance map.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetInstanceMap(){
+        BeanCopier.getInstance(HashMap.class, User.class, false, null, null);
+    }
+
+    /**
+     * 父 ClassLoader 的类和子 ClassLoader 的类互相复制之后,子 ClassLoader 可以被回收.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testCopyNotPinChildClassLoader() throws Exception{
+        assertTrue(IsolatedClassLoader.isCollected(copyWithIsolatedHolder()));
+    }
+
+    /**
+     * 两个没有父子关系的 ClassLoader 的类互相复制之后,都可以被回收.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testCopyNotPinSiblingClassLoader() throws Exception{
+        List<WeakReference<ClassLoader>> list = copyBetweenSiblingHolders();
+        assertTrue(IsolatedClassLoader.isCollected(list.get(0)));
+        assertTrue(IsolatedClassLoader.isCollected(list.get(1)));
+    }
+
+    /**
+     * 在 {@link Holder} 和独立 ClassLoader 加载的 {@link Holder} 之间互相复制.
+     *
+     * @return the weak reference
+     * @throws Exception
+     *             the exception
+     */
+    private static WeakReference<ClassLoader> copyWithIsolatedHolder() throws Exception{
+        ClassLoader classLoader = new IsolatedClassLoader(Holder.class);
+        Class<?> isolatedHolderClass = classLoader.loadClass(Holder.class.getName());
+        assertNotSame(Holder.class, isolatedHolderClass);
+
+        Holder holder = new Holder();
+        holder.setName("feilong");
+
+        Object isolatedHolder = isolatedHolderClass.newInstance();
+        PropertyUtil.copyProperties(isolatedHolder, holder);
+        assertEquals("feilong", PropertyUtil.getProperty(isolatedHolder, "name"));
+
+        Holder holder2 = new Holder();
+        PropertyUtil.copyProperties(holder2, isolatedHolder);
+        assertEquals("feilong", holder2.getName());
+
+        //父子关系的时候依然缓存
+        assertThat(
+                        BeanCopier.getInstance(Holder.class, isolatedHolderClass, false, null, null),
+                        is(sameInstance(BeanCopier.getInstance(Holder.class, isolatedHolderClass, false, null, null))));
+        return new WeakReference<ClassLoader>(classLoader);
+    }
+
+    /**
+     * 在两个独立 ClassLoader 加载的 {@link Holder} 之间复制.
+     *
+     * @return the list
+     * @throws Exception
+     *             the exception
+     */
+    private static List<WeakReference<ClassLoader>> copyBetweenSiblingHolders() throws Exception{
+        ClassLoader classLoader1 = new IsolatedClassLoader(Holder.class);
+        ClassLoader classLoader2 = new IsolatedClassLoader(Holder.class);
+
+        Object holder1 = classLoader1.loadClass(Holder.class.getName()).newInstance();
+        PropertyUtil.setProperty(holder1, "name", "feilong");
+        Object holder2 = classLoader2.loadClass(Holder.class.getName()).newInstance();
+        PropertyUtil.copyProperties(holder2, holder1);
+        assertEquals("feilong", PropertyUtil.getProperty(holder2, "name"));
+
+        return toList(new WeakReference<ClassLoader>(classLoader1), new WeakReference<ClassLoader>(classLoader2));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * The Class Holder.
+     */
+    public static class Holder{
+
+        /** The name. */
+        private String name;
+
+        /**
+         * Gets the name.
+         *
+         * @return the name
+         */
+        public String getName(){
+            return name;
+        }
+
+        /**
+         * Sets the name.
+         *
+         * @param name
+         *            the name to set
+         */
+        public void setName(String name){
+            this.name = name;
+        }
+    }
+}
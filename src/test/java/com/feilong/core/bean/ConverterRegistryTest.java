@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.ConverterFacade;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.junit.Test;
+
+import static com.feilong.core.bean.ConvertUtil.convert;
+
+/**
+ * The Class ConverterRegistryTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ConverterRegistryTest{
+
+    /** The values. */
+    private static final Object[] VALUES = {
+                                             "123",
+                                             " -5 ",
+                                             "+7",
+                                             "007",
+                                             "abc",
+                                             "",
+                                             "1.5",
+                                             "99999999999",
+                                             "99999999999999999999",
+                                             "+",
+                                             "-",
+                                             "1e5",
+                                             "\uFF11\uFF12",
+                                             " true",
+                                             5,
+                                             5L,
+                                             Long.MAX_VALUE,
+                                             (short) 3,
+                                             (byte) 2,
+                                             1.5d,
+                                             0.1f,
+                                             new BigDecimal("2.50"),
+                                             "true",
+                                             "Yes",
+                                             "off",
+                                             "x",
+                                             Boolean.TRUE,
+                                             new Date(8L) };
+
+    /**
+     * 和 {@link ConvertUtils#convert(Object, Class)} 结果一致.
+     */
+    @Test
+    public void testConvertSameAsConvertUtils(){
+        Class<?>[] targetTypes = { Integer.class, Long.class, BigDecimal.class, Boolean.class };
+        for (Class<?> targetType : targetTypes){
+            for (Object value : VALUES){
+                //执行两次,第二次走缓存
+                for (int i = 0; i < 2; ++i){
+                    assertEquals(value + "->" + targetType, convertUtilsConvert(value, targetType), convertUtilConvert(value, targetType));
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert utils convert.
+     *
+     * @param value
+     *            the value
+     * @param targetType
+     *            the target type
+     * @return 如果有异常,返回异常的类型
+     */
+    private static Object convertUtilsConvert(Object value,Class<?> targetType){
+        try{
+            return ConvertUtils.convert(value, targetType);
+        }catch (RuntimeException e){
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Convert util convert.
+     *
+     * @param value
+     *            the value
+     * @param targetType
+     *            the target type
+     * @return 如果有异常,返回异常的类型
+     */
+    private static Object convertUtilConvert(Object value,Class<?> targetType){
+        try{
+            return convert(value, targetType);
+        }catch (RuntimeException e){
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Test convert date(其他测试可能注册了 Date 的转换器,所以和 {@link ConvertUtils#convert(Object, Class)} 比较).
+     */
+    @Test
+    public void testConvertDate(){
+        Object[] values = { new Date(8L), 8L, Calendar.getInstance() };
+        for (Object value : values){
+            for (int i = 0; i < 2; ++i){
+                assertEquals(convertUtilsConvert(value, Date.class), convertUtilConvert(value, Date.class));
+            }
+        }
+    }
+
+    /**
+     * Test register.
+     */
+    @Test
+    public void testRegister(){
+        Converter converter = new FixedConverter(42);
+        ConverterRegistry.register(String.class, Integer.class, converter);
+        try{
+            assertSame(converter, ConverterRegistry.lookup(String.class, Integer.class));
+            assertEquals(42, convert("1", Integer.class).intValue());
+
+            //只对指定的 sourceType 生效
+            assertEquals(1, convert(1L, Integer.class).intValue());
+        }finally{
+            ConverterRegistry.deregister(String.class, Integer.class);
+        }
+        assertEquals(null, ConverterRegistry.lookup(String.class, Integer.class));
+        assertEquals(1, convert("1", Integer.class).intValue());
+    }
+
+    /**
+     * 快速转换器缓存之后,再通过 {@link ConvertUtils#register(Converter, Class)} 注册的转换器依然生效.
+     */
+    @Test
+    public void testConvertUtilsRegisterAfterCached(){
+        assertEquals(1, convert("1", Integer.class).intValue());
+
+        ConvertUtils.register(new FixedConverter(-1), Integer.class);
+        try{
+            assertEquals(-1, convert("1", Integer.class).intValue());
+        }finally{
+            ConvertUtils.register(new IntegerConverter(0), Integer.class);
+        }
+        assertEquals(1, convert("1", Integer.class).intValue());
+    }
+
+    /**
+     * 不同的 context classloader 交替转换,各自使用自己的 beanutils 注册的转换器.
+     */
+    @Test
+    public void testConvertAlternateContextClassLoader(){
+        Thread thread = Thread.currentThread();
+        ClassLoader classLoader = thread.getContextClassLoader();
+        ClassLoader otherClassLoader = new URLClassLoader(new URL[0], classLoader);
+
+        thread.setContextClassLoader(otherClassLoader);
+        try{
+            ConvertUtils.register(new FixedConverter(-1), Integer.class);
+            for (int i = 0; i < 3; ++i){
+                thread.setContextClassLoader(classLoader);
+                assertEquals(1, convert("1", Integer.class).intValue());
+
+                thread.setContextClassLoader(otherClassLoader);
+                assertEquals(-1, convert("1", Integer.class).intValue());
+            }
+        }finally{
+            thread.setContextClassLoader(classLoader);
+        }
+    }
+
+    /**
+     * {@link ConverterFacade} 包装的不是标准转换器,不能使用快速转换器.
+     */
+    @Test
+    public void testConvertConverterFacadeNotStandard(){
+        ConvertUtils.register(new ConverterFacade(new FixedConverter(-1)), Integer.class);
+        try{
+            assertEquals(-1, convert("1", Integer.class).intValue());
+        }finally{
+            ConvertUtils.register(new IntegerConverter(0), Integer.class);
+        }
+    }
+
+    //*******************************************************************************
+
+    /**
+     * Test register null source type.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testRegisterNullSourceType(){
+        ConverterRegistry.register(null, Integer.class, new FixedConverter(1));
+    }
+
+    /**
+     * Test register null converter.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testRegisterNullConverter(){
+        ConverterRegistry.register(String.class, Integer.class, null);
+    }
+
+    //*******************************************************************************
+
+    /**
+     * 总是返回固定值的转换器.
+     */
+    private static final class FixedConverter implements Converter{
+
+        /** The value. */
+        private final Integer value;
+
+        /**
+         * Instantiates a new fixed converter.
+         *
+         * @param value
+         *            the value
+         */
+        FixedConverter(Integer value){
+            this.value = value;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.apache.commons.beanutils.Converter#convert(java.lang.Class, java.lang.Object)
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T convert(Class<T> type,Object value){
+            return (T) this.value;
+        }
+    }
+}
@@ -34,6 +34,11 @@ import com.feilong.core.bean.propertyutiltest.FeiLongPropertyUtilSuiteTests;
                 FeiLongBeanUtilSuiteTests.class,
                 FeiLongConvertUtilSuiteTests.class,
                 FeiLongPropertyUtilSuiteTests.class,
+                PropertyAccessorRegistryTest.class,
+                PropertyPathTest.class,
+                BeanCopierTest.class,
+                ConverterRegistryTest.class,
+                ValidatingParserTest.class,
         //
 })
 public class FeiLongBeanSuiteTests{
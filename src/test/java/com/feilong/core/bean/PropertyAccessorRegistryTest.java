@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toMap;
+
+/**
+ * The Class PropertyAccessorRegistryTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class PropertyAccessorRegistryTest{
+
+    /**
+     * Test get property accessor.
+     */
+    @Test
+    public void testGetPropertyAccessor(){
+        PropertyAccessor propertyAccessor = PropertyAccessorRegistry.getPropertyAccessor(User.class, "name");
+
+        assertEquals(String.class, propertyAccessor.getPropertyType());
+        assertEquals(true, propertyAccessor.isReadable());
+        assertEquals(true, propertyAccessor.isWritable());
+
+        User user = new User("张飞", 23);
+        assertEquals("张飞", propertyAccessor.getValue(user));
+
+        propertyAccessor.setValue(user, "关羽");
+        assertEquals("关羽", user.getName());
+    }
+
+    /**
+     * Test get property accessor cached.
+     */
+    @Test
+    public void testGetPropertyAccessorCached(){
+        assertThat(
+                        PropertyAccessorRegistry.getPropertyAccessor(User.class, "id"),
+                        is(sameInstance(PropertyAccessorRegistry.getPropertyAccessor(User.class, "id"))));
+    }
+
+    /**
+     * Test get property accessor class.
+     */
+    @Test
+    public void testGetPropertyAccessorClass(){
+        PropertyAccessor propertyAccessor = PropertyAccessorRegistry.getPropertyAccessor(User.class, "class");
+        assertEquals(true, propertyAccessor.isReadable());
+        assertEquals(false, propertyAccessor.isWritable());
+        assertEquals(User.class, propertyAccessor.getValue(new User()));
+    }
+
+    /**
+     * Test get property accessor not exist.
+     */
+    @Test
+    public void testGetPropertyAccessorNotExist(){
+        assertThat(PropertyAccessorRegistry.getPropertyAccessor(User.class, "name1"), is(nullValue()));
+    }
+
+    /**
+     * Test get property accessors.
+     */
+    @Test
+    public void testGetPropertyAccessors(){
+        assertThat(
+                        PropertyAccessorRegistry.getPropertyAccessors(User.class),
+                        hasItem(PropertyAccessorRegistry.getPropertyAccessor(User.class, "age")));
+    }
+
+    /**
+     * Test set value type mismatch.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testSetValueTypeMismatch(){
+        PropertyAccessorRegistry.getPropertyAccessor(User.class, "age").setValue(new User(), "18");
+    }
+
+    /**
+     * Test set value no setter.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testSetValueNoSetter(){
+        PropertyAccessorRegistry.getPropertyAccessor(User.class, "class").setValue(new User(), User.class);
+    }
+
+    /**
+     * 非public类(比如 LinkedHashMap 的Entry)的public方法,需要通过接口方法访问.
+     */
+    @Test
+    public void testGetPropertyNonPublicClass(){
+        Map<String, Integer> map = toMap("a", 1);
+        Map.Entry<String, Integer> entry = map.entrySet().iterator().next();
+
+        assertEquals("a", PropertyUtil.getProperty(entry, "key"));
+        assertEquals(1, PropertyUtil.<Integer> getProperty(entry, "value").intValue());
+    }
+
+    /**
+     * Test get property accessor null bean class.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGetPropertyAccessorNullBeanClass(){
+        PropertyAccessorRegistry.getPropertyAccessor(null, "name");
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.beanutils.NestedNullException;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.junit.Test;
+
+import com.feilong.test.User;
+import com.feilong.test.UserInfo;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.bean.ConvertUtil.toMap;
+
+/**
+ * The Class PropertyPathTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class PropertyPathTest{
+
+    /**
+     * Test compile cached.
+     */
+    @Test
+    public void testCompileCached(){
+        assertThat(PropertyPath.compile("userInfo.age"), is(sameInstance(PropertyPath.compile("userInfo.age"))));
+    }
+
+    /**
+     * Test is simple.
+     */
+    @Test
+    public void testIsSimple(){
+        assertEquals(true, PropertyPath.compile("name").isSimple());
+        assertEquals(false, PropertyPath.compile("userInfo.age").isSimple());
+        assertEquals("userInfo.age", PropertyPath.compile("userInfo.age").getExpression());
+    }
+
+    /**
+     * Test get value nested.
+     */
+    @Test
+    public void testGetValueNested(){
+        User user = new User();
+        UserInfo userInfo = new UserInfo();
+        userInfo.setAge(28);
+        user.setUserInfo(userInfo);
+
+        assertEquals(28, PropertyPath.compile("userInfo.age").getValue(user));
+    }
+
+    /**
+     * Test get value indexed.
+     */
+    @Test
+    public void testGetValueIndexed(){
+        User user = new User();
+        user.setLoves(new String[] { "桔子", "香蕉" });
+        assertEquals("香蕉", PropertyPath.compile("loves[1]").getValue(user));
+
+        List<User> list = toList(new User(2L), new User(5L));
+        assertEquals(5L, PropertyPath.compile("[1].id").getValue(list));
+    }
+
+    /**
+     * Test get value mapped.
+     */
+    @Test
+    public void testGetValueMapped(){
+        User user = new User();
+        Map<String, String> attrMap = toMap("蜀国", "赵云");
+        user.setAttrMap(attrMap);
+
+        assertEquals("赵云", PropertyPath.compile("attrMap(蜀国)").getValue(user));
+    }
+
+    /**
+     * map 的 "(key)" 和 "name(key)",结果以及异常和 {@link PropertyUtils#getProperty(Object, String)} 一致.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testGetValueMapMapped() throws Exception{
+        Map<String, String> map = toMap("key", "value");
+        assertEquals(PropertyUtils.getProperty(map, "(key)"), PropertyPath.compile("(key)").getValue(map));
+
+        IllegalArgumentException expected = null;
+        try{
+            PropertyUtils.getProperty(map, "foo(key)");
+        }catch (IllegalArgumentException e){
+            expected = e;
+        }
+        assertNotNull(expected);
+
+        try{
+            PropertyUtil.getProperty(map, "foo(key)");
+            fail();
+        }catch (BeanOperationException e){
+            assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+            assertEquals(expected.getMessage(), e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Test get value null nested.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testGetValueNullNested(){
+        User user = new User();
+        user.setUserInfo(null);
+        PropertyPath.compile("userInfo.age").getValue(user);
+    }
+
+    /**
+     * Test get value index out of bounds.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testGetValueIndexOutOfBounds(){
+        User user = new User();
+        user.setLoves(new String[] { "桔子" });
+        PropertyPath.compile("loves[5]").getValue(user);
+    }
+
+    /**
+     * 快速通道不支持的时候,从已经取到的中间值继续,前面的 getter 只调用一次.
+     */
+    @Test
+    public void testGetValueUnsupportedNotRepeatGetter(){
+        Node child = new Node(null);
+        child.setMap(toMap("key", "value"));
+        Node node = new Node(child);
+
+        //map 的 "name(key)" 不支持,交给 PropertyUtils
+        assertEquals("value", PropertyPath.compile("child.map(key)").getValue(node));
+        assertEquals(1, node.childCount);
+
+        try{
+            PropertyPath.compile("child.loves[5]").getValue(node);
+            fail();
+        }catch (BeanOperationException e){
+            assertThat(e.getCause(), is(instanceOf(IndexOutOfBoundsException.class)));
+        }
+        assertEquals(2, node.childCount);
+    }
+
+    /**
+     * 中间值是null,异常和 {@link PropertyUtils#getProperty(Object, String)} 一致,并且不会重复调用 getter.
+     */
+    @Test
+    public void testGetValueNullNestedSameAsPropertyUtils(){
+        assertNestedNull(new Node(new Node(null)), "child.child.loves");
+        assertNestedNull(toMap("key", (Object) null), "key.name");
+
+        Node node = new Node(new Node(null));
+        try{
+            PropertyPath.compile("child.child.loves").setValue(node, null);
+            fail();
+        }catch (BeanOperationException e){
+            assertThat(e.getCause(), is(instanceOf(NestedNullException.class)));
+        }
+        assertEquals(1, node.childCount);
+    }
+
+    /**
+     * 设值的时候,最后一段不支持,从已经取到的中间值继续.
+     */
+    @Test
+    public void testSetValueUnsupportedNotRepeatGetter(){
+        Node child = new Node(null);
+        child.setMap(toMap("key", "value"));
+        Node node = new Node(child);
+
+        PropertyPath.compile("child.map(key)").setValue(node, "value2");
+        assertEquals(1, node.childCount);
+        assertEquals("value2", child.getMap().get("key"));
+    }
+
+    /**
+     * Test set value nested.
+     */
+    @Test
+    public void testSetValueNested(){
+        User user = new User();
+        PropertyPath propertyPath = PropertyPath.compile("userInfo.age");
+        propertyPath.setValue(user, 18);
+        assertEquals(18, user.getUserInfo().getAge().intValue());
+
+        //换一个实例再次使用同一个 PropertyPath
+        User user2 = new User();
+        propertyPath.setValue(user2, 20);
+        assertEquals(20, propertyPath.getValue(user2));
+    }
+
+    /**
+     * Test property util nested property.
+     */
+    @Test
+    public void testPropertyUtilNestedProperty(){
+        User user = new User();
+        PropertyUtil.setProperty(user, "userInfo.age", 30);
+        assertEquals(30, PropertyUtil.<Integer> getProperty(user, "userInfo.age").intValue());
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 断言和 {@link PropertyUtils#getProperty(Object, String)} 抛出一样的 {@link NestedNullException}.
+     *
+     * @param bean
+     *            the bean
+     * @param expression
+     *            the expression
+     */
+    private static void assertNestedNull(Object bean,String expression){
+        NestedNullException expected = null;
+        try{
+            PropertyUtils.getProperty(bean, expression);
+        }catch (NestedNullException e){
+            expected = e;
+        }catch (Exception e){
+            fail(e.toString());
+        }
+        assertNotNull(expected);
+
+        try{
+            PropertyPath.compile(expression).getValue(bean);
+            fail();
+        }catch (BeanOperationException e){
+            assertThat(e.getCause(), is(instanceOf(NestedNullException.class)));
+            assertEquals(expected.getMessage(), e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * 记录 {@link #getChild()} 调用次数的 bean.
+     */
+    public static class Node{
+
+        /** The child. */
+        private final Node          child;
+
+        /** The loves. */
+        private String[]            loves = { "桔子" };
+
+        /** The map. */
+        private Map<String, String> map;
+
+        /** {@link #getChild()} 调用次数. */
+        private int                 childCount;
+
+        /**
+         * Instantiates a new node.
+         *
+         * @param child
+         *            the child
+         */
+        public Node(Node child){
+            this.child = child;
+        }
+
+        /**
+         * Gets the child.
+         *
+         * @return the child
+         */
+        public Node getChild(){
+            ++childCount;
+            return child;
+        }
+
+        /**
+         * Gets the loves.
+         *
+         * @return the loves
+         */
+        public String[] getLoves(){
+            return loves;
+        }
+
+        /**
+         * Gets the map.
+         *
+         * @return the map
+         */
+        public Map<String, String> getMap(){
+            return map;
+        }
+
+        /**
+         * Sets the map.
+         *
+         * @param map
+         *            the map
+         */
+        public void setMap(Map<String, String> map){
+            this.map = map;
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test compile null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testCompileNull(){
+        PropertyPath.compile(null);
+    }
+
+    /**
+     * Test compile blank.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileBlank(){
+        PropertyPath.compile(" ");
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.apache.commons.beanutils.converters.BigDecimalConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
+import org.junit.Test;
+
+import com.feilong.core.bean.ValidatingParser.Validity;
+
+/**
+ * The Class ValidatingParserTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ValidatingParserTest{
+
+    /** The values. */
+    private static final String[] VALUES   = {
+                                               "",
+                                               "0",
+                                               "-0",
+                                               "+0",
+                                               "+",
+                                               "-",
+                                               "+-1",
+                                               "007",
+                                               "2147483647",
+                                               "2147483648",
+                                               "-2147483648",
+                                               "-2147483649",
+                                               "00000000000000002147483647",
+                                               "9223372036854775807",
+                                               "9223372036854775808",
+                                               "-9223372036854775808",
+                                               "-9223372036854775809",
+                                               "99999999999999999999",
+                                               "1.5",
+                                               ".5",
+                                               "5.",
+                                               ".",
+                                               "-.",
+                                               "1.2.3",
+                                               "1e5",
+                                               "1E-5",
+                                               "1e+5",
+                                               "1e",
+                                               "e5",
+                                               ".e5",
+                                               "1e5.5",
+                                               "1e0000000000005",
+                                               "1e2147483647",
+                                               "1e99999999999",
+                                               "0x10",
+                                               "1d",
+                                               "NaN",
+                                               "abc",
+                                               "1 2",
+                                               "１２",
+                                               "1١",
+                                               "1e١" };
+
+    /** 随机字符串使用的字符. */
+    private static final String   ALPHABET = "0123456789+-.eE x١";
+
+    /**
+     * Test check integer.
+     */
+    @Test
+    public void testCheckInteger(){
+        for (String value : allValues()){
+            Validity validity = ValidatingParser.checkInteger(value);
+            if (validity != Validity.UNKNOWN){
+                assertEquals(value, validity == Validity.VALID, isParsable(value, Integer.class));
+            }
+        }
+    }
+
+    /**
+     * Test check long.
+     */
+    @Test
+    public void testCheckLong(){
+        for (String value : allValues()){
+            Validity validity = ValidatingParser.checkLong(value);
+            if (validity != Validity.UNKNOWN){
+                assertEquals(value, validity == Validity.VALID, isParsable(value, Long.class));
+            }
+        }
+    }
+
+    /**
+     * Test check big decimal.
+     */
+    @Test
+    public void testCheckBigDecimal(){
+        for (String value : allValues()){
+            Validity validity = ValidatingParser.checkBigDecimal(value);
+            if (validity != Validity.UNKNOWN){
+                assertEquals(value, validity == Validity.VALID, isParsable(value, BigDecimal.class));
+            }
+        }
+    }
+
+    /**
+     * 只有包含非 ASCII 字符或者指数很大的时候才是 {@link Validity#UNKNOWN}.
+     */
+    @Test
+    public void testUnknown(){
+        assertEquals(Validity.UNKNOWN, ValidatingParser.checkInteger("１２"));
+        assertEquals(Validity.UNKNOWN, ValidatingParser.checkLong("1١"));
+        assertEquals(Validity.UNKNOWN, ValidatingParser.checkBigDecimal("1e99999999999"));
+        assertEquals(Validity.INVALID, ValidatingParser.checkInteger("abc"));
+        assertEquals(Validity.INVALID, ValidatingParser.checkBigDecimal("abc"));
+    }
+
+    /**
+     * Test parse boolean.
+     */
+    @Test
+    public void testParseBoolean(){
+        assertEquals(Boolean.TRUE, ValidatingParser.parseBoolean("Yes"));
+        assertEquals(Boolean.TRUE, ValidatingParser.parseBoolean("1"));
+        assertEquals(Boolean.FALSE, ValidatingParser.parseBoolean("OFF"));
+        assertNull(ValidatingParser.parseBoolean(" true"));
+        assertNull(ValidatingParser.parseBoolean("9"));
+    }
+
+    /**
+     * {@link ConvertUtil#toInteger(Object, Integer)},{@link ConvertUtil#toLong(Object)},{@link ConvertUtil#toBigDecimal(Object)} 和 beanutils
+     * 转换器的结果一致.
+     */
+    @Test
+    public void testConvertUtilSameAsConverter(){
+        IntegerConverter integerConverter = new IntegerConverter(-1);
+        LongConverter longConverter = new LongConverter(null);
+        BigDecimalConverter bigDecimalConverter = new BigDecimalConverter(null);
+        for (String value : allValues()){
+            String input = " " + value + " ";
+            assertEquals(input, integerConverter.convert(Integer.class, input), ConvertUtil.toInteger(input, -1));
+            assertEquals(input, longConverter.convert(Long.class, input), ConvertUtil.toLong(input));
+            assertEquals(input, bigDecimalConverter.convert(BigDecimal.class, input), ConvertUtil.toBigDecimal(input));
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 固定的值加上随机生成的值.
+     *
+     * @return the string[]
+     */
+    private static String[] allValues(){
+        Random random = new Random(1);
+        String[] values = new String[VALUES.length + 5000];
+        System.arraycopy(VALUES, 0, values, 0, VALUES.length);
+        for (int i = VALUES.length; i < values.length; ++i){
+            char[] chars = new char[random.nextInt(12)];
+            for (int j = 0; j < chars.length; ++j){
+                chars[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            values[i] = new String(chars).trim();
+        }
+        return values;
+    }
+
+    /**
+     * jdk 能否转换.
+     *
+     * @param value
+     *            the value
+     * @param targetType
+     *            the target type
+     * @return true, if is parsable
+     */
+    private static boolean isParsable(String value,Class<?> targetType){
+        try{
+            if (targetType == Integer.class){
+                Integer.valueOf(value);
+            }else if (targetType == Long.class){
+                Long.valueOf(value);
+            }else{
+                new BigDecimal(value);
+            }
+            return true;
+        }catch (NumberFormatException e){
+            return false;
+        }
+    }
+}
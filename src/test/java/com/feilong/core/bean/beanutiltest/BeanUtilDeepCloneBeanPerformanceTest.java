@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.beanutiltest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.bean.BeanUtil;
+import com.feilong.test.User;
+import com.feilong.test.UserAddress;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link BeanUtil#cloneBean(Object)}(浅克隆),{@link BeanUtil#deepCloneBean(Object, Class...)} 以及 {@link SerializationUtils#clone(java.io.Serializable)}
+ * 的性能对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class BeanUtilDeepCloneBeanPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeanUtilDeepCloneBeanPerformanceTest.class);
+
+    /** The Constant USER. */
+    private static final User   USER   = newUser();
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer times : toList(1, 10, 100, 1000, 10000, 100000)){
+            Date beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                BeanUtil.cloneBean(USER);
+            }
+            LOGGER.debug("[cloneBean]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                BeanUtil.deepCloneBean(USER);
+            }
+            LOGGER.debug("[deepCloneBean]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                SerializationUtils.clone(USER);
+            }
+            LOGGER.debug("[SerializationUtils.clone]{},use time:{}", times, formatDuration(beginDate));
+        }
+    }
+
+    /**
+     * New user.
+     *
+     * @return the user
+     */
+    private static User newUser(){
+        User user = new User(8L);
+        user.setMoney(new BigDecimal("99.9"));
+        user.setDate(new Date());
+        user.setNickNames(toArray("feilong", "飞天奔月", "venusdrogon"));
+
+        List<UserAddress> userAddresseList = new ArrayList<UserAddress>();
+        for (int i = 0; i < 10; ++i){
+            UserAddress userAddress = new UserAddress();
+            userAddress.setAddress("上海" + i);
+            userAddresseList.add(userAddress);
+        }
+        user.setUserAddresseList(userAddresseList);
+        return user;
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.beanutiltest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.bean.BeanUtil;
+import com.feilong.test.User;
+import com.feilong.test.UserAddress;
+import com.feilong.test.UserInfo;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.bean.ConvertUtil.toMap;
+
+/**
+ * The Class BeanUtilDeepCloneBeanTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class BeanUtilDeepCloneBeanTest{
+
+    /**
+     * Test deep clone bean.
+     */
+    @Test
+    public void testDeepCloneBean(){
+        User user = newUser();
+
+        User cloneUser = BeanUtil.deepCloneBean(user);
+
+        assertThat(cloneUser, is(not(sameInstance(user))));
+        assertEquals(user.getId(), cloneUser.getId());
+        assertEquals(user.getMoney(), cloneUser.getMoney());
+
+        //不可变类型直接共享
+        assertThat(cloneUser.getName(), is(sameInstance(user.getName())));
+        assertThat(cloneUser.getMoney(), is(sameInstance(user.getMoney())));
+
+        //可变类型复制
+        assertThat(cloneUser.getDate(), is(not(sameInstance(user.getDate()))));
+        assertEquals(user.getDate(), cloneUser.getDate());
+
+        assertThat(cloneUser.getNickNames(), is(not(sameInstance(user.getNickNames()))));
+        assertArrayEquals(user.getNickNames(), cloneUser.getNickNames());
+
+        assertThat(cloneUser.getUserInfo(), is(not(sameInstance(user.getUserInfo()))));
+        assertEquals(18, cloneUser.getUserInfo().getAge().intValue());
+
+        assertThat(cloneUser.getAttrMap(), is(not(sameInstance(user.getAttrMap()))));
+        assertEquals(user.getAttrMap(), cloneUser.getAttrMap());
+        assertEquals(TreeMap.class, cloneUser.getAttrMap().getClass());
+    }
+
+    /**
+     * Test deep clone bean shared reference.
+     */
+    @Test
+    public void testDeepCloneBeanSharedReference(){
+        UserAddress userAddress = new UserAddress();
+        userAddress.setAddress("上海");
+
+        User user = new User();
+        List<UserAddress> userAddresseList = new ArrayList<UserAddress>();
+        userAddresseList.add(userAddress);
+        user.setUserAddresseList(userAddresseList);
+        user.setUserAddresses(toArray(userAddress));
+
+        User cloneUser = BeanUtil.deepCloneBean(user);
+
+        UserAddress cloneUserAddress = cloneUser.getUserAddresseList().get(0);
+        assertThat(cloneUserAddress, is(not(sameInstance(userAddress))));
+        assertEquals("上海", cloneUserAddress.getAddress());
+
+        //同一个对象被多处引用,克隆后依然是同一个对象
+        assertThat(cloneUser.getUserAddresses()[0], is(sameInstance(cloneUserAddress)));
+    }
+
+    /**
+     * Test deep clone bean cycle.
+     */
+    @Test
+    public void testDeepCloneBeanCycle(){
+        List<Object> list = new ArrayList<Object>();
+        list.add("feilong");
+        list.add(list);
+
+        List<Object> cloneList = BeanUtil.deepCloneBean(list);
+        assertThat(cloneList, is(not(sameInstance(list))));
+        assertThat(cloneList.get(1), is(sameInstance((Object) cloneList)));
+    }
+
+    /**
+     * Test deep clone bean primitive array.
+     */
+    @Test
+    public void testDeepCloneBeanPrimitiveArray(){
+        int[] ints = { 1, 2, 3 };
+        int[] cloneInts = BeanUtil.deepCloneBean(ints);
+
+        assertThat(cloneInts, is(not(sameInstance(ints))));
+        assertArrayEquals(ints, cloneInts);
+    }
+
+    /**
+     * Test deep clone bean immutable types.
+     */
+    @Test
+    public void testDeepCloneBeanImmutableTypes(){
+        User user = newUser();
+
+        User cloneUser = BeanUtil.deepCloneBean(user, UserInfo.class);
+        assertThat(cloneUser.getUserInfo(), is(sameInstance(user.getUserInfo())));
+        assertThat(cloneUser.getDate(), is(not(sameInstance(user.getDate()))));
+    }
+
+    /**
+     * Test deep clone bean empty collections.
+     */
+    @Test
+    public void testDeepCloneBeanEmptyCollections(){
+        assertReadOnlyCopy(Collections.emptyList(), List.class);
+        assertReadOnlyCopy(Collections.emptySet(), Set.class);
+        assertReadOnlyCopy(Collections.emptyMap(), Map.class);
+    }
+
+    /**
+     * Test deep clone bean singleton collections.
+     */
+    @Test
+    public void testDeepCloneBeanSingletonCollections(){
+        assertReadOnlyCopy(Collections.singletonList(new Date(0)), List.class);
+        assertReadOnlyCopy(Collections.singleton(new Date(0)), Set.class);
+        assertReadOnlyCopy(Collections.singletonMap("date", new Date(0)), Map.class);
+    }
+
+    /**
+     * Test deep clone bean unmodifiable collections.
+     */
+    @Test
+    public void testDeepCloneBeanUnmodifiableCollections(){
+        List<Date> list = toList(new Date(0), new Date(1));
+        assertReadOnlyCopy(Collections.unmodifiableList(list), List.class);
+        Object cloneCollection = assertReadOnlyCopy(Collections.unmodifiableCollection(list), Collection.class);
+        assertFalse(cloneCollection instanceof List);
+        assertReadOnlyCopy(Collections.unmodifiableSet(new HashSet<Date>(list)), Set.class);
+        assertReadOnlyCopy(Collections.unmodifiableMap(toMap("date", new Date(0))), Map.class);
+
+        TreeSet<String> treeSet = new TreeSet<String>(Collections.<String> reverseOrder());
+        treeSet.addAll(toList("a", "c", "b"));
+        SortedSet<String> sortedSet = (SortedSet<String>) assertReadOnlyCopy(Collections.unmodifiableSortedSet(treeSet), SortedSet.class);
+        assertThat(sortedSet, contains("c", "b", "a"));
+
+        TreeMap<String, Date> treeMap = new TreeMap<String, Date>(Collections.<String> reverseOrder());
+        treeMap.put("a", new Date(0));
+        treeMap.put("b", new Date(1));
+        SortedMap<String, Date> sortedMap = (SortedMap<String, Date>) assertReadOnlyCopy(Collections.unmodifiableSortedMap(treeMap), SortedMap.class);
+        assertThat(sortedMap.keySet(), contains("b", "a"));
+    }
+
+    /**
+     * Test deep clone bean arrays as list.
+     */
+    @Test
+    public void testDeepCloneBeanArraysAsList(){
+        List<Date> list = Arrays.asList(new Date(0), new Date(1));
+        Object cloneValue = cloneValue(list);
+
+        assertEquals(ArrayList.class, cloneValue.getClass());
+        assertEquals(list, cloneValue);
+        assertThat(((List<?>) cloneValue).get(0), is(not(sameInstance((Object) list.get(0)))));
+    }
+
+    /**
+     * Test deep clone bean comparator.
+     */
+    @Test
+    public void testDeepCloneBeanComparator(){
+        Comparator<String> comparator = Collections.reverseOrder();
+
+        PriorityQueue<String> priorityQueue = new PriorityQueue<String>(11, comparator);
+        priorityQueue.addAll(toList("a", "c", "b"));
+        PriorityQueue<?> clonePriorityQueue = (PriorityQueue<?>) cloneValue(priorityQueue);
+        assertThat(clonePriorityQueue.comparator(), is(sameInstance((Object) comparator)));
+        assertEquals("c", clonePriorityQueue.peek());
+
+        TreeSet<String> treeSet = new TreeSet<String>(comparator);
+        treeSet.addAll(toList("a", "c", "b"));
+        TreeSet<?> cloneTreeSet = (TreeSet<?>) cloneValue(treeSet);
+        assertThat(cloneTreeSet.comparator(), is(sameInstance((Object) comparator)));
+        assertThat(cloneTreeSet, contains((Object) "c", "b", "a"));
+
+        TreeMap<String, String> treeMap = new TreeMap<String, String>(comparator);
+        treeMap.put("a", "1");
+        treeMap.put("b", "2");
+        TreeMap<?, ?> cloneTreeMap = (TreeMap<?, ?>) cloneValue(treeMap);
+        assertThat(cloneTreeMap.comparator(), is(sameInstance((Object) comparator)));
+        assertThat(cloneTreeMap.keySet(), contains((Object) "b", "a"));
+    }
+
+    /**
+     * 父类是 JDK 的集合,不会复制 JDK 的内部字段,元素通过 add 重新添加.
+     */
+    @Test
+    public void testDeepCloneBeanJdkCollectionSubclass(){
+        Date date = new Date();
+        DateList dateList = new DateList();
+        dateList.setName("feilong");
+        dateList.add(date);
+        dateList.add(date);
+
+        DateList cloneDateList = (DateList) cloneValue(dateList);
+        assertThat(cloneDateList, is(not(sameInstance(dateList))));
+        assertEquals("feilong", cloneDateList.getName());
+        assertEquals(dateList, cloneDateList);
+        assertThat(cloneDateList.get(0), is(not(sameInstance(date))));
+        assertThat(cloneDateList.get(0), is(sameInstance(cloneDateList.get(1))));
+    }
+
+    /**
+     * 父类是 JDK 的有序 map,使用同一个 comparator.
+     */
+    @Test
+    public void testDeepCloneBeanJdkMapSubclass(){
+        Comparator<String> comparator = Collections.reverseOrder();
+        ComparatorTreeMap treeMap = new ComparatorTreeMap(comparator);
+        treeMap.put("a", "1");
+        treeMap.put("b", "2");
+
+        ComparatorTreeMap cloneTreeMap = (ComparatorTreeMap) cloneValue(treeMap);
+        assertThat(cloneTreeMap.comparator(), is(sameInstance((Object) comparator)));
+        assertThat(cloneTreeMap.keySet(), contains("b", "a"));
+    }
+
+    /**
+     * 父类是抽象的 JDK 集合,元素保存在子类自己的字段里面,只复制子类的字段,不会重复添加.
+     */
+    @Test
+    public void testDeepCloneBeanJdkAbstractCollectionSubclass(){
+        ArrayBackedList arrayBackedList = new ArrayBackedList();
+        arrayBackedList.elements = new Object[] { "a", new Date() };
+
+        ArrayBackedList cloneList = (ArrayBackedList) cloneValue(arrayBackedList);
+        assertEquals(arrayBackedList, cloneList);
+        assertThat(cloneList.get(1), is(not(sameInstance(arrayBackedList.get(1)))));
+    }
+
+    /**
+     * 父类是有状态的 JDK 类型(非集合),使用公共的 clone().
+     */
+    @Test
+    public void testDeepCloneBeanJdkCloneableSubclass(){
+        TaggedBitSet taggedBitSet = new TaggedBitSet();
+        taggedBitSet.set(3);
+        taggedBitSet.set(100);
+        taggedBitSet.tags = toList("a", "b");
+
+        TaggedBitSet cloneBitSet = (TaggedBitSet) cloneValue(taggedBitSet);
+        assertEquals(taggedBitSet, cloneBitSet);
+        assertEquals(taggedBitSet.tags, cloneBitSet.tags);
+        assertThat(cloneBitSet.tags, is(not(sameInstance(taggedBitSet.tags))));
+    }
+
+    /**
+     * 父类是有状态的 JDK 类型,并且不能 clone.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testDeepCloneBeanJdkUnsupportedSubclass(){
+        cloneValue(new NamedRandom());
+    }
+
+    /**
+     * Test deep clone bean no default constructor bean.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testDeepCloneBeanNoDefaultConstructorBean(){
+        BeanUtil.deepCloneBean(new BeanUtilCloneBeanTest().new NoDefaultConstructorBean("feilong"));
+    }
+
+    /**
+     * Test deep clone bean null bean.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testDeepCloneBeanNullBean(){
+        BeanUtil.deepCloneBean(null);
+    }
+
+    //****************************************************************************************
+
+    /**
+     * 克隆字段值是 <code>value</code> 的 bean,返回克隆之后的字段值.
+     *
+     * @param value
+     *            the value
+     * @return the object
+     */
+    private static Object cloneValue(Object value){
+        ValueHolder valueHolder = new ValueHolder();
+        valueHolder.value = value;
+        return BeanUtil.deepCloneBean(valueHolder).value;
+    }
+
+    /**
+     * 克隆之后相等,元素也被克隆,并且依然只读.
+     *
+     * @param value
+     *            the value
+     * @param type
+     *            克隆之后需要实现的接口
+     * @return 克隆之后的字段值
+     */
+    @SuppressWarnings("unchecked")
+    private static Object assertReadOnlyCopy(Object value,Class<?> type){
+        Object cloneValue = cloneValue(value);
+        assertThat(cloneValue, is(not(sameInstance(value))));
+        assertTrue(type.isInstance(cloneValue));
+        if (value instanceof List || value instanceof Set || value instanceof Map){
+            assertEquals(value, cloneValue);
+        }else{
+            //Collections.unmodifiableCollection 没有重写 equals
+            assertEquals(new ArrayList<Object>((Collection<?>) value), new ArrayList<Object>((Collection<?>) cloneValue));
+        }
+
+        Collection<?> elements = value instanceof Map ? ((Map<?, ?>) value).values() : (Collection<?>) value;
+        Collection<?> cloneElements = cloneValue instanceof Map ? ((Map<?, ?>) cloneValue).values() : (Collection<?>) cloneValue;
+        if (!elements.isEmpty() && elements.iterator().next() instanceof Date){
+            assertThat(cloneElements.iterator().next(), is(not(sameInstance((Object) elements.iterator().next()))));
+        }
+
+        try{
+            if (cloneValue instanceof Map){
+                ((Map<Object, Object>) cloneValue).put("key", "value");
+            }else{
+                ((Collection<Object>) cloneValue).add("value");
+            }
+            fail("clone value should be read only");
+        }catch (UnsupportedOperationException e){
+            //read only
+        }
+        return cloneValue;
+    }
+
+    /**
+     * New user.
+     *
+     * @return the user
+     */
+    private static User newUser(){
+        User user = new User(8L);
+        user.setMoney(new BigDecimal("99.9"));
+        user.setDate(new Date());
+        user.setNickNames(toArray("feilong", "飞天奔月"));
+        user.getUserInfo().setAge(18);
+
+        Map<String, String> attrMap = new TreeMap<String, String>(toMap("蜀国", "赵云"));
+        user.setAttrMap(attrMap);
+        return user;
+    }
+
+    /**
+     * 继承 {@link ArrayList} 的 bean.
+     */
+    public static class DateList extends ArrayList<Date>{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The name. */
+        private String            name;
+
+        /**
+         * Gets the name.
+         *
+         * @return the name
+         */
+        public String getName(){
+            return name;
+        }
+
+        /**
+         * Sets the name.
+         *
+         * @param name
+         *            the name to set
+         */
+        public void setName(String name){
+            this.name = name;
+        }
+    }
+
+    /**
+     * 继承 {@link TreeMap},只有 comparator 构造函数.
+     */
+    public static class ComparatorTreeMap extends TreeMap<String, String>{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Instantiates a new comparator tree map.
+         *
+         * @param comparator
+         *            the comparator
+         */
+        public ComparatorTreeMap(Comparator<String> comparator){
+            super(comparator);
+        }
+    }
+
+    /**
+     * 继承 {@link java.util.AbstractList},元素保存在自己的数组里面.
+     */
+    public static class ArrayBackedList extends java.util.AbstractList<Object>{
+
+        /** The elements. */
+        private Object[] elements = {};
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractList#get(int)
+         */
+        @Override
+        public Object get(int index){
+            return elements[index];
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.AbstractCollection#size()
+         */
+        @Override
+        public int size(){
+            return elements.length;
+        }
+    }
+
+    /**
+     * 继承 {@link java.util.BitSet}.
+     */
+    public static class TaggedBitSet extends java.util.BitSet{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The tags. */
+        private List<String>      tags;
+    }
+
+    /**
+     * 继承 {@link java.util.Random},有状态并且不能 clone.
+     */
+    public static class NamedRandom extends java.util.Random{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The name. */
+        private String            name             = "feilong";
+    }
+
+    /**
+     * 字段是任意值的 bean.
+     */
+    public static class ValueHolder{
+
+        /** The value. */
+        private Object value;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.beanutiltest;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.bean.ConvertUtil.toMap;
+
+/**
+ * The Class BeanUtilPopulateAllTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class BeanUtilPopulateAllTest{
+
+    /**
+     * Test populate all.
+     */
+    @Test
+    public void testPopulateAll(){
+        List<Map<String, Object>> mapList = new ArrayList<>();
+        mapList.add(newRow("8", "jim", "18"));
+        mapList.add(newRow("9", "tom", null));
+
+        List<User> list = BeanUtil.populateAll(mapList, User.class);
+
+        assertEquals(2, list.size());
+        assertThat(list.get(0), allOf(hasProperty("id", is(8L)), hasProperty("name", is("jim")), hasProperty("age", is(18))));
+        //和 BeanUtils.populate 一致,默认的 IntegerConverter 把null转成0
+        assertThat(list.get(1), allOf(hasProperty("id", is(9L)), hasProperty("name", is("tom")), hasProperty("age", is(0))));
+    }
+
+    /**
+     * 和 {@link BeanUtil#populate(Object, Map)} 结果一致(不存在的属性,nested 属性,数组属性,不同 key 集合的行).
+     */
+    @Test
+    public void testPopulateAllSameAsPopulate(){
+        Map<String, Object> row1 = newRow("8", "jim", "18");
+        row1.put("id1", "1");
+        row1.put("userInfo.age", "20");
+        row1.put("loves", "a,b");
+
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("money", "1.5");
+        row2.put("nickNames", new String[] { "x", "y" });
+
+        List<Map<String, Object>> mapList = toList(row1, row2);
+        List<User> list = BeanUtil.populateAll(mapList, User.class);
+
+        for (int i = 0; i < mapList.size(); ++i){
+            User user = BeanUtil.populate(new User(), mapList.get(i));
+            User populateAllUser = list.get(i);
+
+            assertEquals(user.getId(), populateAllUser.getId());
+            assertEquals(user.getName(), populateAllUser.getName());
+            assertEquals(user.getAge(), populateAllUser.getAge());
+            assertEquals(user.getMoney(), populateAllUser.getMoney());
+            assertEquals(user.getUserInfo().getAge(), populateAllUser.getUserInfo().getAge());
+        }
+
+        assertThat(list.get(0), hasProperty("loves", arrayContaining("a", "b")));
+        assertThat(list.get(1), hasProperty("nickNames", arrayContaining("x", "y")));
+    }
+
+    /**
+     * Test populate all parallel.
+     */
+    @Test
+    public void testPopulateAllParallel(){
+        List<Map<String, Object>> mapList = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i){
+            mapList.add(newRow("" + i, "name" + i, "" + (i % 100)));
+        }
+
+        List<User> list = BeanUtil.populateAll(mapList, User.class, true);
+        assertEquals(10000, list.size());
+        for (int i = 0; i < 10000; ++i){
+            assertThat(list.get(i), allOf(hasProperty("id", is((long) i)), hasProperty("age", is(i % 100))));
+        }
+    }
+
+    //*******************************************************************************
+
+    /**
+     * Test populate all null map list.
+     */
+    @Test
+    public void testPopulateAllNullMapList(){
+        assertEquals(emptyList(), BeanUtil.populateAll(null, User.class));
+    }
+
+    /**
+     * Test populate all null class.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testPopulateAllNullClass(){
+        List<Map<String, Long>> mapList = toList(toMap("id", 8L));
+        BeanUtil.populateAll(mapList, null);
+    }
+
+    /**
+     * {@link Integer} 没有 public 的无参构造函数.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPopulateAllNoDefaultConstructor(){
+        List<Map<String, Long>> mapList = toList(toMap("id", 8L));
+        BeanUtil.populateAll(mapList, Integer.class);
+    }
+
+    /**
+     * Test populate all null element.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testPopulateAllNullElement(){
+        List<Map<String, Long>> mapList = toList(toMap("id", 8L), null);
+        BeanUtil.populateAll(mapList, User.class);
+    }
+
+    /**
+     * New row.
+     *
+     * @param id
+     *            the id
+     * @param name
+     *            the name
+     * @param age
+     *            the age
+     * @return the map
+     */
+    private static Map<String, Object> newRow(String id,String name,String age){
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("name", name);
+        map.put("age", age);
+        return map;
+    }
+}
@@ -29,8 +29,10 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ //
                 BeanUtilCloneBeanTest.class,
                 BeanUtilCopyPropertiesTest.class,
+                BeanUtilDeepCloneBeanTest.class,
                 BeanUtilNewDynaBeanTest.class,
                 BeanUtilPopulateAliasBeanTest.class,
+                BeanUtilPopulateAllTest.class,
                 BeanUtilPopulateTest.class,
         //
 })
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.converters.BigDecimalConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.bean.ConvertUtil;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * 合法和不合法的值混合的情况下,{@link ConvertUtil#toInteger(Object, Integer)},{@link ConvertUtil#toLong(Object)},{@link ConvertUtil#toBigDecimal(Object)},
+ * {@link ConvertUtil#toBoolean(Object)} 和直接使用 beanutils 转换器的性能对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ConvertUtilToNumberMixedInputPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger   LOGGER = LoggerFactory.getLogger(ConvertUtilToNumberMixedInputPerformanceTest.class);
+
+    /** 一半合法一半不合法,模拟爬虫乱传的页码. */
+    private static final String[] VALUES = { "1", "abc", "25", "", "12.5", "undefined", "100", "1e3", "-8", "null", "999999999999" };
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        IntegerConverter integerConverter = new IntegerConverter(1);
+        LongConverter longConverter = new LongConverter(null);
+        BigDecimalConverter bigDecimalConverter = new BigDecimalConverter(null);
+
+        for (Integer times : toList(1, 10, 100, 1000, 10000, 100000)){
+            Date beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                integerConverter.convert(Integer.class, VALUES[i % VALUES.length]);
+            }
+            LOGGER.debug("[IntegerConverter]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                ConvertUtil.toInteger(VALUES[i % VALUES.length], 1);
+            }
+            LOGGER.debug("[toInteger]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                longConverter.convert(Long.class, VALUES[i % VALUES.length]);
+            }
+            LOGGER.debug("[LongConverter]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                ConvertUtil.toLong(VALUES[i % VALUES.length]);
+            }
+            LOGGER.debug("[toLong]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                bigDecimalConverter.convert(BigDecimal.class, VALUES[i % VALUES.length]);
+            }
+            LOGGER.debug("[BigDecimalConverter]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                ConvertUtil.toBigDecimal(VALUES[i % VALUES.length]);
+            }
+            LOGGER.debug("[toBigDecimal]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                ConvertUtils.convert(VALUES[i % VALUES.length], Boolean.class);
+            }
+            LOGGER.debug("[ConvertUtils.convert Boolean]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                ConvertUtil.toBoolean(VALUES[i % VALUES.length]);
+            }
+            LOGGER.debug("[toBoolean]{},use time:{}", times, formatDuration(beginDate));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import java.util.Date;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.bean.ConvertUtil;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link ConvertUtil#toLongs(Object)} 和 {@link ConvertUtil#toLongArray(Object)} 的性能对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ConvertUtilToPrimitiveArrayPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConvertUtilToPrimitiveArrayPerformanceTest.class);
+
+    /** 1~50000 逗号分隔的 id 列表. */
+    private static final String IDS    = buildIds(50000);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer times : toList(1, 10, 100)){
+            Date beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                ConvertUtil.toLongs(IDS);
+            }
+            LOGGER.debug("[toLongs]{},use time:{}", times, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < times; ++i){
+                ConvertUtil.toLongArray(IDS);
+            }
+            LOGGER.debug("[toLongArray]{},use time:{}", times, formatDuration(beginDate));
+        }
+    }
+
+    /**
+     * Builds the ids.
+     *
+     * @param count
+     *            the count
+     * @return the string
+     */
+    private static String buildIds(int count){
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; ++i){
+            sb.append(i == 1 ? "" : ",").append(i);
+        }
+        return sb.toString();
+    }
+}
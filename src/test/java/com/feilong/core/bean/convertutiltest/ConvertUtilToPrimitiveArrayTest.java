@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.ConvertUtil;
+import com.feilong.core.bean.ToPrimitiveArrayConfig;
+
+import static com.feilong.core.bean.ConvertUtil.toDoubleArray;
+import static com.feilong.core.bean.ConvertUtil.toIntArray;
+import static com.feilong.core.bean.ConvertUtil.toIntegers;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.bean.ConvertUtil.toLongArray;
+import static com.feilong.core.bean.ConvertUtil.toLongs;
+import static com.feilong.core.bean.ToPrimitiveArrayConfig.InvalidElementPolicy.SKIP;
+import static com.feilong.core.bean.ToPrimitiveArrayConfig.InvalidElementPolicy.USE_DEFAULT;
+
+/**
+ * The Class ConvertUtilToPrimitiveArrayTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ConvertUtilToPrimitiveArrayTest{
+
+    /**
+     * Test to int array.
+     */
+    @Test
+    public void testToIntArray(){
+        assertNull(toIntArray(null));
+        assertArrayEquals(new int[] {}, toIntArray(""));
+        assertArrayEquals(new int[] {}, toIntArray(" "));
+        assertArrayEquals(new int[] {}, toIntArray("{}"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("1,2,3"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("{1,2,3}"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("{ 1 ,2,3}"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("1,2 , 3"));
+        assertArrayEquals(new int[] { -1, 2, 3 }, toIntArray("-1,+2,3"));
+        assertArrayEquals(new int[] { Integer.MIN_VALUE, Integer.MAX_VALUE }, toIntArray("-2147483648,2147483647"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray(new StringBuilder("1,2,3")));
+    }
+
+    /**
+     * Test to int array elements.
+     */
+    @Test
+    public void testToIntArrayElements(){
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray(new String[] { "1", "2", "3" }));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray(toList("1", "2", " 3")));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray(toList(1, 2L, new BigDecimal("3"))));
+        assertArrayEquals(new int[] { 1, 0, 0 }, toIntArray(new Boolean[] { true, false, false }));
+        assertArrayEquals(new int[] { 1, 2 }, toIntArray(new int[] { 1, 2 }));
+        assertArrayEquals(new int[] { 5 }, toIntArray(5));
+        assertArrayEquals(new int[] { 1, 2 }, toIntArray(new Double[] { 1.0d, 2.5d }));
+    }
+
+    /**
+     * Test to int array that is same as to integers.
+     */
+    @Test
+    public void testToIntArraySameAsToIntegers(){
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; ++i){
+            sb.append(i == 0 ? "" : ",").append(random.nextInt());
+        }
+        String value = sb.toString();
+
+        Integer[] integers = toIntegers(value);
+        int[] ints = toIntArray(value);
+        assertEquals(integers.length, ints.length);
+        for (int i = 0; i < ints.length; ++i){
+            assertEquals(integers[i].intValue(), ints[i]);
+        }
+    }
+
+    /**
+     * Test to int array that is same as to integers and to longs, on the same inputs.
+     */
+    @Test
+    public void testToIntArraySameAsToIntegersAndToLongs(){
+        Object[] values = {
+                            "1,2,3",
+                            "1, 2,,3",
+                            "1,",
+                            ",",
+                            "1 2 3",
+                            "1\t2\n3",
+                            "1;2",
+                            "1_2",
+                            "'1',\"2\"",
+                            "{1,2}",
+                            "+1,2",
+                            "-5",
+                            new Double[] { 1.0d, 2.5d },
+                            new Double[] { -2.7d },
+                            new double[] { 1.9d },
+                            new Object[] { Float.NaN },
+                            new Object[] { " 2 ", true },
+                            toList("3", 4) };
+        for (Object value : values){
+            String message = ConvertUtil.toString(value);
+
+            Integer[] integers = toIntegers(value);
+            int[] ints = toIntArray(value);
+            assertEquals(message, integers.length, ints.length);
+            for (int i = 0; i < ints.length; ++i){
+                assertEquals(message, integers[i].intValue(), ints[i]);
+            }
+
+            Long[] longs = toLongs(value);
+            long[] primitiveLongs = toLongArray(value);
+            assertEquals(message, longs.length, primitiveLongs.length);
+            for (int i = 0; i < primitiveLongs.length; ++i){
+                assertEquals(message, longs[i].longValue(), primitiveLongs[i]);
+            }
+        }
+    }
+
+    /**
+     * Test to long array number, same as to longs, {@link Number#longValue()} is used directly.
+     */
+    @Test
+    public void testToLongArrayNumber(){
+        Object[] value = { new BigDecimal("1e30"), 1L << 40 };
+        assertEquals(toLongs(value)[0].longValue(), toLongArray(value)[0]);
+        assertArrayEquals(new long[] { new BigDecimal("1e30").longValue(), 1L << 40 }, toLongArray(value));
+    }
+
+    /**
+     * Test to int array invalid.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testToIntArrayInvalid(){
+        toIntArray("1,a,3");
+    }
+
+    /**
+     * Test to int array overflow.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testToIntArrayOverflow(){
+        toIntArray("1,2147483648");
+    }
+
+    /**
+     * Test to int array overflow number.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testToIntArrayOverflowNumber(){
+        toIntArray(toList(1L, Long.MAX_VALUE));
+    }
+
+    /**
+     * Test to int array empty element.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testToIntArrayEmptyElement(){
+        toIntArray("1,,3", new ToPrimitiveArrayConfig(","));
+    }
+
+    /**
+     * Test to int array null element.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testToIntArrayNullElement(){
+        toIntArray(new String[] { "1", null, "3" });
+    }
+
+    /**
+     * Test to int array sign only.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testToIntArraySignOnly(){
+        toIntArray("1,-");
+    }
+
+    /**
+     * Test to int array config.
+     */
+    @Test
+    public void testToIntArrayConfig(){
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("1;2 3", new ToPrimitiveArrayConfig("; ")));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("1|2|3", new ToPrimitiveArrayConfig("|")));
+        assertArrayEquals(new int[] { 1, 3 }, toIntArray("1,a,,3", new ToPrimitiveArrayConfig(",", SKIP)));
+        assertArrayEquals(new int[] { 1, -1, -1, 3 }, toIntArray("1,a,,3", new ToPrimitiveArrayConfig(",", USE_DEFAULT, -1)));
+        assertArrayEquals(new int[] { 1, 0, 3 }, toIntArray(new String[] { "1", null, "3" }, new ToPrimitiveArrayConfig(",", USE_DEFAULT)));
+        assertArrayEquals(new int[] { 1, 3 }, toIntArray("1,99999999999,3", new ToPrimitiveArrayConfig(",", SKIP)));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("1,2,3", null));
+    }
+
+    /**
+     * Test to int array empty delimiters.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testToIntArrayEmptyDelimiters(){
+        toIntArray("1,2,3", new ToPrimitiveArrayConfig(""));
+    }
+
+    /**
+     * Test to int array null default value.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testToIntArrayNullDefaultValue(){
+        toIntArray("1,2,3", new ToPrimitiveArrayConfig(",", USE_DEFAULT, null));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test to long array.
+     */
+    @Test
+    public void testToLongArray(){
+        assertNull(toLongArray(null));
+        assertArrayEquals(new long[] { 1L, 2L, 3L }, toLongArray("{ 1 ,2,3}"));
+        assertArrayEquals(new long[] { 1L, 2L, 3L }, toLongArray(toList("1", "2", " 3")));
+        assertArrayEquals(new long[] { Long.MIN_VALUE, Long.MAX_VALUE }, toLongArray("-9223372036854775808,9223372036854775807"));
+        assertArrayEquals(new long[] { 1L, 3L }, toLongArray("1,9223372036854775808,3", new ToPrimitiveArrayConfig(",", SKIP)));
+    }
+
+    /**
+     * Test to long array overflow.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testToLongArrayOverflow(){
+        toLongArray("-9223372036854775809");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test to double array.
+     */
+    @Test
+    public void testToDoubleArray(){
+        assertNull(toDoubleArray(null));
+        assertArrayEquals(new double[] { 1d, 2.5d, -300d }, toDoubleArray("1,2.5,-3e2"), 0);
+        assertArrayEquals(new double[] { 0.5d, 5d, -0d }, toDoubleArray("{.5, 5., -0}"), 0);
+        assertArrayEquals(new double[] { 1d, 2.5d }, toDoubleArray(toList(1, new BigDecimal("2.5"))), 0);
+        assertArrayEquals(new double[] { 1d, Double.NaN, 3d }, toDoubleArray("1,NaN,1d,0x10,e5,.,3", new ToPrimitiveArrayConfig(",", SKIP)), 0);
+        assertArrayEquals(new double[] { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY }, toDoubleArray("NaN Infinity -Infinity"), 0);
+        assertArrayEquals(new double[] { 1d, 2d, 3d }, toDoubleArray("1 2;;3"), 0);
+    }
+
+    /**
+     * Test to double array same as parse double.
+     */
+    @Test
+    public void testToDoubleArraySameAsParseDouble(){
+        String[] values = {
+                            "0.1",
+                            "0.3",
+                            "123.456",
+                            "-987654.321",
+                            "3.141592653589793",
+                            "0.000000000000000000000001",
+                            "12345678901234567890.123",
+                            "1.7976931348623157e308",
+                            "4.9e-324",
+                            "1e400",
+                            "9007199254740993" };
+        double[] doubles = toDoubleArray(values);
+        for (int i = 0; i < values.length; ++i){
+            assertEquals(values[i], Double.doubleToLongBits(Double.parseDouble(values[i])), Double.doubleToLongBits(doubles[i]));
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; ++i){
+            String value = new BigDecimal(random.nextLong()).movePointLeft(random.nextInt(20)).toPlainString();
+            assertEquals(value, Double.parseDouble(value), toDoubleArray(value)[0], 0);
+        }
+    }
+
+    /**
+     * Test to double array invalid.
+     */
+    @Test(expected = NumberFormatException.class)
+    public void testToDoubleArrayInvalid(){
+        toDoubleArray("1,1e");
+    }
+}
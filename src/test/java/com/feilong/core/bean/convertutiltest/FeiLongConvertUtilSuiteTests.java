@@ -47,6 +47,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 ConvertUtilToMapCollectionTest.class,
                 ConvertUtilToMapKeyValueTest.class,
                 ConvertUtilToMapPropertiesTest.class,
+                ConvertUtilToPrimitiveArrayTest.class,
                 ConvertUtilToPropertiesTest.class,
                 ConvertUtilToStringArrayToStringConfigParameterizedTest.class,
                 ConvertUtilToStringCollectionToStringConfigParameterizedTest.class,
@@ -28,6 +28,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ //
                 PropertyUtilCopyPropertiesTest.class,
                 PropertyUtilDescribeTest.class,
+                PropertyUtilDescribeViewTest.class,
                 PropertyUtilFindValueOfTypeTest.class,
                 PropertyUtilGetPropertyTest.class,
                 PropertyUtilSetPropertyIfValueNotNullOrEmptyTest.class,
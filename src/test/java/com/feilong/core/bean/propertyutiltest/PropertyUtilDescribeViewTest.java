@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.propertyutiltest;
+
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.test.User;
+
+/**
+ * The Class PropertyUtilDescribeViewTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class PropertyUtilDescribeViewTest{
+
+    /**
+     * Test describe view.
+     */
+    @Test
+    public void testDescribeView(){
+        User user = new User(5L);
+        Map<String, Object> map = PropertyUtil.describeView(user);
+
+        assertEquals(5L, map.get("id"));
+        assertEquals(true, map.containsKey("name"));
+        assertEquals(false, map.containsKey("name1"));
+        assertEquals(null, map.get("name1"));
+        assertThat(map.keySet(), hasItems("id", "name", "class"));
+    }
+
+    /**
+     * Test describe view live.
+     */
+    @Test
+    public void testDescribeViewLive(){
+        User user = new User(5L);
+        Map<String, Object> map = PropertyUtil.describeView(user);
+
+        user.setId(8L);
+        assertEquals(8L, map.get("id"));
+    }
+
+    /**
+     * Test describe view same as describe.
+     */
+    @Test
+    public void testDescribeViewSameAsDescribe(){
+        User user = new User(5L);
+        assertEquals(PropertyUtil.describe(user), new HashMap<String, Object>(PropertyUtil.describeView(user)));
+    }
+
+    /**
+     * Test describe view read only.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDescribeViewReadOnly(){
+        PropertyUtil.describeView(new User()).put("id", 5L);
+    }
+
+    /**
+     * Test describe view null bean.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testDescribeViewNullBean(){
+        PropertyUtil.describeView(null);
+    }
+
+    /**
+     * Test describe view map.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDescribeViewMap(){
+        PropertyUtil.describeView(new HashMap<String, Object>());
+    }
+}
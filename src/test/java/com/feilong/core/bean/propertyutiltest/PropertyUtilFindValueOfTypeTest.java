@@ -18,13 +18,18 @@ package com.feilong.core.bean.propertyutiltest;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
+import java.lang.ref.WeakReference;
 import java.util.Date;
 
 import org.junit.Test;
 
 import com.feilong.core.bean.PropertyUtil;
+import com.feilong.test.IsolatedClassLoader;
 import com.feilong.test.User;
 import com.feilong.test.UserInfo;
 
@@ -77,4 +82,292 @@ public class PropertyUtilFindValueOfTypeTest{
         User user = new User();
         assertEquals(user, PropertyUtil.findValueOfType(user, User.class));
     }
+
+    /**
+     * 声明类型是父类,运行时是子类,子类的属性里面有目标类型.
+     */
+    @Test
+    public void testFindValueOfTypeDeclaredSuperTypeRuntimeSubType(){
+        UserInfo userInfo = new UserInfo();
+        userInfo.setAge(18);
+
+        SubNode subNode = new SubNode();
+        subNode.setUserInfo(userInfo);
+
+        Root root = new Root();
+        root.setNode(subNode);
+
+        assertSame(userInfo, PropertyUtil.findValueOfType(root, UserInfo.class));
+    }
+
+    /**
+     * 经过 final 类型的属性,并且有循环引用.
+     */
+    @Test
+    public void testFindValueOfTypeThroughFinalType(){
+        UserInfo userInfo = new UserInfo();
+
+        FinalHolder finalHolder = new FinalHolder();
+        finalHolder.setUserInfo(userInfo);
+
+        Root root = new Root();
+        root.setFinalHolder(finalHolder);
+        assertSame(userInfo, PropertyUtil.findValueOfType(root, UserInfo.class));
+
+        //FinalHolder 里面找不到 Date
+        assertEquals(null, PropertyUtil.findValueOfType(finalHolder, Date.class));
+    }
+
+    /**
+     * 声明类型直接匹配的属性优先.
+     */
+    @Test
+    public void testFindValueOfTypeDirectFirst(){
+        UserInfo nestedUserInfo = new UserInfo();
+        UserInfo directUserInfo = new UserInfo();
+
+        FinalHolder finalHolder = new FinalHolder();
+        finalHolder.setUserInfo(nestedUserInfo);
+
+        Root root = new Root();
+        root.setFinalHolder(finalHolder);
+        root.setUserInfo(directUserInfo);
+
+        assertSame(directUserInfo, PropertyUtil.findValueOfType(root, UserInfo.class));
+    }
+
+    /**
+     * 查找之后,运行时类型所在的 ClassLoader 可以被回收.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testFindValueOfTypeNotPinBeanClassLoader() throws Exception{
+        assertTrue(IsolatedClassLoader.isCollected(findValueOfTypeInIsolatedBean()));
+    }
+
+    /**
+     * 查找之后,目标类型所在的 ClassLoader 可以被回收.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testFindValueOfTypeNotPinTargetTypeClassLoader() throws Exception{
+        assertTrue(IsolatedClassLoader.isCollected(findIsolatedTargetType()));
+    }
+
+    /**
+     * 在独立 ClassLoader 加载的 {@link Root} 里面查找 {@link String}.
+     *
+     * @return the weak reference
+     * @throws Exception
+     *             the exception
+     */
+    private static WeakReference<ClassLoader> findValueOfTypeInIsolatedBean() throws Exception{
+        ClassLoader classLoader = new IsolatedClassLoader(Root.class);
+        Object root = classLoader.loadClass(Root.class.getName()).newInstance();
+        assertNotSame(Root.class, root.getClass());
+
+        assertEquals(null, PropertyUtil.findValueOfType(root, String.class));
+        return new WeakReference<ClassLoader>(classLoader);
+    }
+
+    /**
+     * 在 {@link Root} 里面查找独立 ClassLoader 加载的 {@link UserInfo}.
+     *
+     * @return the weak reference
+     * @throws Exception
+     *             the exception
+     */
+    private static WeakReference<ClassLoader> findIsolatedTargetType() throws Exception{
+        ClassLoader classLoader = new IsolatedClassLoader(UserInfo.class);
+        Class<?> userInfoClass = classLoader.loadClass(UserInfo.class.getName());
+
+        Root root = new Root();
+        root.setUserInfo(new UserInfo());
+        assertEquals(null, PropertyUtil.findValueOfType(root, userInfoClass));
+        return new WeakReference<ClassLoader>(classLoader);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * The Class Root.
+     */
+    public static class Root{
+
+        /** The final holder. */
+        private FinalHolder finalHolder;
+
+        /** The node. */
+        private Node        node;
+
+        /** The user info. */
+        private UserInfo    userInfo;
+
+        /**
+         * Gets the final holder.
+         *
+         * @return the finalHolder
+         */
+        public FinalHolder getFinalHolder(){
+            return finalHolder;
+        }
+
+        /**
+         * Sets the final holder.
+         *
+         * @param finalHolder
+         *            the finalHolder to set
+         */
+        public void setFinalHolder(FinalHolder finalHolder){
+            this.finalHolder = finalHolder;
+        }
+
+        /**
+         * Gets the node.
+         *
+         * @return the node
+         */
+        public Node getNode(){
+            return node;
+        }
+
+        /**
+         * Sets the node.
+         *
+         * @param node
+         *            the node to set
+         */
+        public void setNode(Node node){
+            this.node = node;
+        }
+
+        /**
+         * Gets the user info.
+         *
+         * @return the userInfo
+         */
+        public UserInfo getUserInfo(){
+            return userInfo;
+        }
+
+        /**
+         * Sets the user info.
+         *
+         * @param userInfo
+         *            the userInfo to set
+         */
+        public void setUserInfo(UserInfo userInfo){
+            this.userInfo = userInfo;
+        }
+    }
+
+    /**
+     * The Class Node.
+     */
+    public static class Node{
+
+        /** The name. */
+        private String name;
+
+        /**
+         * Gets the name.
+         *
+         * @return the name
+         */
+        public String getName(){
+            return name;
+        }
+
+        /**
+         * Sets the name.
+         *
+         * @param name
+         *            the name to set
+         */
+        public void setName(String name){
+            this.name = name;
+        }
+    }
+
+    /**
+     * The Class SubNode.
+     */
+    public static class SubNode extends Node{
+
+        /** The user info. */
+        private UserInfo userInfo;
+
+        /**
+         * Gets the user info.
+         *
+         * @return the userInfo
+         */
+        public UserInfo getUserInfo(){
+            return userInfo;
+        }
+
+        /**
+         * Sets the user info.
+         *
+         * @param userInfo
+         *            the userInfo to set
+         */
+        public void setUserInfo(UserInfo userInfo){
+            this.userInfo = userInfo;
+        }
+    }
+
+    /**
+     * The Class FinalHolder.
+     */
+    public static final class FinalHolder{
+
+        /** The self. */
+        private FinalHolder self;
+
+        /** The user info. */
+        private UserInfo    userInfo;
+
+        /**
+         * Gets the self.
+         *
+         * @return the self
+         */
+        public FinalHolder getSelf(){
+            return self;
+        }
+
+        /**
+         * Sets the self.
+         *
+         * @param self
+         *            the self to set
+         */
+        public void setSelf(FinalHolder self){
+            this.self = self;
+        }
+
+        /**
+         * Gets the user info.
+         *
+         * @return the userInfo
+         */
+        public UserInfo getUserInfo(){
+            return userInfo;
+        }
+
+        /**
+         * Sets the user info.
+         *
+         * @param userInfo
+         *            the userInfo to set
+         */
+        public void setUserInfo(UserInfo userInfo){
+            this.userInfo = userInfo;
+        }
+    }
 }
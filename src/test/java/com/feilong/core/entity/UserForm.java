@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.entity;
+
+/**
+ * 和 {@link com.feilong.test.User} 同名属性,但是类型都是 String 的表单对象,用来测试带类型转换的复制.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class UserForm{
+
+    /** The id. */
+    private String id;
+
+    /** The name. */
+    private String name;
+
+    /** The age. */
+    private String age;
+
+    /**
+     * Gets the id.
+     *
+     * @return the id
+     */
+    public String getId(){
+        return id;
+    }
+
+    /**
+     * Sets the id.
+     *
+     * @param id
+     *            the id to set
+     */
+    public void setId(String id){
+        this.id = id;
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Sets the name.
+     *
+     * @param name
+     *            the name to set
+     */
+    public void setName(String name){
+        this.name = name;
+    }
+
+    /**
+     * Gets the age.
+     *
+     * @return the age
+     */
+    public String getAge(){
+        return age;
+    }
+
+    /**
+     * Sets the age.
+     *
+     * @param age
+     *            the age to set
+     */
+    public void setAge(String age){
+        this.age = age;
+    }
+}
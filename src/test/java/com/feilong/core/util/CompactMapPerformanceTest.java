@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * 小 map 生成之后只读的场景,{@link LinkedHashMap} 和 {@link MapUtil#toCompactMap(Map)} 的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CompactMapPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER    = LoggerFactory.getLogger(CompactMapPerformanceTest.class);
+
+    /** 循环次数. */
+    private static final int    LOOP_SIZE = 1000000;
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer size : toList(1, 4, 8, 16, 32)){
+            String[] keys = new String[size];
+            Map<String, Integer> linkedHashMap = new LinkedHashMap<String, Integer>();
+            for (int i = 0; i < size; ++i){
+                keys[i] = "key" + i;
+                linkedHashMap.put(keys[i], i);
+            }
+            Map<String, Integer> compactMap = MapUtil.toCompactMap(linkedHashMap);
+
+            //预热
+            sum(linkedHashMap, keys);
+            Date beginDate = new Date();
+            long sum = sum(linkedHashMap, keys);
+            LOGGER.debug("[LinkedHashMap get]{},use time:{},sum:{}", size, formatDuration(beginDate), sum);
+
+            sum(compactMap, keys);
+            beginDate = new Date();
+            sum = sum(compactMap, keys);
+            LOGGER.debug("[CompactMap get]{},use time:{},sum:{}", size, formatDuration(beginDate), sum);
+
+            beginDate = new Date();
+            for (int i = 0; i < LOOP_SIZE; ++i){
+                Map<String, Integer> map = MapUtil.newLinkedHashMap(size);
+                map.putAll(linkedHashMap);
+            }
+            LOGGER.debug("[LinkedHashMap create]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            for (int i = 0; i < LOOP_SIZE; ++i){
+                MapUtil.toCompactMap(linkedHashMap);
+            }
+            LOGGER.debug("[CompactMap create]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+
+    /**
+     * 循环读取所有的 key.
+     *
+     * @param map
+     *            the map
+     * @param keys
+     *            the keys
+     * @return the long
+     */
+    private static long sum(Map<String, Integer> map,String[] keys){
+        long sum = 0;
+        for (int i = 0; i < LOOP_SIZE; ++i){
+            sum += map.get(keys[i % keys.length]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link MapUtil#putMultiValue(Map, Object, Object)} 和 {@link CompactMultiMap#put(Object, Object)} 的耗时以及内存对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CompactMultiMapPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactMultiMapPerformanceTest.class);
+
+    /**
+     * 每个 key 平均只有 4 个 value.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000, 1000000, 4000000)){
+            int keySize = Math.max(size / 4, 1);
+
+            long usedMemory = usedMemory();
+            Date beginDate = new Date();
+            Map<Integer, List<Integer>> map = new LinkedHashMap<Integer, List<Integer>>();
+            for (int i = 0; i < size; ++i){
+                MapUtil.putMultiValue(map, i % keySize, i);
+            }
+            LOGGER.debug("[putMultiValue]{},use time:{},memory:{}", size, formatDuration(beginDate), usedMemory() - usedMemory);
+            map = null;
+
+            usedMemory = usedMemory();
+            beginDate = new Date();
+            CompactMultiMap<Integer, Integer> multiMap = new CompactMultiMap<Integer, Integer>();
+            for (int i = 0; i < size; ++i){
+                multiMap.put(i % keySize, i);
+            }
+            multiMap.trimToSize();
+            LOGGER.debug("[CompactMultiMap put]{},use time:{},memory:{}", size, formatDuration(beginDate), usedMemory() - usedMemory);
+        }
+    }
+
+    /**
+     * 粗略的已使用内存.
+     *
+     * @return the long
+     */
+    private static long usedMemory(){
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The Class CompactMultiMapTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CompactMultiMapTest{
+
+    /**
+     * Test put.
+     */
+    @Test
+    public void testPut(){
+        CompactMultiMap<String, Integer> multiMap = new CompactMultiMap<String, Integer>();
+        assertEquals(1, multiMap.put("a", 1));
+        assertEquals(2, multiMap.put("a", 2));
+        assertEquals(1, multiMap.put("b", 3));
+        assertEquals(3, multiMap.put("a", 4));
+
+        assertThat(multiMap.get("a"), contains(1, 2, 4));
+        assertThat(multiMap.get("b"), contains(3));
+        assertNull(multiMap.get("c"));
+        assertTrue(multiMap.containsKey("a"));
+        assertFalse(multiMap.containsKey("c"));
+        assertEquals(2, multiMap.keySize());
+        assertEquals(4, multiMap.valueSize());
+        assertEquals("{a=[1, 2, 4], b=[3]}", multiMap.toString());
+    }
+
+    /**
+     * Test null key and null value.
+     */
+    @Test
+    public void testNullKeyAndNullValue(){
+        CompactMultiMap<String, String> multiMap = new CompactMultiMap<String, String>();
+        multiMap.put("a", "1");
+        multiMap.put(null, null);
+        multiMap.put(null, "2");
+
+        assertThat(multiMap.get(null), contains(null, "2"));
+        assertThat(multiMap.asMap().keySet(), contains("a", null));
+    }
+
+    /**
+     * 和 {@link MapUtil#putMultiValue(Map, Object, Object)} 生成的 {@link LinkedHashMap} 完全一致,包括扩容以及 key 交替出现(重新排列).
+     */
+    @Test
+    public void testSameAsPutMultiValue(){
+        Random random = new Random(20161017L);
+        CompactMultiMap<Integer, Integer> multiMap = new CompactMultiMap<Integer, Integer>(0, 0);
+        Map<Integer, List<Integer>> expected = new LinkedHashMap<Integer, List<Integer>>();
+        for (int i = 0; i < 100000; ++i){
+            Integer key = random.nextInt(3000);
+            multiMap.put(key, i);
+            MapUtil.putMultiValue(expected, key, i);
+
+            //读取会重新排列,之后继续 put
+            if (0 == i % 30000){
+                assertEquals(expected.get(key), multiMap.get(key));
+            }
+        }
+
+        assertEquals(expected, multiMap.toMap());
+        assertEquals(expected, multiMap.asMap());
+        assertEquals(expected.toString(), multiMap.toString());
+        assertEquals(new ArrayList<Integer>(expected.keySet()), new ArrayList<Integer>(multiMap.asMap().keySet()));
+
+        multiMap.trimToSize();
+        assertEquals(expected, multiMap.asMap());
+        assertEquals(100000, multiMap.valueSize());
+    }
+
+    /**
+     * 视图会反映后续的 put.
+     */
+    @Test
+    public void testViewReflectsPut(){
+        CompactMultiMap<String, Integer> multiMap = new CompactMultiMap<String, Integer>();
+        Map<String, List<Integer>> map = multiMap.asMap();
+        assertTrue(map.isEmpty());
+
+        multiMap.put("a", 1);
+        List<Integer> list = multiMap.get("a");
+        multiMap.put("b", 2);
+        multiMap.put("a", 3);
+
+        assertThat(list, contains(1, 3));
+        assertEquals(2, map.size());
+        assertThat(map.get("b"), contains(2));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test as map unsupported.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAsMapUnsupported(){
+        new CompactMultiMap<String, Integer>().asMap().put("a", new ArrayList<Integer>());
+    }
+
+    /**
+     * Test get unsupported.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetUnsupported(){
+        CompactMultiMap<String, Integer> multiMap = new CompactMultiMap<String, Integer>();
+        multiMap.put("a", 1);
+        multiMap.get("a").add(2);
+    }
+
+    /**
+     * Test get index out of bounds.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetIndexOutOfBounds(){
+        CompactMultiMap<String, Integer> multiMap = new CompactMultiMap<String, Integer>();
+        multiMap.put("a", 1);
+        multiMap.get("a").get(1);
+    }
+
+    /**
+     * Test compact multi map negative expected value size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompactMultiMapNegativeExpectedValueSize(){
+        new CompactMultiMap<String, Integer>(16, -1);
+    }
+}
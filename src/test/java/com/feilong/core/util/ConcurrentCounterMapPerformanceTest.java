@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * 1-64 个线程累加同一个热点 key 的时候,加锁的 {@link MapUtil#putSumValue(Map, Object, Integer)} 和 {@link ConcurrentCounterMap#increment(Object)}
+ * 的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ConcurrentCounterMapPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER     = LoggerFactory.getLogger(ConcurrentCounterMapPerformanceTest.class);
+
+    /** 所有线程累加的总次数. */
+    private static final int    TOTAL_SIZE = 4000000;
+
+    /**
+     * Test performance.
+     *
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    public void testPerformance() throws InterruptedException{
+        for (Integer threadSize : toList(1, 2, 4, 8, 16, 32, 64)){
+            final int loopSize = TOTAL_SIZE / threadSize;
+
+            final Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+            Date beginDate = new Date();
+            runConcurrently(threadSize, new Runnable(){
+
+                @Override
+                public void run(){
+                    for (int i = 0; i < loopSize; ++i){
+                        synchronized (map){
+                            MapUtil.putSumValue(map, "hot", 1);
+                        }
+                    }
+                }
+            });
+            LOGGER.debug("[synchronized putSumValue]{} threads,use time:{}", threadSize, formatDuration(beginDate));
+
+            final ConcurrentCounterMap<String> counterMap = new ConcurrentCounterMap<String>();
+            beginDate = new Date();
+            runConcurrently(threadSize, new Runnable(){
+
+                @Override
+                public void run(){
+                    for (int i = 0; i < loopSize; ++i){
+                        counterMap.increment("hot");
+                    }
+                }
+            });
+            LOGGER.debug("[ConcurrentCounterMap increment]{} threads,use time:{}", threadSize, formatDuration(beginDate));
+        }
+    }
+
+    /**
+     * <code>threadSize</code> 个线程同时开始执行 <code>runnable</code>,等待全部结束.
+     *
+     * @param threadSize
+     *            the thread size
+     * @param runnable
+     *            the runnable
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    static void runConcurrently(int threadSize,final Runnable runnable) throws InterruptedException{
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadSize);
+        for (int i = 0; i < threadSize; ++i){
+            executorService.execute(new Runnable(){
+
+                @Override
+                public void run(){
+                    try{
+                        startLatch.await();
+                    }catch (InterruptedException e){
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    runnable.run();
+                }
+            });
+        }
+        startLatch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.MINUTES);
+    }
+}
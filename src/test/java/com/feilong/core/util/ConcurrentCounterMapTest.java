@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * The Class ConcurrentCounterMapTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ConcurrentCounterMapTest{
+
+    /** 线程数. */
+    private static final int THREAD_SIZE = 8;
+
+    /** 每个线程累加的次数. */
+    private static final int LOOP_SIZE   = 20000;
+
+    /**
+     * Test increment.
+     */
+    @Test
+    public void testIncrement(){
+        ConcurrentCounterMap<String> counterMap = new ConcurrentCounterMap<String>();
+        counterMap.increment("a");
+        counterMap.increment("b", 5);
+        counterMap.increment("a");
+        counterMap.increment("b", -6);
+        counterMap.increment(null, 3);
+
+        assertEquals(2, counterMap.get("a"));
+        assertEquals(-1, counterMap.get("b"));
+        assertEquals(3, counterMap.get(null));
+        assertEquals(0, counterMap.get("c"));
+        assertTrue(counterMap.containsKey(null));
+        assertFalse(counterMap.containsKey("c"));
+        assertEquals(3, counterMap.size());
+
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        expected.put("a", 2);
+        expected.put("b", -1);
+        expected.put(null, 3);
+        assertEquals(expected, counterMap.toMap());
+    }
+
+    /**
+     * 多个线程同时累加热点 key 以及各自的 key.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testIncrementConcurrently() throws Exception{
+        final ConcurrentCounterMap<String> counterMap = new ConcurrentCounterMap<String>();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_SIZE);
+        try{
+            Future<?>[] futures = new Future<?>[THREAD_SIZE];
+            for (int i = 0; i < THREAD_SIZE; ++i){
+                final String ownKey = "thread" + i;
+                futures[i] = executorService.submit(new Callable<Void>(){
+
+                    @Override
+                    public Void call() throws Exception{
+                        startLatch.await();
+                        for (int j = 0; j < LOOP_SIZE; ++j){
+                            counterMap.increment("hot");
+                            counterMap.increment(ownKey, 2);
+                            counterMap.increment("key" + (j % 100));
+                        }
+                        return null;
+                    }
+                });
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures){
+                future.get();
+            }
+        }finally{
+            executorService.shutdown();
+            executorService.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        assertEquals(THREAD_SIZE * LOOP_SIZE, counterMap.get("hot"));
+        assertEquals(1 + THREAD_SIZE + 100, counterMap.size());
+        for (int i = 0; i < THREAD_SIZE; ++i){
+            assertEquals(2 * LOOP_SIZE, counterMap.get("thread" + i));
+        }
+        for (int i = 0; i < 100; ++i){
+            assertEquals(THREAD_SIZE * LOOP_SIZE / 100, counterMap.get("key" + i));
+        }
+    }
+
+    /**
+     * Test to map overflow.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void testToMapOverflow(){
+        ConcurrentCounterMap<String> counterMap = new ConcurrentCounterMap<String>();
+        counterMap.increment("a", Integer.MAX_VALUE + 1L);
+        counterMap.toMap();
+    }
+
+    /**
+     * Test concurrent counter map negative expected size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConcurrentCounterMapNegativeExpectedSize(){
+        new ConcurrentCounterMap<String>(-1);
+    }
+}
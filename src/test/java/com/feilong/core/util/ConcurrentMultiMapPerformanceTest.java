@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+import static com.feilong.core.util.ConcurrentCounterMapPerformanceTest.runConcurrently;
+
+/**
+ * 1-64 个线程追加到同一个热点 key 的时候,加锁的 {@link MapUtil#putMultiValue(Map, Object, Object)} 和 {@link ConcurrentMultiMap#put(Object, Object)}
+ * 的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ConcurrentMultiMapPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER     = LoggerFactory.getLogger(ConcurrentMultiMapPerformanceTest.class);
+
+    /** 所有线程追加的总次数. */
+    private static final int    TOTAL_SIZE = 2000000;
+
+    /**
+     * Test performance.
+     *
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    public void testPerformance() throws InterruptedException{
+        for (Integer threadSize : toList(1, 2, 4, 8, 16, 32, 64)){
+            final int loopSize = TOTAL_SIZE / threadSize;
+
+            final Map<String, List<Integer>> map = new LinkedHashMap<String, List<Integer>>();
+            Date beginDate = new Date();
+            runConcurrently(threadSize, new Runnable(){
+
+                @Override
+                public void run(){
+                    for (int i = 0; i < loopSize; ++i){
+                        synchronized (map){
+                            MapUtil.putMultiValue(map, "hot", i);
+                        }
+                    }
+                }
+            });
+            LOGGER.debug("[synchronized putMultiValue]{} threads,use time:{}", threadSize, formatDuration(beginDate));
+
+            final ConcurrentMultiMap<String, Integer> multiMap = new ConcurrentMultiMap<String, Integer>();
+            beginDate = new Date();
+            runConcurrently(threadSize, new Runnable(){
+
+                @Override
+                public void run(){
+                    for (int i = 0; i < loopSize; ++i){
+                        multiMap.put("hot", i);
+                    }
+                }
+            });
+            LOGGER.debug("[ConcurrentMultiMap put]{} threads,use time:{}", threadSize, formatDuration(beginDate));
+        }
+    }
+}
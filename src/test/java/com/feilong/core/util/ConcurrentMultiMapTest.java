@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class ConcurrentMultiMapTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ConcurrentMultiMapTest{
+
+    /** 线程数. */
+    private static final int THREAD_SIZE = 8;
+
+    /** 每个线程追加的次数. */
+    private static final int LOOP_SIZE   = 20000;
+
+    /**
+     * Test put.
+     */
+    @Test
+    public void testPut(){
+        ConcurrentMultiMap<String, Integer> multiMap = new ConcurrentMultiMap<String, Integer>();
+        multiMap.put("a", 1);
+        multiMap.put("b", 2);
+        multiMap.put("a", null);
+        multiMap.put(null, 3);
+
+        assertThat(multiMap.get("a"), contains(1, null));
+        assertThat(multiMap.get(null), contains(3));
+        assertNull(multiMap.get("c"));
+        assertTrue(multiMap.containsKey(null));
+        assertFalse(multiMap.containsKey("c"));
+        assertEquals(3, multiMap.keySize());
+
+        Map<String, List<Integer>> expected = new HashMap<String, List<Integer>>();
+        expected.put("a", toList(1, null));
+        expected.put("b", toList(2));
+        expected.put(null, toList(3));
+        assertEquals(expected, multiMap.toMap());
+    }
+
+    /**
+     * 多个线程同时追加热点 key,每个线程自己的 value 保持追加的顺序.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testPutConcurrently() throws Exception{
+        final ConcurrentMultiMap<String, Integer> multiMap = new ConcurrentMultiMap<String, Integer>();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_SIZE);
+        try{
+            Future<?>[] futures = new Future<?>[THREAD_SIZE];
+            for (int i = 0; i < THREAD_SIZE; ++i){
+                final int threadIndex = i;
+                futures[i] = executorService.submit(new Callable<Void>(){
+
+                    @Override
+                    public Void call() throws Exception{
+                        startLatch.await();
+                        for (int j = 0; j < LOOP_SIZE; ++j){
+                            multiMap.put("hot", threadIndex * LOOP_SIZE + j);
+                        }
+                        return null;
+                    }
+                });
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures){
+                future.get();
+            }
+        }finally{
+            executorService.shutdown();
+            executorService.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        List<Integer> list = multiMap.get("hot");
+        assertEquals(THREAD_SIZE * LOOP_SIZE, list.size());
+
+        int[] lastValues = new int[THREAD_SIZE];
+        for (int i = 0; i < THREAD_SIZE; ++i){
+            lastValues[i] = i * LOOP_SIZE - 1;
+        }
+        for (Integer value : list){
+            int threadIndex = value / LOOP_SIZE;
+            assertEquals(lastValues[threadIndex] + 1, value.intValue());
+            lastValues[threadIndex] = value;
+        }
+    }
+
+    /**
+     * Test concurrent multi map negative expected key size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConcurrentMultiMapNegativeExpectedKeySize(){
+        new ConcurrentMultiMap<String, Integer>(-1);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link MapUtil#putSumValue(Map, Object, Integer)} 和 {@link CounterMap#increment(Object)} 的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CounterMapPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CounterMapPerformanceTest.class);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        String[] tags = new String[1000];
+        for (int i = 0; i < tags.length; ++i){
+            tags[i] = "tag" + i;
+        }
+
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000, 1000000, 10000000)){
+            Date beginDate = new Date();
+            Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+            for (int i = 0; i < size; ++i){
+                MapUtil.putSumValue(map, tags[i % tags.length], 1);
+            }
+            LOGGER.debug("[putSumValue]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            CounterMap<String> counterMap = new CounterMap<String>();
+            for (int i = 0; i < size; ++i){
+                counterMap.increment(tags[i % tags.length]);
+            }
+            LOGGER.debug("[CounterMap increment]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+}
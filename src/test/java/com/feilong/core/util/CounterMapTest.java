@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The Class CounterMapTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CounterMapTest{
+
+    /**
+     * Test increment.
+     */
+    @Test
+    public void testIncrement(){
+        CounterMap<String> counterMap = new CounterMap<String>();
+        assertEquals(1, counterMap.increment("a"));
+        assertEquals(5, counterMap.increment("b", 5));
+        assertEquals(2, counterMap.increment("a"));
+        assertEquals(-1, counterMap.increment("b", -6));
+
+        assertEquals(2, counterMap.get("a"));
+        assertEquals(-1, counterMap.get("b"));
+        assertEquals(0, counterMap.get("c"));
+        assertTrue(counterMap.containsKey("a"));
+        assertFalse(counterMap.containsKey("c"));
+        assertEquals(2, counterMap.size());
+        assertEquals("{a=2, b=-1}", counterMap.toString());
+    }
+
+    /**
+     * Test null key.
+     */
+    @Test
+    public void testNullKey(){
+        CounterMap<String> counterMap = new CounterMap<String>();
+        counterMap.increment("a");
+        counterMap.increment(null);
+        counterMap.increment(null, 2);
+
+        assertEquals(3, counterMap.get(null));
+        assertTrue(counterMap.containsKey(null));
+        assertThat(counterMap.asMap().keySet(), contains("a", null));
+    }
+
+    /**
+     * 和 {@link MapUtil#putSumValue(Map, Object, Integer)} 统计的 {@link LinkedHashMap} 完全一致,包括扩容以及 hash 冲突.
+     */
+    @Test
+    public void testSameAsPutSumValue(){
+        Random random = new Random(20161017L);
+        CounterMap<Object> counterMap = new CounterMap<Object>(0);
+        Map<Object, Integer> expected = new LinkedHashMap<Object, Integer>();
+        for (int i = 0; i < 100000; ++i){
+            //hashCode 只有高位不同的 key 以及 hashCode 相同的 key
+            Object key = 0 == i % 3 ? (Object) (random.nextInt(2000) << 20) : new SameHashKey(random.nextInt(200));
+            int delta = random.nextInt(10);
+            counterMap.increment(key, delta);
+            MapUtil.putSumValue(expected, key, delta);
+        }
+
+        assertEquals(expected, counterMap.asMap());
+        assertEquals(expected, counterMap.toMap());
+        assertEquals(expected.toString(), counterMap.asMap().toString());
+        assertEquals(new ArrayList<Object>(expected.keySet()), new ArrayList<Object>(counterMap.toMap().keySet()));
+
+        int index = 0;
+        for (Map.Entry<Object, Integer> entry : expected.entrySet()){
+            assertEquals(entry.getKey(), counterMap.getKey(index));
+            assertEquals(entry.getValue().longValue(), counterMap.getCount(index));
+            ++index;
+        }
+    }
+
+    /**
+     * Test increment all.
+     */
+    @Test
+    public void testIncrementAll(){
+        CounterMap<String> left = new CounterMap<String>();
+        left.increment("a", 1);
+        left.increment("b", 2);
+
+        CounterMap<String> right = new CounterMap<String>();
+        right.increment("c", 3);
+        right.increment("a", 4);
+
+        left.incrementAll(right);
+        assertEquals("{a=5, b=2, c=3}", left.toString());
+    }
+
+    /**
+     * Test as map.
+     */
+    @Test
+    public void testAsMap(){
+        CounterMap<String> counterMap = new CounterMap<String>();
+        Map<String, Integer> map = counterMap.asMap();
+        assertTrue(map.isEmpty());
+
+        counterMap.increment("a");
+        assertEquals(Integer.valueOf(1), map.get("a"));
+        assertNull(map.get("b"));
+        assertEquals(1, map.size());
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test as map unsupported.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAsMapUnsupported(){
+        new CounterMap<String>().asMap().put("a", 1);
+    }
+
+    /**
+     * Test to map overflow.
+     */
+    @Test(expected = ArithmeticException.class)
+    public void testToMapOverflow(){
+        CounterMap<String> counterMap = new CounterMap<String>();
+        counterMap.increment("a", Integer.MAX_VALUE + 1L);
+        counterMap.toMap();
+    }
+
+    /**
+     * Test get key index out of bounds.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetKeyIndexOutOfBounds(){
+        CounterMap<String> counterMap = new CounterMap<String>();
+        counterMap.increment("a");
+        counterMap.getKey(1);
+    }
+
+    /**
+     * Test counter map negative expected size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCounterMapNegativeExpectedSize(){
+        new CounterMap<String>(-1);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * hashCode 都相同的 key.
+     */
+    private static final class SameHashKey{
+
+        /** The value. */
+        private final int value;
+
+        /**
+         * Instantiates a new same hash key.
+         *
+         * @param value
+         *            the value
+         */
+        SameHashKey(int value){
+            this.value = value;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode(){
+            return 7;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj){
+            return obj instanceof SameHashKey && ((SameHashKey) obj).value == value;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString(){
+            return "SameHashKey" + value;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link ExternalSorter} 默认 java 序列化以及自定义 {@link ExternalSorter.Serializer} 的耗时.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ExternalSorterPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalSorterPerformanceTest.class);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        Random random = new Random();
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000, 1000000)){
+            List<User> list = new ArrayList<User>(size);
+            for (int i = 0; i < size; ++i){
+                list.add(new User((long) i, random.nextInt(size)));
+            }
+
+            Date beginDate = new Date();
+            SortUtil.sortList(new ArrayList<User>(list), new PropertyComparator<User>("age"));
+            LOGGER.debug("[sortList]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            consume(new ExternalSorter<User>(new PropertyComparator<User>("age")).maxRecordsInMemory(50000).sort(list.iterator()));
+            LOGGER.debug("[ExternalSorter java serializer]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            consume(new ExternalSorter<User>(new PropertyComparator<User>("age"))//
+                            .maxRecordsInMemory(50000)
+                            .serializer(new ExternalSorter.Serializer<User>(){
+
+                                @Override
+                                public void write(User user,DataOutputStream dataOutputStream) throws IOException{
+                                    dataOutputStream.writeLong(user.getId());
+                                    dataOutputStream.writeInt(user.getAge());
+                                }
+
+                                @Override
+                                public User read(DataInputStream dataInputStream) throws IOException{
+                                    return new User(dataInputStream.readLong(), dataInputStream.readInt());
+                                }
+                            })
+                            .sort(list.iterator()));
+            LOGGER.debug("[ExternalSorter custom serializer]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+
+    /**
+     * 读完并关闭.
+     *
+     * @param iterator
+     *            the iterator
+     */
+    private static void consume(ExternalSorter.CloseableIterator<User> iterator){
+        try{
+            while (iterator.hasNext()){
+                iterator.next();
+            }
+        }finally{
+            iterator.close();
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.feilong.core.UncheckedIOException;
+import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class ExternalSorterTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ExternalSorterTest{
+
+    /** 只比较 age,age 相同的 user 比较结果是0. */
+    private static final Comparator<User>                AGE_COMPARATOR  = new Comparator<User>(){
+
+        @Override
+        public int compare(User user1,User user2){
+            return user1.getAge().compareTo(user2.getAge());
+        }
+    };
+
+    /** 只写 id 和 age. */
+    private static final ExternalSorter.Serializer<User> USER_SERIALIZER = new ExternalSorter.Serializer<User>(){
+
+        @Override
+        public void write(User user,DataOutputStream dataOutputStream) throws IOException{
+            dataOutputStream.writeLong(user.getId());
+            dataOutputStream.writeInt(user.getAge());
+        }
+
+        @Override
+        public User read(DataInputStream dataInputStream) throws IOException{
+            return new User(dataInputStream.readLong(), dataInputStream.readInt());
+        }
+    };
+
+    /** The temporary folder. */
+    @Rule
+    public TemporaryFolder                               temporaryFolder = new TemporaryFolder();
+
+    /**
+     * 多个 run,结果和 {@link SortUtil#sortList(List, Comparator...)} 一致(包括 age 相同的元素的先后顺序),临时文件全部删除.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testSort() throws IOException{
+        File tempDirectory = temporaryFolder.newFolder();
+        List<User> list = buildList(10000);
+        List<Long> expected = toIds(SortUtil.sortList(new ArrayList<User>(list), AGE_COMPARATOR));
+
+        ExternalSorter<User> externalSorter = new ExternalSorter<User>(AGE_COMPARATOR).maxRecordsInMemory(700).tempDirectory(tempDirectory);
+        try (ExternalSorter.CloseableIterator<User> iterator = externalSorter.sort(list.iterator())){
+            assertEquals(15, tempDirectory.list().length);
+            assertEquals(expected, toIds(iterator));
+        }
+        assertEquals(0, tempDirectory.list().length);
+    }
+
+    /**
+     * run 个数超过 mergeFanIn 的时候分组归并.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testSortMultiPassMerge() throws IOException{
+        File tempDirectory = temporaryFolder.newFolder();
+        List<User> list = buildList(5000);
+        List<Long> expected = toIds(SortUtil.sortList(new ArrayList<User>(list), AGE_COMPARATOR));
+
+        ExternalSorter<User> externalSorter = new ExternalSorter<User>(AGE_COMPARATOR)//
+                        .maxRecordsInMemory(100)
+                        .mergeFanIn(3)
+                        .tempDirectory(tempDirectory)
+                        .serializer(USER_SERIALIZER);
+        try (ExternalSorter.CloseableIterator<User> iterator = externalSorter.sort(list.iterator())){
+            assertTrue(tempDirectory.list().length <= 3);
+            assertEquals(expected, toIds(iterator));
+        }
+        assertEquals(0, tempDirectory.list().length);
+    }
+
+    /**
+     * 多个比较器.
+     */
+    @Test
+    public void testSortComparators(){
+        User id12_age18 = new User(12L, 18);
+        User id2_age8 = new User(2L, 8);
+        User id1_age8 = new User(1L, 8);
+        User id3_age2 = new User(3L, 2);
+        List<User> list = toList(id12_age18, id2_age8, id1_age8, id3_age2);
+
+        ExternalSorter<User> externalSorter = new ExternalSorter<User>(AGE_COMPARATOR, new PropertyComparator<User>("id"))
+                        .maxRecordsInMemory(1);
+        assertEquals(toList(3L, 1L, 2L, 12L), toIds(externalSorter.sort(list.iterator())));
+    }
+
+    /**
+     * 数据一次就能放进内存的时候不写临时文件.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testSortInMemory() throws IOException{
+        File tempDirectory = temporaryFolder.newFolder();
+        User id12 = new User(12L, 18);
+        User id2 = new User(2L, 36);
+        User id1 = new User(1L, 8);
+
+        ExternalSorter<User> externalSorter = new ExternalSorter<User>(AGE_COMPARATOR).maxRecordsInMemory(3).tempDirectory(tempDirectory);
+        ExternalSorter.CloseableIterator<User> iterator = externalSorter.sort(toList(id12, id2, id1).iterator());
+        assertEquals(0, tempDirectory.list().length);
+        assertThat(toUserList(iterator), contains(id1, id12, id2));
+    }
+
+    /**
+     * 没有遍历完的时候,close 删除剩下的临时文件.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testClose() throws IOException{
+        File tempDirectory = temporaryFolder.newFolder();
+        ExternalSorter<User> externalSorter = new ExternalSorter<User>(AGE_COMPARATOR).maxRecordsInMemory(10).tempDirectory(tempDirectory);
+
+        ExternalSorter.CloseableIterator<User> iterator = externalSorter.sort(buildList(100).iterator());
+        iterator.next();
+        assertEquals(10, tempDirectory.list().length);
+
+        iterator.close();
+        assertEquals(0, tempDirectory.list().length);
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * 写临时文件出错的时候,删除已经创建的临时文件.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testSortSerializerError() throws IOException{
+        File tempDirectory = temporaryFolder.newFolder();
+        ExternalSorter<User> externalSorter = new ExternalSorter<User>(AGE_COMPARATOR)//
+                        .maxRecordsInMemory(10)
+                        .tempDirectory(tempDirectory)
+                        .serializer(new ExternalSorter.Serializer<User>(){
+
+                            private int count;
+
+                            @Override
+                            public void write(User user,DataOutputStream dataOutputStream) throws IOException{
+                                if (++count > 25){
+                                    throw new IOException("disk full");
+                                }
+                                USER_SERIALIZER.write(user, dataOutputStream);
+                            }
+
+                            @Override
+                            public User read(DataInputStream dataInputStream) throws IOException{
+                                return USER_SERIALIZER.read(dataInputStream);
+                            }
+                        });
+        try{
+            externalSorter.sort(buildList(100).iterator());
+            fail();
+        }catch (UncheckedIOException e){
+            assertEquals("disk full", e.getCause().getMessage());
+        }
+        assertEquals(0, tempDirectory.list().length);
+    }
+
+    /**
+     * 归并的时候读取出现 {@link RuntimeException},同样关闭并删除剩下的临时文件.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testSortMergeRuntimeException() throws IOException{
+        File tempDirectory = temporaryFolder.newFolder();
+        ExternalSorter<User> externalSorter = new ExternalSorter<User>(AGE_COMPARATOR)//
+                        .maxRecordsInMemory(10)
+                        .tempDirectory(tempDirectory)
+                        .serializer(new ExternalSorter.Serializer<User>(){
+
+                            private int count;
+
+                            @Override
+                            public void write(User user,DataOutputStream dataOutputStream) throws IOException{
+                                USER_SERIALIZER.write(user, dataOutputStream);
+                            }
+
+                            @Override
+                            public User read(DataInputStream dataInputStream) throws IOException{
+                                if (++count > 15){
+                                    throw new IllegalStateException("bad record");
+                                }
+                                return USER_SERIALIZER.read(dataInputStream);
+                            }
+                        });
+
+        ExternalSorter.CloseableIterator<User> iterator = externalSorter.sort(buildList(100).iterator());
+        try{
+            while (iterator.hasNext()){
+                iterator.next();
+            }
+            fail();
+        }catch (IllegalStateException e){
+            assertEquals("bad record", e.getMessage());
+        }
+        assertEquals(0, tempDirectory.list().length);
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Test sort null iterator.
+     */
+    @Test
+    public void testSortNullIterator(){
+        assertFalse(new ExternalSorter<User>(AGE_COMPARATOR).sort(null).hasNext());
+    }
+
+    /**
+     * Test external sorter null comparators.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testExternalSorterNullComparators(){
+        new ExternalSorter<User>((Comparator<User>[]) null);
+    }
+
+    /**
+     * Test max records in memory zero.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxRecordsInMemoryZero(){
+        new ExternalSorter<User>(AGE_COMPARATOR).maxRecordsInMemory(0);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Builds the list.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    private static List<User> buildList(int size){
+        Random random = new Random(size);
+        List<User> list = new ArrayList<User>(size);
+        for (int i = 0; i < size; ++i){
+            list.add(new User((long) i, random.nextInt(100)));
+        }
+        return list;
+    }
+
+    /**
+     * To ids.
+     *
+     * @param users
+     *            the users
+     * @return the list
+     */
+    private static List<Long> toIds(Iterable<User> users){
+        return toIds(users.iterator());
+    }
+
+    /**
+     * To ids.
+     *
+     * @param iterator
+     *            the iterator
+     * @return the list
+     */
+    private static List<Long> toIds(Iterator<User> iterator){
+        List<Long> ids = new ArrayList<Long>();
+        while (iterator.hasNext()){
+            ids.add(iterator.next().getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 读出 <code>iterator</code> 所有的元素.
+     *
+     * @param iterator
+     *            the iterator
+     * @return the list
+     */
+    private static List<User> toUserList(Iterator<User> iterator){
+        List<User> list = new ArrayList<User>();
+        while (iterator.hasNext()){
+            list.add(iterator.next());
+        }
+        return list;
+    }
+}
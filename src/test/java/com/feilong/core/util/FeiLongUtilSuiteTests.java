@@ -35,7 +35,18 @@ import com.feilong.core.util.sortutiltest.FeiLongSortUtilSuiteTests;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ //
+                CounterMapTest.class,
+                CompactMultiMapTest.class,
+                ConcurrentCounterMapTest.class,
+                ConcurrentMultiMapTest.class,
                 EnumerationUtilParameterizedTest.class,
+                ExternalSorterTest.class,
+                NumberAccumulatorTest.class,
+                ParallelListUtilTest.class,
+                ParallelMergeSorterTest.class,
+                ParallelReducerTest.class,
+                PropertyIndexTest.class,
+                QueryTest.class,
 
                 FeiLongRandomUtilSuiteTests.class,
                 FeiLongResourceBundleUtilSuiteTests.class,
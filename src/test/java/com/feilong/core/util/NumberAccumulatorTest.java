@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.NumberUtil;
+
+/**
+ * The Class NumberAccumulatorTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class NumberAccumulatorTest{
+
+    /**
+     * Test integral.
+     */
+    @Test
+    public void testIntegral(){
+        List<Number> list = new ArrayList<Number>();
+        list.add(1);
+        list.add(2L);
+        list.add((short) 3);
+        list.add((byte) 4);
+        list.add(null);
+        assertSameAsGetAddValue(list);
+    }
+
+    /**
+     * long 溢出之后依然精确.
+     */
+    @Test
+    public void testOverflow(){
+        List<Number> list = new ArrayList<Number>();
+        list.add(Long.MAX_VALUE);
+        list.add(Long.MAX_VALUE);
+        list.add(1L);
+        list.add(Long.MIN_VALUE);
+        list.add(Long.MIN_VALUE);
+        list.add(Long.MIN_VALUE);
+        assertSameAsGetAddValue(list);
+    }
+
+    /**
+     * 和整数混合的时候,scale 也一致.
+     */
+    @Test
+    public void testMixed(){
+        List<Number> list = new ArrayList<Number>();
+        list.add(0.1d);
+        list.add(5);
+        list.add(0.2f);
+        list.add(new BigDecimal("1.250"));
+        list.add(new BigDecimal("1E+3"));
+        assertSameAsGetAddValue(list);
+
+        List<Number> negativeScaleList = new ArrayList<Number>();
+        negativeScaleList.add(new BigDecimal("1E+3"));
+        assertSameAsGetAddValue(negativeScaleList);
+    }
+
+    /**
+     * Test random.
+     */
+    @Test
+    public void testRandom(){
+        Random random = new Random(1);
+        List<Number> list = new ArrayList<Number>();
+        for (int i = 0; i < 10000; ++i){
+            switch (random.nextInt(4)) {
+                case 0:
+                    list.add(random.nextLong());
+                    break;
+                case 1:
+                    list.add(random.nextInt());
+                    break;
+                case 2:
+                    list.add(BigDecimal.valueOf(random.nextInt(), random.nextInt(5)));
+                    break;
+                default:
+                    list.add(random.nextDouble());
+                    break;
+            }
+        }
+        assertSameAsGetAddValue(list);
+    }
+
+    /**
+     * Test merge.
+     */
+    @Test
+    public void testMerge(){
+        NumberAccumulator one = new NumberAccumulator();
+        one.add(Long.MAX_VALUE);
+        one.add(new BigDecimal("0.5"));
+
+        NumberAccumulator two = new NumberAccumulator();
+        two.add(Long.MAX_VALUE);
+        two.add(3);
+
+        one.merge(two);
+        assertEquals(NumberUtil.getAddValue(Long.MAX_VALUE, new BigDecimal("0.5"), Long.MAX_VALUE, 3), one.getSum());
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 和 {@link NumberUtil#getAddValue(Number...)} 逐个累加的结果(包括 scale)一致.
+     *
+     * @param list
+     *            the list
+     */
+    private static void assertSameAsGetAddValue(List<Number> list){
+        BigDecimal expected = BigDecimal.ZERO;
+        NumberAccumulator numberAccumulator = new NumberAccumulator();
+        for (Number number : list){
+            expected = NumberUtil.getAddValue(expected, null == number ? 0 : number);
+            numberAccumulator.add(number);
+        }
+        //BigDecimal#equals 比较 scale
+        assertEquals(expected, numberAccumulator.getSum());
+    }
+}
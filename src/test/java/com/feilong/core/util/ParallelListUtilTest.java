@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class ParallelListUtilTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ParallelListUtilTest{
+
+    /** 能被3整除. */
+    private static final Predicate<Integer>           DIVISIBLE_BY_3 = new Predicate<Integer>(){
+
+        @Override
+        public boolean evaluate(Integer value){
+            return 0 == value % 3;
+        }
+    };
+
+    /** 转成字符串. */
+    private static final Transformer<Integer, String> TO_STRING      = new Transformer<Integer, String>(){
+
+        @Override
+        public String transform(Integer value){
+            return "" + value;
+        }
+    };
+
+    /**
+     * 各种大小(包括最后一段不满的情况),结果和顺序执行完全一致.
+     */
+    @Test
+    public void testSelect(){
+        for (Integer size : toList(1, 1023, 1024, 1025, 5000, 100001)){
+            List<Integer> list = buildList(size);
+            assertEquals(CollectionUtils.select(list, DIVISIBLE_BY_3), ParallelListUtil.select(list, DIVISIBLE_BY_3, false));
+            assertEquals(CollectionUtils.selectRejected(list, DIVISIBLE_BY_3), ParallelListUtil.select(list, DIVISIBLE_BY_3, true));
+        }
+    }
+
+    /**
+     * Test collect.
+     */
+    @Test
+    public void testCollect(){
+        for (Integer size : toList(1, 1023, 1024, 1025, 5000, 100001)){
+            List<Integer> list = buildList(size);
+            assertEquals(CollectionUtils.collect(list, TO_STRING), ParallelListUtil.collect(list, TO_STRING));
+        }
+    }
+
+    /**
+     * 返回的结果可以修改.
+     */
+    @Test
+    public void testResultModifiable(){
+        List<Integer> list = buildList(5000);
+        ParallelListUtil.select(list, DIVISIBLE_BY_3, false).add(1);
+        ParallelListUtil.collect(list, TO_STRING).add("1");
+    }
+
+    /**
+     * Test is parallel.
+     */
+    @Test
+    public void testIsParallel(){
+        assertFalse(ParallelListUtil.isParallel(null));
+        assertFalse(ParallelListUtil.isParallel(new LinkedList<Integer>(buildList(ParallelReducer.PARALLEL_THRESHOLD))));
+        assertFalse(ParallelListUtil.isParallel(buildList(ParallelReducer.PARALLEL_THRESHOLD - 1)));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Builds the list.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    private static List<Integer> buildList(int size){
+        List<Integer> list = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; ++i){
+            list.add(i * 7 % 1000);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The Class ParallelMergeSorterTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ParallelMergeSorterTest{
+
+    /** 只比较 {@link Item#key},key 相同的元素比较结果是0. */
+    private static final Comparator<Item> KEY_COMPARATOR = new Comparator<Item>(){
+
+        @Override
+        public int compare(Item item1,Item item2){
+            return item1.key < item2.key ? -1 : (item1.key == item2.key ? 0 : 1);
+        }
+    };
+
+    /**
+     * 大量重复 key,结果(包括相同 key 元素的先后顺序)和 {@link Arrays#sort(Object[], Comparator)} 一致.
+     */
+    @Test
+    public void testSortStable(){
+        for (Integer bound : Arrays.asList(3, 100, 100000)){
+            Item[] expected = buildArray(100000, bound);
+            Item[] actual = expected.clone();
+
+            Arrays.sort(expected, KEY_COMPARATOR);
+            ParallelMergeSorter.sort(actual, KEY_COMPARATOR);
+            assertSameElements(expected, actual);
+        }
+    }
+
+    /**
+     * 已经有序以及倒序的数组.
+     */
+    @Test
+    public void testSortSortedAndReversed(){
+        Item[] sorted = buildArray(50000, 1000);
+        Arrays.sort(sorted, KEY_COMPARATOR);
+
+        Item[] actual = sorted.clone();
+        ParallelMergeSorter.sort(actual, KEY_COMPARATOR);
+        assertSameElements(sorted, actual);
+
+        Item[] reversed = sorted.clone();
+        for (int i = 0, j = reversed.length - 1; i < j; ++i, --j){
+            Item item = reversed[i];
+            reversed[i] = reversed[j];
+            reversed[j] = item;
+        }
+        Item[] expected = reversed.clone();
+        Arrays.sort(expected, KEY_COMPARATOR);
+        ParallelMergeSorter.sort(reversed, KEY_COMPARATOR);
+        assertSameElements(expected, reversed);
+    }
+
+    /**
+     * 只有一段的时候不拆分.
+     */
+    @Test
+    public void testSortSmall(){
+        Integer[] array = { 5, 3, 9, 1 };
+        ParallelMergeSorter.sort(array, new Comparator<Integer>(){
+
+            @Override
+            public int compare(Integer o1,Integer o2){
+                return o1.compareTo(o2);
+            }
+        });
+        assertArrayEquals(new Integer[] { 1, 3, 5, 9 }, array);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 两个数组按顺序是同一批对象.
+     *
+     * @param expected
+     *            the expected
+     * @param actual
+     *            the actual
+     */
+    private static void assertSameElements(Item[] expected,Item[] actual){
+        for (int i = 0; i < expected.length; ++i){
+            assertSame(expected[i], actual[i]);
+        }
+    }
+
+    /**
+     * Builds the array.
+     *
+     * @param size
+     *            the size
+     * @param bound
+     *            key 的取值范围
+     * @return the item[]
+     */
+    private static Item[] buildArray(int size,int bound){
+        Random random = new Random(size + bound);
+        Item[] items = new Item[size];
+        for (int i = 0; i < size; ++i){
+            items[i] = new Item(random.nextInt(bound));
+        }
+        return items;
+    }
+
+    /**
+     * 只有 key 的元素,使用对象标识区分 key 相同的元素.
+     */
+    private static final class Item{
+
+        /** The key. */
+        private final int key;
+
+        /**
+         * Instantiates a new item.
+         *
+         * @param key
+         *            the key
+         */
+        Item(int key){
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * The Class ParallelReducerTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class ParallelReducerTest{
+
+    /**
+     * 无论怎么拆分,合并后的 key 顺序以及每个 key 下面元素的顺序都和顺序执行一致.
+     */
+    @Test
+    public void testInvokeKeepEncounterOrder(){
+        List<Integer> list = buildList(100000);
+
+        Map<Integer, List<Integer>> expected = new ModReducer().reduce(list, 0, list.size());
+        Map<Integer, List<Integer>> actual = new ModReducer().invoke(list);
+
+        assertEquals(expected, actual);
+        assertEquals(new ArrayList<Integer>(expected.keySet()), new ArrayList<Integer>(actual.keySet()));
+    }
+
+    /**
+     * 不是 RandomAccess 的集合会先复制.
+     */
+    @Test
+    public void testInvokeLinkedList(){
+        List<Integer> list = new LinkedList<Integer>(buildList(20000));
+
+        Map<Integer, List<Integer>> expected = new ModReducer().reduce(new ArrayList<Integer>(list), 0, list.size());
+        Map<Integer, List<Integer>> actual = new ModReducer().invoke(list);
+
+        assertEquals(expected, actual);
+        assertEquals(new ArrayList<Integer>(expected.keySet()), new ArrayList<Integer>(actual.keySet()));
+    }
+
+    /**
+     * 只有一段的时候不拆分.
+     */
+    @Test
+    public void testInvokeSmall(){
+        List<Integer> list = buildList(10);
+        assertEquals(new ModReducer().reduce(list, 0, list.size()), new ModReducer().invoke(list));
+    }
+
+    /**
+     * Test is parallel.
+     */
+    @Test
+    public void testIsParallel(){
+        assertEquals(false, ParallelReducer.isParallel(buildList(ParallelReducer.PARALLEL_THRESHOLD - 1)));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 从大到小的整数.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    private static List<Integer> buildList(int size){
+        List<Integer> list = new ArrayList<Integer>(size);
+        for (int i = size; i > 0; --i){
+            list.add(i);
+        }
+        return list;
+    }
+
+    /**
+     * 偶数按照除以 997 的余数分组(每一段都会出现),奇数按照除以 1000 的商分组(只在某一段第一次出现).
+     */
+    private static final class ModReducer extends ParallelReducer<Integer, Map<Integer, List<Integer>>>{
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelReducer#reduce(java.util.List, int, int)
+         */
+        @Override
+        Map<Integer, List<Integer>> reduce(List<Integer> list,int fromIndex,int toIndex){
+            Map<Integer, List<Integer>> map = new LinkedHashMap<Integer, List<Integer>>();
+            for (int i = fromIndex; i < toIndex; ++i){
+                Integer value = list.get(i);
+                MapUtil.putMultiValue(map, 0 == value % 2 ? value % 997 : 1000 + value / 1000, value);
+            }
+            return map;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.util.ParallelReducer#merge(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        Map<Integer, List<Integer>> merge(Map<Integer, List<Integer>> left,Map<Integer, List<Integer>> right){
+            for (Map.Entry<Integer, List<Integer>> entry : right.entrySet()){
+                List<Integer> list = left.get(entry.getKey());
+                if (null == list){
+                    left.put(entry.getKey(), entry.getValue());
+                }else{
+                    list.addAll(entry.getValue());
+                }
+            }
+            return left;
+        }
+    }
+}
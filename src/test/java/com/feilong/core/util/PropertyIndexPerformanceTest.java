@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * 在同一个 list 上多次查询,{@link CollectionsUtil#find(Iterable, String, Object)} 线性扫描和 {@link PropertyIndex#find(Object)} 的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class PropertyIndexPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PropertyIndexPerformanceTest.class);
+
+    /** 每个 list 上查询的次数. */
+    private static final int    LOOKUP_TIMES = 500;
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer size : toList(1, 10, 100, 1000, 10000)){
+            List<User> list = new ArrayList<User>(size);
+            for (int i = 0; i < size; ++i){
+                list.add(new User((long) i));
+            }
+
+            Date beginDate = new Date();
+            for (int i = 0; i < LOOKUP_TIMES; ++i){
+                CollectionsUtil.find(list, "id", (long) (i % size));
+            }
+            LOGGER.debug("[CollectionsUtil.find]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            PropertyIndex<User, Long> propertyIndex = PropertyIndex.newHashIndex(list, "id");
+            for (int i = 0; i < LOOKUP_TIMES; ++i){
+                propertyIndex.find((long) (i % size));
+            }
+            LOGGER.debug("[PropertyIndex.find]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+}
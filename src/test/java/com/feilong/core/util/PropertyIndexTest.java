@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.collections4.functors.ComparatorPredicate.Criterion;
+import org.junit.Test;
+
+import com.feilong.core.util.predicate.BeanPredicateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class PropertyIndexTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class PropertyIndexTest{
+
+    /** The list. */
+    private final List<User> list = buildList(2000);
+
+    /**
+     * 和 {@link CollectionsUtil#find(Iterable, String, Object)} 一致.
+     */
+    @Test
+    public void testFind(){
+        PropertyIndex<User, Integer> hashIndex = PropertyIndex.newHashIndex(list, "age");
+        PropertyIndex<User, Integer> sortedIndex = PropertyIndex.newSortedIndex(list, "age");
+        for (Integer age : toList(null, 0, 1, 25, 49, 50, 100)){
+            assertSame(CollectionsUtil.find(list, "age", age), hashIndex.find(age));
+            assertSame(CollectionsUtil.find(list, "age", age), sortedIndex.find(age));
+            assertEquals(null != CollectionsUtil.find(list, "age", age), hashIndex.contains(age));
+        }
+        assertEquals(list.size(), hashIndex.size());
+    }
+
+    /**
+     * 和 {@link CollectionsUtil#select(java.util.Collection, String, java.util.Collection)} 一致,包括顺序.
+     */
+    @Test
+    public void testSelect(){
+        PropertyIndex<User, String> hashIndex = PropertyIndex.newHashIndex(list, "name");
+        PropertyIndex<User, String> sortedIndex = PropertyIndex.newSortedIndex(list, "name");
+
+        List<String> names = toList("name9", "name3", null, "name3", "notExist");
+        assertEquals(CollectionsUtil.select(list, "name", names), hashIndex.select(names));
+        assertEquals(CollectionsUtil.select(list, "name", names), sortedIndex.select(names));
+        assertEquals(CollectionsUtil.select(list, "name", "name1", "name2"), hashIndex.select("name1", "name2"));
+
+        assertEquals(new ArrayList<User>(), hashIndex.select((String[]) null));
+        assertEquals(new ArrayList<User>(), hashIndex.select(new ArrayList<String>()));
+    }
+
+    /**
+     * 和 {@link BeanPredicateUtil#comparatorPredicate(String, Comparable, Criterion)} 一致,不包含属性值是null的元素.
+     */
+    @Test
+    public void testSelectCriterion(){
+        List<User> notNullList = new ArrayList<User>();
+        for (User user : list){
+            if (null != user.getAge()){
+                notNullList.add(user);
+            }
+        }
+        PropertyIndex<User, Integer> sortedIndex = PropertyIndex.newSortedIndex(list, "age");
+        for (Criterion criterion : Criterion.values()){
+            for (Integer age : toList(-1, 0, 25, 49, 60)){
+                assertEquals(
+                                CollectionsUtil.select(notNullList, BeanPredicateUtil.<User, Integer> comparatorPredicate("age", age, criterion)),
+                                sortedIndex.select(age, criterion));
+            }
+        }
+    }
+
+    /**
+     * Test select range.
+     */
+    @Test
+    public void testSelectRange(){
+        PropertyIndex<User, Integer> sortedIndex = PropertyIndex.newSortedIndex(list, "age");
+
+        List<User> expected = new ArrayList<User>();
+        for (User user : list){
+            if (null != user.getAge() && user.getAge() >= 10 && user.getAge() < 20){
+                expected.add(user);
+            }
+        }
+        assertEquals(expected, sortedIndex.selectRange(10, true, 20, false));
+        assertEquals(new ArrayList<User>(), sortedIndex.selectRange(100, true, 200, true));
+    }
+
+    /**
+     * sorted 模式使用比较器判断相等.
+     */
+    @Test
+    public void testSortedCompareEqual(){
+        User user1 = new User(1L);
+        user1.setMoney(new BigDecimal("1.0"));
+        User user2 = new User(2L);
+        user2.setMoney(new BigDecimal("1.00"));
+        List<User> moneyList = toList(user1, user2);
+
+        assertEquals(toList(user1), PropertyIndex.<User, BigDecimal> newHashIndex(moneyList, "money").select(new BigDecimal("1.0")));
+        assertEquals(moneyList, PropertyIndex.<User, BigDecimal> newSortedIndex(moneyList, "money").select(new BigDecimal("1.0")));
+        assertEquals(moneyList, PropertyIndex.<User, BigDecimal> newSortedIndex(moneyList, "money").select(toList(new BigDecimal("1.0"), new BigDecimal("1"))));
+    }
+
+    /**
+     * Test add and remove.
+     */
+    @Test
+    public void testAddAndRemove(){
+        User zhangfei = new User("张飞", 23);
+        User guanyu = new User("关羽", 24);
+        User liubei = new User("刘备", 24);
+
+        PropertyIndex<User, Integer> index = PropertyIndex.newSortedIndex(null, "age");
+        assertEquals(0, index.size());
+        assertNull(index.find(24));
+
+        index.add(guanyu);
+        index.add(zhangfei);
+        index.add(liubei);
+        assertEquals(3, index.size());
+        assertEquals(toList(guanyu, liubei), index.select(24));
+        assertEquals(toList(guanyu, zhangfei, liubei), index.select(24, 23));
+
+        assertTrue(index.remove(guanyu));
+        assertFalse(index.remove(guanyu));
+        assertSame(liubei, index.find(24));
+
+        assertTrue(index.remove(liubei));
+        assertFalse(index.contains(24));
+        assertEquals(toList(zhangfei), index.select(20, Criterion.LESS));
+        assertEquals(1, index.size());
+    }
+
+    /**
+     * Test null value.
+     */
+    @Test
+    public void testNullValue(){
+        User user = new User(1L);
+        PropertyIndex<User, Integer> index = PropertyIndex.newSortedIndex(toList(user), "age");
+        assertSame(user, index.find(null));
+        assertEquals(new ArrayList<User>(), index.selectRange(0, true, 100, true));
+        assertTrue(index.remove(user));
+        assertFalse(index.contains(null));
+    }
+
+    /**
+     * 范围查询需要 sorted 索引.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testSelectRangeHashIndex(){
+        PropertyIndex.<User, Integer> newHashIndex(list, "age").selectRange(1, true, 2, true);
+    }
+
+    /**
+     * Test new hash index blank property name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewHashIndexBlankPropertyName(){
+        PropertyIndex.newHashIndex(list, " ");
+    }
+
+    /**
+     * Test new hash index null property name.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNewHashIndexNullPropertyName(){
+        PropertyIndex.newHashIndex(list, null);
+    }
+
+    /**
+     * Test new hash index null element.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNewHashIndexNullElement(){
+        PropertyIndex.newHashIndex(toList(new User(1L), null), "id");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 构造数据,age 和 name 有重复,也有null.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    private static List<User> buildList(int size){
+        Random random = new Random(31);
+        List<User> list = new ArrayList<User>(size);
+        for (int i = 0; i < size; ++i){
+            User user = new User((long) i);
+            if (0 != i % 17){
+                user.setAge(random.nextInt(50));
+                user.setName("name" + random.nextInt(20));
+            }
+            list.add(user);
+        }
+        return list;
+    }
+}
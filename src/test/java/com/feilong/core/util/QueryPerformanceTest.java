@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.functors.ComparatorPredicate.Criterion;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.util.predicate.BeanPredicateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * 依次调用 select,collect,group 和 {@link Query} 一次遍历的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class QueryPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger          LOGGER              = LoggerFactory.getLogger(QueryPerformanceTest.class);
+
+    /** 年龄大于 30. */
+    private static final Predicate<User> AGE_GREATER_THAN_30 = BeanPredicateUtil.comparatorPredicate("age", 30, Criterion.LESS);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000)){
+            List<User> list = new ArrayList<User>(size);
+            for (int i = 0; i < size; ++i){
+                User user = new User("name" + i % 100, i % 60);
+                user.setId((long) i);
+                list.add(user);
+            }
+
+            Date beginDate = new Date();
+            CollectionsUtil.group(CollectionsUtil.select(list, AGE_GREATER_THAN_30), "name");
+            LOGGER.debug("[select+group]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            Query.from(list).where(AGE_GREATER_THAN_30).groupBy("name");
+            LOGGER.debug("[Query where+groupBy]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            CollectionsUtil.getPropertyValueList(CollectionsUtil.select(list, AGE_GREATER_THAN_30), "id");
+            LOGGER.debug("[select+getPropertyValueList]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            Query.from(list).where(AGE_GREATER_THAN_30).select("id").toList();
+            LOGGER.debug("[Query where+select]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+}
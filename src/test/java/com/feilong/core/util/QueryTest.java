@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.collections4.functors.ComparatorPredicate.Criterion;
+import org.junit.Test;
+
+import com.feilong.core.util.predicate.BeanPredicateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class QueryTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class QueryTest{
+
+    /** 年龄大于 30. */
+    private static final Predicate<User> AGE_GREATER_THAN_30 = BeanPredicateUtil.comparatorPredicate("age", 30, Criterion.LESS);
+
+    /** The list. */
+    private final List<User>             list                = toList(
+                    new User("张飞", 23),
+                    new User("关羽", 34),
+                    new User("刘备", 45),
+                    new User("关羽", 50),
+                    new User("赵云", 30));
+
+    /**
+     * 和 select + group 结果一致.
+     */
+    @Test
+    public void testWhereGroupBy(){
+        assertEquals(
+                        CollectionsUtil.group(CollectionsUtil.select(list, AGE_GREATER_THAN_30), "name"),
+                        Query.from(list).where(AGE_GREATER_THAN_30).groupBy("name"));
+        assertEquals(
+                        AggregateUtil.groupCount(list, "name", AGE_GREATER_THAN_30),
+                        Query.from(list).where(AGE_GREATER_THAN_30).groupCount("name"));
+    }
+
+    /**
+     * 和 select + getPropertyValueList 结果一致.
+     */
+    @Test
+    public void testWhereSelect(){
+        List<String> expected = CollectionsUtil.getPropertyValueList(CollectionsUtil.select(list, AGE_GREATER_THAN_30), "name");
+        assertEquals(expected, Query.from(list).where(AGE_GREATER_THAN_30).<String> select("name").toList());
+        assertEquals(toList(34, 50), Query.from(list).where("name", "关羽").select("age").toList());
+    }
+
+    /**
+     * 投影之后再过滤,再分组.
+     */
+    @Test
+    public void testSelectWhereGroupBy(){
+        Transformer<String, Integer> lengthTransformer = new Transformer<String, Integer>(){
+
+            @Override
+            public Integer transform(String input){
+                return input.length();
+            }
+        };
+        LinkedHashMap<Integer, List<String>> expected = new LinkedHashMap<Integer, List<String>>();
+        expected.put(2, toList("关羽", "刘备", "关羽"));
+        assertEquals(expected, Query.from(list).where(AGE_GREATER_THAN_30).<String> select("name").groupBy(lengthTransformer));
+    }
+
+    /**
+     * 中间步骤返回新的 query,可以重复使用.
+     */
+    @Test
+    public void testReuse(){
+        Query<User> query = Query.from(list).where(AGE_GREATER_THAN_30);
+        assertEquals(3, query.count());
+        assertEquals(1, query.where("name", "刘备").count());
+        assertEquals(3, query.count());
+        assertEquals(5, Query.from(list).count());
+    }
+
+    /**
+     * 找到第一个之后不再遍历.
+     */
+    @Test
+    public void testFirst(){
+        final AtomicInteger evaluateCount = new AtomicInteger();
+        User user = Query.from(list).where(new Predicate<User>(){
+
+            @Override
+            public boolean evaluate(User object){
+                evaluateCount.incrementAndGet();
+                return object.getAge() > 30;
+            }
+        }).first();
+
+        assertSame(list.get(1), user);
+        assertEquals(2, evaluateCount.get());
+        assertNull(Query.from(list).where("name", "曹操").first());
+    }
+
+    /**
+     * 和 {@link AggregateUtil#sum(java.util.Collection, String, Predicate)} 一致.
+     */
+    @Test
+    public void testSum(){
+        assertEquals(AggregateUtil.sum(list, "age", AGE_GREATER_THAN_30), Query.from(list).where(AGE_GREATER_THAN_30).sum("age"));
+        assertEquals(new BigDecimal(182), Query.from(list).sum("age"));
+        assertNull(Query.from(list).where("name", "曹操").sum("age"));
+    }
+
+    /**
+     * Test from iterator.
+     */
+    @Test
+    public void testFromIterator(){
+        Iterator<User> iterator = list.iterator();
+        assertEquals(toList("关羽", "关羽"), Query.from(iterator).where("name", "关羽").select("name").toList());
+    }
+
+    /**
+     * Test from null.
+     */
+    @Test
+    public void testFromNull(){
+        assertEquals(new ArrayList<User>(), Query.from((Iterable<User>) null).toList());
+        assertEquals(0, Query.from((Iterator<User>) null).where(AGE_GREATER_THAN_30).count());
+        assertEquals(new LinkedHashMap<String, List<User>>(), Query.from((Iterable<User>) null).groupBy("name"));
+    }
+
+    /**
+     * Test where null predicate.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testWhereNullPredicate(){
+        Query.from(list).where((Predicate<User>) null);
+    }
+
+    /**
+     * Test select blank property name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectBlankPropertyName(){
+        Query.from(list).select(" ");
+    }
+}
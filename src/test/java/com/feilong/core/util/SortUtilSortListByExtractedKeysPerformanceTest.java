@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link SortUtil#sortListByPropertyNamesValue(List, String...)} 和 {@link SortUtil#sortListByExtractedKeys(List, String...)} 的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class SortUtilSortListByExtractedKeysPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortUtilSortListByExtractedKeysPerformanceTest.class);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        Random random = new Random();
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000, 500000)){
+            List<User> list = new ArrayList<User>(size);
+            for (int i = 0; i < size; ++i){
+                User user = new User((long) i, random.nextInt(100));
+                user.setName("name" + random.nextInt(1000));
+                list.add(user);
+            }
+            Collections.shuffle(list, random);
+
+            List<User> copy = new ArrayList<User>(list);
+            Date beginDate = new Date();
+            SortUtil.sortListByPropertyNamesValue(copy, "age", "id");
+            LOGGER.debug("[sortListByPropertyNamesValue age,id]{},use time:{}", size, formatDuration(beginDate));
+
+            copy = new ArrayList<User>(list);
+            beginDate = new Date();
+            SortUtil.sortListByExtractedKeys(copy, "age", "id");
+            LOGGER.debug("[sortListByExtractedKeys age,id]{},use time:{}", size, formatDuration(beginDate));
+
+            copy = new ArrayList<User>(list);
+            beginDate = new Date();
+            SortUtil.sortListByPropertyNamesValue(copy, "name");
+            LOGGER.debug("[sortListByPropertyNamesValue name]{},use time:{}", size, formatDuration(beginDate));
+
+            copy = new ArrayList<User>(list);
+            beginDate = new Date();
+            SortUtil.sortListByExtractedKeys(copy, "name");
+            LOGGER.debug("[sortListByExtractedKeys name]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+}
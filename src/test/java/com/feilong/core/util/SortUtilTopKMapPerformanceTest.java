@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * 从很大的 map 里面取出 value 最大的 10 个 entry,{@link SortUtil#sortMapByValueDesc(Map)},{@link SortUtil#topKMapByValueDesc(Map, int)} 以及
+ * {@link SortUtil#sortMapEntriesByValueDesc(Map)} 的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class SortUtilTopKMapPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortUtilTopKMapPerformanceTest.class);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        Random random = new Random();
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000, 1000000, 2000000)){
+            Map<String, Integer> map = new HashMap<String, Integer>(size * 2);
+            for (int i = 0; i < size; ++i){
+                map.put("word" + i, random.nextInt(size));
+            }
+
+            Date beginDate = new Date();
+            SortUtil.sortMapByValueDesc(map);
+            LOGGER.debug("[sortMapByValueDesc]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            SortUtil.sortMapEntriesByValueDesc(map);
+            LOGGER.debug("[sortMapEntriesByValueDesc]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            SortUtil.topKMapByValueDesc(map, 10);
+            LOGGER.debug("[topKMapByValueDesc 10]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * 整体排序再截取和 {@link SortUtil#topK(Iterable, int, java.util.Comparator...)} 的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class SortUtilTopKPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortUtilTopKPerformanceTest.class);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        Random random = new Random();
+        PropertyComparator<User> propertyComparator = new PropertyComparator<User>("age");
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000, 1000000)){
+            List<User> list = new ArrayList<User>(size);
+            for (int i = 0; i < size; ++i){
+                list.add(new User((long) i, random.nextInt(size)));
+            }
+
+            Date beginDate = new Date();
+            List<User> sortedList = SortUtil.sortList(new ArrayList<User>(list), propertyComparator);
+            sortedList.subList(0, Math.min(20, size));
+            LOGGER.debug("[sortList+subList 20]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            SortUtil.topK(list, 20, propertyComparator);
+            LOGGER.debug("[topK 20]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+}
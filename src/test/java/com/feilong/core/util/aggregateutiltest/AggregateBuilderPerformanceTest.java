@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.util.AggregateBuilder;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * 多次调用 {@link AggregateUtil} 和一次 {@link AggregateBuilder} 的性能对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class AggregateBuilderPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregateBuilderPerformanceTest.class);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        AggregateBuilder aggregateBuilder = new AggregateBuilder().sum("id").sum("age").sum("money").avg("id", 2).avg("age", 2);
+
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000)){
+            List<User> list = buildList(size);
+
+            Date beginDate = new Date();
+            AggregateUtil.sum(list, "id", "age", "money");
+            AggregateUtil.avg(list, toArray("id", "age"), 2);
+            LOGGER.debug("[AggregateUtil sum+avg]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            aggregateBuilder.aggregate(list);
+            LOGGER.debug("[AggregateBuilder]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+
+    /**
+     * Builds the list.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    private static List<User> buildList(int size){
+        List<User> list = new ArrayList<User>(size);
+        for (int i = 0; i < size; ++i){
+            User user = new User((long) i, i % 100);
+            user.setMoney(BigDecimal.valueOf(i, 2));
+            list.add(user);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.collections4.Predicate;
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateBuilder;
+import com.feilong.core.util.AggregateResult;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class AggregateBuilderTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class AggregateBuilderTest{
+
+    /** The Constant AGE_GREATER_THAN_20. */
+    private static final Predicate<User> AGE_GREATER_THAN_20 = new Predicate<User>(){
+
+                                                                 @Override
+                                                                 public boolean evaluate(User user){
+                                                                     return null != user.getAge() && user.getAge() > 20;
+                                                                 }
+                                                             };
+
+    /**
+     * Test aggregate.
+     */
+    @Test
+    public void testAggregate(){
+        List<User> list = buildList();
+
+        AggregateResult aggregateResult = new AggregateBuilder()//
+                        .sum("id")
+                        .avg("id", 2)
+                        .sum("money")
+                        .min("age")
+                        .max("age")
+                        .distinctCount("name")
+                        .aggregate(list);
+
+        assertEquals(4, aggregateResult.getCount());
+        assertEquals(AggregateUtil.sum(list, "id"), aggregateResult.getSum("id"));
+        assertEquals(AggregateUtil.avg(list, "id", 2), aggregateResult.getAvg("id"));
+        assertEquals(AggregateUtil.sum(list, "money"), aggregateResult.getSum("money"));
+        assertEquals(18, aggregateResult.<Integer> getMin("age").intValue());
+        assertEquals(40, aggregateResult.<Integer> getMax("age").intValue());
+        assertEquals(3, aggregateResult.getDistinctCount("name"));
+    }
+
+    /**
+     * Test aggregate predicate.
+     */
+    @Test
+    public void testAggregatePredicate(){
+        List<User> list = buildList();
+
+        AggregateResult aggregateResult = new AggregateBuilder().sum("id").avg("id", 2).min("age").distinctCount("name")
+                        .aggregate(list, AGE_GREATER_THAN_20);
+
+        assertEquals(2, aggregateResult.getCount());
+        assertEquals(AggregateUtil.sum(list, toArray("id"), AGE_GREATER_THAN_20).get("id"), aggregateResult.getSum("id"));
+        assertEquals(new BigDecimal("6.50"), aggregateResult.getAvg("id"));
+        assertEquals(30, aggregateResult.<Integer> getMin("age").intValue());
+        assertEquals(2, aggregateResult.getDistinctCount("name"));
+    }
+
+    /**
+     * Test aggregate nested property.
+     */
+    @Test
+    public void testAggregateNestedProperty(){
+        List<User> list = buildList();
+        AggregateResult aggregateResult = new AggregateBuilder().sum("userInfo.age").max("userInfo.age").aggregate(list);
+        assertEquals(AggregateUtil.sum(list, "userInfo.age"), aggregateResult.getSum("userInfo.age"));
+        assertEquals(9, aggregateResult.<Integer> getMax("userInfo.age").intValue());
+    }
+
+    /**
+     * null 值: sum 使用0代替, min/max/distinct count 忽略.
+     */
+    @Test
+    public void testAggregateNullValue(){
+        List<User> list = toList(new User("a", null), new User("b", 5));
+        AggregateResult aggregateResult = new AggregateBuilder().sum("age").avg("age", 1).min("age").distinctCount("age").aggregate(list);
+        assertEquals(new BigDecimal(5), aggregateResult.getSum("age"));
+        assertEquals(new BigDecimal("2.5"), aggregateResult.getAvg("age"));
+        assertEquals(5, aggregateResult.<Integer> getMin("age").intValue());
+        assertEquals(1, aggregateResult.getDistinctCount("age"));
+    }
+
+    /**
+     * Test aggregate empty.
+     */
+    @Test
+    public void testAggregateEmpty(){
+        AggregateBuilder aggregateBuilder = new AggregateBuilder().sum("id").avg("id", 2).max("age").distinctCount("name");
+        for (List<User> list : toList(null, new ArrayList<User>())){
+            AggregateResult aggregateResult = aggregateBuilder.aggregate(list);
+            assertEquals(0, aggregateResult.getCount());
+            assertNull(aggregateResult.getSum("id"));
+            assertNull(aggregateResult.getAvg("id"));
+            assertNull(aggregateResult.getMax("age"));
+            assertEquals(0, aggregateResult.getDistinctCount("name"));
+        }
+    }
+
+    /**
+     * Test get not aggregated metric.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetNotAggregatedMetric(){
+        new AggregateBuilder().sum("id").aggregate(buildList()).getMax("id");
+    }
+
+    /**
+     * Test get not aggregated property.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetNotAggregatedProperty(){
+        new AggregateBuilder().sum("id").aggregate(buildList()).getSum("age");
+    }
+
+    /**
+     * Test sum blank property name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSumBlankPropertyName(){
+        new AggregateBuilder().sum(" ");
+    }
+
+    /**
+     * Test sum null property name.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSumNullPropertyName(){
+        new AggregateBuilder().sum(null);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Builds the list.
+     *
+     * @return the list
+     */
+    private static List<User> buildList(){
+        User user1 = new User(2L, 18);
+        user1.setName("张飞");
+        user1.setMoney(new BigDecimal("1.5"));
+        user1.getUserInfo().setAge(9);
+
+        User user2 = new User(5L, 30);
+        user2.setName("关羽");
+        user2.setMoney(new BigDecimal("2.25"));
+
+        User user3 = new User(8L, 40);
+        user3.setName("刘备");
+
+        User user4 = new User(5L, 20);
+        user4.setName("刘备");
+        user4.setMoney(new BigDecimal("3"));
+        return toList(user1, user2, user3, user4);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link AggregateUtil#groupCountParallel(java.util.Collection, String)},{@link AggregateUtil#sumParallel(java.util.Collection, String...)},
+ * {@link CollectionsUtil#groupParallel(java.util.Collection, String)} 和顺序版本的耗时对比.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class AggregateUtilParallelPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregateUtilParallelPerformanceTest.class);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000, 1000000)){
+            List<User> list = AggregateUtilParallelTest.buildList(size);
+
+            Date beginDate = new Date();
+            AggregateUtil.groupCount(list, "name");
+            LOGGER.debug("[groupCount]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            AggregateUtil.groupCountParallel(list, "name");
+            LOGGER.debug("[groupCountParallel]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            AggregateUtil.sum(list, "id", "age", "money");
+            LOGGER.debug("[sum]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            AggregateUtil.sumParallel(list, "id", "age", "money");
+            LOGGER.debug("[sumParallel]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            CollectionsUtil.group(list, "name");
+            LOGGER.debug("[group]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            CollectionsUtil.groupParallel(list, "name");
+            LOGGER.debug("[groupParallel]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.Predicate;
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class AggregateUtilParallelTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class AggregateUtilParallelTest{
+
+    /** 年龄大于 30. */
+    private static final Predicate<User> AGE_GREATER_THAN_30 = new Predicate<User>(){
+
+        @Override
+        public boolean evaluate(User user){
+            return user.getAge() > 30;
+        }
+    };
+
+    /**
+     * Test group count parallel.
+     */
+    @Test
+    public void testGroupCountParallel(){
+        List<User> list = buildList(50000);
+        assertSameOrderedMap(AggregateUtil.<String, User> groupCount(list, "name"), AggregateUtil.<String, User> groupCountParallel(list, "name"));
+        assertSameOrderedMap(AggregateUtil.<Long, User> groupCount(list, "id"), AggregateUtil.<Long, User> groupCountParallel(list, "id"));
+    }
+
+    /**
+     * Test group count parallel predicate.
+     */
+    @Test
+    public void testGroupCountParallelPredicate(){
+        List<User> list = buildList(50000);
+        assertSameOrderedMap(
+                        AggregateUtil.<String, User> groupCount(list, "name", AGE_GREATER_THAN_30),
+                        AggregateUtil.<String, User> groupCountParallel(list, "name", AGE_GREATER_THAN_30));
+    }
+
+    /**
+     * Test group count parallel linked list.
+     */
+    @Test
+    public void testGroupCountParallelLinkedList(){
+        List<User> list = new LinkedList<User>(buildList(20000));
+        assertSameOrderedMap(AggregateUtil.<String, User> groupCount(list, "name"), AggregateUtil.<String, User> groupCountParallel(list, "name"));
+    }
+
+    /**
+     * 小于阈值的集合.
+     */
+    @Test
+    public void testGroupCountParallelSmall(){
+        List<User> list = toList(new User("张飞"), new User("关羽"), new User("刘备"), new User("刘备"));
+        assertSameOrderedMap(AggregateUtil.<String, User> groupCount(list, "name"), AggregateUtil.<String, User> groupCountParallel(list, "name"));
+    }
+
+    /**
+     * Test group count parallel null or empty.
+     */
+    @Test
+    public void testGroupCountParallelNullOrEmpty(){
+        assertEquals(emptyMap(), AggregateUtil.groupCountParallel(null, "name"));
+        assertEquals(emptyMap(), AggregateUtil.groupCountParallel(new ArrayList<User>(), "name"));
+    }
+
+    /**
+     * Test group count parallel blank property name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupCountParallelBlankPropertyName(){
+        AggregateUtil.groupCountParallel(buildList(50000), " ");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 并行累加的结果和顺序累加完全一致,包括 scale.
+     */
+    @Test
+    public void testSumParallel(){
+        List<User> list = buildList(50000);
+        assertSameOrderedMap(AggregateUtil.sum(list, "id", "age", "money"), AggregateUtil.sumParallel(list, "id", "age", "money"));
+        assertEquals(AggregateUtil.sum(list, "money"), AggregateUtil.sumParallel(list, "money"));
+        assertEquals(AggregateUtil.sum(list, "money").scale(), AggregateUtil.sumParallel(list, "money").scale());
+    }
+
+    /**
+     * Test sum parallel predicate.
+     */
+    @Test
+    public void testSumParallelPredicate(){
+        List<User> list = buildList(50000);
+        String[] propertyNames = toArray("id", "money", "id");
+        assertSameOrderedMap(
+                        AggregateUtil.sum(list, propertyNames, AGE_GREATER_THAN_30),
+                        AggregateUtil.sumParallel(list, propertyNames, AGE_GREATER_THAN_30));
+        assertEquals(AggregateUtil.sum(list, "age", AGE_GREATER_THAN_30), AggregateUtil.sumParallel(list, "age", AGE_GREATER_THAN_30));
+    }
+
+    /**
+     * 没有符合条件的元素.
+     */
+    @Test
+    public void testSumParallelNoneMatch(){
+        List<User> list = buildList(50000);
+        Predicate<User> predicate = new Predicate<User>(){
+
+            @Override
+            public boolean evaluate(User user){
+                return user.getAge() > 100;
+            }
+        };
+        assertEquals(emptyMap(), AggregateUtil.sumParallel(list, toArray("id"), predicate));
+        assertNull(AggregateUtil.sumParallel(list, "id", predicate));
+    }
+
+    /**
+     * Test sum parallel small.
+     */
+    @Test
+    public void testSumParallelSmall(){
+        List<User> list = toList(new User(2L), new User(5L), new User(5L));
+        assertEquals(new BigDecimal(12), AggregateUtil.sumParallel(list, "id"));
+    }
+
+    /**
+     * Test sum parallel null or empty.
+     */
+    @Test
+    public void testSumParallelNullOrEmpty(){
+        assertEquals(emptyMap(), AggregateUtil.sumParallel(null, "id", "age"));
+        assertNull(AggregateUtil.sumParallel(new ArrayList<User>(), "id"));
+    }
+
+    /**
+     * Test sum parallel null property names.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSumParallelNullPropertyNames(){
+        AggregateUtil.sumParallel(buildList(50000), (String[]) null);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 构造数据,id 每 13 个有一个是null,money 的 scale 不一样.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    static List<User> buildList(int size){
+        List<User> list = new ArrayList<User>(size);
+        for (int i = 0; i < size; ++i){
+            User user = new User(0 == i % 13 ? null : (long) (i % 997), i % 50);
+            //后面的段会出现前面没有出现过的 name
+            user.setName("name" + (0 == i % 2 ? i % 100 : i / 1000));
+            user.setMoney(new BigDecimal(i).movePointLeft(i % 3));
+            list.add(user);
+        }
+        return list;
+    }
+
+    /**
+     * 内容以及 key 顺序都一样.
+     *
+     * @param expected
+     *            the expected
+     * @param actual
+     *            the actual
+     */
+    private static void assertSameOrderedMap(Map<?, ?> expected,Map<?, ?> actual){
+        assertEquals(expected, actual);
+        assertEquals(new ArrayList<Object>(expected.keySet()), new ArrayList<Object>(actual.keySet()));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.collections4.Predicate;
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class AggregateUtilSumDoubleTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class AggregateUtilSumDoubleTest{
+
+    /**
+     * Test sum double.
+     */
+    @Test
+    public void testSumDouble(){
+        List<User> list = toList(new User(2L), new User(5L), new User(5L));
+        assertEquals(12d, AggregateUtil.sumDouble(list, "id"), 0);
+    }
+
+    /**
+     * 补偿求和,一百万个 0.1 的结果就是 100000(直接累加是 100000.00000133288).
+     */
+    @Test
+    public void testSumDoubleCompensated(){
+        List<Holder> list = new ArrayList<Holder>();
+        for (int i = 0; i < 1000000; ++i){
+            list.add(new Holder(0.1d));
+        }
+        assertEquals(100000d, AggregateUtil.sumDouble(list, "value"), 0);
+    }
+
+    /**
+     * 大数吃掉小数的情况.
+     */
+    @Test
+    public void testSumDoubleLargeAndSmall(){
+        List<Holder> list = toList(new Holder(1d), new Holder(1e100), new Holder(1d), new Holder(-1e100));
+        assertEquals(2d, AggregateUtil.sumDouble(list, "value"), 0);
+    }
+
+    /**
+     * Test sum double predicate.
+     */
+    @Test
+    public void testSumDoublePredicate(){
+        List<User> list = toList(new User(2L), new User(50L), new User(50L));
+        list.get(0).setMoney(new BigDecimal("1.5"));
+
+        assertEquals(100d, AggregateUtil.sumDouble(list, "id", new Predicate<User>(){
+
+            @Override
+            public boolean evaluate(User user){
+                return user.getId() > 10L;
+            }
+        }), 0);
+        assertEquals(1.5d, AggregateUtil.sumDouble(list, "money"), 0);
+    }
+
+    /**
+     * Test sum double null or empty.
+     */
+    @Test
+    public void testSumDoubleNullOrEmpty(){
+        assertEquals(0d, AggregateUtil.sumDouble(null, "id"), 0);
+        assertEquals(0d, AggregateUtil.sumDouble(new ArrayList<User>(), "id"), 0);
+    }
+
+    /**
+     * Test sum double null property name.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSumDoubleNullPropertyName(){
+        AggregateUtil.sumDouble(toList(new User(2L)), null);
+    }
+
+    /**
+     * Test sum double blank property name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSumDoubleBlankPropertyName(){
+        AggregateUtil.sumDouble(toList(new User(2L)), " ");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * double 属性.
+     */
+    public static class Holder{
+
+        /** The value. */
+        private double value;
+
+        /**
+         * Instantiates a new holder.
+         *
+         * @param value
+         *            the value
+         */
+        public Holder(double value){
+            this.value = value;
+        }
+
+        /**
+         * Gets the value.
+         *
+         * @return the value
+         */
+        public double getValue(){
+            return value;
+        }
+
+        /**
+         * Sets the value.
+         *
+         * @param value
+         *            the value to set
+         */
+        public void setValue(double value){
+            this.value = value;
+        }
+    }
+}
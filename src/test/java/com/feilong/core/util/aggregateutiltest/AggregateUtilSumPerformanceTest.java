@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.lang.NumberUtil;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link AggregateUtil#sum(java.util.Collection, String)} 整数类型 long 累加和原来逐个 {@link NumberUtil#getAddValue(Number...)} 累加的耗时以及内存分配对比.
+ *
+ * <p>
+ * 内存分配使用 HotSpot 的 <code>com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)</code> 统计,其他 jvm 输出 -1.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class AggregateUtilSumPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregateUtilSumPerformanceTest.class);
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000)){
+            List<User> list = buildList(size);
+
+            Date beginDate = new Date();
+            long beginBytes = getAllocatedBytes();
+            sumByGetAddValue(list, "id");
+            LOGGER.debug("[getAddValue]{},use time:{},allocated bytes:{}", size, formatDuration(beginDate), getAllocatedBytes() - beginBytes);
+
+            beginDate = new Date();
+            beginBytes = getAllocatedBytes();
+            AggregateUtil.sum(list, "id");
+            LOGGER.debug("[AggregateUtil.sum]{},use time:{},allocated bytes:{}", size, formatDuration(beginDate), getAllocatedBytes() - beginBytes);
+
+            beginDate = new Date();
+            beginBytes = getAllocatedBytes();
+            AggregateUtil.sumDouble(list, "id");
+            LOGGER.debug("[AggregateUtil.sumDouble]{},use time:{},allocated bytes:{}", size, formatDuration(beginDate), getAllocatedBytes() - beginBytes);
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 原来的实现.
+     *
+     * @param list
+     *            the list
+     * @param propertyName
+     *            the property name
+     * @return the big decimal
+     */
+    private static BigDecimal sumByGetAddValue(List<User> list,String propertyName){
+        BigDecimal sum = BigDecimal.ZERO;
+        for (User user : list){
+            Number value = PropertyUtil.getProperty(user, propertyName);
+            sum = NumberUtil.getAddValue(sum, null == value ? 0 : value);
+        }
+        return sum;
+    }
+
+    /**
+     * 当前线程分配的字节数.
+     *
+     * @return 如果不支持,返回 -1
+     */
+    private static long getAllocatedBytes(){
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        try{
+            Method method = threadMXBean.getClass().getMethod("getThreadAllocatedBytes", long.class);
+            method.setAccessible(true);
+            return (Long) method.invoke(threadMXBean, Thread.currentThread().getId());
+        }catch (Exception e){
+            return -1;
+        }
+    }
+
+    /**
+     * Builds the list.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    private static List<User> buildList(int size){
+        List<User> list = new ArrayList<User>(size);
+        for (int i = 0; i < size; ++i){
+            list.add(new User((long) i));
+        }
+        return list;
+    }
+}
@@ -26,12 +26,15 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ //
+                AggregateBuilderTest.class,
                 AggregateUtilAvgArrayTest.class,
                 AggregateUtilAvgTest.class,
                 AggregateUtilGroupCountPredicateTest.class,
                 AggregateUtilGroupCountTest.class,
+                AggregateUtilParallelTest.class,
                 AggregateUtilSumArrayPredicateTest.class,
                 AggregateUtilSumArrayTest.class,
+                AggregateUtilSumDoubleTest.class,
                 AggregateUtilSumPredicateTest.class,
                 AggregateUtilSumTest.class,
         //
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.collectionsutiltest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.Test;
+
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.core.util.CompactMultiMap;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class CollectionsUtilGroupCompactTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CollectionsUtilGroupCompactTest{
+
+    /**
+     * Test group compact.
+     */
+    @Test
+    public void testGroupCompact(){
+        User zhangfei = new User("张飞", 23);
+        User liubei25 = new User("刘备", 25);
+        User guanyu = new User("关羽", 24);
+        User liubei30 = new User("刘备", 30);
+        List<User> list = toList(zhangfei, liubei25, guanyu, liubei30);
+
+        CompactMultiMap<String, User> multiMap = CollectionsUtil.groupCompact(list, "name");
+        assertThat(multiMap.asMap().keySet(), contains("张飞", "刘备", "关羽"));
+        assertThat(multiMap.get("刘备"), contains(liubei25, liubei30));
+        assertEquals(CollectionsUtil.<String, User> group(list, "name"), multiMap.asMap());
+    }
+
+    /**
+     * key 的 hash 完全相同({@link Long} 高低 32 位异或相同),并且 key 的个数远超过预估的个数(元素个数的 1/4),key 表需要多次扩容.
+     */
+    @Test
+    public void testGroupCompactHashCollisionAndResize(){
+        List<User> list = new ArrayList<User>();
+        for (int i = 0; i < 1000; ++i){
+            //n 和 n << 32 的 hashCode 相同
+            list.add(newUser(0 == i % 2 ? (long) i + 2 : (long) (i + 1) << 32, i));
+        }
+        //再来一遍,每个 key 两个元素
+        for (int i = 0; i < 1000; ++i){
+            list.add(newUser(0 == i % 2 ? (long) i + 2 : (long) (i + 1) << 32, i + 1000));
+        }
+
+        CompactMultiMap<Long, User> multiMap = CollectionsUtil.groupCompact(list, "id");
+        assertEquals(1000, multiMap.keySize());
+        assertEquals(2000, multiMap.valueSize());
+        assertEquals(CollectionsUtil.<Long, User> group(list, "id"), multiMap.asMap());
+
+        assertEquals(Integer.valueOf(0), multiMap.get(2L).get(0).getAge());
+        assertEquals(Integer.valueOf(1001), multiMap.get(2L << 32).get(1).getAge());
+    }
+
+    /**
+     * 同一个 key 交替出现,返回之前已经 trimToSize,每个 key 的 value 是连续的,并且数组没有多余的空间.
+     *
+     * @throws IllegalAccessException
+     *             the illegal access exception
+     */
+    @Test
+    public void testGroupCompactTrimToSize() throws IllegalAccessException{
+        List<User> list = new ArrayList<User>();
+        for (int i = 0; i < 100; ++i){
+            list.add(newUser((long) (i % 3), i));
+        }
+
+        CompactMultiMap<Long, User> multiMap = CollectionsUtil.groupCompact(list, "id");
+        assertEquals(true, FieldUtils.readField(multiMap, "packed", true));
+        assertEquals(100, ((Object[]) FieldUtils.readField(multiMap, "values", true)).length);
+        assertEquals(100, ((int[]) FieldUtils.readField(multiMap, "next", true)).length);
+        assertEquals(CollectionsUtil.<Long, User> group(list, "id"), multiMap.toMap());
+    }
+
+    /**
+     * key 的顺序是第一次出现的顺序,每个 key 下面的元素保持原来的顺序,和 {@link CollectionsUtil#group(java.util.Collection, String)} 一致.
+     */
+    @Test
+    public void testGroupCompactOrderSameAsGroup(){
+        List<User> list = new ArrayList<User>();
+        for (int i = 0; i < 500; ++i){
+            //key 第一次出现的顺序和 key 的大小,hash 顺序都不一样
+            list.add(newUser((long) ((i * 7919) % 61), i));
+        }
+        Predicate<User> predicate = new Predicate<User>(){
+
+            @Override
+            public boolean evaluate(User user){
+                return 0 != user.getAge() % 5;
+            }
+        };
+
+        CompactMultiMap<Long, User> multiMap = CollectionsUtil.groupCompact(list, "id", predicate);
+        List<Long> keys = new ArrayList<Long>(multiMap.asMap().keySet());
+        assertEquals(new ArrayList<Long>(CollectionsUtil.<Long, User> group(list, "id", predicate).keySet()), keys);
+        for (Long key : keys){
+            //同一个对象,同样的顺序
+            List<User> expected = CollectionsUtil.<Long, User> group(list, "id", predicate).get(key);
+            List<User> actual = multiMap.get(key);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); ++i){
+                assertTrue(expected.get(i) == actual.get(i));
+            }
+        }
+    }
+
+    /**
+     * Test group compact null or empty.
+     */
+    @Test
+    public void testGroupCompactNullOrEmpty(){
+        assertTrue(CollectionsUtil.groupCompact(null, "name").isEmpty());
+        assertTrue(CollectionsUtil.groupCompact(new ArrayList<User>(), null, (Transformer<User, String>) null).isEmpty());
+    }
+
+    /**
+     * Test group compact null transformer.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGroupCompactNullTransformer(){
+        CollectionsUtil.groupCompact(toList(new User("张飞", 23)), null, (Transformer<User, String>) null);
+    }
+
+    /**
+     * Test group compact null property name.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGroupCompactNullPropertyName(){
+        CollectionsUtil.groupCompact(toList(new User("张飞", 23)), (String) null);
+    }
+
+    /**
+     * Test group compact blank property name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupCompactBlankPropertyName(){
+        CollectionsUtil.groupCompact(toList(new User("张飞", 23)), " ");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * New user.
+     *
+     * @param id
+     *            the id
+     * @param age
+     *            the age
+     * @return the user
+     */
+    private static User newUser(Long id,int age){
+        User user = new User("name" + age, age);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.collectionsutiltest;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class CollectionsUtilGroupParallelTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CollectionsUtilGroupParallelTest{
+
+    /** 年龄大于 30. */
+    private static final Predicate<User> AGE_GREATER_THAN_30 = new Predicate<User>(){
+
+        @Override
+        public boolean evaluate(User user){
+            return user.getAge() > 30;
+        }
+    };
+
+    /** 名字的前5个字符. */
+    private static final Transformer<User, String> NAME_PREFIX = new Transformer<User, String>(){
+
+        @Override
+        public String transform(User user){
+            return user.getName().substring(0, 5);
+        }
+    };
+
+    /**
+     * Test group parallel.
+     */
+    @Test
+    public void testGroupParallel(){
+        List<User> list = buildList(50000);
+        assertSameGroup(CollectionsUtil.<String, User> group(list, "name"), CollectionsUtil.<String, User> groupParallel(list, "name"));
+        assertSameGroup(CollectionsUtil.<Long, User> group(list, "id"), CollectionsUtil.<Long, User> groupParallel(list, "id"));
+    }
+
+    /**
+     * Test group parallel predicate.
+     */
+    @Test
+    public void testGroupParallelPredicate(){
+        List<User> list = buildList(50000);
+        assertSameGroup(
+                        CollectionsUtil.<String, User> group(list, "name", AGE_GREATER_THAN_30),
+                        CollectionsUtil.<String, User> groupParallel(list, "name", AGE_GREATER_THAN_30));
+    }
+
+    /**
+     * Test group parallel transformer.
+     */
+    @Test
+    public void testGroupParallelTransformer(){
+        List<User> list = buildList(50000);
+        assertSameGroup(CollectionsUtil.group(list, NAME_PREFIX), CollectionsUtil.groupParallel(list, NAME_PREFIX));
+        assertSameGroup(
+                        CollectionsUtil.group(list, AGE_GREATER_THAN_30, NAME_PREFIX),
+                        CollectionsUtil.groupParallel(list, AGE_GREATER_THAN_30, NAME_PREFIX));
+    }
+
+    /**
+     * Test group parallel linked list.
+     */
+    @Test
+    public void testGroupParallelLinkedList(){
+        List<User> list = new LinkedList<User>(buildList(20000));
+        assertSameGroup(CollectionsUtil.<String, User> group(list, "name"), CollectionsUtil.<String, User> groupParallel(list, "name"));
+    }
+
+    /**
+     * 没有符合条件的元素.
+     */
+    @Test
+    public void testGroupParallelNoneMatch(){
+        Predicate<User> predicate = new Predicate<User>(){
+
+            @Override
+            public boolean evaluate(User user){
+                return user.getAge() > 100;
+            }
+        };
+        assertEquals(emptyMap(), CollectionsUtil.groupParallel(buildList(50000), "name", predicate));
+    }
+
+    /**
+     * 小于阈值的集合.
+     */
+    @Test
+    public void testGroupParallelSmall(){
+        List<User> list = toList(new User("张飞", 23), new User("关羽", 24), new User("刘备", 25), new User("刘备", 30));
+        assertSameGroup(CollectionsUtil.<String, User> group(list, "name"), CollectionsUtil.<String, User> groupParallel(list, "name"));
+    }
+
+    /**
+     * Test group parallel null or empty.
+     */
+    @Test
+    public void testGroupParallelNullOrEmpty(){
+        assertEquals(emptyMap(), CollectionsUtil.groupParallel(null, "name"));
+        assertEquals(emptyMap(), CollectionsUtil.groupParallel(new ArrayList<User>(), NAME_PREFIX));
+    }
+
+    /**
+     * Test group parallel null transformer.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGroupParallelNullTransformer(){
+        CollectionsUtil.groupParallel(buildList(50000), (Transformer<User, String>) null);
+    }
+
+    /**
+     * Test group parallel blank property name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupParallelBlankPropertyName(){
+        CollectionsUtil.groupParallel(buildList(50000), " ");
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 构造数据,后面的段会出现前面没有出现过的 name.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    private static List<User> buildList(int size){
+        List<User> list = new ArrayList<User>(size);
+        for (int i = 0; i < size; ++i){
+            User user = new User("name" + (0 == i % 2 ? i % 100 : i / 1000), i % 50);
+            user.setId(0 == i % 13 ? null : (long) (i % 997));
+            list.add(user);
+        }
+        return list;
+    }
+
+    /**
+     * key 顺序以及每个 key 下面的元素(同一个对象,同样的顺序)都一样.
+     *
+     * @param expected
+     *            the expected
+     * @param actual
+     *            the actual
+     */
+    private static void assertSameGroup(Map<?, List<User>> expected,Map<?, List<User>> actual){
+        assertEquals(expected, actual);
+        assertEquals(new ArrayList<Object>(expected.keySet()), new ArrayList<Object>(actual.keySet()));
+    }
+}
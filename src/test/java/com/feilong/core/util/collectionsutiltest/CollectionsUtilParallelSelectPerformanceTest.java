@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.collectionsutiltest;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toInteger;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+/**
+ * {@link CollectionsUtil#selectParallel(java.util.Collection, Predicate)},{@link CollectionsUtil#collectParallel(Iterable, Transformer)}
+ * 和顺序版本的耗时对比,predicate/transformer 使用反射加类型转换.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CollectionsUtilParallelSelectPerformanceTest{
+
+    /** The Constant LOGGER. */
+    private static final Logger                     LOGGER              = LoggerFactory.getLogger(CollectionsUtilParallelSelectPerformanceTest.class);
+
+    /** 年龄大于 30. */
+    private static final Predicate<User>            AGE_GREATER_THAN_30 = new Predicate<User>(){
+
+        @Override
+        public boolean evaluate(User user){
+            return toInteger(PropertyUtil.<Object> getProperty(user, "age")) > 30;
+        }
+    };
+
+    /** 年龄. */
+    private static final Transformer<User, Integer> AGE                 = new Transformer<User, Integer>(){
+
+        @Override
+        public Integer transform(User user){
+            return toInteger(PropertyUtil.<Object> getProperty(user, "age"));
+        }
+    };
+
+    /**
+     * Test performance.
+     */
+    @Test
+    public void testPerformance(){
+        for (Integer size : toList(1, 10, 100, 1000, 10000, 100000, 1000000)){
+            List<User> list = CollectionsUtilParallelSelectTest.buildList(size);
+
+            Date beginDate = new Date();
+            CollectionsUtil.select(list, AGE_GREATER_THAN_30);
+            LOGGER.debug("[select]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            CollectionsUtil.selectParallel(list, AGE_GREATER_THAN_30);
+            LOGGER.debug("[selectParallel]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            CollectionsUtil.collect(list, AGE);
+            LOGGER.debug("[collect]{},use time:{}", size, formatDuration(beginDate));
+
+            beginDate = new Date();
+            CollectionsUtil.collectParallel(list, AGE);
+            LOGGER.debug("[collectParallel]{},use time:{}", size, formatDuration(beginDate));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.collectionsutiltest;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.collections4.functors.ComparatorPredicate.Criterion;
+import org.junit.Test;
+
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.core.util.predicate.BeanPredicateUtil;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+
+/**
+ * The Class CollectionsUtilParallelSelectTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class CollectionsUtilParallelSelectTest{
+
+    /** 年龄大于 30. */
+    private static final Predicate<User>           AGE_GREATER_THAN_30 = BeanPredicateUtil.comparatorPredicate("age", 30, Criterion.LESS);
+
+    /** 名字. */
+    private static final Transformer<User, String> NAME                = new Transformer<User, String>(){
+
+        @Override
+        public String transform(User user){
+            return user.getName();
+        }
+    };
+
+    /**
+     * Test select parallel.
+     */
+    @Test
+    public void testSelectParallel(){
+        List<User> list = buildList(50000);
+        assertEquals(CollectionsUtil.select(list, AGE_GREATER_THAN_30), CollectionsUtil.selectParallel(list, AGE_GREATER_THAN_30));
+        assertEquals(CollectionsUtil.selectRejected(list, AGE_GREATER_THAN_30), CollectionsUtil.selectRejectedParallel(list, AGE_GREATER_THAN_30));
+    }
+
+    /**
+     * 不是 RandomAccess 的集合,走顺序的实现.
+     */
+    @Test
+    public void testSelectParallelLinkedList(){
+        List<User> list = new LinkedList<User>(buildList(20000));
+        assertEquals(CollectionsUtil.select(list, AGE_GREATER_THAN_30), CollectionsUtil.selectParallel(list, AGE_GREATER_THAN_30));
+        assertEquals(CollectionsUtil.selectRejected(list, AGE_GREATER_THAN_30), CollectionsUtil.selectRejectedParallel(list, AGE_GREATER_THAN_30));
+    }
+
+    /**
+     * Test select parallel small.
+     */
+    @Test
+    public void testSelectParallelSmall(){
+        List<User> list = toList(new User("张飞", 23), new User("关羽", 24), new User("刘备", 35));
+        assertEquals(toList(list.get(2)), CollectionsUtil.selectParallel(list, AGE_GREATER_THAN_30));
+        assertEquals(toList(list.get(0), list.get(1)), CollectionsUtil.selectRejectedParallel(list, AGE_GREATER_THAN_30));
+    }
+
+    /**
+     * Test select parallel null or empty.
+     */
+    @Test
+    public void testSelectParallelNullOrEmpty(){
+        assertEquals(emptyList(), CollectionsUtil.selectParallel(null, AGE_GREATER_THAN_30));
+        assertEquals(emptyList(), CollectionsUtil.selectRejectedParallel(new ArrayList<User>(), AGE_GREATER_THAN_30));
+        assertEquals(emptyList(), CollectionsUtil.selectParallel(buildList(50000), null));
+        assertEquals(emptyList(), CollectionsUtil.selectRejectedParallel(buildList(50000), null));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test collect parallel.
+     */
+    @Test
+    public void testCollectParallel(){
+        List<User> list = buildList(50000);
+        assertEquals(CollectionsUtil.collect(list, NAME), CollectionsUtil.collectParallel(list, NAME));
+
+        List<User> linkedList = new LinkedList<User>(list);
+        assertEquals(CollectionsUtil.collect(linkedList, NAME), CollectionsUtil.collectParallel(linkedList, NAME));
+    }
+
+    /**
+     * Test collect parallel null or empty.
+     */
+    @Test
+    public void testCollectParallelNullOrEmpty(){
+        assertEquals(emptyList(), CollectionsUtil.collectParallel(null, NAME));
+        assertEquals(emptyList(), CollectionsUtil.collectParallel(new ArrayList<User>(), NAME));
+        assertEquals(emptyList(), CollectionsUtil.collectParallel(buildList(50000), null));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Builds the list.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    static List<User> buildList(int size){
+        List<User> list = new ArrayList<User>(size);
+        for (int i = 0; i < size; ++i){
+            list.add(new User("name" + i, i % 60));
+        }
+        return list;
+    }
+}
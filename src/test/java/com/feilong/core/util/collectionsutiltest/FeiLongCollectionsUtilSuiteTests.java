@@ -47,10 +47,13 @@ import org.junit.runners.Suite.SuiteClasses;
                 CollectionsUtilGroupWithTransformerTest.class,
                 CollectionsUtilGroupWithTransformerAndPredicateTest.class,
                 CollectionsUtilGroupOneTest.class,
+                CollectionsUtilGroupParallelTest.class,
+                CollectionsUtilGroupCompactTest.class,
 
                 CollectionsUtilSelectPredicateTest.class,
                 CollectionsUtilSelectArrayTest.class,
                 CollectionsUtilSelectCollectionTest.class,
+                CollectionsUtilParallelSelectTest.class,
 
                 CollectionsUtilSelectRejectedArrayTest.class,
                 CollectionsUtilSelectRejectedCollectionTest.class,
@@ -30,6 +30,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 MapUtilToArrayValueMapTest.class,
 
                 MapUtilGetSubMapTest.class,
+                MapUtilGetSubCompactMapTest.class,
                 MapUtilGetSubMapExcludeKeysTest.class,
 
                 MapUtilExtractSubMapTest.class,
@@ -37,6 +38,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
                 MapUtilNewHashMapTest.class,
                 MapUtilNewLinkedHashMapTest.class,
+                MapUtilToCompactMapTest.class,
 
                 MapUtilInvertMapTest.class,
 
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.maputiltest;
+
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.util.CompactMap;
+import com.feilong.core.util.MapUtil;
+
+/**
+ * The Class MapUtilGetSubCompactMapTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class MapUtilGetSubCompactMapTest{
+
+    /**
+     * Test get sub compact map.
+     */
+    @Test
+    public void testGetSubCompactMap(){
+        Map<String, Integer> map = toMap();
+
+        Map<String, Integer> subMap = MapUtil.getSubCompactMap(map, "c", "a", "f", "c");
+        assertTrue(subMap instanceof CompactMap);
+        assertThat(subMap.keySet(), contains("c", "a"));
+        assertEquals(MapUtil.getSubMap(map, "c", "a", "f", "c"), subMap);
+    }
+
+    /**
+     * Test get sub compact map null keys.
+     */
+    @Test
+    public void testGetSubCompactMapNullKeys(){
+        Map<String, Integer> map = toMap();
+        Map<String, Integer> subMap = MapUtil.getSubCompactMap(map, (String[]) null);
+        assertTrue(subMap instanceof CompactMap);
+        assertEquals(map, subMap);
+    }
+
+    /**
+     * Test get sub compact map empty keys.
+     */
+    @Test
+    public void testGetSubCompactMapEmptyKeys(){
+        Map<String, Integer> map = toMap();
+        assertEquals(map, MapUtil.getSubCompactMap(map));
+    }
+
+    /**
+     * Test get sub compact map null or empty map.
+     */
+    @Test
+    public void testGetSubCompactMapNullOrEmptyMap(){
+        assertEquals(emptyMap(), MapUtil.getSubCompactMap(null, "a", "c"));
+        assertEquals(emptyMap(), MapUtil.getSubCompactMap(new HashMap<String, Integer>(), "a", "c"));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * To map.
+     *
+     * @return the map
+     */
+    private static Map<String, Integer> toMap(){
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        map.put("a", 3007);
+        map.put("b", 3001);
+        map.put("c", 3001);
+        map.put("d", 3003);
+        return map;
+    }
+}
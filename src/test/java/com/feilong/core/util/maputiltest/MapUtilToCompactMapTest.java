@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.maputiltest;
+
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+import com.feilong.core.util.CompactMap;
+import com.feilong.core.util.MapUtil;
+
+/**
+ * The Class MapUtilToCompactMapTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class MapUtilToCompactMapTest{
+
+    /**
+     * Test to compact map.
+     */
+    @Test
+    public void testToCompactMap(){
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        map.put("name", "feilong");
+        map.put("age", "18");
+        map.put(null, "nullKey");
+        map.put("address", null);
+
+        Map<String, String> compactMap = MapUtil.toCompactMap(map);
+        assertThat(compactMap.keySet(), contains("name", "age", null, "address"));
+        assertEquals("feilong", compactMap.get("name"));
+        assertEquals("nullKey", compactMap.get(null));
+        assertNull(compactMap.get("address"));
+        assertTrue(compactMap.containsKey("address"));
+        assertFalse(compactMap.containsKey("city"));
+        assertTrue(compactMap.containsValue(null));
+        assertFalse(compactMap.containsValue("shanghai"));
+
+        assertEquals(map, compactMap);
+        assertEquals(map.hashCode(), compactMap.hashCode());
+        assertEquals(map.toString(), compactMap.toString());
+    }
+
+    /**
+     * 元素个数从顺序查找到 hash 表查找,和 {@link LinkedHashMap} 完全一致.
+     */
+    @Test
+    public void testToCompactMapSameAsLinkedHashMap(){
+        for (int size = 1; size <= 200; ++size){
+            Map<Object, Integer> map = new LinkedHashMap<Object, Integer>();
+            for (int i = 0; i < size; ++i){
+                //Integer 以及 hashCode 只有高位不同的 Long
+                map.put(0 == i % 2 ? (Object) i : (Object) ((long) i << 32), i);
+            }
+
+            Map<Object, Integer> compactMap = MapUtil.toCompactMap(map);
+            assertEquals(map, compactMap);
+            assertEquals(new ArrayList<Object>(map.keySet()), new ArrayList<Object>(compactMap.keySet()));
+            for (Object key : map.keySet()){
+                assertEquals(map.get(key), compactMap.get(key));
+            }
+            assertNull(compactMap.get(-1));
+            assertNull(compactMap.get((long) size << 32));
+        }
+    }
+
+    /**
+     * Test to compact map serializable.
+     */
+    @Test
+    public void testToCompactMapSerializable(){
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        for (int i = 0; i < 20; ++i){
+            map.put("key" + i, i);
+        }
+        Map<String, Integer> compactMap = MapUtil.toCompactMap(map);
+        assertEquals(compactMap, SerializationUtils.clone((CompactMap<String, Integer>) compactMap));
+    }
+
+    /**
+     * 模拟 key 的 hashCode 在反序列化的 jvm 里面不一样.
+     */
+    @Test
+    public void testToCompactMapSerializableRehash(){
+        Map<HashSeedKey, Integer> map = new HashMap<HashSeedKey, Integer>();
+        for (int i = 0; i < 20; ++i){
+            map.put(new HashSeedKey("key" + i), i);
+        }
+        byte[] bytes = SerializationUtils.serialize((CompactMap<HashSeedKey, Integer>) MapUtil.toCompactMap(map));
+
+        int oldSeed = HashSeedKey.seed;
+        HashSeedKey.seed = oldSeed + 12345;
+        try{
+            Map<HashSeedKey, Integer> compactMap = SerializationUtils.deserialize(bytes);
+            for (int i = 0; i < 20; ++i){
+                assertEquals((Integer) i, compactMap.get(new HashSeedKey("key" + i)));
+            }
+            assertNull(compactMap.get(new HashSeedKey("key20")));
+        }finally{
+            HashSeedKey.seed = oldSeed;
+        }
+    }
+
+    /**
+     * hashCode 受 {@link #seed} 影响的 key.
+     */
+    private static final class HashSeedKey implements Serializable{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The seed. */
+        private static int        seed             = 0;
+
+        /** The name. */
+        private final String      name;
+
+        /**
+         * Instantiates a new hash seed key.
+         *
+         * @param name
+         *            the name
+         */
+        private HashSeedKey(String name){
+            this.name = name;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode(){
+            return name.hashCode() * 31 + seed;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj){
+            return obj instanceof HashSeedKey && name.equals(((HashSeedKey) obj).name);
+        }
+    }
+
+    /**
+     * Test to compact map null or empty.
+     */
+    @Test
+    public void testToCompactMapNullOrEmpty(){
+        assertEquals(emptyMap(), MapUtil.toCompactMap(null));
+        assertEquals(emptyMap(), MapUtil.toCompactMap(new HashMap<String, String>()));
+    }
+
+    /**
+     * Test to compact map compact map.
+     */
+    @Test
+    public void testToCompactMapCompactMap(){
+        Map<String, String> compactMap = MapUtil.toCompactMap(MapUtil.getSubMap(toMap(), "name"));
+        assertSame(compactMap, MapUtil.toCompactMap(compactMap));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test to compact map put.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToCompactMapPut(){
+        MapUtil.toCompactMap(toMap()).put("age", "18");
+    }
+
+    /**
+     * Test to compact map remove.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToCompactMapRemove(){
+        MapUtil.toCompactMap(toMap()).keySet().remove("name");
+    }
+
+    /**
+     * Test to compact map clear.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToCompactMapClear(){
+        MapUtil.toCompactMap(toMap()).clear();
+    }
+
+    /**
+     * {@link CompactMap.Builder} 直接填充,包括重复的 key,和 {@link LinkedHashMap#put(Object, Object)} 完全一致.
+     */
+    @Test
+    public void testBuilderSameAsLinkedHashMap(){
+        for (int size = 0; size <= 200; ++size){
+            Map<Object, Integer> map = new LinkedHashMap<Object, Integer>();
+            CompactMap.Builder<Object, Integer> builder = new CompactMap.Builder<Object, Integer>(size % 3);
+            for (int i = 0; i < size; ++i){
+                //每 3 个元素有一个和前面的 key 重复,Integer 以及 hashCode 只有高位不同的 Long
+                int k = 0 == i % 3 ? i / 2 : i;
+                Object key = 0 == k % 2 ? (Object) k : (Object) ((long) k << 32);
+                map.put(key, i);
+                builder.put(key, i);
+            }
+
+            CompactMap<Object, Integer> compactMap = builder.build();
+            assertEquals(map, compactMap);
+            assertEquals(map.size(), compactMap.size());
+            assertEquals(new ArrayList<Object>(map.keySet()), new ArrayList<Object>(compactMap.keySet()));
+            assertEquals(new ArrayList<Integer>(map.values()), new ArrayList<Integer>(compactMap.values()));
+            for (Object key : map.keySet()){
+                assertEquals(map.get(key), compactMap.get(key));
+            }
+            assertNull(compactMap.get(-1));
+            assertEquals(compactMap, SerializationUtils.clone(compactMap));
+        }
+    }
+
+    /**
+     * Test builder put all.
+     */
+    @Test
+    public void testBuilderPutAll(){
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        map.put("name", "feilong");
+        map.put(null, "nullKey");
+        map.put("address", null);
+
+        CompactMap<String, String> compactMap = new CompactMap.Builder<String, String>().put("name", "jinxin").putAll(map).build();
+        assertThat(compactMap.keySet(), contains("name", null, "address"));
+        assertEquals(map, compactMap);
+    }
+
+    /**
+     * Test builder build twice.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderBuildTwice(){
+        CompactMap.Builder<String, String> builder = new CompactMap.Builder<String, String>();
+        builder.build();
+        builder.put("name", "feilong");
+    }
+
+    /**
+     * Test builder negative expected size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeExpectedSize(){
+        new CompactMap.Builder<String, String>(-1);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * To map.
+     *
+     * @return the map
+     */
+    private static Map<String, String> toMap(){
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("name", "feilong");
+        return map;
+    }
+}
@@ -29,6 +29,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
                 SortUtilSortArrayComparatorsTest.class,
                 SortUtilSortArrayTest.class,
+                SortUtilSortListByExtractedKeysTest.class,
                 SortUtilSortListByFixedOrderArrayPropertyValuesTest.class,
                 SortUtilSortListByFixedOrderListPropertyValuesTest.class,
                 SortUtilSortListByPropertyNamesValueTest.class,
@@ -39,6 +40,10 @@ import org.junit.runners.Suite.SuiteClasses;
                 SortUtilSortMapByValueAscTest.class,
                 SortUtilSortMapByValueDescTest.class,
                 SortUtilSortMapComparatorTest.class,
+                SortUtilSortMapEntriesTest.class,
+                SortUtilSortParallelTest.class,
+                SortUtilTopKMapTest.class,
+                SortUtilTopKTest.class,
         //
 })
 public class FeiLongSortUtilSuiteTests{
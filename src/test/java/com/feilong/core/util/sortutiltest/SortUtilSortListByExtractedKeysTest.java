@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.collections4.comparators.ReverseComparator;
+import org.junit.Test;
+
+import com.feilong.core.bean.ConvertUtil;
+import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.SortUtil.sortListByExtractedKeys;
+import static com.feilong.core.util.SortUtil.sortListByPropertyNamesValue;
+
+/**
+ * The Class SortUtilSortListByExtractedKeysTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class SortUtilSortListByExtractedKeysTest{
+
+    /**
+     * Test sort list by extracted keys.
+     */
+    @Test
+    public void testSortListByExtractedKeys(){
+        User id12 = new User(12L, 18);
+        User id2 = new User(2L, 36);
+        User id5 = new User(5L, 22);
+        User id1 = new User(1L, 8);
+        List<User> list = toList(id12, id2, id5, id1);
+
+        assertThat(sortListByExtractedKeys(list, "id"), contains(id1, id2, id5, id12));
+    }
+
+    /**
+     * Test sort list by extracted keys 2 property names.
+     */
+    @Test
+    public void testSortListByExtractedKeys2PropertyNames(){
+        User id12_age18 = new User(12L, 18);
+        User id1_age8 = new User(1L, 8);
+        User id2_age30 = new User(2L, 30);
+        User id2_age2 = new User(2L, 2);
+        User id2_age36 = new User(2L, 36);
+        List<User> list = toList(id12_age18, id2_age36, id2_age2, id2_age30, id1_age8);
+
+        sortListByExtractedKeys(list, "id", "age");
+        assertThat(list, contains(id1_age8, id2_age2, id2_age30, id2_age36, id12_age18));
+    }
+
+    /**
+     * 属性值相同的元素保持原来的顺序.
+     */
+    @Test
+    public void testSortListByExtractedKeysStable(){
+        User id2_a = new User(2L, 1);
+        User id1_a = new User(1L, 1);
+        User id2_b = new User(2L, 2);
+        User id1_b = new User(1L, 2);
+        User id2_c = new User(2L, 3);
+        List<User> list = toList(id2_a, id1_a, id2_b, id1_b, id2_c);
+
+        sortListByExtractedKeys(list, "id");
+        assertThat(list, contains(id1_a, id1_b, id2_a, id2_b, id2_c));
+    }
+
+    /**
+     * Test sort list by extracted keys with null property value.
+     */
+    @Test
+    public void testSortListByExtractedKeysWithNullPropertyValue(){
+        User u_null_id = new User((Long) null);
+        User id12 = new User(12L);
+        User id2 = new User(2L);
+        User u_null = null;
+        User id1 = new User(1L);
+
+        List<User> list = toList(u_null_id, id12, id2, u_null, id1, u_null_id);
+        sortListByExtractedKeys(list, "id");
+        assertThat(list, contains(u_null_id, u_null_id, id1, id2, id12, u_null));
+    }
+
+    /**
+     * Test sort list by extracted keys double.
+     */
+    @Test
+    public void testSortListByExtractedKeysDouble(){
+        Map.Entry<String, Double> a = new SimpleEntry<String, Double>("a", 2.5d);
+        Map.Entry<String, Double> b = new SimpleEntry<String, Double>("b", -0.0d);
+        Map.Entry<String, Double> c = new SimpleEntry<String, Double>("c", Double.NaN);
+        Map.Entry<String, Double> d = new SimpleEntry<String, Double>("d", 0.0d);
+        Map.Entry<String, Double> e = new SimpleEntry<String, Double>("e", -3d);
+        List<Map.Entry<String, Double>> list = toList(a, b, c, d, e);
+
+        sortListByExtractedKeys(list, "value");
+        assertThat(list, contains(e, b, d, a, c));
+    }
+
+    /**
+     * Test sort list by extracted keys property value convert to class.
+     */
+    @Test
+    public void testSortListByExtractedKeysPropertyValueConvertToClass(){
+        User name10 = new User("10", 1);
+        User name2 = new User("2", 2);
+        User name_1 = new User("-1", 3);
+        List<User> list = toList(name10, name2, name_1);
+
+        sortListByExtractedKeys(list, new PropertyComparator<User>("name", Integer.class));
+        assertThat(list, contains(name_1, name2, name10));
+    }
+
+    /**
+     * Test sort list by extracted keys comparator.
+     */
+    @Test
+    public void testSortListByExtractedKeysComparator(){
+        User id1_age8 = new User(1L, 8);
+        User id2_age30 = new User(2L, 30);
+        User id2_age2 = new User(2L, 2);
+        List<User> list = toList(id2_age2, id1_age8, id2_age30);
+
+        sortListByExtractedKeys(
+                        list,
+                        new PropertyComparator<User>("id", new ReverseComparator<Long>()),
+                        new PropertyComparator<User>("age"));
+        assertThat(list, contains(id2_age2, id2_age30, id1_age8));
+    }
+
+    /**
+     * 随机数据和 {@link com.feilong.core.util.SortUtil#sortListByPropertyNamesValue(List, String...)} 结果一致.
+     */
+    @Test
+    public void testSortListByExtractedKeysSameAsSortListByPropertyNamesValue(){
+        Random random = new Random(20161016L);
+        List<User> list = new ArrayList<User>();
+        for (int i = 0; i < 5000; ++i){
+            User user = new User((long) i, random.nextInt(50));
+            user.setName("name" + random.nextInt(20));
+            list.add(user);
+        }
+        Collections.shuffle(list, random);
+
+        List<User> expected = sortListByPropertyNamesValue(new ArrayList<User>(list), "name", "age", "id");
+        assertEquals(expected, sortListByExtractedKeys(new ArrayList<User>(list), "name", "age", "id"));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test sort list by extracted keys null list.
+     */
+    @Test
+    public void testSortListByExtractedKeysNullList(){
+        assertEquals(emptyList(), sortListByExtractedKeys((List<User>) null, "name", "age"));
+    }
+
+    /**
+     * Test sort list by extracted keys null property names.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSortListByExtractedKeysNullPropertyNames(){
+        sortListByExtractedKeys(toList(new User(12L, 18), new User(1L, 8)), (String[]) null);
+    }
+
+    /**
+     * Test sort list by extracted keys empty property names.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortListByExtractedKeysEmptyPropertyNames(){
+        sortListByExtractedKeys(toList(new User(12L, 18), new User(1L, 8)), ConvertUtil.<String> toArray());
+    }
+
+    /**
+     * Test sort list by extracted keys null element property names.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortListByExtractedKeysNullElementPropertyNames(){
+        sortListByExtractedKeys(toList(new User(12L, 18), new User(1L, 8)), "id", null);
+    }
+}
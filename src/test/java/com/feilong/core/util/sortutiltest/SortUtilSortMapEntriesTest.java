@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.SortUtil;
+import com.feilong.core.util.comparator.PropertyComparator;
+
+/**
+ * The Class SortUtilSortMapEntriesTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class SortUtilSortMapEntriesTest{
+
+    /**
+     * Test sort map entries by value desc.
+     */
+    @Test
+    public void testSortMapEntriesByValueDesc(){
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        map.put("a", 123);
+        map.put("c", 345);
+        map.put("b", 8);
+
+        List<Map.Entry<String, Integer>> list = SortUtil.sortMapEntriesByValueDesc(map);
+        assertEquals(entry("c", 345), list.get(0));
+        assertEquals(entry("a", 123), list.get(1));
+        assertEquals(entry("b", 8), list.get(2));
+    }
+
+    /**
+     * 和 sortMap 的顺序一致,并且就是 map 自己的 entry.
+     */
+    @Test
+    public void testSortMapEntriesSameAsSortMap(){
+        Random random = new Random(20161017L);
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        for (int i = 0; i < 5000; ++i){
+            map.put("word" + i, random.nextInt(300));
+        }
+
+        assertEquals(
+                        new ArrayList<Map.Entry<String, Integer>>(SortUtil.sortMapByValueDesc(map).entrySet()),
+                        SortUtil.sortMapEntriesByValueDesc(map));
+        assertEquals(
+                        new ArrayList<Map.Entry<String, Integer>>(SortUtil.sortMapByValueAsc(map).entrySet()),
+                        SortUtil.sortMapEntriesByValueAsc(map));
+
+        Map.Entry<String, Integer> first = SortUtil.sortMapEntriesByValueAsc(map).get(0);
+        for (Map.Entry<String, Integer> entry : map.entrySet()){
+            if (entry.getKey().equals(first.getKey())){
+                assertSame(entry, first);
+            }
+        }
+    }
+
+    /**
+     * entry 的 setValue 会直接修改原 map.
+     */
+    @Test
+    public void testSortMapEntriesSetValueWritesThrough(){
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        map.put("a", 123);
+        map.put("c", 345);
+        map.put("b", 8);
+
+        SortUtil.sortMapEntriesByValueDesc(map).get(0).setValue(1);
+        assertEquals((Integer) 1, map.get("c"));
+    }
+
+    /**
+     * Test sort map entries null.
+     */
+    @Test
+    public void testSortMapEntriesNull(){
+        assertEquals(emptyList(), SortUtil.sortMapEntriesByValueDesc((Map<String, Integer>) null));
+        assertEquals(emptyList(), SortUtil.sortMapEntriesByValueAsc(new HashMap<String, Integer>()));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test sort map entries unmodifiable.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSortMapEntriesUnmodifiable(){
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        map.put("a", 1);
+        SortUtil.sortMapEntries(map, new PropertyComparator<Map.Entry<String, Integer>>("key")).remove(0);
+    }
+
+    /**
+     * Test sort map entries null comparator.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSortMapEntriesNullComparator(){
+        SortUtil.sortMapEntries(new HashMap<String, Integer>(), null);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Entry.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @return the map. entry
+     */
+    private static Map.Entry<String, Integer> entry(String key,Integer value){
+        return new AbstractMap.SimpleImmutableEntry<String, Integer>(key, value);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.SortUtil.sortArray;
+import static com.feilong.core.util.SortUtil.sortArrayParallel;
+import static com.feilong.core.util.SortUtil.sortList;
+import static com.feilong.core.util.SortUtil.sortListByExtractedKeys;
+import static com.feilong.core.util.SortUtil.sortListByExtractedKeysParallel;
+import static com.feilong.core.util.SortUtil.sortListParallel;
+
+/**
+ * The Class SortUtilSortParallelTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class SortUtilSortParallelTest{
+
+    /** 只比较 age,age 相同的 user 比较结果是0. */
+    private static final Comparator<User> AGE_COMPARATOR = new Comparator<User>(){
+
+        @Override
+        public int compare(User user1,User user2){
+            return user1.getAge().compareTo(user2.getAge());
+        }
+    };
+
+    /**
+     * Test sort array parallel.
+     */
+    @Test
+    public void testSortArrayParallel(){
+        List<User> list = buildList(50000);
+        User[] expected = sortArray(list.toArray(new User[list.size()]), AGE_COMPARATOR);
+        User[] actual = sortArrayParallel(list.toArray(new User[list.size()]), AGE_COMPARATOR);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Test sort list parallel.
+     */
+    @Test
+    public void testSortListParallel(){
+        List<User> list = buildList(50000);
+        List<User> expected = sortList(new ArrayList<User>(list), AGE_COMPARATOR, new PropertyComparator<User>("name"));
+        assertEquals(expected, sortListParallel(new ArrayList<User>(list), AGE_COMPARATOR, new PropertyComparator<User>("name")));
+        assertEquals(expected, sortListParallel(new LinkedList<User>(list), AGE_COMPARATOR, new PropertyComparator<User>("name")));
+    }
+
+    /**
+     * Test sort list by extracted keys parallel.
+     */
+    @Test
+    public void testSortListByExtractedKeysParallel(){
+        List<User> list = buildList(50000);
+        list.set(100, null);
+
+        List<User> expected = sortListByExtractedKeys(new ArrayList<User>(list), "age", "name");
+        assertEquals(expected, sortListByExtractedKeysParallel(new ArrayList<User>(list), "age", "name"));
+        assertEquals(
+                        expected,
+                        sortListByExtractedKeysParallel(
+                                        new ArrayList<User>(list),
+                                        new PropertyComparator<User>("age"),
+                                        new PropertyComparator<User>("name")));
+    }
+
+    /**
+     * 元素个数没有达到并行阈值.
+     */
+    @Test
+    public void testSortListParallelSmall(){
+        User id12 = new User(12L, 18);
+        User id2 = new User(2L, 36);
+        User id1 = new User(1L, 8);
+        List<User> list = toList(id12, id2, id1);
+
+        assertThat(sortListParallel(list, new PropertyComparator<User>("id")), contains(id1, id2, id12));
+        assertThat(sortListByExtractedKeysParallel(list, "age"), contains(id1, id12, id2));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test sort parallel null.
+     */
+    @Test
+    public void testSortParallelNull(){
+        assertEquals(emptyList(), sortListParallel((List<User>) null, AGE_COMPARATOR));
+        assertEquals(emptyList(), sortListByExtractedKeysParallel((List<User>) null, "age"));
+    }
+
+    /**
+     * Test sort parallel empty comparators.
+     */
+    @Test
+    public void testSortParallelEmptyComparators(){
+        List<User> list = buildList(10000);
+        List<User> copy = new ArrayList<User>(list);
+        assertSame(list, sortListParallel(list));
+        assertEquals(copy, list);
+    }
+
+    /**
+     * Test sort list by extracted keys parallel null property names.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSortListByExtractedKeysParallelNullPropertyNames(){
+        sortListByExtractedKeysParallel(buildList(10), (String[]) null);
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Builds the list.
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    private static List<User> buildList(int size){
+        Random random = new Random(size);
+        List<User> list = new ArrayList<User>(size);
+        for (int i = 0; i < size; ++i){
+            User user = new User((long) i, random.nextInt(100));
+            user.setName("name" + random.nextInt(1000));
+            list.add(user);
+        }
+        return list;
+    }
+}
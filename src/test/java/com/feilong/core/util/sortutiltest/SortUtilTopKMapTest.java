@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.SortUtil;
+import com.feilong.core.util.comparator.PropertyComparator;
+
+/**
+ * The Class SortUtilTopKMapTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class SortUtilTopKMapTest{
+
+    /**
+     * Test top K map by value desc.
+     */
+    @Test
+    public void testTopKMapByValueDesc(){
+        Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+        map.put("a", 123);
+        map.put("c", 345);
+        map.put("b", 8);
+        map.put("d", 200);
+
+        Map<String, Integer> topMap = SortUtil.topKMapByValueDesc(map, 2);
+        assertThat(topMap.keySet(), contains("c", "d"));
+        assertEquals(Integer.valueOf(345), topMap.get("c"));
+        assertThat(map.keySet(), contains("a", "c", "b", "d"));
+    }
+
+    /**
+     * Test top K map by value asc.
+     */
+    @Test
+    public void testTopKMapByValueAsc(){
+        Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+        map.put("a", 123);
+        map.put("c", 345);
+        map.put("b", 8);
+
+        assertThat(SortUtil.topKMapByValueAsc(map, 2).keySet(), contains("b", "a"));
+        assertThat(SortUtil.topKMapByValueAsc(map, 10).keySet(), contains("b", "a", "c"));
+    }
+
+    /**
+     * Test top K map by key.
+     */
+    @Test
+    public void testTopKMapByKey(){
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        map.put("a", 123);
+        map.put("c", 345);
+        map.put("b", 8);
+        map.put("d", 1);
+
+        assertThat(SortUtil.topKMapByKeyAsc(map, 2).keySet(), contains("a", "b"));
+        assertThat(SortUtil.topKMapByKeyDesc(map, 3).keySet(), contains("d", "c", "b"));
+    }
+
+    /**
+     * 和 sortMap 的前 k 个 entry 一致,包括很多相同的 value.
+     */
+    @Test
+    public void testTopKMapSameAsSortMap(){
+        Random random = new Random(20161017L);
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        for (int i = 0; i < 5000; ++i){
+            map.put("word" + i, random.nextInt(300));
+        }
+
+        for (int k : new int[] { 1, 10, 100, 2499, 2500, 5000, 6000 }){
+            assertTopK(SortUtil.sortMapByValueDesc(map), SortUtil.topKMapByValueDesc(map, k), k);
+            assertTopK(SortUtil.sortMapByValueAsc(map), SortUtil.topKMapByValueAsc(map, k), k);
+            assertTopK(SortUtil.sortMapByKeyDesc(map), SortUtil.topKMapByKeyDesc(map, k), k);
+        }
+    }
+
+    /**
+     * Test top K map null or zero.
+     */
+    @Test
+    public void testTopKMapNullOrZero(){
+        assertEquals(emptyMap(), SortUtil.topKMapByValueDesc((Map<String, Integer>) null, 10));
+        assertEquals(emptyMap(), SortUtil.topKMapByKeyAsc(toMap(), 0));
+        assertEquals(emptyMap(), SortUtil.topKMapByValueAsc(new HashMap<String, Integer>(), 3));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test top K map negative K.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopKMapNegativeK(){
+        SortUtil.topKMapByValueDesc(toMap(), -1);
+    }
+
+    /**
+     * Test top K map null comparator.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testTopKMapNullComparator(){
+        SortUtil.topKMap(toMap(), 1, null);
+    }
+
+    /**
+     * Test top K map comparator.
+     */
+    @Test
+    public void testTopKMapComparator(){
+        Map<String, Integer> map = toMap();
+        map.put("bb", 2);
+        assertThat(SortUtil.topKMap(map, 1, new PropertyComparator<Map.Entry<String, Integer>>("value")).keySet(), contains("a"));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * To map.
+     *
+     * @return the map
+     */
+    private static Map<String, Integer> toMap(){
+        Map<String, Integer> map = new HashMap<String, Integer>();
+        map.put("a", 1);
+        return map;
+    }
+
+    /**
+     * <code>topMap</code> 是 <code>sortedMap</code> 的前 <code>k</code> 个 entry.
+     *
+     * @param sortedMap
+     *            the sorted map
+     * @param topMap
+     *            the top map
+     * @param k
+     *            the k
+     */
+    private static void assertTopK(Map<String, Integer> sortedMap,Map<String, Integer> topMap,int k){
+        List<Map.Entry<String, Integer>> expected = new ArrayList<Map.Entry<String, Integer>>(sortedMap.entrySet());
+        expected = expected.subList(0, Math.min(k, expected.size()));
+        assertEquals(expected, new ArrayList<Map.Entry<String, Integer>>(topMap.entrySet()));
+    }
+}
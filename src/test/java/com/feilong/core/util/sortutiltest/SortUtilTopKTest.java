@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.collections4.comparators.ReverseComparator;
+import org.junit.Test;
+
+import com.feilong.core.bean.ConvertUtil;
+import com.feilong.core.util.comparator.PropertyComparator;
+import com.feilong.test.User;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.SortUtil.sortList;
+import static com.feilong.core.util.SortUtil.topK;
+import static com.feilong.core.util.SortUtil.topKByPropertyNamesValue;
+
+/**
+ * The Class SortUtilTopKTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class SortUtilTopKTest{
+
+    /** 只比较 age,age 相同的 user 比较结果是0. */
+    private static final Comparator<User> AGE_COMPARATOR = new Comparator<User>(){
+
+        @Override
+        public int compare(User user1,User user2){
+            return user1.getAge().compareTo(user2.getAge());
+        }
+    };
+
+    /**
+     * Test top K.
+     */
+    @Test
+    public void testTopK(){
+        User id12 = new User(12L, 18);
+        User id2 = new User(2L, 36);
+        User id5 = new User(5L, 22);
+        User id1 = new User(1L, 8);
+        List<User> list = toList(id12, id2, id5, id1);
+
+        assertThat(topK(list, 1, new PropertyComparator<User>("id")), contains(id1));
+        assertThat(topK(list, 3, new PropertyComparator<User>("id")), contains(id1, id2, id5));
+        assertThat(topK(list, 10, new PropertyComparator<User>("id")), contains(id1, id2, id5, id12));
+
+        //原 list 顺序不变
+        assertThat(list, contains(id12, id2, id5, id1));
+    }
+
+    /**
+     * Test top K reverse comparator.
+     */
+    @Test
+    public void testTopKReverseComparator(){
+        User id12 = new User(12L, 18);
+        User id2 = new User(2L, 36);
+        User id5 = new User(5L, 22);
+        User id1 = new User(1L, 8);
+        User id3 = new User(3L, 9);
+        List<User> list = toList(id12, id2, id5, id1, id3);
+
+        assertThat(topK(list, 2, new ReverseComparator<User>(new PropertyComparator<User>("age"))), contains(id2, id5));
+    }
+
+    /**
+     * Test top K by property names value.
+     */
+    @Test
+    public void testTopKByPropertyNamesValue(){
+        User id12_age18 = new User(12L, 18);
+        User id2_age8 = new User(2L, 8);
+        User id1_age8 = new User(1L, 8);
+        User id4_age36 = new User(4L, 36);
+        User id3_age2 = new User(3L, 2);
+        List<User> list = toList(id12_age18, id4_age36, id2_age8, id1_age8, id3_age2);
+
+        assertThat(topKByPropertyNamesValue(list, 2, "age", "id"), contains(id3_age2, id1_age8));
+        assertThat(topKByPropertyNamesValue(list, 2, "id"), contains(id1_age8, id2_age8));
+    }
+
+    /**
+     * 比较结果相同的元素,先出现的排在前面,和稳定排序的结果一致.
+     */
+    @Test
+    public void testTopKSameAsSortList(){
+        Random random = new Random(20161016L);
+        List<User> list = new ArrayList<User>();
+        for (int i = 0; i < 3000; ++i){
+            list.add(new User((long) i, random.nextInt(30)));
+        }
+
+        List<User> sortedList = sortList(new ArrayList<User>(list), AGE_COMPARATOR);
+        for (Integer k : toList(1, 5, 50, 100, 500, 1499, 1500, 2999, 3000, 5000)){
+            List<User> expected = sortedList.subList(0, Math.min(k, sortedList.size()));
+            assertEquals(expected, topK(list, k, AGE_COMPARATOR));
+            //不是 Collection,总是使用堆
+            assertEquals(expected, topK(toIterable(list), k, AGE_COMPARATOR));
+        }
+    }
+
+    /**
+     * Test top K comparators.
+     */
+    @Test
+    public void testTopKComparators(){
+        User id12_age18 = new User(12L, 18);
+        User id2_age8 = new User(2L, 8);
+        User id1_age8 = new User(1L, 8);
+        List<User> list = toList(id12_age18, id2_age8, id1_age8);
+
+        assertThat(topK(toIterable(list), 2, AGE_COMPARATOR, new PropertyComparator<User>("id")), contains(id1_age8, id2_age8));
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * Test top K null iterable.
+     */
+    @Test
+    public void testTopKNullIterable(){
+        assertEquals(emptyList(), topK(null, 2, AGE_COMPARATOR));
+        assertEquals(emptyList(), topKByPropertyNamesValue(null, 2, "id"));
+    }
+
+    /**
+     * Test top K zero.
+     */
+    @Test
+    public void testTopKZero(){
+        assertEquals(emptyList(), topK(toList(new User(1L, 8)), 0, AGE_COMPARATOR));
+    }
+
+    /**
+     * Test top K negative.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopKNegative(){
+        topK(toList(new User(1L, 8)), -1, AGE_COMPARATOR);
+    }
+
+    /**
+     * Test top K null comparators.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testTopKNullComparators(){
+        topK(toList(new User(1L, 8)), 1, (Comparator<User>[]) null);
+    }
+
+    /**
+     * Test top K empty comparators.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopKEmptyComparators(){
+        topK(toList(new User(1L, 8)), 1);
+    }
+
+    /**
+     * Test top K by property names value empty property names.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopKByPropertyNamesValueEmptyPropertyNames(){
+        topKByPropertyNamesValue(toList(new User(1L, 8)), 1, ConvertUtil.<String> toArray());
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 包装成不是 {@link java.util.Collection} 的 {@link Iterable}.
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @return the iterable
+     */
+    private static <T> Iterable<T> toIterable(final List<T> list){
+        return new Iterable<T>(){
+
+            @Override
+            public Iterator<T> iterator(){
+                return list.iterator();
+            }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 自己加载指定类的 {@link ClassLoader},模拟 web 应用的 ClassLoader,用来验证缓存不会造成 ClassLoader 泄漏.
+ * 
+ * <p>
+ * 指定的类从父 ClassLoader 的 classpath 里面读取字节码,由自己重新定义(和父 ClassLoader 里面的同名类不是同一个类),其余的类委托给父 ClassLoader.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.9.2
+ */
+public class IsolatedClassLoader extends ClassLoader{
+
+    /** 由自己定义的类名. */
+    private final Set<String> classNames = new HashSet<String>();
+
+    /**
+     * Instantiates a new isolated class loader.
+     *
+     * @param classes
+     *            需要自己重新定义的类
+     */
+    public IsolatedClassLoader(Class<?>...classes){
+        super(IsolatedClassLoader.class.getClassLoader());
+        for (Class<?> klass : classes){
+            classNames.add(klass.getName());
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.ClassLoader#loadClass(java.lang.String, boolean)
+     */
+    @Override
+    protected Class<?> loadClass(String name,boolean resolve) throws ClassNotFoundException{
+        if (!classNames.contains(name)){
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)){
+            Class<?> klass = findLoadedClass(name);
+            if (null == klass){
+                byte[] bytes = readClassBytes(name);
+                klass = defineClass(name, bytes, 0, bytes.length);
+            }
+            if (resolve){
+                resolveClass(klass);
+            }
+            return klass;
+        }
+    }
+
+    /**
+     * 读取 <code>name</code> 的字节码.
+     *
+     * @param name
+     *            the name
+     * @return the byte[]
+     * @throws ClassNotFoundException
+     *             the class not found exception
+     */
+    private byte[] readClassBytes(String name) throws ClassNotFoundException{
+        InputStream inputStream = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+        if (null == inputStream){
+            throw new ClassNotFoundException(name);
+        }
+        try{
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int length = inputStream.read(buffer); length != -1; length = inputStream.read(buffer)){
+                byteArrayOutputStream.write(buffer, 0, length);
+            }
+            return byteArrayOutputStream.toByteArray();
+        }catch (IOException e){
+            throw new ClassNotFoundException(name, e);
+        }finally{
+            try{
+                inputStream.close();
+            }catch (IOException e){
+                //ignore
+            }
+        }
+    }
+
+    //*****************************************************************************************
+
+    /**
+     * 多次触发 gc,判断 <code>reference</code> 引用的对象是否被回收.
+     * 
+     * <p>
+     * {@link java.beans.PropertyDescriptor} 使用软引用持有 {@link java.lang.reflect.Method},软引用只有在内存不足的时候才会清理,所以每次 gc 之前先制造一次
+     * {@link OutOfMemoryError},jvm 保证抛出之前清理所有的软引用.
+     * </p>
+     *
+     * @param reference
+     *            the reference
+     * @return 如果被回收了,返回true
+     */
+    public static boolean isCollected(Reference<?> reference){
+        for (int i = 0; i < 10; ++i){
+            clearSoftReferences();
+            System.gc();
+            if (null == reference.get()){
+                return true;
+            }
+            try{
+                Thread.sleep(20);
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return null == reference.get();
+    }
+
+    /**
+     * 申请超过 jvm 最大内存的数组,触发 {@link OutOfMemoryError},清理所有的软引用.
+     */
+    private static void clearSoftReferences(){
+        int length = (int) Math.min(Integer.MAX_VALUE - 16, Runtime.getRuntime().maxMemory() / 8 + 1);
+        List<long[]> list = new ArrayList<long[]>();
+        try{
+            while (true){
+                list.add(new long[length]);
+            }
+        }catch (OutOfMemoryError e){
+            list.clear();
+        }
+    }
+}